@@ -165,6 +165,12 @@ public class Properties {
 	@Parameter(key = "apply_smart_seed", group = "Test Creation", description = "let evosuite++ sample seed from dynamically generated seeds")
 	public static boolean APPLY_SMART_SEED = false;
 	
+	@Parameter(key = "branchwise_pool_cache_size", group = "Test Creation", description = "Maximum number of branches for which smart seeding keeps branch-wise constant pools, the least recently used ones are evicted")
+	public static int BRANCHWISE_POOL_CACHE_SIZE = 1000;
+	
+	@Parameter(key = "branchwise_pool_size", group = "Test Creation", description = "Maximum number of constants of each type in a branch-wise constant pool of smart seeding")
+	public static int BRANCHWISE_POOL_SIZE = 10;
+	
 	@Parameter(key = "apply_char_pool", group = "Test Creation", description = "let evosuite++ apply char pool")
 	public static boolean APPLY_CHAR_POOL = false;
 	
@@ -174,6 +180,9 @@ public class Properties {
 	@Parameter(key = "dynamic_sensitivity_threshold", group = "Test Creation", description = "the number of times to test sensitivity and value change of an operand regarding a method input")
 	public static final int DYNAMIC_SENSITIVITY_THRESHOLD = 10;
 	
+	@Parameter(key = "batch_sensitivity_probes", group = "Test Creation", description = "Mutate the inputs of all probes of a sensitivity analysis before executing them in one pass, and reuse the observations of identical probes across generations")
+	public static boolean BATCH_SENSITIVITY_PROBES = false;
+	
 	@Parameter(key = "fast_channel_score_threshold", group = "Test Creation", description = "evaluate whether a computation path is fast channel")
 	public static double FAST_CHANNEL_SCORE_THRESHOLD = 0.5;
 	
@@ -387,12 +396,17 @@ public class Properties {
 	public enum RankingType {
 		// Preference sorting is the ranking strategy proposed in
 		PREFERENCE_SORTING, 
-		FAST_NON_DOMINATED_SORTING
+		FAST_NON_DOMINATED_SORTING,
+		// Same fronts as FAST_NON_DOMINATED_SORTING, computed with fewer dominance tests
+		EFFICIENT_NON_DOMINATED_SORTING
 	}
 
 	@Parameter(key = "ranking_type", group = "Runtime", description = "type of ranking to use in MOSA")
 	public static RankingType RANKING_TYPE = RankingType.PREFERENCE_SORTING;
 
+	@Parameter(key = "goal_indexed_fitness", group = "Search Algorithm", description = "In MOSA and DynaMOSA, set the fitness of a test for the branches of methods its execution did not enter without looking through its trace")
+	public static boolean GOAL_INDEXED_FITNESS = false;
+
 	@Parameter(key = "algorithm", group = "Search Algorithm", description = "Search algorithm")
 	public static Algorithm ALGORITHM = Algorithm.MONOTONIC_GA;
 
@@ -465,6 +479,9 @@ public class Properties {
 	@Parameter(key = "dse_variable_resets", group = "DSE", description = "Times DSE resets the int and real variables with random values")
 	public static int DSE_VARIABLE_RESETS = 2;
 
+	@Parameter(key = "dse_compiled_constraints", group = "DSE", description = "Compile the integer and real constraints of a query into programs for the AVM, and only evaluate the constraints containing the variable the AVM changed")
+	public static boolean DSE_COMPILED_CONSTRAINTS = false;
+
 	public enum DSEType {
 		/** apply DSE per statement */
 		STATEMENT,
@@ -482,10 +499,10 @@ public class Properties {
 	public static boolean DSE_KEEP_ALL_TESTS = false;
 
 	public enum SolverType {
-		EVOSUITE_SOLVER, Z3_SOLVER, CVC4_SOLVER;
+		EVOSUITE_SOLVER, Z3_SOLVER, CVC4_SOLVER, PORTFOLIO_SOLVER;
 	}
 
-	@Parameter(key = "dse_solver", group = "DSE", description = "Specify which constraint solver to use. Note: external solver will need to be installed and cofigured separately")
+	@Parameter(key = "dse_solver", group = "DSE", description = "Specify which constraint solver to use. Note: external solver will need to be installed and cofigured separately. PORTFOLIO_SOLVER runs the solvers in dse_portfolio concurrently")
 	public static SolverType DSE_SOLVER = SolverType.EVOSUITE_SOLVER;
 
 	@Parameter(key = "z3_path", group = "DSE", description = "Indicates the path to the Z3 solver")
@@ -494,6 +511,32 @@ public class Properties {
 	@Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
 	public static String CVC4_PATH = null;
 
+	@Parameter(key = "dse_solver_cache_size", group = "DSE", description = "Maximum number of solver results kept in the cache, where the least recently used results are evicted first")
+	public static int DSE_SOLVER_CACHE_SIZE = 10000;
+
+	@Parameter(key = "dse_solver_cache_dir", group = "DSE", description = "Directory in which SAT and UNSAT results of the solver are kept across runs on the same target class. Results are only kept in memory if empty")
+	public static String DSE_SOLVER_CACHE_DIR = "";
+
+	@Parameter(key = "smt_solver_sessions", group = "DSE", description = "Number of Z3 or CVC4 processes that are kept alive and reused for queries, where each process only gets the constraints in which a query differs from its previous one. A new process is started for each query if 0")
+	public static int SMT_SOLVER_SESSIONS = 0;
+
+	@Parameter(key = "dse_constraint_slicing", group = "DSE", description = "Split queries into parts that share no variables, and only solve the parts that do not hold for the current concrete values. Replaces the cone of influence reduction of the negated branch condition")
+	public static boolean DSE_CONSTRAINT_SLICING = false;
+
+	@Parameter(key = "dse_portfolio", group = "DSE", description = "Solvers the PORTFOLIO_SOLVER runs concurrently on each query, where the first SAT or UNSAT answer is taken. Z3 and CVC4 are skipped if their path is not set")
+	public static SolverType[] DSE_PORTFOLIO = new SolverType[] { SolverType.EVOSUITE_SOLVER, SolverType.Z3_SOLVER,
+			SolverType.CVC4_SOLVER };
+
+	@Parameter(key = "dse_portfolio_min_win_rate", group = "DSE", description = "Solvers of the portfolio that win less than this ratio of the queries they run on are no longer used for the current class")
+	@DoubleValue(min = 0.0, max = 1.0)
+	public static double DSE_PORTFOLIO_MIN_WIN_RATE = 0.05;
+
+	@Parameter(key = "dse_expression_interning", group = "DSE", description = "Share structurally equal symbolic expressions within a concolic execution, so that path conditions do not contain copies of the same subterms")
+	public static boolean DSE_EXPRESSION_INTERNING = false;
+
+	@Parameter(key = "dse_workers", group = "DSE", description = "Number of threads on which the DSE algorithm solves the queries of its frontier of branch conditions to negate concurrently. Path conditions are explored one at a time if 0")
+	public static int DSE_WORKERS = 0;
+
 
 	// --------- LS ---------
 
@@ -1243,6 +1286,33 @@ public class Properties {
 	@Parameter(key = "branch_eval", description = "Jeremy's branch evaluation")
 	public static boolean BRANCH_EVAL = false;
 
+	@Parameter(key = "dense_branch_trace", description = "Store branch distances and execution counts of the execution trace in arrays indexed by branch id rather than in maps")
+	public static boolean DENSE_BRANCH_TRACE = false;
+
+	@Parameter(key = "fast_branch_probes", description = "Record branch distances in preallocated per-thread buffers and merge them into the execution trace only when the execution ends. Only used when no per-call or per-context branch information is needed")
+	public static boolean FAST_BRANCH_PROBES = false;
+
+	@Parameter(key = "test_prefix_snapshots", description = "Keep the state of test executions whose final statements are side effect free, and resume the execution of a changed test from the first changed statement where possible")
+	public static boolean TEST_PREFIX_SNAPSHOTS = false;
+
+	@Parameter(key = "unmocked_execution_workers", description = "Opt-in mode for runs without the mocked environment: number of worker threads that execute the changed tests of a population concurrently, each with its own copy of the instrumented classes. The workers share the runtime, so they are not used with the default configuration, only if there are no execution observers, replace_calls, virtual_fs, virtual_net, jee, sandbox, reset_static_fields, replace_system_in, replace_gui and apply_smart_seed are off, and max_loop_iterations is negative")
+	public static int UNMOCKED_EXECUTION_WORKERS = 1;
+
+	@Parameter(key = "execution_result_cache_size", description = "Maximum number of execution results that are kept to be reused for structurally identical tests. The cache is not used if 0, if there are execution observers, or with apply_smart_seed")
+	public static int EXECUTION_RESULT_CACHE_SIZE = 0;
+
+	@Parameter(key = "copy_on_write_tests", description = "Share the test case and execution result of a cloned test chromosome with the original, and only copy them once one of the two changes its test")
+	public static boolean COPY_ON_WRITE_TESTS = false;
+
+	@Parameter(key = "instrumentation_cache_dir", description = "Directory in which the instrumented bytes of classes that are neither analyzed nor transformed, and the control dependences of the analyzed methods, are cached across runs. The cache is not used if empty")
+	public static String INSTRUMENTATION_CACHE_DIR = "";
+
+	@Parameter(key = "precomputed_approach_levels", description = "Determine the approach levels of branch coverage goals from tables of their transitive control dependences, which are computed once per branch, rather than by following the control dependences for each method call. The tables always use the shortest control dependence chain")
+	public static boolean PRECOMPUTED_APPROACH_LEVELS = false;
+
+	@Parameter(key = "dataflow_analysis_threads", description = "Number of threads that analyze the data flow of the branches of the target method concurrently, after the called methods have been summarized")
+	public static int DATAFLOW_ANALYSIS_THREADS = 1;
+
 	@Parameter(key = "branch_statement", description = "Require statement coverage for branch coverage")
 	public static boolean BRANCH_STATEMENT = false;
 
@@ -2227,6 +2297,17 @@ public class Properties {
 				}
 
 				f.set(this, criteria);
+			} else if (f.getType().getComponentType().equals(SolverType.class)) {
+				String[] values = value.split(":");
+				SolverType[] solvers = new SolverType[values.length];
+
+				int pos = 0;
+				for (String stringValue : values) {
+					solvers[pos++] = Enum.valueOf(SolverType.class,
+							stringValue.toUpperCase());
+				}
+
+				f.set(this, solvers);
 			}
 		} else {
 			f.set(null, value);
@@ -40,6 +40,7 @@ import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.graphs.GraphPool;
 import org.evosuite.graphs.cfg.BytecodeInstructionPool;
 import org.evosuite.graphs.cfg.CFGMethodAdapter;
+import org.evosuite.graphs.interprocedural.CalleeSummary;
 import org.evosuite.instrumentation.InstrumentingClassLoader;
 import org.evosuite.instrumentation.LinePool;
 import org.evosuite.runtime.Runtime;
@@ -53,12 +54,15 @@ import org.evosuite.runtime.util.SystemInUtil;
 import org.evosuite.seeding.CastClassManager;
 import org.evosuite.seeding.ConstantPoolManager;
 import org.evosuite.seeding.ObjectPoolManager;
+import org.evosuite.seeding.smart.BranchwiseConstantPoolManager;
+import org.evosuite.seeding.smart.SensitivityMutator;
 import org.evosuite.setup.ConcreteClassAnalyzer;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.setup.TestClusterGenerator;
 import org.evosuite.symbolic.DSEStats;
 import org.evosuite.testcarver.extraction.CarvingManager;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
@@ -183,6 +187,7 @@ public class TestGenerationContext {
 		// TODO: Clear only pool of current classloader?
 		GraphPool.clearAll();
 		DefUsePool.clear();
+		CalleeSummary.clear();
 
 		// TODO: This is not nice
 		for (ClassLoader cl : CFGMethodAdapter.methods.keySet())
@@ -214,6 +219,8 @@ public class TestGenerationContext {
 		ConstantPoolManager.getInstance().reset();
 		ObjectPoolManager.getInstance().reset();
 		CarvingManager.getInstance().clear();
+		BranchwiseConstantPoolManager.reset();
+		SensitivityMutator.clearProbeCache();
 
 		// TODO: Why are we doing this?
 		if (Properties.INSTRUMENT_CONTEXT || ArrayUtil.contains(Properties.CRITERION, Properties.Criterion.DEFUSE)
@@ -244,6 +251,7 @@ public class TestGenerationContext {
 		JOptionPaneInputs.resetSingleton();
 		Runtime.resetSingleton();
 		MethodCallReplacementCache.resetSingleton();
+		ExecutionResultCache.resetSingleton();
 
 		Injector.reset();
 
@@ -40,8 +40,11 @@ import org.evosuite.coverage.FitnessFunctions;
 import org.evosuite.coverage.TestFitnessFactory;
 import org.evosuite.coverage.dataflow.DefUseCoverageSuiteFitness;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.ga.metaheuristics.mosa.structural.GoalIndex;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.graphs.interprocedural.InterproceduralGraphAnalysis;
+import org.evosuite.instrumentation.InstrumentedClassCache;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
 import org.evosuite.junit.JUnitAnalyzer;
 import org.evosuite.junit.writer.TestSuiteWriter;
 import org.evosuite.regression.RegressionSuiteMinimizer;
@@ -52,8 +55,11 @@ import org.evosuite.rmi.ClientServices;
 import org.evosuite.rmi.service.ClientState;
 import org.evosuite.runtime.LoopCounter;
 import org.evosuite.runtime.sandbox.PermissionStatistics;
+import org.evosuite.seeding.ConstantPoolManager;
 import org.evosuite.seeding.ObjectPool;
 import org.evosuite.seeding.ObjectPoolManager;
+import org.evosuite.seeding.StaticConstantPool;
+import org.evosuite.seeding.smart.BranchwiseConstantPoolManager;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.ExceptionMapGenerator;
 import org.evosuite.setup.TestCluster;
@@ -68,6 +74,7 @@ import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.EvosuiteError;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testcase.execution.ExecutionTrace;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testcase.execution.TestCaseExecutor;
@@ -213,6 +220,10 @@ public class TestSuiteGenerator {
 			LoopCounter.getInstance().setActive(true);
 		}
 
+		ClientServices.track(RuntimeVariable.Startup_Time, System.currentTimeMillis() - startTime);
+		ClientServices.track(RuntimeVariable.Instrumentation_Time, InstrumentingClassLoader.getInstrumentationTime());
+		ClientServices.track(RuntimeVariable.Instrumentation_Cache_Hits, InstrumentedClassCache.getHits());
+
 		/*
 		 * Initialises the object pool with objects carved from SELECTED_JUNIT classes
 		 */
@@ -718,6 +729,17 @@ public class TestSuiteGenerator {
 		TestGenerationStrategy strategy = TestSuiteGeneratorHelper.getTestGenerationStrategy();
 		TestSuiteChromosome testSuite = strategy.generateTests();
 
+		ClientServices.track(RuntimeVariable.Constant_Pool_Memory,
+				ConstantPoolManager.getInstance().getStaticPoolMemoryUsage());
+		ClientServices.track(RuntimeVariable.Constant_Pool_Sampling_Time, StaticConstantPool.getAverageSamplingTime());
+		ClientServices.track(RuntimeVariable.Branchwise_Pool_Memory, BranchwiseConstantPoolManager.getMaxMemoryUsage());
+		ClientServices.track(RuntimeVariable.Branchwise_Pool_Evictions, BranchwiseConstantPoolManager.getEvictions());
+		ClientServices.track(RuntimeVariable.Skipped_Goal_Evaluations, GoalIndex.getSkippedEvaluations());
+		if (Properties.EXECUTION_RESULT_CACHE_SIZE > 0) {
+			ClientServices.track(RuntimeVariable.Execution_Cache_Hit_Rate, ExecutionResultCache.getHitRate());
+			ClientServices.track(RuntimeVariable.Execution_Cache_Saved_Time, ExecutionResultCache.getSavedTime());
+		}
+
 		if (Properties.CHECK_CONTRACTS) {
 			TestCaseExecutor.getInstance().removeObserver(checker);
 		}
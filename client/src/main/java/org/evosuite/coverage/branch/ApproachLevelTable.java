@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.coverage.branch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import org.evosuite.coverage.ControlFlowDistance;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.graphs.cfg.ControlDependency;
+import org.evosuite.testcase.execution.MethodCall;
+
+/**
+ * The branches a branch is transitively control dependent on, each together
+ * with the value it has to evaluate to and with the approach level of the
+ * shortest control dependence chain leading to it.
+ *
+ * The table is computed once from the control dependence graph, so that the
+ * distance of a method call to the branch is found by a single scan over the
+ * branch trace of the call: it is the distance of the traced entry with the
+ * lowest approach level, which is what
+ * {@link ControlFlowDistanceCalculator} determines by following the control
+ * dependences for each call.
+ */
+public class ApproachLevelTable {
+
+	private final int branchId;
+
+	/** Ids of the branches the branch depends on, sorted */
+	private final int[] branchIds;
+
+	/** Value the branch at the same position has to evaluate to */
+	private final boolean[] values;
+
+	/** Approach level of the branch at the same position */
+	private final int[] levels;
+
+	/**
+	 * Approach level if none of the branches is traced, or Integer.MAX_VALUE if
+	 * all control dependence chains are cyclic
+	 */
+	private final int rootLevel;
+
+	private static class Entry {
+		private final Branch branch;
+		private final boolean value;
+		private final int level;
+
+		private Entry(Branch branch, boolean value, int level) {
+			this.branch = branch;
+			this.value = value;
+			this.level = level;
+		}
+	}
+
+	/**
+	 * Determine the control dependence chains of the given branch by a
+	 * breadth-first search on the control dependences
+	 *
+	 * @param branch
+	 *            a {@link org.evosuite.coverage.branch.Branch} object.
+	 */
+	public ApproachLevelTable(Branch branch) {
+		this.branchId = branch.getActualBranchId();
+
+		List<Entry> entries = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+		Set<Branch> expanded = new HashSet<>();
+		expanded.add(branch);
+		int root = Integer.MAX_VALUE;
+
+		Queue<Entry> queue = new LinkedList<>();
+		queue.add(new Entry(branch, true, 0));
+		while (!queue.isEmpty()) {
+			Entry entry = queue.poll();
+			BytecodeInstruction instruction = entry.branch.getInstruction();
+			boolean hasDependencies = false;
+			for (ControlDependency dependency : instruction.getControlDependencies()) {
+				if (instruction.equals(dependency.getBranch().getInstruction()))
+					continue; // avoid loops
+
+				hasDependencies = true;
+				Branch next = dependency.getBranch();
+				boolean nextValue = dependency.getBranchExpressionValue();
+				if (next.equals(branch) || !seen.add(next.getActualBranchId() + ":" + nextValue))
+					continue;
+
+				Entry nextEntry = new Entry(next, nextValue, entry.level + 1);
+				entries.add(nextEntry);
+				if (expanded.add(next))
+					queue.add(nextEntry);
+			}
+			if (!hasDependencies)
+				root = Math.min(root, entry.level + 1);
+		}
+		this.rootLevel = root;
+
+		entries.sort(Comparator.comparingInt((Entry e) -> e.branch.getActualBranchId()));
+		this.branchIds = new int[entries.size()];
+		this.values = new boolean[entries.size()];
+		this.levels = new int[entries.size()];
+		for (int i = 0; i < entries.size(); i++) {
+			branchIds[i] = entries.get(i).branch.getActualBranchId();
+			values[i] = entries.get(i).value;
+			levels[i] = entries.get(i).level;
+		}
+	}
+
+	/**
+	 * Number of branches the branch is transitively control dependent on, per
+	 * value they have to evaluate to
+	 *
+	 * @return a int.
+	 */
+	public int size() {
+		return branchIds.length;
+	}
+
+	/**
+	 * Approach level of the given branch and value, or -1 if the branch does
+	 * not depend on it
+	 *
+	 * @param branchId
+	 *            a int.
+	 * @param value
+	 *            a boolean.
+	 * @return a int.
+	 */
+	public int getApproachLevel(int branchId, boolean value) {
+		if (branchId == this.branchId)
+			return 0;
+		for (int i = firstIndexOf(branchId); i >= 0 && i < branchIds.length && branchIds[i] == branchId; i++) {
+			if (values[i] == value)
+				return levels[i];
+		}
+		return -1;
+	}
+
+	/**
+	 * The distance of the given call to evaluating the branch to the given
+	 * value
+	 *
+	 * @param call
+	 *            a {@link org.evosuite.testcase.execution.MethodCall} object.
+	 * @param value
+	 *            a boolean.
+	 * @param worstLevel
+	 *            the approach level to use if the branch cannot be reached
+	 * @return a {@link org.evosuite.coverage.ControlFlowDistance} object.
+	 */
+	public ControlFlowDistance getDistance(MethodCall call, boolean value, int worstLevel) {
+		List<Integer> trace = call.branchTrace;
+		double branchDistance = Double.MAX_VALUE;
+		boolean traced = false;
+		double[] distances = null;
+
+		for (int pos = 0; pos < trace.size(); pos++) {
+			int id = trace.get(pos);
+			if (id == branchId) {
+				traced = true;
+				branchDistance = Math.min(branchDistance, getDistance(call, pos, value));
+			} else if (!traced) {
+				int i = firstIndexOf(id);
+				if (i < 0)
+					continue;
+				if (distances == null) {
+					distances = new double[branchIds.length];
+					Arrays.fill(distances, Double.POSITIVE_INFINITY);
+				}
+				for (; i < branchIds.length && branchIds[i] == id; i++)
+					distances[i] = Math.min(distances[i], getDistance(call, pos, values[i]));
+			}
+		}
+
+		if (traced)
+			return new ControlFlowDistance(0, branchDistance);
+
+		ControlFlowDistance r = rootLevel == Integer.MAX_VALUE ? new ControlFlowDistance(worstLevel, 0.0)
+				: new ControlFlowDistance(rootLevel, 0.0);
+		if (distances != null) {
+			for (int i = 0; i < distances.length; i++) {
+				if (distances[i] == Double.POSITIVE_INFINITY)
+					continue;
+				if (levels[i] < r.getApproachLevel()
+						|| (levels[i] == r.getApproachLevel() && distances[i] < r.getBranchDistance()))
+					r = new ControlFlowDistance(levels[i], distances[i]);
+			}
+		}
+		return r;
+	}
+
+	private static double getDistance(MethodCall call, int pos, boolean value) {
+		return value ? call.trueDistanceTrace.get(pos) : call.falseDistanceTrace.get(pos);
+	}
+
+	/** First position of the given id in branchIds, or -1 */
+	private int firstIndexOf(int id) {
+		int i = Arrays.binarySearch(branchIds, id);
+		if (i < 0)
+			return -1;
+		while (i > 0 && branchIds[i - 1] == id)
+			i--;
+		return i;
+	}
+}
@@ -171,10 +171,44 @@ public class BranchCoverageTestFitness extends TestFitnessFunction implements Br
 					+ " / branch distance = " + distance.getBranchDistance() + ", fitness = " + fitness);
 		}
 
+		return updateFitness(individual, fitness);
+	}
+
+	/**
+	 * Fitness of a test whose execution did not enter the method of this goal,
+	 * which does not depend on anything else the test executed: the approach
+	 * level is the one {@link ControlFlowDistanceCalculator} starts from, and
+	 * the branch distance is 0. Only defined if this is not the root branch of
+	 * its method, as an exception in a super constructor covers a root branch
+	 * without the method being entered.
+	 * 
+	 * @return a double.
+	 */
+	public double getUnreachedFitness() {
+		if (goal.getBranch() == null)
+			throw new IllegalStateException("the fitness of a root branch depends on the exceptions of the test");
+
+		return goal.getBranch().getInstruction().getActualCFG().getDiameter() + 1;
+	}
+
+	/**
+	 * Set the fitness of a test whose execution did not enter the method of
+	 * this goal, as {@link #getFitness(TestChromosome)} would, without looking
+	 * at the trace of the test
+	 * 
+	 * @param individual
+	 *            a {@link org.evosuite.testcase.TestChromosome} object.
+	 * @return a double.
+	 */
+	public double getUnreachedFitness(TestChromosome individual) {
+		return updateFitness(individual, getUnreachedFitness());
+	}
+
+	private double updateFitness(TestChromosome individual, double fitness) {
 		updateIndividual(this, individual, fitness);
 
 		if (fitness == 0.0) {
-			individual.getTestCase().addCoveredGoal(this);
+			individual.readTestCase().addCoveredGoal(this);
 		}
 
 		if (Properties.TEST_ARCHIVE) {
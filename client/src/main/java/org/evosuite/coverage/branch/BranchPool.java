@@ -83,6 +83,9 @@ public class BranchPool {
 
 	private Map<LabelNode, List<Branch>> switchLabels = new HashMap<LabelNode, List<Branch>>();
 
+	// approach level tables of the branches, created on first use
+	private Map<Branch, ApproachLevelTable> approachLevelTables = new HashMap<Branch, ApproachLevelTable>();
+
 	// number of known Branches - used for actualBranchIds
 	private int branchCounter = 0;
 
@@ -834,6 +837,28 @@ public class BranchPool {
 		return registeredDefaultCases.get(v);
 	}
 
+	/**
+	 * The approach level table of the given branch, which is computed when it
+	 * is first asked for, that is once all branches are known
+	 *
+	 * @param branch
+	 *            a {@link org.evosuite.coverage.branch.Branch} object.
+	 * @return a {@link org.evosuite.coverage.branch.ApproachLevelTable}
+	 *         object.
+	 */
+	public synchronized ApproachLevelTable getApproachLevelTable(Branch branch) {
+		ApproachLevelTable table = approachLevelTables.get(branch);
+		if (table == null) {
+			table = new ApproachLevelTable(branch);
+			approachLevelTables.put(branch, table);
+		}
+		return table;
+	}
+
+	private synchronized void clearApproachLevelTables() {
+		approachLevelTables.clear();
+	}
+
 	/**
 	 * Reset all the data structures used to keep track of the branch
 	 * information
@@ -847,6 +872,7 @@ public class BranchPool {
 		registeredSwitches.clear();
 		registeredDefaultCases.clear();
 		switchLabels.clear();
+		clearApproachLevelTables();
 	}
 
 	/**
@@ -865,6 +891,7 @@ public class BranchPool {
 		registeredDefaultCases.clear();
 		registeredNormalBranches.clear();
 		registeredSwitches.clear();
+		clearApproachLevelTables();
 	}
 
 	/**
@@ -878,6 +905,7 @@ public class BranchPool {
 	public void clear(String className) {
 		branchMap.remove(className);
 		branchlessMethods.remove(className);
+		clearApproachLevelTables();
 	}
 
 	/**
@@ -900,6 +928,7 @@ public class BranchPool {
 		}
 		if (branchlessMethods.containsKey(className))
 			branchlessMethods.get(className).remove(methodName);
+		clearApproachLevelTables();
 		logger.info("Resetting branchCounter from " + branchCounter + " to "
 		        + (branchCounter - numBranches));
 		branchCounter -= numBranches;
@@ -21,6 +21,8 @@ package org.evosuite.coverage.branch;
 
 import java.util.*;
 
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
 import org.evosuite.coverage.ControlFlowDistance;
 import org.evosuite.coverage.TestCoverageGoal;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
@@ -213,16 +215,25 @@ public class ControlFlowDistanceCalculator {
 		String methodName = branch.getMethodName();
 
 		ControlFlowDistance r = new ControlFlowDistance();
-		r.setApproachLevel(branch.getInstruction().getActualCFG().getDiameter() + 1);
+		int diameter = branch.getInstruction().getActualCFG().getDiameter();
+		r.setApproachLevel(diameter + 1);
+
+		ApproachLevelTable table = null;
+		if (Properties.PRECOMPUTED_APPROACH_LEVELS)
+			table = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getApproachLevelTable(branch);
 
 		// Minimal distance between target node and path
 		for (MethodCall call : result.getTrace().getMethodCalls()) {
 			if (call.className.equals(className) && call.methodName.equals(methodName)) {
 				ControlFlowDistance d2;
-				Set<Branch> handled = new HashSet<Branch>();
-				//				result.intermediateDistances = new HashMap<Branch,ControlFlowDistance>();
-				d2 = getNonRootDistance(result, call, branch, value, className,
-				                        methodName, handled);
+				if (table != null) {
+					d2 = table.getDistance(call, value, diameter + 2);
+				} else {
+					Set<Branch> handled = new HashSet<Branch>();
+					//				result.intermediateDistances = new HashMap<Branch,ControlFlowDistance>();
+					d2 = getNonRootDistance(result, call, branch, value, className,
+					                        methodName, handled);
+				}
 				if (d2.compareTo(r) < 0) {
 					r = d2;
 				}
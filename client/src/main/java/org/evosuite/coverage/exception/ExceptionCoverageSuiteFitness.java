@@ -202,7 +202,7 @@ public class ExceptionCoverageSuiteFitness extends TestSuiteFitnessFunction {
                     String key = goal.getKey();
                     if(!ExceptionCoverageFactory.getGoals().containsKey(key)) {
                     	ExceptionCoverageFactory.getGoals().put(key, goal);
-                    	test.getTestCase().addCoveredGoal(goal);
+                    	test.readTestCase().addCoveredGoal(goal);
                     	if(Properties.TEST_ARCHIVE && contextFitness != null) {
                                Archive.getArchiveInstance().addTarget(goal);
                                Archive.getArchiveInstance().updateArchive(goal, test, 0.0);
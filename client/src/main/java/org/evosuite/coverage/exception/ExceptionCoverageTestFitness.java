@@ -139,7 +139,7 @@ public class ExceptionCoverageTestFitness extends TestFitnessFunction {
         }
 
         if (fitness == 0.0) {
-            individual.getTestCase().addCoveredGoal(this);
+            individual.readTestCase().addCoveredGoal(this);
         }
 
         if (Properties.TEST_ARCHIVE) {
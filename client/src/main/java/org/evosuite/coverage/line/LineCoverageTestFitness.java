@@ -192,7 +192,7 @@ public class LineCoverageTestFitness extends TestFitnessFunction {
 		updateIndividual(this, individual, fitness);
 
 		if (fitness == 0.0) {
-			individual.getTestCase().addCoveredGoal(this);
+			individual.readTestCase().addCoveredGoal(this);
 		}
 
 		if (Properties.TEST_ARCHIVE) {
@@ -27,9 +27,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.evosuite.Properties;
+import org.evosuite.coverage.branch.BranchCoverageTestFitness;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.SecondaryObjective;
 import org.evosuite.runtime.util.AtMostOnceLogger;
+import org.evosuite.seeding.smart.BranchwiseConstantPoolManager;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
@@ -116,6 +118,14 @@ public abstract class Archive<F extends TestFitnessFunction, T extends TestChrom
    * @param target
    */
   protected void removeNonCoveredTargetOfAMethod(F target) {
+    if (Properties.APPLY_SMART_SEED && target instanceof BranchCoverageTestFitness) {
+      BranchCoverageTestFitness goal = (BranchCoverageTestFitness) target;
+      if (goal.getBranch() != null) {
+        // free the branch-wise constant pools of smart seeding
+        BranchwiseConstantPoolManager.branchCovered(goal.getBranch(), goal.getValue());
+      }
+    }
+
     String targetMethod = this.getMethodFullName(target);
     if (this.nonCoveredTargetsOfEachMethod.containsKey(targetMethod)) {
       if (this.nonCoveredTargetsOfEachMethod.get(targetMethod).contains(target)) {
@@ -179,8 +189,8 @@ public abstract class Archive<F extends TestFitnessFunction, T extends TestChrom
     // Check if solutions are using any functional mock or private access. A solution is considered
     // better than any other solution if does not use functional mock / private access at all, or if
     // it uses less of those functionalities.
-    int penaltyCurrentSolution = this.calculatePenalty(currentSolution.getTestCase());
-    int penaltyCandidateSolution = this.calculatePenalty(candidateSolution.getTestCase());
+    int penaltyCurrentSolution = this.calculatePenalty(currentSolution.readTestCase());
+    int penaltyCandidateSolution = this.calculatePenalty(candidateSolution.readTestCase());
 
     if (penaltyCandidateSolution < penaltyCurrentSolution) {
       return true;
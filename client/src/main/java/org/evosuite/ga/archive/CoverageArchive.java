@@ -299,7 +299,7 @@ public class CoverageArchive<F extends TestFitnessFunction, T extends TestChromo
       // whether that 'target' is covered or not (and therefore, it could be more expensive)
       boolean isGoalCovered = false;
       for (TestChromosome test : mergedSolution.getTestChromosomes()) {
-        if (test.getTestCase().isGoalCovered(target)) {
+        if (test.readTestCase().isGoalCovered(target)) {
           isGoalCovered = true;
           break;
         }
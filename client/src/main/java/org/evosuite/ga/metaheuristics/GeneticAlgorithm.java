@@ -27,6 +27,7 @@ import java.io.PrintWriter;
 import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -59,7 +60,10 @@ import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.result.BranchInfo;
 import org.evosuite.statistics.OutputVariable;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.ArrayUtil;
 import org.evosuite.utils.LoggingUtils;
@@ -617,11 +621,12 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 	protected void calculateFitness() {
 		logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+		Set<T> executed = executeChangedTests(this.population);
 		Iterator<T> iterator = this.population.iterator();
 		while (iterator.hasNext()) {
 			T c = iterator.next();
 			if (isFinished()) {
-				if (c.isChanged())
+				if (c.isChanged() || executed.contains(c))
 					iterator.remove();
 			} else {
 				this.calculateFitness(c);
@@ -635,6 +640,7 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 	protected void calculateFitness(boolean isInitialization) {
 		logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+		executeChangedTests(this.population);
 		Iterator<T> iterator = this.population.iterator();
 		while (iterator.hasNext()) {
 			T c = iterator.next();
@@ -648,6 +654,31 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 		System.currentTimeMillis();
 	}
 
+	/**
+	 * Execute the changed tests of the given individuals on the workers of the
+	 * {@link ParallelTestCaseExecutor}, if it is enabled, so that calculating
+	 * their fitness does not need to execute them again
+	 * 
+	 * @param individuals
+	 * @return the individuals whose tests were executed
+	 */
+	protected Set<T> executeChangedTests(Collection<T> individuals) {
+		if (!ParallelTestCaseExecutor.isEnabled())
+			return Collections.emptySet();
+		return ParallelTestCaseExecutor.getInstance().executeChanged(individuals, isTracingCalls());
+	}
+
+	/**
+	 * Whether method calls are traced when the fitness functions execute a
+	 * test
+	 * 
+	 * @return a boolean.
+	 */
+	protected boolean isTracingCalls() {
+		return ExecutionTraceImpl.isTraceCallsEnabled()
+				|| (!fitnessFunctions.isEmpty() && fitnessFunctions.get(0) instanceof TestFitnessFunction);
+	}
+
 	/**
 	 * Calculate fitness for an individual
 	 * 
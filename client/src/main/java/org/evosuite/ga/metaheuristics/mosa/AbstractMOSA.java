@@ -48,6 +48,7 @@ import org.evosuite.ga.comparators.DominanceComparator;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.metaheuristics.RuntimeRecord;
 import org.evosuite.ga.metaheuristics.SearchListener;
+import org.evosuite.ga.metaheuristics.mosa.structural.GoalIndex;
 import org.evosuite.ga.operators.mutation.MutationHistory;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.result.BranchInfo;
@@ -61,6 +62,7 @@ import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.TestMutationHistoryEntry;
 import org.evosuite.testcase.TestMutationHistoryEntry.TestMutation;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.factories.RandomLengthTestFactory;
 import org.evosuite.testcase.secondaryobjectives.TestCaseSecondaryObjective;
 import org.evosuite.testcase.statements.ArrayStatement;
@@ -105,6 +107,11 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	 */
 	protected final BudgetConsumptionMonitor budgetMonitor;
 
+	/**
+	 * Branch goals by their method, created at the first evaluation
+	 */
+	protected GoalIndex<T> goalIndex = null;
+
 	/**
 	 * the coverage after initializing the coverage
 	 */
@@ -211,6 +218,13 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 		TestChromosome potentialSeed = SmartSeedBranchUpdateManager.updateUncoveredBranchInfo(bestMap, bestTestMap);
 		
 		List<T> offspringPopulation = new ArrayList<T>(Properties.POPULATION);
+
+		// with parallel test execution, the offsprings are only evaluated once
+		// all of them have been generated
+		boolean deferEvaluation = ParallelTestCaseExecutor.isEnabled();
+		List<T> deferredOffspring = new ArrayList<T>();
+		List<T> deferredParents = new ArrayList<T>();
+
 		// we apply only Properties.POPULATION/2 iterations since in each generation
 		// we generate two offsprings
 		for (int i = 0; i < Properties.POPULATION / 2 && !this.isFinished(); i++) {
@@ -258,15 +272,12 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			if (offspring1.isChanged()) {
 
 				this.clearCachedResults(offspring1);
-				this.calculateFitness(offspring1);
-
-				BranchCoveringEvent e = EventSequence.deriveCoveredBranch(offspring1, parent1, uncoveredGoals);
-				EventSequence.addEvent(e);
-
-//				BranchDynamicAnalyzer.analyzeBranch(offspring1, parent1, uncoveredGoals);
-
-				new MutationPositionDiscriminator().identifyRelevantMutations(offspring1, parent1);
-				offspringPopulation.add(offspring1);
+				if (deferEvaluation) {
+					deferredOffspring.add(offspring1);
+					deferredParents.add(parent1);
+				} else {
+					this.evaluateOffspring(offspring1, parent1, uncoveredGoals, offspringPopulation);
+				}
 			}
 
 			this.mutate(offspring2, parent2);
@@ -276,13 +287,20 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			}
 			if (offspring2.isChanged()) {
 				this.clearCachedResults(offspring2);
-				this.calculateFitness(offspring2);
-
-				BranchCoveringEvent e = EventSequence.deriveCoveredBranch(offspring2, parent2, uncoveredGoals);
-				EventSequence.addEvent(e);
+				if (deferEvaluation) {
+					deferredOffspring.add(offspring2);
+					deferredParents.add(parent2);
+				} else {
+					this.evaluateOffspring(offspring2, parent2, uncoveredGoals, offspringPopulation);
+				}
+			}
+		}
 
-				new MutationPositionDiscriminator().identifyRelevantMutations(offspring2, parent2);
-				offspringPopulation.add(offspring2);
+		if (!deferredOffspring.isEmpty()) {
+			this.executeChangedTests(deferredOffspring);
+			for (int i = 0; i < deferredOffspring.size(); i++) {
+				this.evaluateOffspring(deferredOffspring.get(i), deferredParents.get(i), getUncoveredGoals(),
+						offspringPopulation);
 			}
 		}
 
@@ -290,6 +308,7 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 
 		// Add new randomly generate tests
 		long randomTestcaseTime = System.currentTimeMillis();
+		List<T> randomTests = new ArrayList<T>();
 		for (int i = 0; i < Properties.POPULATION * Properties.P_TEST_INSERTION; i++) {
 			T tch = null;
 			if (this.getCoveredGoals().size() == 0 || Randomness.nextBoolean()) {
@@ -309,6 +328,18 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			}
 			if (tch.isChanged()) {
 				tch.updateAge(this.currentIteration);
+				if (deferEvaluation) {
+					randomTests.add(tch);
+				} else {
+					this.calculateFitness(tch);
+					offspringPopulation.add(tch);
+				}
+			}
+		}
+
+		if (!randomTests.isEmpty()) {
+			this.executeChangedTests(randomTests);
+			for (T tch : randomTests) {
 				this.calculateFitness(tch);
 				offspringPopulation.add(tch);
 			}
@@ -319,6 +350,29 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 		return offspringPopulation;
 	}
 
+	/**
+	 * Calculate the fitness of an offspring, and record how it differs from
+	 * its parent
+	 * 
+	 * @param offspring
+	 * @param parent
+	 * @param uncoveredGoals
+	 *            the goals that were not covered before the evaluation
+	 * @param offspringPopulation
+	 *            the population the offspring is added to
+	 */
+	private void evaluateOffspring(T offspring, T parent, Set<?> uncoveredGoals, List<T> offspringPopulation) {
+		this.calculateFitness(offspring);
+
+		BranchCoveringEvent e = EventSequence.deriveCoveredBranch(offspring, parent, uncoveredGoals);
+		EventSequence.addEvent(e);
+
+//		BranchDynamicAnalyzer.analyzeBranch(offspring, parent, uncoveredGoals);
+
+		new MutationPositionDiscriminator().identifyRelevantMutations(offspring, parent);
+		offspringPopulation.add(offspring);
+	}
+
 	/**
 	 * Method used to mutate an offspring.
 	 * 
@@ -354,7 +408,7 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 		}
 
 		if (!this.hasMethodCall(offspring)) {
-			tch.setTestCase(((TestChromosome) parent).getTestCase().clone());
+			tch.setTestCase(((TestChromosome) parent).readTestCase().clone());
 			boolean changed = tch.mutationInsert();
 			if (changed) {
 				for (Statement s : tch.getTestCase()) {
@@ -387,7 +441,7 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	 */
 	private boolean hasMethodCall(T test) {
 		boolean flag = false;
-		TestCase tc = ((TestChromosome) test).getTestCase();
+		TestCase tc = ((TestChromosome) test).readTestCase();
 		for (Statement s : tc) {
 			if (s instanceof MethodStatement) {
 				MethodStatement ms = (MethodStatement) s;
@@ -431,7 +485,7 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	 */
 	private boolean removeUnusedVariables(T chromosome) {
 		int sizeBefore = chromosome.size();
-		TestCase t = ((TestChromosome) chromosome).getTestCase();
+		TestCase t = ((TestChromosome) chromosome).readTestCase();
 		List<Integer> to_delete = new ArrayList<Integer>(chromosome.size());
 		boolean has_deleted = false;
 
@@ -448,6 +502,10 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			}
 			num++;
 		}
+		if (has_deleted) {
+			// copy the test only if it changes
+			t = ((TestChromosome) chromosome).getTestCase();
+		}
 		Collections.sort(to_delete, Collections.reverseOrder());
 		for (Integer position : to_delete) {
 			t.remove(position);
@@ -655,7 +713,13 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	 */
 	@Override
 	protected void calculateFitness(T c) {
-		this.fitnessFunctions.forEach(fitnessFunction -> fitnessFunction.getFitness(c));
+		if (GoalIndex.isEnabled()) {
+			if (this.goalIndex == null)
+				this.goalIndex = new GoalIndex<T>(this.fitnessFunctions);
+			this.fitnessFunctions.forEach(fitnessFunction -> this.goalIndex.getFitness(fitnessFunction, c));
+		} else {
+			this.fitnessFunctions.forEach(fitnessFunction -> fitnessFunction.getFitness(c));
+		}
 
 		// if one of the coverage criterion is Criterion.EXCEPTION, then we have to
 		// analyse the results
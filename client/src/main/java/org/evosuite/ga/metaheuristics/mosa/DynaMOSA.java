@@ -34,6 +34,7 @@ import org.evosuite.ga.metaheuristics.mosa.structural.MultiCriteriaManager;
 import org.evosuite.ga.operators.ranking.CrowdingDistance;
 import org.evosuite.seeding.smart.SensitivityMutator;
 import org.evosuite.testcase.MutationPositionDiscriminator;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
 import org.evosuite.testcase.factories.RandomLengthTestFactory;
 import org.evosuite.testcase.synthesizer.TestCaseLegitimizer;
 import org.evosuite.utils.LoggingUtils;
@@ -271,6 +272,16 @@ public class DynaMOSA<T extends Chromosome> extends AbstractMOSA<T> {
 		this.notifySearchFinished();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The goals manager executes the tests without tracing method calls.
+	 */
+	@Override
+	protected boolean isTracingCalls() {
+		return ExecutionTraceImpl.isTraceCallsEnabled();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -32,6 +32,7 @@ import org.evosuite.ga.FitnessFunction;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -89,11 +90,14 @@ public class BranchesManager<T extends Chromosome> extends StructuralGoalManager
 	}
 
 	public void calculateFitness(T c){
-		// run the test
-		TestCase test = ((TestChromosome) c).getTestCase();
-		ExecutionResult result = TestCaseExecutor.runTest(test);
-		((TestChromosome) c).setLastExecutionResult(result);
-		c.setChanged(false);
+		// run the test, unless it has been executed in parallel already
+		TestCase test = ((TestChromosome) c).readTestCase();
+		ExecutionResult result = ((TestChromosome) c).getLastExecutionResult();
+		if (result == null || c.isChanged() || !ParallelTestCaseExecutor.isParallelResult(result)) {
+			result = TestCaseExecutor.runTest(test);
+			((TestChromosome) c).setLastExecutionResult(result);
+			c.setChanged(false);
+		}
 		
 		if (result.hasTimeout() || result.hasTestException()){
 			for (FitnessFunction<T> f : currentGoals)
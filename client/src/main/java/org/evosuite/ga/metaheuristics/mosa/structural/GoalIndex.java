@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa.structural;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.TestCoverageGoal;
+import org.evosuite.coverage.branch.BranchCoverageTestFitness;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
+
+/**
+ * <p>
+ * Index of the branch goals by the method they are in, so that the fitness of
+ * a test for the goals in methods its execution did not enter is not computed
+ * from its trace.
+ * </p>
+ *
+ * <p>
+ * If a test does not enter the method of a branch, the fitness for the branch
+ * is given by the CFG of the method alone, see
+ * {@link BranchCoverageTestFitness#getUnreachedFitness()}, whereas computing
+ * it goes through all method calls of the trace. The goals are looked up in
+ * the methods covered by the trace instead, so the cost for the goals of the
+ * methods a test did not enter no longer depends on the size of the trace.
+ * Root branches are not indexed, as an exception in a super constructor covers
+ * them without an entry in the trace, and neither are the goals of other
+ * criteria, which are always evaluated.
+ * </p>
+ */
+public class GoalIndex<T extends Chromosome> implements Serializable {
+
+	private static final long serialVersionUID = -2520455307530262457L;
+
+	private static final AtomicLong skippedEvaluations = new AtomicLong();
+
+	/** Name of the method of each indexed goal, as in the covered methods of a trace */
+	private final Map<FitnessFunction<T>, String> methods = new HashMap<>();
+
+	public GoalIndex(Collection<? extends FitnessFunction<T>> goals) {
+		for (FitnessFunction<T> goal : goals) {
+			addGoal(goal);
+		}
+	}
+
+	public static boolean isEnabled() {
+		return Properties.GOAL_INDEXED_FITNESS;
+	}
+
+	public static long getSkippedEvaluations() {
+		return skippedEvaluations.get();
+	}
+
+	/**
+	 * Index the given goal if it is a branch goal other than a root branch
+	 *
+	 * @param goal
+	 */
+	public void addGoal(FitnessFunction<T> goal) {
+		if (goal.getClass() != BranchCoverageTestFitness.class || methods.containsKey(goal))
+			return;
+
+		BranchCoverageTestFitness branchGoal = (BranchCoverageTestFitness) goal;
+		if (branchGoal.getBranch() == null)
+			return;
+
+		methods.put(goal, branchGoal.getClassName() + "." + branchGoal.getMethod());
+	}
+
+	public int size() {
+		return methods.size();
+	}
+
+	/**
+	 * Whether the fitness for the goal has to be computed from the trace of
+	 * the given result
+	 *
+	 * @param goal
+	 * @param result
+	 *            the last execution result of a test, or null if it has not
+	 *            been executed yet
+	 * @return
+	 */
+	public boolean isAffected(FitnessFunction<T> goal, ExecutionResult result) {
+		// Methods are only recorded while coverage is traced, and the
+		// fitness of a timeout is the worst possible instead
+		if (result == null || !ExecutionTraceImpl.traceCoverage || TestCoverageGoal.hasTimeout(result))
+			return true;
+
+		String method = methods.get(goal);
+		return method == null || result.getTrace().getCoveredMethods().contains(method);
+	}
+
+	/**
+	 * Compute the fitness of the test for the goal, or set the fitness of a
+	 * test that did not enter the method of the goal
+	 *
+	 * @param goal
+	 * @param individual
+	 * @return the fitness value
+	 */
+	public double getFitness(FitnessFunction<T> goal, T individual) {
+		ExecutionResult result = individual.isChanged() ? null
+				: ((TestChromosome) individual).getLastExecutionResult();
+		if (isAffected(goal, result))
+			return goal.getFitness(individual);
+
+		skippedEvaluations.incrementAndGet();
+		return ((BranchCoverageTestFitness) goal).getUnreachedFitness((TestChromosome) individual);
+	}
+}
@@ -62,6 +62,7 @@ import org.evosuite.setup.callgraph.CallGraph;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.utils.ArrayUtil;
 import org.evosuite.utils.LoggingUtils;
@@ -82,9 +83,12 @@ public class MultiCriteriaManager<T extends Chromosome> extends StructuralGoalMa
 	private final Map<Integer, FitnessFunction<T>> branchCoverageFalseMap = new LinkedHashMap<Integer, FitnessFunction<T>>();
 	private final Map<String, FitnessFunction<T>> branchlessMethodCoverageMap = new LinkedHashMap<String, FitnessFunction<T>>();
 
+	private final GoalIndex<T> goalIndex;
+
 	@SuppressWarnings("unchecked")
 	public MultiCriteriaManager(List<FitnessFunction<T>> fitnessFunctions) {
 		super(fitnessFunctions);
+		this.goalIndex = new GoalIndex<T>(fitnessFunctions);
 
 		// initialize the dependency graph among branches 
 		this.graph = getControlDepencies4Branches(fitnessFunctions);
@@ -392,11 +396,14 @@ public class MultiCriteriaManager<T extends Chromosome> extends StructuralGoalMa
 	@SuppressWarnings("unchecked")
 	@Override
 	public void calculateFitness(T c) {
-		// run the test
-		TestCase test = ((TestChromosome) c).getTestCase();
-		ExecutionResult result = TestCaseExecutor.runTest(test);
-		((TestChromosome) c).setLastExecutionResult(result);
-		c.setChanged(false);
+		// run the test, unless it has been executed in parallel already
+		TestCase test = ((TestChromosome) c).readTestCase();
+		ExecutionResult result = ((TestChromosome) c).getLastExecutionResult();
+		if (result == null || c.isChanged() || !ParallelTestCaseExecutor.isParallelResult(result)) {
+			result = TestCaseExecutor.runTest(test);
+			((TestChromosome) c).setLastExecutionResult(result);
+			c.setChanged(false);
+		}
 
 		if (result.hasTimeout() || result.hasTestException()){
 			for (FitnessFunction<T> f : currentGoals)
@@ -418,7 +425,8 @@ public class MultiCriteriaManager<T extends Chromosome> extends StructuralGoalMa
 				continue;
 
 			//TODO context-sensitive, may need call graph
-			double value = fitnessFunction.getFitness(c);
+			double value = GoalIndex.isEnabled() ? goalIndex.getFitness(fitnessFunction, c)
+					: fitnessFunction.getFitness(c);
 			
 			// Current goal has been covered, fitness = 0
 			// 25.0 for not reached
@@ -89,7 +89,7 @@ public abstract class StructuralGoalManager<T extends Chromosome> implements Ser
 		// the next two lines are needed since that coverage information are used
 		// during EvoSuite post-processing
 		TestChromosome tch = (TestChromosome) tc;
-		tch.getTestCase().getCoveredGoals().add((TestFitnessFunction) f);
+		tch.readTestCase().getCoveredGoals().add((TestFitnessFunction) f);
 
 		// update covered targets
 		this.archive.updateArchive((TestFitnessFunction) f, (TestChromosome) tc, tc.getFitness(f));
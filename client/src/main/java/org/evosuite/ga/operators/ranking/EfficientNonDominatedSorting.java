@@ -0,0 +1,192 @@
+/**
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+
+/**
+ * <p>
+ * Ranks the solutions into the same fronts as {@link FastNonDominatedSorting},
+ * using the efficient non-dominated sort with sequential search (ENS-SS) of
+ * Zhang et al., "An Efficient Approach to Nondominated Sorting for
+ * Evolutionary Multiobjective Optimization", IEEE TEVC 2015.
+ * </p>
+ * 
+ * <p>
+ * The fitness values are copied into a matrix, so that the dominance tests
+ * do not look up the fitness maps of the chromosomes. As most dominance
+ * tests are decided by the first few goals, the values of a goal are only
+ * copied once a test needs them. The solutions
+ * are then sorted lexicographically by their fitness values, so a solution
+ * can only be dominated by solutions before it, and each solution is added
+ * to the first front that contains no solution dominating it. As the
+ * solutions of a front are compared starting with the last one, which is
+ * the most similar, a solution is usually only compared to few solutions of
+ * each front rather than to all other solutions.
+ * </p>
+ */
+public class EfficientNonDominatedSorting<T extends Chromosome> implements RankingFunction<T> {
+
+	private static final long serialVersionUID = 2376017520924185329L;
+
+	/**
+	 * The fronts found by the last ranking
+	 */
+	private List<List<T>> fronts = new ArrayList<>();
+
+	@Override
+	public void computeRankingAssignment(List<T> solutions, Set<FitnessFunction<T>> uncovered_goals) {
+		int n = solutions.size();
+		FitnessMatrix fitness = new FitnessMatrix(solutions, uncovered_goals);
+
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++)
+			order[i] = i;
+		Arrays.sort(order, (i, j) -> fitness.compareLexicographically(i, j));
+
+		// The indices of the solutions of each front, in the order of addition
+		List<int[]> frontIndices = new ArrayList<>();
+		int[] frontSizes = new int[n];
+		int[] frontOf = new int[n];
+		for (int s : order) {
+			int front = findFront(s, fitness, frontIndices, frontSizes);
+			if (front == frontIndices.size())
+				frontIndices.add(new int[Math.min(n, 16)]);
+			int[] members = frontIndices.get(front);
+			if (frontSizes[front] == members.length) {
+				members = Arrays.copyOf(members, Math.min(n, 2 * members.length));
+				frontIndices.set(front, members);
+			}
+			members[frontSizes[front]++] = s;
+			frontOf[s] = front;
+		}
+
+		// Within a front, solutions keep their order in the population
+		fronts = new ArrayList<>(frontIndices.size());
+		for (int f = 0; f < frontIndices.size(); f++)
+			fronts.add(new ArrayList<>(frontSizes[f]));
+		for (int s = 0; s < n; s++) {
+			T solution = solutions.get(s);
+			solution.setDistance(Double.MAX_VALUE);
+			solution.setRank(frontOf[s] + 1);
+			fronts.get(frontOf[s]).add(solution);
+		}
+	}
+
+	/**
+	 * The fitness values of the solutions, stored by goal
+	 */
+	private static final class FitnessMatrix {
+
+		private final List<? extends Chromosome> solutions;
+
+		private final List<? extends FitnessFunction<?>> goals;
+
+		private final double[][] values;
+
+		private <T extends Chromosome> FitnessMatrix(List<T> solutions, Set<FitnessFunction<T>> goals) {
+			this.solutions = solutions;
+			this.goals = new ArrayList<>(goals);
+			this.values = new double[goals.size()][];
+		}
+
+		private double[] getValues(int goal) {
+			double[] column = values[goal];
+			if (column == null) {
+				FitnessFunction<?> ff = goals.get(goal);
+				column = new double[solutions.size()];
+				for (int s = 0; s < column.length; s++) {
+					column[s] = solutions.get(s).getFitness(ff);
+				}
+				values[goal] = column;
+			}
+			return column;
+		}
+
+		private int compareLexicographically(int s1, int s2) {
+			for (int o = 0; o < values.length; o++) {
+				double[] column = getValues(o);
+				int flag = Double.compare(column[s1], column[s2]);
+				if (flag != 0)
+					return flag;
+			}
+			return 0;
+		}
+
+		/**
+		 * Whether s1 dominates s2, in the sense of the
+		 * {@link org.evosuite.ga.comparators.DominanceComparator}
+		 */
+		private boolean dominates(int s1, int s2) {
+			boolean better = false;
+			for (int o = 0; o < values.length; o++) {
+				double[] column = getValues(o);
+				int flag = Double.compare(column[s1], column[s2]);
+				if (flag > 0)
+					return false;
+				if (flag < 0)
+					better = true;
+			}
+			return better;
+		}
+	}
+
+	/**
+	 * The first front without a solution that dominates the given one, which
+	 * may be a new front
+	 */
+	private static int findFront(int s, FitnessMatrix fitness, List<int[]> frontIndices, int[] frontSizes) {
+		for (int front = 0; front < frontIndices.size(); front++) {
+			int[] members = frontIndices.get(front);
+			boolean isDominated = false;
+			for (int k = frontSizes[front] - 1; k >= 0; k--) {
+				if (fitness.dominates(members[k], s)) {
+					isDominated = true;
+					break;
+				}
+			}
+			if (!isDominated)
+				return front;
+		}
+		return frontIndices.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<T> getSubfront(int rank) {
+		if (rank >= fronts.size())
+			return new ArrayList<T>();
+		return fronts.get(rank);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNumberOfSubfronts() {
+		return fronts.size();
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.Graphs;
+import org.jgrapht.WeightedGraph;
+
+/**
+ * <p>
+ * Shortest distances between the vertices of an unweighted directed graph,
+ * computed on demand.
+ * </p>
+ *
+ * <p>
+ * Instead of an all-pairs matrix, which takes cubic time and quadratic memory
+ * in the number of vertices, the distances from a source vertex are computed
+ * by a breadth-first search when they are first asked for. Only the results
+ * of the most recently queried sources are kept, so the memory needed is
+ * bounded by the given number of sources times the number of vertices.
+ * </p>
+ *
+ * <p>
+ * The distances refer to the graph at the time the oracle was created, so the
+ * oracle has to be re-created once the graph changes, see
+ * {@link EvoSuiteGraph#getDistanceOracle()}.
+ * </p>
+ */
+public class DistanceOracle<V, E> {
+
+	/** Number of sources whose distances are kept by default */
+	public static final int DEFAULT_CACHED_SOURCES = 64;
+
+	private static final int UNREACHABLE = -1;
+
+	/** Vertices in the order of their indices */
+	private final Object[] vertices;
+
+	private final Map<V, Integer> indices;
+
+	/** Successors of each vertex, by index */
+	private final int[][] successors;
+
+	/** Distances from the most recently queried sources, by vertex index */
+	private final LinkedHashMap<Integer, int[]> distances;
+
+	private double diameter = -1;
+
+	/**
+	 * <p>
+	 * Constructor for DistanceOracle.
+	 * </p>
+	 *
+	 * @param graph
+	 *            a {@link org.jgrapht.DirectedGraph} object.
+	 */
+	public DistanceOracle(DirectedGraph<V, E> graph) {
+		this(graph, DEFAULT_CACHED_SOURCES);
+	}
+
+	/**
+	 * <p>
+	 * Constructor for DistanceOracle.
+	 * </p>
+	 *
+	 * @param graph
+	 *            a {@link org.jgrapht.DirectedGraph} object.
+	 * @param cachedSources
+	 *            the maximal number of sources whose distances are kept
+	 */
+	public DistanceOracle(DirectedGraph<V, E> graph, final int cachedSources) {
+		if (graph instanceof WeightedGraph)
+			throw new IllegalArgumentException("weighted graphs are not supported");
+		if (cachedSources < 1)
+			throw new IllegalArgumentException("at least one source has to be cached");
+
+		this.vertices = graph.vertexSet().toArray();
+		this.indices = new HashMap<>(vertices.length * 2);
+		for (int i = 0; i < vertices.length; i++) {
+			@SuppressWarnings("unchecked")
+			V vertex = (V) vertices[i];
+			indices.put(vertex, i);
+		}
+
+		this.successors = new int[vertices.length][];
+		for (int i = 0; i < vertices.length; i++) {
+			@SuppressWarnings("unchecked")
+			V vertex = (V) vertices[i];
+			successors[i] = Graphs.successorListOf(graph, vertex).stream().mapToInt(indices::get).toArray();
+		}
+
+		this.distances = new LinkedHashMap<Integer, int[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+				return size() > cachedSources;
+			}
+		};
+	}
+
+	/**
+	 * Retrieves the shortest distance between two vertices.
+	 *
+	 * @param v1
+	 *            first vertex
+	 * @param v2
+	 *            second vertex
+	 * @return distance, or positive infinity if no path
+	 */
+	public synchronized double shortestDistance(V v1, V v2) {
+		int source = index(v1);
+		int target = index(v2);
+		int[] fromSource = distances.get(source);
+		if (fromSource == null) {
+			fromSource = search(source);
+			distances.put(source, fromSource);
+		}
+		int distance = fromSource[target];
+		return distance == UNREACHABLE ? Double.POSITIVE_INFINITY : distance;
+	}
+
+	/**
+	 * The longest of all finite shortest distances in the graph. This needs a
+	 * search from every vertex, whose results are not kept.
+	 *
+	 * @return diameter computed for the graph
+	 */
+	public synchronized double getDiameter() {
+		if (diameter < 0) {
+			int max = 0;
+			for (int source = 0; source < vertices.length; source++) {
+				int[] fromSource = distances.get(source);
+				if (fromSource == null)
+					fromSource = search(source);
+				for (int distance : fromSource)
+					max = Math.max(max, distance);
+			}
+			diameter = max;
+		}
+		return diameter;
+	}
+
+	/**
+	 * Number of sources whose distances are currently kept
+	 *
+	 * @return a int.
+	 */
+	public synchronized int getCachedSources() {
+		return distances.size();
+	}
+
+	private int index(V vertex) {
+		Integer index = indices.get(vertex);
+		if (index == null)
+			throw new IllegalArgumentException("graph must contain the vertex " + vertex);
+		return index;
+	}
+
+	private int[] search(int source) {
+		int[] result = new int[vertices.length];
+		Arrays.fill(result, UNREACHABLE);
+		result[source] = 0;
+
+		// Each vertex is enqueued at most once
+		int[] queue = new int[vertices.length];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = source;
+		while (head < tail) {
+			int vertex = queue[head++];
+			for (int successor : successors[vertex]) {
+				if (result[successor] == UNREACHABLE) {
+					result[successor] = result[vertex] + 1;
+					queue[tail++] = successor;
+				}
+			}
+		}
+		return result;
+	}
+}
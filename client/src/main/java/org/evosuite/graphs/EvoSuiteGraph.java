@@ -31,7 +31,6 @@ import java.util.Set;
 
 import org.evosuite.utils.LoggingUtils;
 import org.jgrapht.DirectedGraph;
-import org.jgrapht.alg.DijkstraShortestPath;
 import org.jgrapht.ext.DOTExporter;
 import org.jgrapht.ext.IntegerNameProvider;
 import org.jgrapht.ext.StringEdgeNameProvider;
@@ -76,6 +75,15 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	protected DirectedGraph<V, E> graph;
 	protected Class<E> edgeClass;
 
+	/** Incremented by every change of the vertices or edges of this graph */
+	private int modificationCount = 0;
+
+	/** Created on the first distance query */
+	private DistanceOracle<V, E> distanceOracle = null;
+
+	/** The modification count of this graph the distance oracle refers to */
+	private int distanceOracleModificationCount = -1;
+
 	// for .dot functionality
 	// TODO need jgrapht-0.8.3
 	ComponentAttributeProvider<V> vertexAttributeProvider = null;
@@ -317,9 +325,21 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	 * @return a boolean.
 	 */
 	protected boolean addVertex(V v) {
+		modificationCount++;
 		return graph.addVertex(v);
 	}
 
+	/**
+	 * <p>removeVertex</p>
+	 *
+	 * @param v a V object.
+	 * @return a boolean.
+	 */
+	protected boolean removeVertex(V v) {
+		modificationCount++;
+		return graph.removeVertex(v);
+	}
+
 	/**
 	 * <p>addEdge</p>
 	 *
@@ -328,7 +348,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	 * @return a E object.
 	 */
 	protected E addEdge(V src, V target) {
-
+		modificationCount++;
 		return graph.addEdge(src, target);
 	}
 
@@ -341,10 +361,21 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	 * @return a boolean.
 	 */
 	protected boolean addEdge(V src, V target, E e) {
-
+		modificationCount++;
 		return graph.addEdge(src, target, e);
 	}
 
+	/**
+	 * <p>removeEdge</p>
+	 *
+	 * @param e a E object.
+	 * @return a boolean.
+	 */
+	protected boolean removeEdge(E e) {
+		modificationCount++;
+		return graph.removeEdge(e);
+	}
+
 	/**
 	 * Redirects all edges going into node from to the node newStart and all
 	 * edges going out of node from to the node newEnd.
@@ -422,7 +453,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 					"edge and node must be present in this graph");
 
 		V edgeSource = graph.getEdgeSource(edge);
-		if (!graph.removeEdge(edge))
+		if (!removeEdge(edge))
 			return false;
 		if (!addEdge(edgeSource, node, edge))
 			return false;
@@ -445,7 +476,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 					"edge and node must be present in this graph");
 
 		V edgeTarget = graph.getEdgeTarget(edge);
-		if (!graph.removeEdge(edge))
+		if (!removeEdge(edge))
 			return false;
 		if (!addEdge(node, edgeTarget, edge))
 			return false;
@@ -694,9 +725,33 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	 * @return a int.
 	 */
 	public int getDistance(V v1, V v2) {
-		DijkstraShortestPath<V, E> d = new DijkstraShortestPath<V, E>(graph,
-				v1, v2);
-		return (int) Math.round(d.getPathLength());
+		double distance = getDistanceOracle().shortestDistance(v1, v2);
+		return distance == Double.POSITIVE_INFINITY ? -1 : (int) distance;
+	}
+
+	/**
+	 * The distances between the vertices of this graph, which are re-computed
+	 * once vertices or edges were added or removed
+	 *
+	 * @return a {@link org.evosuite.graphs.DistanceOracle} object.
+	 */
+	public synchronized DistanceOracle<V, E> getDistanceOracle() {
+		if (distanceOracle == null || distanceOracleModificationCount != modificationCount) {
+			distanceOracle = new DistanceOracle<V, E>(graph);
+			distanceOracleModificationCount = modificationCount;
+		}
+		return distanceOracle;
+	}
+
+	/**
+	 * Number of changes of the vertices or edges of this graph so far. Changes
+	 * of the underlying jgrapht graph that bypass the methods of this class are
+	 * not counted.
+	 *
+	 * @return a int.
+	 */
+	public int getModificationCount() {
+		return modificationCount;
 	}
 
 	/**
@@ -30,6 +30,7 @@ import org.evosuite.TestGenerationContext;
 import org.evosuite.classpath.ResourceList;
 import org.evosuite.graphs.ccfg.ClassControlFlowGraph;
 import org.evosuite.graphs.ccg.ClassCallGraph;
+import org.evosuite.graphs.cdg.ControlDependenceCache;
 import org.evosuite.graphs.cdg.ControlDependenceGraph;
 import org.evosuite.graphs.cfg.ActualControlFlowGraph;
 import org.evosuite.graphs.cfg.BytecodeAnalyzer;
@@ -50,7 +51,7 @@ import org.slf4j.LoggerFactory;
  * 
  * For each CUT and each of their methods a Raw- and an ActualControlFlowGraph
  * instance are stored within this pool. Additionally a ControlDependenceGraph
- * is computed and stored for each such method.
+ * is computed and stored for each such method when it is first accessed.
  * 
  * This pool also offers the possibility to generate the ClassCallGraph and
  * ClassControlFlowGraph for a CUT. They represents the call hierarchy and
@@ -106,6 +107,13 @@ public class GraphPool {
 	 */
 	private final Map<String, Map<String, ControlDependenceGraph>> controlDependencies = new HashMap<String, Map<String, ControlDependenceGraph>>();
 
+	/**
+	 * ActualCFGs whose Control Dependence Graphs are not computed yet
+	 * 
+	 * Maps from classNames to methodNames to corresponding ActualCFGs
+	 */
+	private final Map<String, Map<String, ActualControlFlowGraph>> pendingControlDependencies = new HashMap<String, Map<String, ActualControlFlowGraph>>();
+
 	/**
 	 * Cache of all created CCFGs
 	 * 
@@ -203,7 +211,11 @@ public class GraphPool {
 	 *            a {@link java.lang.String} object.
 	 * @return a {@link org.evosuite.graphs.cdg.ControlDependenceGraph} object.
 	 */
-	public ControlDependenceGraph getCDG(String className, String methodName) {
+	public synchronized ControlDependenceGraph getCDG(String className, String methodName) {
+
+		Map<String, ActualControlFlowGraph> pending = pendingControlDependencies.get(className);
+		if (pending != null && pending.containsKey(methodName))
+			createAndRegisterControlDependence(pending.remove(methodName));
 
 		if (controlDependencies.get(className) == null)
 			return null;
@@ -272,7 +284,7 @@ public class GraphPool {
 
 		if (Properties.ALWAYS_REGISTER_BRANCH ||
 				DependencyAnalysis.shouldInstrument(cfg.getClassName(), cfg.getMethodName())) {
-			createAndRegisterControlDependence(cfg);
+			registerControlDependence(cfg);
 		}
 	}
 	
@@ -390,12 +402,31 @@ public class GraphPool {
 		if (Properties.WRITE_CFG)
 			cfg.toDot();
 
-		createAndRegisterControlDependence(cfg);
+		registerControlDependence(cfg);
+	}
+
+	/**
+	 * The CDG of the given CFG is only computed when it is accessed, as many
+	 * methods are never asked for their control dependences
+	 */
+	private synchronized void registerControlDependence(ActualControlFlowGraph cfg) {
+		String className = cfg.getClassName();
+		String methodName = cfg.getMethodName();
+
+		if (controlDependencies.containsKey(className))
+			controlDependencies.get(className).remove(methodName);
+		if (!pendingControlDependencies.containsKey(className))
+			pendingControlDependencies.put(className, new HashMap<String, ActualControlFlowGraph>());
+		pendingControlDependencies.get(className).put(methodName, cfg);
+
+		if (Properties.WRITE_CFG)
+			getCDG(className, methodName);
 	}
 
 	private void createAndRegisterControlDependence(ActualControlFlowGraph cfg) {
 
-		ControlDependenceGraph cd = new ControlDependenceGraph(cfg);
+		ControlDependenceGraph cd = ControlDependenceCache.isEnabled() ? ControlDependenceCache.getInstance()
+		        .getControlDependenceGraph(cfg) : new ControlDependenceGraph(cfg);
 
 		String className = cd.getClassName();
 		String methodName = cd.getMethodName();
@@ -474,6 +505,7 @@ public class GraphPool {
 		rawCFGs.clear();
 		actualCFGs.clear();
 		controlDependencies.clear();
+		pendingControlDependencies.clear();
 	}
 
 	/**
@@ -488,6 +520,7 @@ public class GraphPool {
 		rawCFGs.remove(className);
 		actualCFGs.remove(className);
 		controlDependencies.remove(className);
+		pendingControlDependencies.remove(className);
 	}
 
 	/**
@@ -507,6 +540,8 @@ public class GraphPool {
 			actualCFGs.get(className).remove(methodName);
 		if (controlDependencies.containsKey(className))
 			controlDependencies.get(className).remove(methodName);
+		if (pendingControlDependencies.containsKey(className))
+			pendingControlDependencies.get(className).remove(methodName);
 	}
 
 	public static void clearAll(String className) {
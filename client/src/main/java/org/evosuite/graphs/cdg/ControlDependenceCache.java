@@ -0,0 +1,255 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs.cdg;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.evosuite.Properties;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.graphs.cfg.BasicBlock;
+import org.evosuite.graphs.cfg.ControlFlowEdge;
+import org.evosuite.utils.FileIOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Cache of the control dependences of methods in the directory given by
+ * {@link Properties#INSTRUMENTATION_CACHE_DIR}, which is shared by all runs.
+ * </p>
+ *
+ * <p>
+ * The CFGs themselves are built from the method nodes the instrumentation
+ * works on, and the branches they contain are numbered in the order in which
+ * classes are loaded, so they are created anew in each run. The control
+ * dependences however only depend on the structure of the CFG, which is
+ * therefore used as key: the basic blocks are identified by the id of their
+ * first instruction, and the edges by their blocks, their type and the
+ * instruction of their branch.
+ * </p>
+ */
+public class ControlDependenceCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(ControlDependenceCache.class);
+
+	private static final int MAGIC = 0xC0DEDE9E;
+
+	/** The dependences of smaller CFGs are computed faster than looked up */
+	public static final int MIN_BLOCKS = 16;
+
+	private static final int ENTRY_BLOCK = -1;
+
+	private static final int EXIT_BLOCK = -2;
+
+	/** Used for dependences which are not taken from an edge of the CFG */
+	private static final int NO_EDGE = -3;
+
+	private static ControlDependenceCache instance = null;
+
+	private static final AtomicInteger hits = new AtomicInteger();
+
+	private final File directory;
+
+	private ControlDependenceCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * <p>
+	 * isEnabled
+	 * </p>
+	 *
+	 * @return a boolean.
+	 */
+	public static boolean isEnabled() {
+		return Properties.INSTRUMENTATION_CACHE_DIR != null && !Properties.INSTRUMENTATION_CACHE_DIR.isEmpty();
+	}
+
+	/**
+	 * <p>
+	 * Getter for the field <code>instance</code>.
+	 * </p>
+	 *
+	 * @return a {@link org.evosuite.graphs.cdg.ControlDependenceCache} object.
+	 */
+	public static synchronized ControlDependenceCache getInstance() {
+		File directory = new File(Properties.INSTRUMENTATION_CACHE_DIR, "cdg");
+		if (instance == null || !instance.directory.equals(directory)) {
+			directory.mkdirs();
+			instance = new ControlDependenceCache(directory);
+		}
+		return instance;
+	}
+
+	public static int getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Create the CDG of the given CFG, with the control dependences from the
+	 * cache if possible
+	 *
+	 * @param cfg
+	 *            a {@link org.evosuite.graphs.cfg.ActualControlFlowGraph}
+	 *            object.
+	 * @return a {@link org.evosuite.graphs.cdg.ControlDependenceGraph} object.
+	 */
+	public ControlDependenceGraph getControlDependenceGraph(ActualControlFlowGraph cfg) {
+		if (cfg.vertexCount() < MIN_BLOCKS)
+			return new ControlDependenceGraph(cfg);
+
+		Map<Integer, BasicBlock> blocks = new HashMap<>();
+		for (BasicBlock block : cfg.vertexSet()) {
+			if (blocks.put(getId(block), block) != null) {
+				logger.debug("Basic blocks of {}.{} cannot be identified", cfg.getClassName(), cfg.getMethodName());
+				return new ControlDependenceGraph(cfg);
+			}
+		}
+
+		File entry = new File(directory, getKey(cfg, blocks) + ".cdg");
+		ControlDependenceGraph cdg = read(entry, cfg, blocks);
+		if (cdg != null) {
+			hits.incrementAndGet();
+			return cdg;
+		}
+
+		cdg = new ControlDependenceGraph(cfg);
+		write(entry, cfg, cdg);
+		return cdg;
+	}
+
+	private static int getId(BasicBlock block) {
+		if (block.isEntryBlock())
+			return ENTRY_BLOCK;
+		if (block.isExitBlock())
+			return EXIT_BLOCK;
+		return block.getFirstInstruction().getInstructionId();
+	}
+
+	private static String getKey(ActualControlFlowGraph cfg, Map<Integer, BasicBlock> blocks) {
+		List<int[]> edges = new ArrayList<>();
+		for (ControlFlowEdge edge : cfg.edgeSet()) {
+			int branch = edge.hasControlDependency() ? edge.getBranchInstruction().getInstruction()
+			        .getInstructionId() : NO_EDGE;
+			edges.add(new int[] { getId(cfg.getEdgeSource(edge)), getId(cfg.getEdgeTarget(edge)),
+			        edge.isExceptionEdge() ? 1 : 0, branch, edge.getBranchExpressionValue() ? 1 : 0 });
+		}
+		edges.sort((e1, e2) -> e1[0] != e2[0] ? Integer.compare(e1[0], e2[0]) : Integer.compare(e1[1], e2[1]));
+
+		ByteBuffer buffer = ByteBuffer.allocate(4 * (1 + blocks.size() + 5 * edges.size()));
+		buffer.putInt(blocks.size());
+		blocks.keySet().stream().sorted().forEach(buffer::putInt);
+		for (int[] edge : edges) {
+			for (int value : edge)
+				buffer.putInt(value);
+		}
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return String.format("%1$064x", new BigInteger(1, digest.digest(buffer.array())));
+		} catch (NoSuchAlgorithmException e) {
+			throw new Error(e);
+		}
+	}
+
+	private ControlDependenceGraph read(File entry, ActualControlFlowGraph cfg, Map<Integer, BasicBlock> blocks) {
+		ByteBuffer buffer = FileIOUtils.readMappedFile(entry);
+		if (buffer == null || buffer.remaining() < 8 || buffer.getInt() != MAGIC)
+			return null;
+
+		int size = buffer.getInt();
+		if (buffer.remaining() != 12 * size)
+			return null;
+
+		List<BasicBlock> sources = new ArrayList<>(size);
+		List<BasicBlock> targets = new ArrayList<>(size);
+		List<ControlFlowEdge> origins = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			BasicBlock source = blocks.get(buffer.getInt());
+			BasicBlock target = blocks.get(buffer.getInt());
+			int originTarget = buffer.getInt();
+			ControlFlowEdge origin = null;
+			if (originTarget != NO_EDGE) {
+				BasicBlock block = blocks.get(originTarget);
+				origin = block == null ? null : cfg.getEdge(source, block);
+				if (origin == null)
+					return null;
+			}
+			if (source == null || target == null)
+				return null;
+
+			sources.add(source);
+			targets.add(target);
+			origins.add(origin);
+		}
+
+		ControlDependenceGraph cdg = new ControlDependenceGraph(cfg, false);
+		for (int i = 0; i < size; i++) {
+			cdg.addControlDependence(sources.get(i), targets.get(i), origins.get(i));
+		}
+		return cdg;
+	}
+
+	/**
+	 * The edges of the CDG are copies of edges of the CFG, which are stored as
+	 * the target of the CFG edge with the same source and content
+	 */
+	private void write(File entry, ActualControlFlowGraph cfg, ControlDependenceGraph cdg) {
+		ByteBuffer buffer = ByteBuffer.allocate(8 + 12 * cdg.edgeCount());
+		buffer.putInt(MAGIC);
+		buffer.putInt(cdg.edgeCount());
+		for (ControlFlowEdge edge : cdg.edgeSet()) {
+			BasicBlock source = cdg.getEdgeSource(edge);
+			BasicBlock target = cdg.getEdgeTarget(edge);
+			int originTarget = NO_EDGE;
+			ControlFlowEdge direct = cfg.getEdge(source, target);
+			if (direct != null && isCopy(edge, direct)) {
+				originTarget = getId(target);
+			} else if (edge.hasControlDependency() || edge.isExceptionEdge()) {
+				for (ControlFlowEdge candidate : cfg.outgoingEdgesOf(source)) {
+					if (isCopy(edge, candidate)) {
+						originTarget = getId(cfg.getEdgeTarget(candidate));
+						break;
+					}
+				}
+				if (originTarget == NO_EDGE)
+					return;
+			}
+			buffer.putInt(getId(source));
+			buffer.putInt(getId(target));
+			buffer.putInt(originTarget);
+		}
+		FileIOUtils.writeFileAtomically(buffer.array(), entry);
+	}
+
+	private static boolean isCopy(ControlFlowEdge copy, ControlFlowEdge edge) {
+		return copy.getControlDependency() == edge.getControlDependency()
+		        && copy.isExceptionEdge() == edge.isExceptionEdge();
+	}
+}
@@ -57,6 +57,27 @@ public class ControlDependenceGraph extends EvoSuiteGraph<BasicBlock, ControlFlo
 		// TODO check sanity
 	}
 
+	/**
+	 * Constructor for a ControlDependenceGraph whose control dependences are
+	 * already known, and added with
+	 * {@link #addControlDependence(BasicBlock, BasicBlock, ControlFlowEdge)}
+	 *
+	 * @param cfg a {@link org.evosuite.graphs.cfg.ActualControlFlowGraph} object.
+	 * @param computeControlDependence whether to compute the control dependences
+	 */
+	ControlDependenceGraph(ActualControlFlowGraph cfg, boolean computeControlDependence) {
+		super(ControlFlowEdge.class);
+
+		this.cfg = cfg;
+		this.className = cfg.getClassName();
+		this.methodName = cfg.getMethodName();
+
+		if (computeControlDependence)
+			computeGraph();
+		else
+			createGraphNodes();
+	}
+
 	/**
 	 * Convenience method redirecting to getControlDependentBranches(BasicBlock)
 	 * if the given instruction is known to this CDG. Otherwise an
@@ -483,7 +504,7 @@ public class ControlDependenceGraph extends EvoSuiteGraph<BasicBlock, ControlFlo
 		addVertices(cfg);
 
 		for (BasicBlock b : vertexSet())
-			if (b.isExitBlock() && !graph.removeVertex(b)) // TODO refactor
+			if (b.isExitBlock() && !removeVertex(b)) // TODO refactor
 				throw new IllegalStateException("internal error building up CDG");
 
 	}
@@ -550,15 +571,27 @@ public class ControlDependenceGraph extends EvoSuiteGraph<BasicBlock, ControlFlo
 					if (orig == null)
 						logger.debug("orig still null!");
 
-					if (!addEdge(cd, b, new ControlFlowEdge(orig)))
-						throw new IllegalStateException(
-						        "internal error while adding CD edge");
+					addControlDependence(cd, b, orig);
 
 					logger.debug("  " + cd.getName());
 				}
 			}
 	}
 
+	/**
+	 * Add the edge from the given branch block to the block that is control
+	 * dependent on it
+	 *
+	 * @param cd the block the other block is control dependent on
+	 * @param b the control dependent block
+	 * @param orig the edge of the CFG the dependence is taken from, or null
+	 */
+	void addControlDependence(BasicBlock cd, BasicBlock b, ControlFlowEdge orig) {
+		if (!addEdge(cd, b, new ControlFlowEdge(orig)))
+			throw new IllegalStateException(
+			        "internal error while adding CD edge");
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public String getName() {
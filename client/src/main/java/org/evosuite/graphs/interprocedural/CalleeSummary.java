@@ -0,0 +1,175 @@
+package org.evosuite.graphs.interprocedural;
+
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.fbranch.FBranchDefUseAnalyzer;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.graphs.cfg.BytecodeAnalyzer;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
+import org.objectweb.asm.tree.MethodNode;
+
+/**
+ * What the analysis of a called method needs independently of the branch
+ * being analyzed: whether the method can be analyzed at all, and its CFG,
+ * which is registered with its def-uses when the method is first called.
+ * 
+ * The dependent variables found in the called method cannot be kept here, as
+ * the relations built between them and the variables of the caller are
+ * specific to the branch being analyzed.
+ */
+public class CalleeSummary {
+
+	private static final CalleeSummary NOT_ANALYZABLE = new CalleeSummary(null);
+
+	private static final Map<String, CalleeSummary> summaries = new ConcurrentHashMap<>();
+
+	private final ActualControlFlowGraph cfg;
+
+	private CalleeSummary(ActualControlFlowGraph cfg) {
+		this.cfg = cfg;
+	}
+
+	/**
+	 * @return the CFG of the called method, or null if the method cannot be
+	 *         analyzed
+	 */
+	public ActualControlFlowGraph getCFG() {
+		return cfg;
+	}
+
+	public static void clear() {
+		summaries.clear();
+	}
+
+	/**
+	 * the summary of the method called by {@code instruction}
+	 * 
+	 * @param instruction
+	 * @return
+	 */
+	public static CalleeSummary get(BytecodeInstruction instruction) {
+		String key = instruction.getCalledMethodsClass() + "." + instruction.getCalledMethod();
+		CalleeSummary summary = summaries.get(key);
+		if (summary == null) {
+			summary = compute(key, instruction.getCalledMethodsClass(), instruction.getCalledMethod());
+		}
+		return summary;
+	}
+
+	/**
+	 * Registering the CFGs changes the graph and def-use pools, so this is
+	 * done by one thread at a time
+	 */
+	private static synchronized CalleeSummary compute(String key, String className, String methodName) {
+		CalleeSummary summary = summaries.get(key);
+		if (summary == null) {
+			ActualControlFlowGraph cfg = resolveCFG(className, methodName);
+			summary = cfg == null ? NOT_ANALYZABLE : new CalleeSummary(cfg);
+			summaries.put(key, summary);
+		}
+		return summary;
+	}
+
+	private static ActualControlFlowGraph resolveCFG(String className, String methodName) {
+		InstrumentingClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+
+		//TODO more in-depth analysis here
+		try {
+			Class<?> clazz = classLoader.loadClass(className);
+			if(clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+				return null;
+			}
+		} catch (ClassNotFoundException e1) {
+			return null;
+		}
+
+		ActualControlFlowGraph calledCfg = GraphPool.getInstance(classLoader).getActualCFG(className, methodName);
+		if (calledCfg == null) {
+			Properties.ALWAYS_REGISTER_BRANCH = true;
+			try {
+				GraphPool.getInstance(classLoader).registerClass(className);
+				calledCfg = GraphPool.getInstance(classLoader).getActualCFG(className, methodName);
+
+				if (calledCfg == null) {
+					MethodNode innerNode = DefUseAnalyzer.getMethodNode(classLoader, className, methodName);
+					BytecodeAnalyzer bytecodeAnalyzer = new BytecodeAnalyzer();
+					try {
+						bytecodeAnalyzer.analyze(classLoader, className, methodName, innerNode);
+					} catch (Exception e) {
+						/**
+						 * the cfg (e.g., jdk/library class) is out of our consideration
+						 */
+						return null;
+					}
+
+					bytecodeAnalyzer.retrieveCFGGenerator().registerCFGs();
+					calledCfg = GraphPool.getInstance(classLoader).getActualCFG(className, methodName);
+				}
+			} finally {
+				Properties.ALWAYS_REGISTER_BRANCH = false;
+			}
+		}
+
+		if(calledCfg == null) {
+			return null;
+		}
+
+		GraphPool.getInstance(classLoader).alwaysRegisterActualCFG(calledCfg);
+		boolean canBeAnalyzed = FBranchDefUseAnalyzer.analyze(calledCfg.getRawGraph());
+		if(!canBeAnalyzed) {
+			return null;
+		}
+		return calledCfg;
+	}
+
+	/**
+	 * Compute the summaries of all methods that can be called from {@code cfg}
+	 * within the given depth of the call graph, together with everything the
+	 * analysis of their instructions registers, so that the branches of
+	 * {@code cfg} can then be analyzed concurrently without changing any pool.
+	 * 
+	 * @param cfg
+	 * @param callGraphDepth
+	 */
+	public static void prepare(ActualControlFlowGraph cfg, int callGraphDepth) {
+		prepare(cfg, callGraphDepth, new HashSet<String>());
+	}
+
+	private static void prepare(ActualControlFlowGraph cfg, int callGraphDepth, Set<String> prepared) {
+		if (!prepared.add(cfg.getClassName() + "." + cfg.getMethodName() + "@" + callGraphDepth)) {
+			return;
+		}
+
+		InstrumentingClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		MethodNode node = DefUseAnalyzer.getMethodNode(classLoader, cfg.getClassName(), cfg.getMethodName());
+		if (node != null) {
+			new DefUseAnalyzer().analyze(classLoader, node, cfg.getClassName(), cfg.getMethodName(), node.access);
+		}
+
+		for (BytecodeInstruction instruction : cfg.getRawGraph().vertexSet()) {
+			try {
+				// computes the control dependence graph if needed
+				instruction.getControlDependencies();
+			} catch (Exception e) {
+				// the analysis of the branches ignores these as well
+			}
+
+			if (callGraphDepth <= 0 || !(instruction.isMethodCall() || instruction.isConstructorInvocation())
+					|| instruction.getCalledMethodsClass().contains("evosuite")) {
+				continue;
+			}
+			ActualControlFlowGraph calledCfg = get(instruction).getCFG();
+			if (calledCfg != null) {
+				prepare(calledCfg, callGraphDepth - 1, prepared);
+			}
+		}
+	}
+}
@@ -3,10 +3,12 @@ package org.evosuite.graphs.interprocedural;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.evosuite.TestGenerationContext;
 import org.evosuite.classpath.ResourceList;
@@ -29,10 +31,20 @@ import org.objectweb.asm.tree.MethodNode;
 
 public class DefUseAnalyzer {
 	
-	private static Set<String> analizedList = new HashSet<>();
+	private static Set<String> analizedList = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	
+	/**
+	 * parsed classes of {@code classNodeLoader}, as the method nodes are looked up for every analyzed instruction
+	 */
+	private static Map<String, ClassNode> classNodes = new ConcurrentHashMap<>();
+	private static ClassLoader classNodeLoader = null;
 	
 	public static void resetSingleton() {
 		analizedList.clear();
+		synchronized (classNodes) {
+			classNodes.clear();
+			classNodeLoader = null;
+		}
 	}
 	
 	public static List<BytecodeInstruction> getDefFromUse(BytecodeInstruction insOfuse) {
@@ -44,20 +56,23 @@ public class DefUseAnalyzer {
 		DefUseAnalyzer defUseAnalyzer = new DefUseAnalyzer();
 		defUseAnalyzer.analyze(classLoader, node, className, methodName, node.access);
 		Use use = null;
-		try {
-			use = DefUseFactory.makeUse(insOfuse);			
-		}
-		catch(Exception e) {
-			System.currentTimeMillis();
-		}
-		
-		if(use == null) {
-			return new ArrayList<BytecodeInstruction>();
+		List<Definition> defs = null;
+		synchronized (DefUsePool.class) {
+			try {
+				use = DefUseFactory.makeUse(insOfuse);
+			}
+			catch(Exception e) {
+				System.currentTimeMillis();
+			}
+			
+			if(use == null) {
+				return new ArrayList<BytecodeInstruction>();
+			}
+			
+			// Ignore method parameter
+			defs = DefUsePool.getDefinitions(use);
 		}
 		
-		// Ignore method parameter
-		List<Definition> defs = DefUsePool.getDefinitions(use);
-		
 		if(defs == null) return new ArrayList<BytecodeInstruction>();
 
 		List<BytecodeInstruction> list = new ArrayList<BytecodeInstruction>();
@@ -82,11 +97,8 @@ public class DefUseAnalyzer {
 	}
 	
 	public static MethodNode getMethodNode(InstrumentingClassLoader classLoader, String className, String methodName) {
-		InputStream is = ResourceList.getInstance(classLoader).getClassAsStream(className);
 		try {
-			ClassReader reader = new ClassReader(is);
-			ClassNode cn = new ClassNode();
-			reader.accept(cn, ClassReader.SKIP_FRAMES);
+			ClassNode cn = getClassNode(classLoader, className);
 			List<MethodNode> l = cn.methods;
 
 			for (MethodNode n : l) {
@@ -119,45 +131,67 @@ public class DefUseAnalyzer {
 		return null;
 	}
 	
+	private static ClassNode getClassNode(InstrumentingClassLoader classLoader, String className) throws IOException {
+		synchronized (classNodes) {
+			if (classNodeLoader != classLoader) {
+				classNodes.clear();
+				classNodeLoader = classLoader;
+			}
+		}
+		
+		ClassNode cn = classNodes.get(className);
+		if (cn == null) {
+			InputStream is = ResourceList.getInstance(classLoader).getClassAsStream(className);
+			ClassReader reader = new ClassReader(is);
+			cn = new ClassNode();
+			reader.accept(cn, ClassReader.SKIP_FRAMES);
+			classNodes.put(className, cn);
+		}
+		return cn;
+	}
+	
 	public void analyze(ClassLoader classLoader, MethodNode mn, String className,
 	        String methodName, int access) {
 		String methodId = String.format("%s#%s%s", className, methodName, mn.desc);
-		if (analizedList.contains(methodId)) {
-			return;
-		}
-		
-		RawControlFlowGraph completeCFG = GraphPool.getInstance(classLoader).getRawCFG(className,
-		                                                                               methodName);
-		Iterator<AbstractInsnNode> j = mn.instructions.iterator();
-		while (j.hasNext()) {
-			AbstractInsnNode in = j.next();
-			for (BytecodeInstruction v : completeCFG.vertexSet()) {
-			    if (in.equals(v.getASMNode()) && v.isDefUse()) {
-					boolean isValidDU = false;
+		// the DefUsePool is not thread safe, and the analysis is started from the
+		// fork/join tasks of the InterproceduralGraphAnalysis
+		synchronized (DefUsePool.class) {
+			if (!analizedList.add(methodId)) {
+				return;
+			}
+			
+			RawControlFlowGraph completeCFG = GraphPool.getInstance(classLoader).getRawCFG(className,
+			                                                                               methodName);
+			Iterator<AbstractInsnNode> j = mn.instructions.iterator();
+			while (j.hasNext()) {
+				AbstractInsnNode in = j.next();
+				for (BytecodeInstruction v : completeCFG.vertexSet()) {
+				    if (in.equals(v.getASMNode()) && v.isDefUse()) {
+						boolean isValidDU = false;
 
 //					if(v.isLocalArrayDefinition()) {
 //						LoggingUtils.getEvoLogger().info(
 //							"LOCAL ARRAY VAR DEF " + v.toString()+" loaded by "+v.getSourceOfStackInstruction(2).toString());
 //					}
 					
-					if (v.isMethodCallOfField()) {
-						// keep track of field method calls, though we do not
-						// know
-						// how to handle them at this point during the analysis
-						// (need complete CCFGs first)
-						isValidDU = DefUsePool.addAsFieldMethodCall(v);
-					} else {
-						// keep track of uses
-						if (v.isUse())
-							isValidDU = DefUsePool.addAsUse(v);
-						// keep track of definitions
-						if (v.isDefinition())
-							isValidDU = DefUsePool.addAsDefinition(v) || isValidDU;
+						if (v.isMethodCallOfField()) {
+							// keep track of field method calls, though we do not
+							// know
+							// how to handle them at this point during the analysis
+							// (need complete CCFGs first)
+							isValidDU = DefUsePool.addAsFieldMethodCall(v);
+						} else {
+							// keep track of uses
+							if (v.isUse())
+								isValidDU = DefUsePool.addAsUse(v);
+							// keep track of definitions
+							if (v.isDefinition())
+								isValidDU = DefUsePool.addAsDefinition(v) || isValidDU;
+						}
 					}
 				}
 			}
 		}
-		analizedList.add(methodId);
 	}
 	
 	@SuppressWarnings({ "unchecked", "unused" })
@@ -1,11 +1,15 @@
 package org.evosuite.graphs.interprocedural;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
@@ -22,19 +26,24 @@ import org.evosuite.graphs.interprocedural.var.DepVariable;
 import org.evosuite.graphs.interprocedural.var.DepVariableFactory;
 import org.evosuite.instrumentation.InstrumentingClassLoader;
 import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.utils.LoggingUtils;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 import org.objectweb.asm.tree.analysis.Frame;
 import org.objectweb.asm.tree.analysis.SourceValue;
 import org.objectweb.asm.tree.analysis.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class InterproceduralGraphAnalysis {
+	private static final Logger logger = LoggerFactory.getLogger(InterproceduralGraphAnalysis.class);
+	
 	/**
 	 * a map maintains what variables are dependent by which branch, method->branch->dependent variables
 	 * 
 	 */
-	public static Map<String, Map<Branch, Set<DepVariable>>> branchInterestedVarsMap = new HashMap<>();
-	public static Map<Integer, List<String>> recommendedClasses = new HashMap<>();
+	public static Map<String, Map<Branch, Set<DepVariable>>> branchInterestedVarsMap = Collections.synchronizedMap(new HashMap<>());
+	public static Map<Integer, List<String>> recommendedClasses = Collections.synchronizedMap(new HashMap<>());
 
 	public static boolean isReachableInClass(BytecodeInstruction source, BytecodeInstruction target) {
 		
@@ -64,6 +73,8 @@ public class InterproceduralGraphAnalysis {
 	}
 	
 	public static void initializeDataflow(IInterestedNodeFilter interestedNodeFilter) {
+		long startTime = System.currentTimeMillis();
+		int branches = 0;
 		InstrumentingClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
 
 		for (String className : BranchPool.getInstance(classLoader).knownClasses()) {
@@ -83,17 +94,22 @@ public class InterproceduralGraphAnalysis {
 					FBranchDefUseAnalyzer.analyze(cfg.getRawGraph());
 					
 					Map<Branch, Set<DepVariable>> map = analyzeIndividualMethod(cfg, interestedNodeFilter);
-					System.currentTimeMillis();
-					recommendedClasses = analyzeRecommendationClasses(cfg);
-					System.currentTimeMillis();
-					branchInterestedVarsMap.put(methodName, map);					
+					recommendedClasses = Collections.synchronizedMap(analyzeRecommendationClasses(cfg));
+					branchInterestedVarsMap.put(methodName, map);
+					branches += map.size();
 				}
 			}
 		}
 
+		LoggingUtils.getEvoLogger().info("* Analyzed the data flow of " + branches + " branches in "
+				+ (System.currentTimeMillis() - startTime) + "ms with " + getThreads() + " thread(s)");
 //		GraphVisualizer.visualizeComputationGraph();
 	}
 	
+	private static int getThreads() {
+		return Math.max(1, Properties.DATAFLOW_ANALYSIS_THREADS);
+	}
+	
 	@SuppressWarnings("rawtypes")
 	public static Map<Integer, List<String>> analyzeRecommendationClasses(ActualControlFlowGraph cfg){
 		InstrumentingClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
@@ -152,7 +168,15 @@ public class InterproceduralGraphAnalysis {
 	}
 	
 	
-	@SuppressWarnings("rawtypes")
+	/**
+	 * Analyze the branches of the method of {@code cfg}. With more than one
+	 * thread, the methods the branches depend on are summarized first, and the
+	 * branches are then analyzed by a fork/join pool.
+	 * 
+	 * @param cfg
+	 * @param interestedNodeFilter
+	 * @return
+	 */
 	public static Map<Branch, Set<DepVariable>> analyzeIndividualMethod(ActualControlFlowGraph cfg, IInterestedNodeFilter interestedNodeFilter) {
 		Map<Branch, Set<DepVariable>> map = new HashMap<>();
 		
@@ -160,31 +184,43 @@ public class InterproceduralGraphAnalysis {
 		String className = cfg.getClassName();
 		String methodName = cfg.getMethodName();
 		
-		for (Branch b : BranchPool.getInstance(classLoader).retrieveBranchesInMethod(className, methodName)) {
-			InterproceduralGraphAnalyzer graphAnalyzer = new InterproceduralGraphAnalyzer(b, interestedNodeFilter);
-			Set<DepVariable> inputRootVars = new HashSet<DepVariable>();
-			Set<BytecodeInstruction> visitedIns = new HashSet<BytecodeInstruction>();
-			if (!b.isInstrumented()) {
-				Frame frame = b.getInstruction().getFrame();
-				for (int i = 0; i < b.getInstruction().getOperandNum(); i++) {
-					int index = frame.getStackSize() - i - 1;
-					Value val = frame.getStack(index);
-					
-					graphAnalyzer.searchDependantVariables(val, cfg, inputRootVars, visitedIns, 
-							Properties.COMPUTATION_GRAPH_METHOD_CALL_DEPTH);
-				}
-			}
+		List<Branch> branches = BranchPool.getInstance(classLoader).retrieveBranchesInMethod(className, methodName);
+		BranchProgress progress = new BranchProgress(cfg, branches.size());
+		
+		if (getThreads() > 1 && branches.size() > 1) {
+			long startTime = System.currentTimeMillis();
+			CalleeSummary.prepare(cfg, Properties.COMPUTATION_GRAPH_METHOD_CALL_DEPTH);
+			logger.info("Summarized the methods called by {} in {}ms", methodName, System.currentTimeMillis() - startTime);
 			
-			map.put(b, inputRootVars);
+			@SuppressWarnings("unchecked")
+			Set<DepVariable>[] results = new Set[branches.size()];
+			ForkJoinPool pool = new ForkJoinPool(getThreads());
+			try {
+				pool.invoke(new BranchAnalysisTask(cfg, branches, results, 0, branches.size(), interestedNodeFilter, progress));
+			} finally {
+				pool.shutdown();
+			}
+			for (int i = 0; i < branches.size(); i++) {
+				map.put(branches.get(i), results[i]);
+			}
+		} else {
+			for (Branch b : branches) {
+				map.put(b, analyzeBranch(cfg, b, interestedNodeFilter));
+				progress.branchAnalyzed();
+			}
 		}
 		
 		return map;
 	}
 	
-	@SuppressWarnings("rawtypes")
 	public static Map<Branch, Set<DepVariable>> analyzeIndividualBranch(ActualControlFlowGraph cfg, Branch branch, IInterestedNodeFilter interestedNodeFilter) {
 		Map<Branch, Set<DepVariable>> map = new HashMap<>();
-		
+		map.put(branch, analyzeBranch(cfg, branch, interestedNodeFilter));
+		return map;
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private static Set<DepVariable> analyzeBranch(ActualControlFlowGraph cfg, Branch branch, IInterestedNodeFilter interestedNodeFilter) {
 		InterproceduralGraphAnalyzer graphAnalyzer = new InterproceduralGraphAnalyzer(branch, interestedNodeFilter);
 		Set<DepVariable> inputRootVars = new HashSet<DepVariable>();
 		Set<BytecodeInstruction> visitedIns = new HashSet<BytecodeInstruction>();
@@ -198,10 +234,67 @@ public class InterproceduralGraphAnalysis {
 						Properties.COMPUTATION_GRAPH_METHOD_CALL_DEPTH);
 			}
 		}
+		return inputRootVars;
+	}
+	
+	/**
+	 * analyzes the branches in [from, to), splitting the range until single branches are left
+	 */
+	@SuppressWarnings("serial")
+	private static class BranchAnalysisTask extends RecursiveAction {
+		private final ActualControlFlowGraph cfg;
+		private final List<Branch> branches;
+		private final Set<DepVariable>[] results;
+		private final int from;
+		private final int to;
+		private final IInterestedNodeFilter interestedNodeFilter;
+		private final BranchProgress progress;
 		
-		map.put(branch, inputRootVars);
+		public BranchAnalysisTask(ActualControlFlowGraph cfg, List<Branch> branches, Set<DepVariable>[] results,
+				int from, int to, IInterestedNodeFilter interestedNodeFilter, BranchProgress progress) {
+			this.cfg = cfg;
+			this.branches = branches;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+			this.interestedNodeFilter = interestedNodeFilter;
+			this.progress = progress;
+		}
 		
-		return map;
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				results[from] = analyzeBranch(cfg, branches.get(from), interestedNodeFilter);
+				progress.branchAnalyzed();
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new BranchAnalysisTask(cfg, branches, results, from, middle, interestedNodeFilter, progress),
+					new BranchAnalysisTask(cfg, branches, results, middle, to, interestedNodeFilter, progress));
+		}
+	}
+	
+	/**
+	 * reports the analyzed branches of a method in steps of 10%
+	 */
+	private static class BranchProgress {
+		private final String methodName;
+		private final int total;
+		private final long startTime = System.currentTimeMillis();
+		private final AtomicInteger analyzed = new AtomicInteger();
+		
+		public BranchProgress(ActualControlFlowGraph cfg, int total) {
+			this.methodName = cfg.getClassName() + "." + cfg.getMethodName();
+			this.total = total;
+		}
+		
+		public void branchAnalyzed() {
+			int count = analyzed.incrementAndGet();
+			if (count * 10 / total != (count - 1) * 10 / total) {
+				logger.info("Analyzed {}/{} branches of {} in {}ms", count, total, methodName,
+						System.currentTimeMillis() - startTime);
+			}
+		}
 	}
 
 	private static boolean isCUT(String className) {
@@ -1,6 +1,5 @@
 package org.evosuite.graphs.interprocedural;
 
-import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -11,10 +10,7 @@ import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.coverage.branch.Branch;
-import org.evosuite.coverage.fbranch.FBranchDefUseAnalyzer;
-import org.evosuite.graphs.GraphPool;
 import org.evosuite.graphs.cfg.ActualControlFlowGraph;
-import org.evosuite.graphs.cfg.BytecodeAnalyzer;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.graphs.cfg.ControlDependency;
 import org.evosuite.graphs.interprocedural.interestednode.IInterestedNodeFilter;
@@ -47,70 +43,12 @@ public class InterproceduralGraphAnalyzer {
 			return new HashMap<>();
 		}
 		
-		InstrumentingClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
-		
 		String className = instruction.getCalledMethodsClass();
-		String methodName = instruction.getCalledMethod();
-		
-		//TODO more in-depth analysis here
-		try {
-			Class<?> clazz = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(className);
-			if(clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
-				return new HashMap<>();
-			}
-		} catch (ClassNotFoundException e1) {
-			return new HashMap<>();
-		}
-		
-		ActualControlFlowGraph calledCfg = GraphPool.getInstance(classLoader).getActualCFG(className, methodName);
-//		MethodNode innerNode = DefUseAnalyzer.getMethodNode(classLoader, className, methodName);
-		
-		if (calledCfg == null) {
-			Properties.ALWAYS_REGISTER_BRANCH = true;
-			GraphPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).
-				registerClass(className);
-//			BytecodeAnalyzer bytecodeAnalyzer = new BytecodeAnalyzer();
-//			try {
-//				bytecodeAnalyzer.analyze(classLoader, className, methodName, innerNode);
-//			} catch (Exception e) {
-//				/**
-//				 * the cfg (e.g., jdk/library class) is out of our consideration
-//				 */
-//				return new HashMap<>();
-//			}
-//			
-//			bytecodeAnalyzer.retrieveCFGGenerator().registerCFGs();
-			calledCfg = GraphPool.getInstance(classLoader).getActualCFG(className, methodName);
-			
-			
-			if (calledCfg == null) {
-				MethodNode innerNode = DefUseAnalyzer.getMethodNode(classLoader, className, methodName);
-				BytecodeAnalyzer bytecodeAnalyzer = new BytecodeAnalyzer();
-				try {
-					bytecodeAnalyzer.analyze(classLoader, className, methodName, innerNode);
-				} catch (Exception e) {
-					/**
-					 * the cfg (e.g., jdk/library class) is out of our consideration
-					 */
-					return new HashMap<>();
-				}
-
-				bytecodeAnalyzer.retrieveCFGGenerator().registerCFGs();
-			}
-			
-			Properties.ALWAYS_REGISTER_BRANCH = false;
-		}
-		
+		ActualControlFlowGraph calledCfg = CalleeSummary.get(instruction).getCFG();
 		if(calledCfg == null) {
 			return new HashMap<>();
 		}
 		
-		GraphPool.getInstance(classLoader).alwaysRegisterActualCFG(calledCfg);
-		boolean canBeAnalyzed = FBranchDefUseAnalyzer.analyze(calledCfg.getRawGraph());
-		if(!canBeAnalyzed) {
-			return new HashMap<>();
-		}
-		
 		Set<DepVariable> allDepVars = new HashSet<DepVariable>();
 		Set<BytecodeInstruction> visitedIns = new HashSet<BytecodeInstruction>();
 		for (BytecodeInstruction exit : calledCfg.getExitPoints()) {
@@ -150,6 +150,32 @@ public class BytecodeInstrumentation {
 		return TestCluster.isTargetClassName(className);
 	}
 
+	/**
+	 * The instrumented bytes of a class can be reused across runs if they do
+	 * not depend on anything but the bytes of the class and the properties.
+	 * This is not the case for classes that are analyzed or testability
+	 * transformed, as their instrumentation contains ids (branches,
+	 * mutations, etc.) that depend on the classes instrumented before.
+	 *
+	 * @param className
+	 *            a {@link java.lang.String} object.
+	 * @return a boolean.
+	 */
+	public boolean isCacheable(String className) {
+		if (DependencyAnalysis.shouldAnalyze(className))
+			return false;
+
+		if (Properties.TT && className.startsWith(Properties.CLASS_PREFIX))
+			return false;
+
+		if (className.startsWith(Properties.PROJECT_PREFIX)
+				|| (!Properties.TARGET_CLASS_PREFIX.isEmpty() && className.startsWith(Properties.TARGET_CLASS_PREFIX))
+				|| shouldTransform(className))
+			return false;
+
+		return !Properties.TEST_CARVING && checkedInstructions.isEmpty();
+	}
+
 	/**
 	 * <p>
 	 * transformBytes
@@ -162,6 +188,27 @@ public class BytecodeInstrumentation {
 	 * @return an array of byte.
 	 */
 	public byte[] transformBytes(ClassLoader classLoader, String className, ClassReader reader) {
+		return transformBytes(classLoader, className, reader, false);
+	}
+
+	/**
+	 * Visit a class with all instrumentation adapters without writing the
+	 * result. The information the adapters collect about the class (constants,
+	 * purity, loop indices etc.) is the same as if it was instrumented, so
+	 * this is used for classes whose instrumented bytes are already known.
+	 *
+	 * @param classLoader
+	 *            a {@link java.lang.ClassLoader} object.
+	 * @param className
+	 *            a {@link java.lang.String} object.
+	 * @param reader
+	 *            a {@link org.objectweb.asm.ClassReader} object.
+	 */
+	public void replayTransformation(ClassLoader classLoader, String className, ClassReader reader) {
+		transformBytes(classLoader, className, reader, true);
+	}
+
+	private byte[] transformBytes(ClassLoader classLoader, String className, ClassReader reader, boolean replay) {
 
 		int readFlags = ClassReader.SKIP_FRAMES;
 
@@ -183,9 +230,10 @@ public class BytecodeInstrumentation {
 		 * CFGAdapter.
 		 */
 		int asmFlags = ClassWriter.COMPUTE_FRAMES;
-		ClassWriter writer = new ComputeClassWriter(asmFlags);
+		ClassWriter writer = replay ? null : new ComputeClassWriter(asmFlags);
 
-		ClassVisitor cv = writer;
+		// Computing the frames is the expensive part, which a replay skips
+		ClassVisitor cv = replay ? new ClassNode() : writer;
 		if (logger.isDebugEnabled()) {
 			cv = new TraceClassVisitor(cv, new PrintWriter(System.err));
 		}
@@ -307,7 +355,7 @@ public class BytecodeInstrumentation {
 			// -----
 			cn.accept(cv);
 
-			if (Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
+			if (!replay && Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
 				return handleCarving(className, writer);
 			}
 
@@ -315,7 +363,7 @@ public class BytecodeInstrumentation {
 			reader.accept(cv, readFlags);
 		}
 
-		return writer.toByteArray();
+		return replay ? null : writer.toByteArray();
 	}
 
 	private List<BytecodeInstruction> sliceRelevantCheckingInstruction(String classNameWithDots) {
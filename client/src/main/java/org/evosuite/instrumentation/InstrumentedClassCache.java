@@ -0,0 +1,235 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.evosuite.Properties;
+import org.evosuite.junit.writer.TestSuiteWriterUtils;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.utils.FileIOUtils;
+import org.objectweb.asm.ClassReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Cache of instrumented class bytes in the directory given by
+ * {@link Properties#INSTRUMENTATION_CACHE_DIR}, which is shared by all runs
+ * on the same classpath.
+ * </p>
+ *
+ * <p>
+ * An entry is addressed by the hash of the original bytes of the class
+ * together with the properties that affect the instrumentation, so changed
+ * classes or settings simply result in new entries. Entries are written to a
+ * temporary file and then moved into place, hence concurrent client processes
+ * only ever see complete entries. Only classes for which
+ * {@link BytecodeInstrumentation#isCacheable(String)} holds are cached, and
+ * on a hit the instrumentation is still replayed without writing the class,
+ * so that the constant pool, purity analysis etc. see the class as usual.
+ * </p>
+ */
+public class InstrumentedClassCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(InstrumentedClassCache.class);
+
+	private static final int MAGIC = 0xE5CAC4E1;
+
+	/** Stored instead of the first loop index if the class has no loops */
+	private static final int NO_LOOPS = -1;
+
+	private static InstrumentedClassCache instance = null;
+
+	private static final AtomicInteger hits = new AtomicInteger();
+
+	private static final AtomicInteger misses = new AtomicInteger();
+
+	private final File directory;
+
+	/** Everything besides the class bytes the instrumented bytes depend on */
+	private final String fingerprint;
+
+	private InstrumentedClassCache(File directory) {
+		this.directory = directory;
+		this.fingerprint = computeFingerprint();
+	}
+
+	/**
+	 * <p>
+	 * isEnabled
+	 * </p>
+	 *
+	 * @return a boolean.
+	 */
+	public static boolean isEnabled() {
+		return Properties.INSTRUMENTATION_CACHE_DIR != null && !Properties.INSTRUMENTATION_CACHE_DIR.isEmpty();
+	}
+
+	/**
+	 * The cache for the current properties. As the properties may change
+	 * between the generation of tests for different classes, the cache is
+	 * re-created if the directory changed.
+	 *
+	 * @return a {@link org.evosuite.instrumentation.InstrumentedClassCache}
+	 *         object.
+	 */
+	public static synchronized InstrumentedClassCache getInstance() {
+		File directory = new File(Properties.INSTRUMENTATION_CACHE_DIR);
+		if (instance == null || !instance.directory.equals(directory)) {
+			directory.mkdirs();
+			instance = new InstrumentedClassCache(directory);
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>
+	 * resetSingleton
+	 * </p>
+	 */
+	public static synchronized void resetSingleton() {
+		instance = null;
+	}
+
+	public static int getHits() {
+		return hits.get();
+	}
+
+	public static int getMisses() {
+		return misses.get();
+	}
+
+	@SuppressWarnings("deprecation")
+	private static String computeFingerprint() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(Properties.RESET_STATIC_FIELDS).append(';');
+		builder.append(Properties.RESET_STATIC_FINAL_FIELDS).append(';');
+		builder.append(Properties.PURE_INSPECTORS).append(';');
+		builder.append(Properties.MAX_LOOP_ITERATIONS >= 0).append(';');
+		builder.append(Properties.MAKE_ACCESSIBLE).append(';');
+		builder.append(Properties.CLASS_PREFIX).append(';');
+		builder.append(Properties.INSTRUMENTATION_SKIP_DEBUG).append(';');
+		builder.append(TestSuiteWriterUtils.needToUseAgent()).append(';');
+		builder.append(RuntimeSettings.applyUIDTransformation).append(';');
+		builder.append(RuntimeSettings.mockJVMNonDeterminism).append(';');
+		builder.append(RuntimeSettings.mockSystemIn).append(';');
+		builder.append(RuntimeSettings.mockGUI).append(';');
+		builder.append(RuntimeSettings.useVFS).append(';');
+		builder.append(RuntimeSettings.useVNET).append(';');
+		builder.append(RuntimeSettings.useJEE).append(';');
+		builder.append(RuntimeSettings.resetStaticState).append(';');
+
+		// A different version of EvoSuite may instrument differently
+		URL location = BytecodeInstrumentation.class.getProtectionDomain().getCodeSource().getLocation();
+		builder.append(location).append(';');
+		try {
+			builder.append(new File(location.toURI()).lastModified());
+		} catch (Exception e) {
+			logger.debug("Could not determine the modification time of {}", location);
+		}
+		return builder.toString();
+	}
+
+	private String getKey(String className, byte[] bytes) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+			digest.update(className.getBytes(StandardCharsets.UTF_8));
+			digest.update(bytes);
+			return String.format("%1$064x", new BigInteger(1, digest.digest()));
+		} catch (NoSuchAlgorithmException e) {
+			throw new Error(e);
+		}
+	}
+
+	/**
+	 * Return the instrumented bytes of the given class from the cache, or
+	 * instrument the class and put the result into the cache
+	 *
+	 * @param classLoader
+	 *            the class loader the class is instrumented for
+	 * @param instrumentation
+	 *            a {@link org.evosuite.instrumentation.BytecodeInstrumentation}
+	 *            object.
+	 * @param className
+	 *            the name of the class, with slashes
+	 * @param bytes
+	 *            the original bytes of the class
+	 * @return the instrumented bytes
+	 */
+	public byte[] transformBytes(ClassLoader classLoader, BytecodeInstrumentation instrumentation,
+			String className, byte[] bytes) {
+		String key = getKey(className, bytes);
+		File entry = new File(directory, key + ".class");
+
+		// Loop indices are part of the instrumented bytes, so they have to be
+		// the same as the ones this run would assign
+		int firstLoop = LoopCounter.getInstance().getNextIndex();
+		byte[] cached = read(entry, firstLoop);
+		if (cached != null) {
+			instrumentation.replayTransformation(classLoader, className, new ClassReader(bytes));
+			hits.incrementAndGet();
+			logger.debug("Instrumented bytes of {} are cached", className);
+			return cached;
+		}
+
+		byte[] data = instrumentation.transformBytes(classLoader, className, new ClassReader(bytes));
+		misses.incrementAndGet();
+		boolean hasLoops = LoopCounter.getInstance().getNextIndex() != firstLoop;
+		write(entry, hasLoops ? firstLoop : NO_LOOPS, data);
+		return data;
+	}
+
+	private byte[] read(File entry, int firstLoop) {
+		ByteBuffer buffer = FileIOUtils.readMappedFile(entry);
+		if (buffer == null || buffer.remaining() < 12 || buffer.getInt() != MAGIC)
+			return null;
+
+		int loop = buffer.getInt();
+		if (loop != NO_LOOPS && loop != firstLoop)
+			return null;
+
+		int length = buffer.getInt();
+		if (length != buffer.remaining())
+			return null;
+
+		byte[] data = new byte[length];
+		buffer.get(data);
+		return data;
+	}
+
+	private void write(File entry, int firstLoop, byte[] data) {
+		ByteBuffer buffer = ByteBuffer.allocate(12 + data.length);
+		buffer.putInt(MAGIC);
+		buffer.putInt(firstLoop);
+		buffer.putInt(data.length);
+		buffer.put(data);
+		FileIOUtils.writeFileAtomically(buffer.array(), entry);
+	}
+}
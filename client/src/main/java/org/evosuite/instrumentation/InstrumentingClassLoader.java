@@ -30,9 +30,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.persistence.Entity;
 
+import org.apache.commons.io.IOUtils;
+
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.classpath.ResourceList;
@@ -61,6 +66,18 @@ public class InstrumentingClassLoader extends ClassLoader {
 	private final ClassLoader classLoader;
 	private final Map<String, Class<?>> classes = new HashMap<>();
 	private boolean isRegression = false;
+
+	/**
+	 * Instrumented bytes of the loaded classes, only kept if there are
+	 * replicas of this class loader
+	 */
+	private final Map<String, byte[]> instrumentedBytes = new ConcurrentHashMap<>();
+
+	/** The class loader this one is a replica of, or null */
+	private InstrumentingClassLoader source = null;
+
+	/** Time spent on instrumenting classes, in nanoseconds */
+	private static final AtomicLong instrumentationTime = new AtomicLong();
 	
 	/**
 	 * <p>
@@ -85,6 +102,25 @@ public class InstrumentingClassLoader extends ClassLoader {
 		logger.debug("REGRESSION classloader running now");
 	}
 	
+	/**
+	 * <p>
+	 * Constructor for a replica of an InstrumentingClassLoader, which defines
+	 * the classes from the bytes instrumented by the given class loader. The
+	 * static state of the classes is not shared, but their instrumentation,
+	 * and hence the ids in the branch pool etc., is the same.
+	 * </p>
+	 * 
+	 * @param source
+	 *            a {@link org.evosuite.instrumentation.InstrumentingClassLoader}
+	 *            object.
+	 */
+	public InstrumentingClassLoader(InstrumentingClassLoader source) {
+		this(source.getInstrumentation());
+		setClassAssertionStatus(Properties.TARGET_CLASS, true);
+		this.source = source;
+		logger.debug("REPLICA classloader running now");
+	}
+
 	public InstrumentingClassLoader(List<BytecodeInstruction> insList) {
 		this(new BytecodeInstrumentation(insList));
 		logger.debug("dynamic instrumentator classloader running now");
@@ -124,6 +160,7 @@ public class InstrumentingClassLoader extends ClassLoader {
 			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
 
 			classes.put(fullyQualifiedTargetClass, result);
+			keepInstrumentedBytes(fullyQualifiedTargetClass, byteBuffer);
 
 			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
 			return result;
@@ -174,6 +211,9 @@ public class InstrumentingClassLoader extends ClassLoader {
         		return result;
         	} else {
         		logger.info("Seeing class for first time: " + name);
+        		if (source != null) {
+        			return defineReplica(name);
+        		}
         		if(Properties.FULLY_INSTRUMENT_DEPENDENCIES) {
         			DependencyAnalysis.addTargetClass(name);
         		}
@@ -187,10 +227,28 @@ public class InstrumentingClassLoader extends ClassLoader {
 	
 	//This is needed, as it is overridden in subclasses
 		protected byte[] getTransformedBytes(String className, InputStream is) throws IOException {
-			byte[] data = instrumentation.transformBytes(this, className, new ClassReader(is));
+			long start = System.nanoTime();
+			byte[] data;
+			if (InstrumentedClassCache.isEnabled()
+					&& instrumentation.isCacheable(ResourceList.getClassNameFromResourcePath(className))) {
+				data = InstrumentedClassCache.getInstance().transformBytes(this, instrumentation, className,
+						IOUtils.toByteArray(is));
+			} else {
+				data = instrumentation.transformBytes(this, className, new ClassReader(is));
+			}
+			instrumentationTime.addAndGet(System.nanoTime() - start);
 			log(data, className, false);
 			return data;
 		}
+
+		/**
+		 * Time spent on instrumenting classes in this JVM so far
+		 * 
+		 * @return the time in milliseconds
+		 */
+		public static long getInstrumentationTime() {
+			return TimeUnit.NANOSECONDS.toMillis(instrumentationTime.get());
+		}
 		
 		public static void log(byte[] data, String classFName, boolean dump) {
 			if (data == null) {
@@ -240,6 +298,7 @@ public class InstrumentingClassLoader extends ClassLoader {
 			createPackageDefinition(fullyQualifiedTargetClass);
 			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
 			classes.put(fullyQualifiedTargetClass, result);
+			keepInstrumentedBytes(fullyQualifiedTargetClass, byteBuffer);
 
 			logger.info("Loaded class: " + fullyQualifiedTargetClass);
 			return result;
@@ -257,6 +316,34 @@ public class InstrumentingClassLoader extends ClassLoader {
 		}
 	}
 
+	private void keepInstrumentedBytes(String className, byte[] bytes) {
+		if (Properties.UNMOCKED_EXECUTION_WORKERS > 1) {
+			instrumentedBytes.put(className, bytes);
+		}
+	}
+
+	/**
+	 * Define a class from the bytes the source class loader instrumented
+	 * 
+	 * @param fullyQualifiedTargetClass
+	 * @return
+	 * @throws ClassNotFoundException
+	 */
+	private Class<?> defineReplica(String fullyQualifiedTargetClass) throws ClassNotFoundException {
+		Class<?> original = source.loadClass(fullyQualifiedTargetClass);
+		byte[] byteBuffer = source.instrumentedBytes.get(fullyQualifiedTargetClass);
+		if (byteBuffer == null) {
+			// Not instrumented by the source, e.g. a class of the DB class loader
+			return original;
+		}
+		createPackageDefinition(fullyQualifiedTargetClass);
+		Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+		classes.put(fullyQualifiedTargetClass, result);
+
+		logger.info("Loaded replica of class: " + fullyQualifiedTargetClass);
+		return result;
+	}
+
 	/**
 	 * Before a new class is defined, we need to create a package definition for it
 	 * 
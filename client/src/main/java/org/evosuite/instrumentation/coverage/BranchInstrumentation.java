@@ -25,12 +25,14 @@ package org.evosuite.instrumentation.coverage;
 import java.util.Iterator;
 import java.util.List;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.branch.Branch;
 import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.graphs.GraphPool;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.graphs.cfg.RawControlFlowGraph;
 import org.evosuite.runtime.instrumentation.AnnotatedLabel;
+import org.evosuite.testcase.execution.BranchProbe;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.utils.CollectionUtil;
 import org.objectweb.asm.Opcodes;
@@ -61,6 +63,11 @@ public class BranchInstrumentation implements MethodInstrumentation {
 	protected static final Logger logger = LoggerFactory.getLogger(BranchInstrumentation.class);
 
     private static final String EXECUTION_TRACER = Type.getInternalName(ExecutionTracer.class);
+
+    private static final String BRANCH_PROBE = Type.getInternalName(BranchProbe.class);
+
+    /** Class receiving the callbacks of primitive and null comparisons */
+    private String probeOwner = EXECUTION_TRACER;
     
     private ClassLoader classLoader;
 
@@ -78,6 +85,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 	public void analyze(ClassLoader classLoader, MethodNode mn, String className,
 	        String methodName, int access) {
 		this.classLoader = classLoader;
+		this.probeOwner = Properties.FAST_BRANCH_PROBES ? BRANCH_PROBE : EXECUTION_TRACER;
 		
 		RawControlFlowGraph graph = GraphPool.getInstance(classLoader).getRawCFG(className,
 		                                                                         methodName);
@@ -153,7 +161,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 			instrumentation.add(new InsnNode(Opcodes.POP2)); /* v1 v1 v2 */
 			instrumentation.add(new InsnNode(Opcodes.DUP2_X2)); /* v1 v2 v1 v2 */
 			instrumentation.add(new LdcInsnNode(branchId)); /* v1 v2 v1 v2 branchId */
-			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC, EXECUTION_TRACER, methodName, 
+			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC, probeOwner, methodName, 
 					"(DDI)V", false)); /* v1 v2*/
 			break;
 		
@@ -166,7 +174,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 			instrumentation.add(new InsnNode(Opcodes.POP2)); /* v1 v1 v2 */
 			instrumentation.add(new InsnNode(Opcodes.DUP2_X2)); /* v1 v2 v1 v2 */
 			instrumentation.add(new LdcInsnNode(branchId)); /* v1 v2 v1 v2 branchId */
-			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC, EXECUTION_TRACER, "onLcmp", 
+			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC, probeOwner, "onLcmp", 
 					"(JJI)V", false)); /* v1 v2*/
 			break;
 		
@@ -181,7 +189,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 			/* duplicate values. On stack: v1 v2 */
 			instrumentation.add(new InsnNode(Opcodes.DUP2)); /* v1 v2 v1 v2*/
 			instrumentation.add(new LdcInsnNode(branchId)); /* v1 v2 v1 v2 branchId */
-			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC, EXECUTION_TRACER, methodName, 
+			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC, probeOwner, methodName, 
 					"(FFI)V", false)); /* v1 v2*/
 			break;
 		}
@@ -228,7 +236,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 			instrumentation.add(new LdcInsnNode(branchId));
 			instrumentation.add(new LdcInsnNode(instructionId));
 			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC,
-                    EXECUTION_TRACER, "passedBranch", "(IIII)V", false));
+                    probeOwner, "passedBranch", "(IIII)V", false));
 			logger.debug("Adding passedBranch val=?, opcode=" + opcode + ", branch="
 			        + branchId + ", bytecode_id=" + instructionId);
 
@@ -245,7 +253,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 			instrumentation.add(new LdcInsnNode(branchId));
 			instrumentation.add(new LdcInsnNode(instructionId));
 			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC,
-                    EXECUTION_TRACER, "passedBranch", "(IIIII)V", false));
+                    probeOwner, "passedBranch", "(IIIII)V", false));
 			break;
 		case Opcodes.IF_ACMPEQ:
 		case Opcodes.IF_ACMPNE:
@@ -266,7 +274,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 			instrumentation.add(new LdcInsnNode(branchId));
 			instrumentation.add(new LdcInsnNode(instructionId));
 			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC,
-                    EXECUTION_TRACER, "passedBranch",
+                    probeOwner, "passedBranch",
 			        "(Ljava/lang/Object;III)V", false));
 			break;
 		}
@@ -352,7 +360,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 			instrumentation.add(new LdcInsnNode(targetCaseBranchId));
 			instrumentation.add(new LdcInsnNode(v.getInstructionId()));
 			instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC,
-                    EXECUTION_TRACER, "passedBranch", "(IIIII)V", false));
+                    probeOwner, "passedBranch", "(IIIII)V", false));
 		}
 	}
 
@@ -518,7 +526,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 		instrumentation.add(new LdcInsnNode(defaultCaseBranchId));
 		instrumentation.add(new LdcInsnNode(v.getInstructionId()));
 		instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC,
-                EXECUTION_TRACER, "passedBranch", "(IIII)V", false));
+                probeOwner, "passedBranch", "(IIII)V", false));
 
 	}
 
@@ -542,7 +550,7 @@ public class BranchInstrumentation implements MethodInstrumentation {
 		instrumentation.add(new LdcInsnNode(defaultCaseBranchId));
 		instrumentation.add(new LdcInsnNode(v.getInstructionId()));
 		instrumentation.add(new MethodInsnNode(Opcodes.INVOKESTATIC,
-                EXECUTION_TRACER, "passedBranch", "(IIII)V", false));
+                probeOwner, "passedBranch", "(IIII)V", false));
 	}
 
 	/*
@@ -22,6 +22,7 @@
  */
 package org.evosuite.seeding;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -51,6 +52,15 @@ public class ConstantPoolManager {
 	 */
 	private static final int DYNAMIC_POOL_INDEX = 2;
 
+	/**
+	 * Dynamic constants seen by the workers of the ParallelTestCaseExecutor
+	 * are collected per thread, and added to the pool in the order of the
+	 * executed tests
+	 */
+	private static final InheritableThreadLocal<List<Object>> dynamicConstantBuffer = new InheritableThreadLocal<>();
+
+	private static volatile boolean isBuffering = false;
+
 	private ConstantPoolManager() {
 		init();
 	}
@@ -108,9 +118,28 @@ public class ConstantPoolManager {
 	}
 
 	public void addDynamicConstant(Object value) {
+		if (isBuffering) {
+			List<Object> buffer = dynamicConstantBuffer.get();
+			if (buffer != null) {
+				buffer.add(value);
+				return;
+			}
+		}
 		pools[DYNAMIC_POOL_INDEX].add(value);
 	}
 
+	/**
+	 * Collect the dynamic constants of the current thread, and of all threads
+	 * it starts from now on, in the given list instead of the pool
+	 * 
+	 * @param buffer
+	 *            a synchronized list
+	 */
+	public static void bufferDynamicConstants(List<Object> buffer) {
+		isBuffering = true;
+		dynamicConstantBuffer.set(buffer);
+	}
+
 	public ConstantPool getConstantPool(String dataType) {
 //		if(Properties.APPLY_SMART_SEED && Properties.END_INITIALIZATION) {
 			if(Properties.APPLY_SMART_SEED) {
@@ -152,4 +181,18 @@ public class ConstantPoolManager {
 	public void reset() {
 		init();
 	}
+
+	/**
+	 * Approximate number of bytes of the constants of the static pools
+	 * 
+	 * @return
+	 */
+	public long getStaticPoolMemoryUsage() {
+		long bytes = StaticConstantPool.getInternedMemoryUsage();
+		for (ConstantPool pool : pools) {
+			if (pool instanceof StaticConstantPool)
+				bytes += ((StaticConstantPool) pool).getMemoryUsage();
+		}
+		return bytes;
+	}
 }
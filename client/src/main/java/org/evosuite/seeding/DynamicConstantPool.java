@@ -37,21 +37,38 @@ import org.objectweb.asm.Type;
  */
 public class DynamicConstantPool implements ConstantPool {
 
-	private final RandomAccessQueue<String> stringPool = new DefaultRandomAccessQueue<String>();
+	private final RandomAccessQueue<String> stringPool;
 
-	private final RandomAccessQueue<Type> typePool = new DefaultRandomAccessQueue<Type>();
+	private final RandomAccessQueue<Type> typePool;
 
-	private final RandomAccessQueue<Integer> intPool = new DefaultRandomAccessQueue<Integer>();
+	private final RandomAccessQueue<Integer> intPool;
 
-	private final RandomAccessQueue<Double> doublePool = new DefaultRandomAccessQueue<Double>();
+	private final RandomAccessQueue<Double> doublePool;
 
-	private final RandomAccessQueue<Long> longPool = new DefaultRandomAccessQueue<Long>();
+	private final RandomAccessQueue<Long> longPool;
 
-	private final RandomAccessQueue<Float> floatPool = new DefaultRandomAccessQueue<Float>();
+	private final RandomAccessQueue<Float> floatPool;
 	
-	private final RandomAccessQueue<Character> charPool = new DefaultRandomAccessQueue<Character>();
+	private final RandomAccessQueue<Character> charPool;
 
 	public DynamicConstantPool() {
+		this(-1);
+	}
+
+	/**
+	 * @param capacity
+	 *            the maximum number of constants of each type, or -1 for
+	 *            {@link Properties#DYNAMIC_POOL_SIZE}
+	 */
+	public DynamicConstantPool(int capacity) {
+		stringPool = new DefaultRandomAccessQueue<String>(capacity);
+		typePool = new DefaultRandomAccessQueue<Type>(capacity);
+		intPool = new DefaultRandomAccessQueue<Integer>(capacity);
+		doublePool = new DefaultRandomAccessQueue<Double>(capacity);
+		longPool = new DefaultRandomAccessQueue<Long>(capacity);
+		floatPool = new DefaultRandomAccessQueue<Float>(capacity);
+		charPool = new DefaultRandomAccessQueue<Character>(capacity);
+
 		/*
 		 * all pools HAVE to be non-empty 
 		 */
@@ -222,5 +239,16 @@ public class DynamicConstantPool implements ConstantPool {
 		return res;
 	}
 
+	/**
+	 * Approximate number of bytes of the constants, counting the entries of
+	 * the queue and the set and the boxed value of each constant
+	 * 
+	 * @return
+	 */
+	public long getMemoryUsage() {
+		long constants = stringPool.size() + typePool.size() + intPool.size() + doublePool.size() + longPool.size()
+				+ floatPool.size() + charPool.size();
+		return 64L * constants;
+	}
 	
 }
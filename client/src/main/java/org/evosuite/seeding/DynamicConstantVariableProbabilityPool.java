@@ -33,15 +33,15 @@ public class DynamicConstantVariableProbabilityPool implements ConstantPool {
 
     private final RandomAccessQueue<Type> typePool = new FrequencyBasedRandomAccessQueue<>();
 
-    private final RandomAccessQueue<Integer> intPool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Integer> intPool = new FrequencyBasedRandomAccessQueue<>(FrequencyBasedPool.forIntegers());
 
-    private final RandomAccessQueue<Double> doublePool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Double> doublePool = new FrequencyBasedRandomAccessQueue<>(FrequencyBasedPool.forDoubles());
 
-    private final RandomAccessQueue<Long> longPool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Long> longPool = new FrequencyBasedRandomAccessQueue<>(FrequencyBasedPool.forLongs());
 
-    private final RandomAccessQueue<Float> floatPool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Float> floatPool = new FrequencyBasedRandomAccessQueue<>(FrequencyBasedPool.forFloats());
     
-    private final RandomAccessQueue<Character> charPool = new FrequencyBasedRandomAccessQueue<>();
+    private final RandomAccessQueue<Character> charPool = new FrequencyBasedRandomAccessQueue<>(FrequencyBasedPool.forCharacters());
 
     public DynamicConstantVariableProbabilityPool() {
 		/*
@@ -19,64 +19,238 @@
  */
 package org.evosuite.seeding;
 
+import org.evosuite.utils.FenwickTree;
 import org.evosuite.utils.Randomness;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.ToLongFunction;
 
 /**
  * Created by gordon on 06/01/2017.
+ *
+ * <p>
+ * The distinct constants are kept in slots, whose frequencies are the weights
+ * of a {@link FenwickTree}, so adding, removing and selecting a constant with
+ * a probability proportional to its frequency take logarithmic time. The
+ * pools created with {@link #forIntegers()} etc. find the slots of their
+ * values by the bits of the primitive values instead of by boxes.
+ * </p>
  */
 public class FrequencyBasedPool<T> {
 
-    private Map<T, Integer> constants = Collections.synchronizedMap(new LinkedHashMap<T, Integer>());
+    /**
+     * Slots of the constants of primitive pools, as an open addressing hash
+     * map with linear probing from the bits of a constant to its slot
+     */
+    private static final class PrimitiveSlots {
+
+        private long[] keys = new long[16];
+
+        /** Slot + 1, where 0 marks an empty entry */
+        private int[] slots = new int[16];
+
+        private int size = 0;
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        public int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key)
+                    return slots[i] - 1;
+            }
+            return -1;
+        }
+
+        public void put(long key, int slot) {
+            if (2 * (size + 1) > keys.length)
+                resize(2 * keys.length);
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (slots[i] != 0)
+                i = (i + 1) & mask;
+            keys[i] = key;
+            slots[i] = slot + 1;
+            size++;
+        }
+
+        public void remove(long key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (slots[i] != 0 && keys[i] != key)
+                i = (i + 1) & mask;
+            if (slots[i] == 0)
+                return;
+
+            // Move entries after the removed one back, unless that would
+            // put them before the position of their hash
+            for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!between) {
+                    keys[i] = keys[j];
+                    slots[i] = slots[j];
+                    i = j;
+                }
+            }
+            slots[i] = 0;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[capacity];
+            slots = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldSlots[i] != 0)
+                    put(oldKeys[i], oldSlots[i] - 1);
+            }
+        }
+    }
+
+    /** The bits of the constants of a primitive pool, null otherwise */
+    private final ToLongFunction<T> primitiveKey;
+
+    private final Map<T, Integer> slots;
 
+    private final PrimitiveSlots primitiveSlots;
+
+    private Object[] constants = new Object[16];
+
+    private final FenwickTree frequencies = new FenwickTree(16);
+
+    /** Number of slots that have been used */
+    private int usedSlots = 0;
+
+    /** Slots whose constants were removed, and which are used again first */
+    private int[] freeSlots = new int[16];
+
+    private int numFreeSlots = 0;
+
+    /** The sum of the frequencies of the constants */
     public int numConstants = 0;
 
-    public void addConstant(T value) {
-        numConstants++;
-        if (!constants.containsKey(value))
-            constants.put(value, 1);
+    public FrequencyBasedPool() {
+        this(null);
+    }
+
+    protected FrequencyBasedPool(ToLongFunction<T> primitiveKey) {
+        this.primitiveKey = primitiveKey;
+        this.slots = primitiveKey == null ? new HashMap<T, Integer>() : null;
+        this.primitiveSlots = primitiveKey == null ? null : new PrimitiveSlots();
+    }
+
+    public static FrequencyBasedPool<Integer> forIntegers() {
+        return new FrequencyBasedPool<Integer>(Integer::longValue);
+    }
+
+    public static FrequencyBasedPool<Long> forLongs() {
+        return new FrequencyBasedPool<Long>(Long::longValue);
+    }
+
+    /**
+     * Floats are equal if their bits are, as for {@link Float#equals(Object)}
+     */
+    public static FrequencyBasedPool<Float> forFloats() {
+        return new FrequencyBasedPool<Float>(value -> Float.floatToIntBits(value));
+    }
+
+    /**
+     * Doubles are equal if their bits are, as for
+     * {@link Double#equals(Object)}
+     */
+    public static FrequencyBasedPool<Double> forDoubles() {
+        return new FrequencyBasedPool<Double>(value -> Double.doubleToLongBits(value));
+    }
+
+    public static FrequencyBasedPool<Character> forCharacters() {
+        return new FrequencyBasedPool<Character>(value -> value.charValue());
+    }
+
+    private int getSlot(T value) {
+        if (primitiveKey != null)
+            return primitiveSlots.get(primitiveKey.applyAsLong(value));
+        Integer slot = slots.get(value);
+        return slot == null ? -1 : slot;
+    }
+
+    private int newSlot(T value) {
+        int slot;
+        if (numFreeSlots > 0) {
+            slot = freeSlots[--numFreeSlots];
+        } else {
+            slot = usedSlots++;
+            if (slot == constants.length)
+                constants = Arrays.copyOf(constants, 2 * constants.length);
+            frequencies.ensureCapacity(usedSlots);
+        }
+        constants[slot] = value;
+        if (primitiveKey != null)
+            primitiveSlots.put(primitiveKey.applyAsLong(value), slot);
         else
-            constants.put(value, constants.get(value) + 1);
+            slots.put(value, slot);
+        return slot;
+    }
+
+    private void freeSlot(int slot, T value) {
+        constants[slot] = null;
+        if (primitiveKey != null)
+            primitiveSlots.remove(primitiveKey.applyAsLong(value));
+        else
+            slots.remove(value);
+        if (numFreeSlots == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, 2 * freeSlots.length);
+        freeSlots[numFreeSlots++] = slot;
+    }
+
+    public synchronized void addConstant(T value) {
+        numConstants++;
+        int slot = getSlot(value);
+        if (slot < 0)
+            slot = newSlot(value);
+        frequencies.add(slot, 1);
     }
 
-    public void removeConstant(T value) {
-        if (constants.containsKey(value)) {
-            int num = constants.get(value);
-            if (num <= 1)
-                constants.remove(value);
-            else
-                constants.put(value, num - 1);
+    public synchronized void removeConstant(T value) {
+        int slot = getSlot(value);
+        if (slot >= 0) {
+            numConstants--;
+            frequencies.add(slot, -1);
+            if (frequencies.get(slot) == 0)
+                freeSlot(slot, value);
         }
     }
 
-    public boolean hasConstant(T value) {
-        return constants.containsKey(value);
+    public synchronized boolean hasConstant(T value) {
+        return getSlot(value) >= 0;
     }
 
+    /**
+     * Returns the number of times the constant is in the pool
+     *
+     * @param value
+     * @return
+     */
+    public synchronized int getFrequency(T value) {
+        int slot = getSlot(value);
+        return slot < 0 ? 0 : frequencies.get(slot);
+    }
 
-    public T getRandomConstant() {
+    @SuppressWarnings("unchecked")
+    public synchronized T getRandomConstant() {
         //special case
         if (numConstants == 0) {
             throw new IllegalArgumentException("Cannot select from empty pool");
         }
 
-        double rnd = Randomness.nextDouble() * numConstants;
-
-        for(Map.Entry<T, Integer> entry : constants.entrySet()) {
-            int num = entry.getValue();
-            if(num > rnd) {
-                return entry.getKey();
-            } else {
-                rnd = rnd - num;
-            }
-        }
-
-        // Shouldn't happen
-        return Randomness.choice(constants.keySet());
+        return (T) constants[frequencies.find(Randomness.nextInt(numConstants))];
     }
 
 }
@@ -30,10 +30,23 @@ import java.util.*;
  */
 public class FrequencyBasedRandomAccessQueue<T> implements RandomAccessQueue<T> {
 
-    private final FrequencyBasedPool<T> values = new FrequencyBasedPool<T>();
+    private final FrequencyBasedPool<T> values;
 
     private final Queue<T> queue = new ArrayDeque<T>();
 
+    public FrequencyBasedRandomAccessQueue() {
+        this(new FrequencyBasedPool<T>());
+    }
+
+    /**
+     * @param values
+     *            an empty pool, e.g. one of the primitive pools of
+     *            {@link FrequencyBasedPool}
+     */
+    public FrequencyBasedRandomAccessQueue(FrequencyBasedPool<T> values) {
+        this.values = values;
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.primitives.RandomAccessQueue#restrictedAdd(java.lang.Object)
      */
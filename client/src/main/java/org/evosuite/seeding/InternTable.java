@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * Assigns consecutive ids to the strings and types of the constant pools, so
+ * that the pools only need to store the ids, and each value is stored once
+ * however many pools contain it.
+ * </p>
+ *
+ * <p>
+ * The values are kept in chunks of fixed size which are never copied, so
+ * the value of an id can be looked up without locks while other threads add
+ * values. The value is written before its id is published in the map, hence
+ * every id a thread obtained can be looked up.
+ * </p>
+ */
+public class InternTable<T> {
+
+	private static final int CHUNK_BITS = 12;
+
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	private static final int MAX_CHUNKS = 1 << 12;
+
+	private final ConcurrentHashMap<T, Integer> ids = new ConcurrentHashMap<>();
+
+	private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	/** Approximate number of bytes of a value */
+	private final ToLongFunction<T> valueSize;
+
+	private final AtomicLong memoryUsage = new AtomicLong();
+
+	public InternTable(ToLongFunction<T> valueSize) {
+		this.valueSize = valueSize;
+	}
+
+	/**
+	 * Returns the id of the value, which is assigned if the value has none yet
+	 *
+	 * @param value
+	 *            a non-null value
+	 * @return
+	 */
+	public int intern(T value) {
+		Integer id = ids.get(value);
+		if (id != null)
+			return id;
+
+		return ids.computeIfAbsent(value, v -> {
+			int index = size.getAndIncrement();
+			getChunk(index >>> CHUNK_BITS).set(index & (CHUNK_SIZE - 1), v);
+			// Entry of the map, id and reference of the chunk
+			memoryUsage.addAndGet(valueSize.applyAsLong(v) + 64);
+			return index;
+		});
+	}
+
+	private AtomicReferenceArray<T> getChunk(int chunkIndex) {
+		if (chunkIndex >= MAX_CHUNKS)
+			throw new IllegalStateException("Too many values to intern: " + size.get());
+
+		AtomicReferenceArray<T> chunk = chunks.get(chunkIndex);
+		if (chunk == null) {
+			chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+			chunk = chunks.get(chunkIndex);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Returns the value with the given id
+	 *
+	 * @param id
+	 *            an id returned by {@link #intern(Object)}
+	 * @return
+	 */
+	public T get(int id) {
+		return chunks.get(id >>> CHUNK_BITS).get(id & (CHUNK_SIZE - 1));
+	}
+
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Approximate number of bytes of the values and the table
+	 *
+	 * @return
+	 */
+	public long getMemoryUsage() {
+		return memoryUsage.get();
+	}
+}
@@ -22,37 +22,51 @@
  */
 package org.evosuite.seeding;
 
-import java.util.Collections;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.evosuite.Properties;
 import org.evosuite.result.seedexpr.EventFactory;
 import org.evosuite.result.seedexpr.EventSequence;
 import org.evosuite.result.seedexpr.SamplingDataType;
+import org.evosuite.utils.ConcurrentLongSet;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.Randomness;
 import org.objectweb.asm.Type;
 
 /**
+ * Pool of the constants found in the bytecode. The constants of each type are
+ * kept as primitive values in a {@link ConcurrentLongSet}, in the order in
+ * which they were added, so the instrumentation can add constants from
+ * several threads without locks, and a constant is sampled by its index.
+ * Strings and types are stored as their ids in an {@link InternTable} shared
+ * by all pools, floats and doubles as their bits.
+ * 
  * @author Gordon Fraser
  * 
  */
 public class StaticConstantPool implements ConstantPool {
 
-	private final Set<String> stringPool = Collections.synchronizedSet(new LinkedHashSet<String>());
+	private static final InternTable<String> strings = new InternTable<>(s -> 40L + 2L * s.length());
+
+	private static final InternTable<Type> types = new InternTable<>(t -> 40L + 2L * t.getDescriptor().length());
+
+	private static final LongAdder samples = new LongAdder();
+
+	private static final LongAdder samplingTime = new LongAdder();
+
+	private final ConcurrentLongSet stringPool = new ConcurrentLongSet();
 
-	private final Set<Type> typePool = Collections.synchronizedSet(new LinkedHashSet<Type>());
+	private final ConcurrentLongSet typePool = new ConcurrentLongSet();
 
-	private final Set<Integer> intPool = Collections.synchronizedSet(new LinkedHashSet<Integer>());
+	private final ConcurrentLongSet intPool = new ConcurrentLongSet();
 
-	private final Set<Double> doublePool = Collections.synchronizedSet(new LinkedHashSet<Double>());
+	private final ConcurrentLongSet doublePool = new ConcurrentLongSet();
 
-	private final Set<Long> longPool = Collections.synchronizedSet(new LinkedHashSet<Long>());
+	private final ConcurrentLongSet longPool = new ConcurrentLongSet();
 
-	private final Set<Float> floatPool = Collections.synchronizedSet(new LinkedHashSet<Float>());
+	private final ConcurrentLongSet floatPool = new ConcurrentLongSet();
 	
-	private final Set<Character> charPool = Collections.synchronizedSet(new LinkedHashSet<Character>());
+	private final ConcurrentLongSet charPool = new ConcurrentLongSet();
 	
 	private boolean isContextual;
 
@@ -63,61 +77,98 @@ public class StaticConstantPool implements ConstantPool {
 
 		this.isContextual = isContextual;
 		
-		stringPool.add("");
+		addString("");
 
 		if (Properties.TARGET_CLASS != null && !Properties.TARGET_CLASS.isEmpty()) {
-			typePool.add(Type.getObjectType(Properties.TARGET_CLASS));
+			addType(Type.getObjectType(Properties.TARGET_CLASS));
 		} else {
-			typePool.add(Type.getType(Object.class));
+			addType(Type.getType(Object.class));
 		}
 
-		intPool.add(0);
-		intPool.add(1);
-		intPool.add(-1);
+		addInt(0);
+		addInt(1);
+		addInt(-1);
 
-		longPool.add(0L);
-		longPool.add(1L);
-		longPool.add(-1L);
+		addLong(0L);
+		addLong(1L);
+		addLong(-1L);
 
-		floatPool.add(0.0f);
-		floatPool.add(1.0f);
-		floatPool.add(-1.0f);
+		addFloat(0.0f);
+		addFloat(1.0f);
+		addFloat(-1.0f);
 
-		doublePool.add(0.0);
-		doublePool.add(1.0);
-		doublePool.add(-1.0);
+		addDouble(0.0);
+		addDouble(1.0);
+		addDouble(-1.0);
 	}
 	
 	public StaticConstantPool(boolean isContextual, boolean noInit) {
-		/*
-		 * all pools HAVE to be non-empty 
-		 */
+		this(isContextual);
+	}
 
-		this.isContextual = isContextual;
-		
-		stringPool.add("");
+	private void addString(String value) {
+		stringPool.add(strings.intern(value));
+	}
 
-		if (Properties.TARGET_CLASS != null && !Properties.TARGET_CLASS.isEmpty()) {
-			typePool.add(Type.getObjectType(Properties.TARGET_CLASS));
-		} else {
-			typePool.add(Type.getType(Object.class));
-		}
+	private void addType(Type value) {
+		typePool.add(types.intern(value));
+	}
 
-		intPool.add(0);
-		intPool.add(1);
-		intPool.add(-1);
+	private void addInt(int value) {
+		intPool.add(value);
+	}
 
-		longPool.add(0L);
-		longPool.add(1L);
-		longPool.add(-1L);
+	private void addLong(long value) {
+		longPool.add(value);
+	}
 
-		floatPool.add(0.0f);
-		floatPool.add(1.0f);
-		floatPool.add(-1.0f);
+	private void addFloat(float value) {
+		floatPool.add(Float.floatToIntBits(value));
+	}
 
-		doublePool.add(0.0);
-		doublePool.add(1.0);
-		doublePool.add(-1.0);
+	private void addDouble(double value) {
+		doublePool.add(Double.doubleToLongBits(value));
+	}
+
+	private void addChar(char value) {
+		charPool.add(value);
+	}
+
+	private static void recordSample(long startTime) {
+		samplingTime.add(System.nanoTime() - startTime);
+		samples.increment();
+	}
+
+	/**
+	 * Average time in nanoseconds it took to select a constant from a static
+	 * pool
+	 * 
+	 * @return
+	 */
+	public static long getAverageSamplingTime() {
+		long count = samples.sum();
+		return count == 0 ? 0 : samplingTime.sum() / count;
+	}
+
+	/**
+	 * Approximate number of bytes of the strings and types of all static pools
+	 * 
+	 * @return
+	 */
+	public static long getInternedMemoryUsage() {
+		return strings.getMemoryUsage() + types.getMemoryUsage();
+	}
+
+	/**
+	 * Approximate number of bytes of the constants of this pool, without the
+	 * strings and types they refer to
+	 * 
+	 * @return
+	 */
+	public long getMemoryUsage() {
+		return stringPool.getMemoryUsage() + typePool.getMemoryUsage() + intPool.getMemoryUsage()
+				+ doublePool.getMemoryUsage() + longPool.getMemoryUsage() + floatPool.getMemoryUsage()
+				+ charPool.getMemoryUsage();
 	}
 
 	/**
@@ -129,14 +180,18 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public String getRandomString() {
-		String value = Randomness.choice(stringPool);
+		long startTime = System.nanoTime();
+		String value = stringPool.isEmpty() ? null : strings.get((int) stringPool.getRandom());
+		recordSample(startTime);
 		EventSequence.addEvent(EventFactory.createStaticEvent(isContextual, System.currentTimeMillis(), SamplingDataType.STRING, stringPool.size(), String.valueOf(value)));
 		return value;
 	}
 
 	@Override
 	public Type getRandomType() {
-		Type value = Randomness.choice(typePool);
+		long startTime = System.nanoTime();
+		Type value = typePool.isEmpty() ? null : types.get((int) typePool.getRandom());
+		recordSample(startTime);
 		EventSequence.addEvent(EventFactory.createStaticEvent(isContextual, System.currentTimeMillis(), SamplingDataType.CLASS, typePool.size(), String.valueOf(value)));
 		return value;
 	}
@@ -150,8 +205,9 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public int getRandomInt() {
-		int value = Randomness.choice(intPool);
-//		System.currentTimeMillis();
+		long startTime = System.nanoTime();
+		int value = (int) intPool.getRandom();
+		recordSample(startTime);
 		EventSequence.addEvent(EventFactory.createStaticEvent(isContextual, System.currentTimeMillis(), SamplingDataType.INT, intPool.size(), String.valueOf(value)));
 		return value;
 	}
@@ -165,7 +221,9 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public float getRandomFloat() {
-		float value = Randomness.choice(floatPool);
+		long startTime = System.nanoTime();
+		float value = Float.intBitsToFloat((int) floatPool.getRandom());
+		recordSample(startTime);
 		EventSequence.addEvent(EventFactory.createStaticEvent(isContextual, System.currentTimeMillis(), SamplingDataType.FLOAT, floatPool.size(), String.valueOf(value)));
 		return value;
 	}
@@ -179,7 +237,9 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public double getRandomDouble() {
-		double value = Randomness.choice(doublePool);
+		long startTime = System.nanoTime();
+		double value = Double.longBitsToDouble(doublePool.getRandom());
+		recordSample(startTime);
 		EventSequence.addEvent(EventFactory.createStaticEvent(isContextual, System.currentTimeMillis(), SamplingDataType.DOUBLE, doublePool.size(), String.valueOf(value)));
 		return value;
 	}
@@ -193,7 +253,9 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public long getRandomLong() {
-		long value = Randomness.choice(longPool);
+		long startTime = System.nanoTime();
+		long value = longPool.getRandom();
+		recordSample(startTime);
 		EventSequence.addEvent(EventFactory.createStaticEvent(isContextual, System.currentTimeMillis(), SamplingDataType.LONG, longPool.size(), String.valueOf(value)));
 		return value;
 	}
@@ -207,10 +269,14 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public char getRandomChar() {
-		Character value = Randomness.choice(charPool);
-		if(value == null) {
+		long startTime = System.nanoTime();
+		char value;
+		if (charPool.isEmpty()) {
 			value = Randomness.nextChar();
+		} else {
+			value = (char) charPool.getRandom();
 		}
+		recordSample(startTime);
 		EventSequence.addEvent(EventFactory.createStaticEvent(isContextual, System.currentTimeMillis(), SamplingDataType.CHARACTER, charPool.size(), String.valueOf(value)));
 		return value;
 	}
@@ -237,33 +303,33 @@ public class StaticConstantPool implements ConstantPool {
 			// as they are stored in the constant pool
 			if (string.length() > 65535)
 				return;
-			stringPool.add(string);
+			addString(string);
 		} else if (object instanceof Type) {
 			while (((Type) object).getSort() == Type.ARRAY) {
 				object = ((Type) object).getElementType();
 			}
-			typePool.add((Type) object);
+			addType((Type) object);
 		}
 
 		else if (object instanceof Integer) {
 			if (Properties.RESTRICT_POOL) {
 				int val = (Integer) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					intPool.add((Integer) object);
+					addInt((Integer) object);
 				}
 				if (Properties.APPLY_CHAR_POOL) {
 					if (val >= 0 && val <= 255) {
 						char c = (char) val;
-						charPool.add((Character) c);
+						addChar(c);
 					}
 				}
 			} else {
-				intPool.add((Integer) object);
+				addInt((Integer) object);
 				if (Properties.APPLY_CHAR_POOL) {
 					int val = (Integer) object;
 					if (val >= 0 && val <= 255) {
 						char c = (char) val;
-						charPool.add((Character) c);
+						addChar(c);
 					}
 				}
 			}
@@ -271,37 +337,37 @@ public class StaticConstantPool implements ConstantPool {
 			if (Properties.RESTRICT_POOL) {
 				long val = (Long) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					longPool.add((Long) object);
+					addLong((Long) object);
 				}
 			} else {
-				longPool.add((Long) object);
+				addLong((Long) object);
 			}
 		} else if (object instanceof Float) {
 			if (Properties.RESTRICT_POOL) {
 				float val = (Float) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					floatPool.add((Float) object);
+					addFloat((Float) object);
 				}
 			} else {
-				floatPool.add((Float) object);
+				addFloat((Float) object);
 			}
 		} else if (object instanceof Double) {
 			if (Properties.RESTRICT_POOL) {
 				double val = (Double) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					doublePool.add((Double) object);
+					addDouble((Double) object);
 				}
 			} else {
-				doublePool.add((Double) object);
+				addDouble((Double) object);
 			}
 		} else if (object instanceof Character) {
 			if (Properties.RESTRICT_POOL) {
 				int val = (Character) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					charPool.add((Character) object);
+					addChar((Character) object);
 				}
 			} else {
-				charPool.add((Character) object);
+				addChar((Character) object);
 			}
 		} else {
 			LoggingUtils.getEvoLogger().info("Constant of unknown type: " + object.getClass());
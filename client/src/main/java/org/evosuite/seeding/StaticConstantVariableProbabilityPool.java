@@ -33,15 +33,15 @@ public class StaticConstantVariableProbabilityPool implements ConstantPool {
 
     private final FrequencyBasedPool<Type> typePool = new FrequencyBasedPool<>();
 
-    private final FrequencyBasedPool<Integer> intPool = new FrequencyBasedPool<>();
+    private final FrequencyBasedPool<Integer> intPool = FrequencyBasedPool.forIntegers();
 
-    private final FrequencyBasedPool<Double> doublePool = new FrequencyBasedPool<>();
+    private final FrequencyBasedPool<Double> doublePool = FrequencyBasedPool.forDoubles();
 
-    private final FrequencyBasedPool<Long> longPool = new FrequencyBasedPool<>();
+    private final FrequencyBasedPool<Long> longPool = FrequencyBasedPool.forLongs();
 
-    private final FrequencyBasedPool<Float> floatPool = new FrequencyBasedPool<>();
+    private final FrequencyBasedPool<Float> floatPool = FrequencyBasedPool.forFloats();
     
-    private final FrequencyBasedPool<Character> charPool = new FrequencyBasedPool<>();
+    private final FrequencyBasedPool<Character> charPool = FrequencyBasedPool.forCharacters();
 
     public StaticConstantVariableProbabilityPool() {
 		/*
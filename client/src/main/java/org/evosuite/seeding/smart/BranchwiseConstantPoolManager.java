@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.evosuite.Properties;
 import org.evosuite.coverage.branch.Branch;
@@ -13,7 +14,6 @@ import org.evosuite.graphs.interprocedural.var.DepVariable;
 import org.evosuite.seeding.ConstantPool;
 import org.evosuite.seeding.DynamicConstantPool;
 import org.evosuite.seeding.StaticConstantPool;
-import org.evosuite.utils.Randomness;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.InsnNode;
 import org.objectweb.asm.tree.IntInsnNode;
@@ -22,53 +22,115 @@ import org.objectweb.asm.tree.LdcInsnNode;
 import net.bytebuddy.jar.asm.Opcodes;
 
 public class BranchwiseConstantPoolManager {
-	public static Map<Integer, ConstantPool> STATIC_POOL_CACHE = new HashMap<>();
-	public static Map<Integer, ConstantPool> DYNAMIC_POOL_CACHE = new HashMap<>();
+	public static final BranchwisePoolCache STATIC_POOL_CACHE = new BranchwisePoolCache(
+			() -> Properties.BRANCHWISE_POOL_CACHE_SIZE);
+	public static final BranchwisePoolCache DYNAMIC_POOL_CACHE = new BranchwisePoolCache(
+			() -> Properties.BRANCHWISE_POOL_CACHE_SIZE);
+
+	/**
+	 * The branches of the {@link SeedingApplicationEvaluator#cache} that benefit
+	 * from a dynamic pool, by their actual id, so that the constants observed
+	 * at a branch are only added if needed, without going through the cache
+	 */
+	private static final Map<Integer, Set<Branch>> DYNAMIC_POOL_BRANCHES = new ConcurrentHashMap<>();
 
 	public static ConstantPool getBranchwiseDynamicConstantPool(Integer branchId) {
-		ConstantPool pool = DYNAMIC_POOL_CACHE.get(branchId);
-		if (pool == null) {
-			pool = new DynamicConstantPool();
-			DYNAMIC_POOL_CACHE.put(branchId, pool);
-		}
-		
-		return pool;
+		return DYNAMIC_POOL_CACHE.computeIfAbsent(branchId,
+				id -> new DynamicConstantPool(Properties.BRANCHWISE_POOL_SIZE));
 	}
 
 	public static void addBranchwiseDynamicConstant(Integer branchId, Object obj) {
-		// TODO Cheng Yan, we should use a separate property to control the dynamic pool
-		if (SeedingApplicationEvaluator.cache.size() > 0) {
+		if (DYNAMIC_POOL_BRANCHES.containsKey(branchId)) {
+			ConstantPool pool = getBranchwiseDynamicConstantPool(branchId);
+			pool.add(obj);
+		}
+	}
 
-			for (Branch b : SeedingApplicationEvaluator.cache.keySet()) {
+	/**
+	 * Keep track of the pool the branch benefits from, which has just been
+	 * stored in the {@link SeedingApplicationEvaluator#cache}
+	 * 
+	 * @param b
+	 * @param info
+	 */
+	public static void updateBranchInfo(Branch b, BranchSeedInfo info) {
+		if (b == null)
+			return;
+
+		if (info.getBenefiticalType() == SeedingApplicationEvaluator.DYNAMIC_POOL) {
+			DYNAMIC_POOL_BRANCHES.computeIfAbsent(b.getActualBranchId(), id -> ConcurrentHashMap.newKeySet()).add(b);
+		} else {
+			DYNAMIC_POOL_BRANCHES.computeIfPresent(b.getActualBranchId(), (id, branches) -> {
+				branches.remove(b);
+				return branches.isEmpty() ? null : branches;
+			});
+		}
+	}
 
-				if (b.getActualBranchId() == branchId && SeedingApplicationEvaluator.cache.get(b)
-						.getBenefiticalType() == SeedingApplicationEvaluator.DYNAMIC_POOL) {
+	/**
+	 * The outcome of the branches of which only one outcome has been covered,
+	 * by their actual id
+	 */
+	private static final Map<Integer, Boolean> COVERED_OUTCOMES = new ConcurrentHashMap<>();
+
+	/**
+	 * The pools of a branch are not needed anymore once both of its outcomes
+	 * are covered
+	 * 
+	 * @param b
+	 * @param value
+	 *            the covered outcome
+	 */
+	public static void branchCovered(Branch b, boolean value) {
+		Boolean other = COVERED_OUTCOMES.putIfAbsent(b.getActualBranchId(), value);
+		if (other == null || other == value)
+			return;
+
+		STATIC_POOL_CACHE.remove(b.getActualBranchId());
+		DYNAMIC_POOL_CACHE.remove(b.getActualBranchId());
+		DYNAMIC_POOL_BRANCHES.remove(b.getActualBranchId());
+		SmartSeedBranchUpdateManager.branchCovered(b);
+	}
 
-					Properties.DYNAMIC_POOL_SIZE = 10;
-					ConstantPool pool = getBranchwiseDynamicConstantPool(branchId);
-					pool.add(obj);
-					Properties.DYNAMIC_POOL_SIZE = 50;
-				}
-			}
-		}
+	/**
+	 * Forget the pools and the covered outcomes of the previous search, as the
+	 * actual branch ids of a new class overlap with the old ones. The
+	 * {@link SeedingApplicationEvaluator#cache} is cleared as well, since
+	 * {@link #DYNAMIC_POOL_BRANCHES} is only filled when it stores a branch.
+	 */
+	public static void reset() {
+		SeedingApplicationEvaluator.cache.clear();
+		DYNAMIC_POOL_BRANCHES.clear();
+		COVERED_OUTCOMES.clear();
+		STATIC_POOL_CACHE.clear();
+		DYNAMIC_POOL_CACHE.clear();
+	}
+
+	public static long getMaxMemoryUsage() {
+		return Math.max(STATIC_POOL_CACHE.getMaxMemoryUsage(), DYNAMIC_POOL_CACHE.getMaxMemoryUsage());
+	}
+
+	public static long getEvictions() {
+		return STATIC_POOL_CACHE.getEvictions() + DYNAMIC_POOL_CACHE.getEvictions();
 	}
 
 	public static ConstantPool evaluate(BranchSeedInfo b) {
 
 		if (b.getBenefiticalType() == SeedingApplicationEvaluator.STATIC_POOL) {
-			System.currentTimeMillis();
-			if (STATIC_POOL_CACHE.containsKey(b.getBranch().getActualBranchId())) {
-				return STATIC_POOL_CACHE.get(b.getBranch().getActualBranchId());
-			}
-
-			StaticConstantPool pool = new StaticConstantPool(false, true);
-			pool.clear();
-			
-			for (ObservedConstant obj : b.getPotentialSeeds()) {
-				pool.add(obj.getValue());					
-			}
-			STATIC_POOL_CACHE.put(b.getBranch().getActualBranchId(), pool);
-			return pool;
+			return STATIC_POOL_CACHE.computeIfAbsent(b.getBranch().getActualBranchId(), id -> {
+				StaticConstantPool pool = new StaticConstantPool(false, true);
+				pool.clear();
+
+				Map<Class<?>, Integer> constantsOfType = new HashMap<>();
+				for (ObservedConstant obj : b.getPotentialSeeds()) {
+					Object value = obj.getValue();
+					if (value != null && constantsOfType.merge(value.getClass(), 1,
+							Integer::sum) > Properties.BRANCHWISE_POOL_SIZE)
+						continue;
+					pool.add(value);
+				}
+				return pool;
+			});
 
 		} else if (b.getBenefiticalType() == SeedingApplicationEvaluator.DYNAMIC_POOL) {
 			ConstantPool pool = getBranchwiseDynamicConstantPool(b.getBranch().getActualBranchId());
@@ -0,0 +1,134 @@
+package org.evosuite.seeding.smart;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+import org.evosuite.seeding.ConstantPool;
+import org.evosuite.seeding.DynamicConstantPool;
+import org.evosuite.seeding.StaticConstantPool;
+
+/**
+ * The branch-wise constant pools of smart seeding, indexed by the actual id of
+ * their branch. The pools are looked up by the instrumentation whenever a
+ * relevant branch is executed, so lookups do not lock. If there are more pools
+ * than the capacity, the least recently used ones are evicted, and their
+ * branches get a new pool when they need one again.
+ */
+public class BranchwisePoolCache {
+
+	private static final class Entry {
+
+		private final ConstantPool pool;
+
+		private volatile long lastAccess;
+
+		private Entry(ConstantPool pool, long lastAccess) {
+			this.pool = pool;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Read on each insertion, as the properties may change between the
+	 * generation of tests for different classes
+	 */
+	private final IntSupplier capacity;
+
+	public BranchwisePoolCache(IntSupplier capacity) {
+		this.capacity = capacity;
+	}
+
+	public ConstantPool get(int branchId) {
+		Entry entry = entries.get(branchId);
+		if (entry == null)
+			return null;
+		entry.lastAccess = clock.incrementAndGet();
+		return entry.pool;
+	}
+
+	/**
+	 * Returns the pool of the branch, which is created if it has none
+	 * 
+	 * @param branchId
+	 * @param factory
+	 * @return
+	 */
+	public ConstantPool computeIfAbsent(int branchId, IntFunction<ConstantPool> factory) {
+		ConstantPool pool = get(branchId);
+		if (pool != null)
+			return pool;
+
+		Entry entry = entries.computeIfAbsent(branchId,
+				id -> new Entry(factory.apply(id), clock.incrementAndGet()));
+		if (entries.size() > capacity.getAsInt())
+			evict();
+		return entry.pool;
+	}
+
+	/**
+	 * Evicts the least recently used pools, and a tenth of the capacity more,
+	 * so that the entries are not sorted on each insertion
+	 */
+	private synchronized void evict() {
+		int max = Math.max(1, capacity.getAsInt());
+		if (entries.size() <= max)
+			return;
+
+		List<Map.Entry<Integer, Entry>> candidates = new ArrayList<>(entries.entrySet());
+		candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+		int target = max - max / 10;
+		for (int i = 0; i < candidates.size() - target; i++) {
+			entries.remove(candidates.get(i).getKey());
+			evictions.incrementAndGet();
+		}
+	}
+
+	public void remove(int branchId) {
+		entries.remove(branchId);
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * Approximate number of bytes of the largest pool
+	 * 
+	 * @return
+	 */
+	public long getMaxMemoryUsage() {
+		long max = 0;
+		for (Entry entry : entries.values()) {
+			max = Math.max(max, getMemoryUsage(entry.pool));
+		}
+		return max;
+	}
+
+	private static long getMemoryUsage(ConstantPool pool) {
+		if (pool instanceof StaticConstantPool)
+			return ((StaticConstantPool) pool).getMemoryUsage();
+		if (pool instanceof DynamicConstantPool)
+			return ((DynamicConstantPool) pool).getMemoryUsage();
+		return 0;
+	}
+}
@@ -60,8 +60,18 @@ public class MethodInputs {
 	 */
 	private List<ValueStatement> fixedPoints = new ArrayList<>();
 	
-	@SuppressWarnings("unchecked")
 	public boolean mutate(Branch branch, TestChromosome startPoint, BranchFitness bf) {
+		return mutate(branch, startPoint, bf, true);
+	}
+
+	/**
+	 * @param executeStartPoint
+	 *            whether the start point is executed before it is mutated,
+	 *            which is not needed if it is a copy of a test that has been
+	 *            executed before
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean mutate(Branch branch, TestChromosome startPoint, BranchFitness bf, boolean executeStartPoint) {
 		
 //		Set<FitnessFunction<?>> set = new HashSet<>();
 //		BranchCoverageTestFitness ff = BranchCoverageFactory.createBranchCoverageTestFitness(branch, bf.getBranchGoal().getValue());
@@ -69,19 +79,21 @@ public class MethodInputs {
 //		for (FitnessFunction<?> f : set) {
 //			startPoint.addFitness(f);
 //		}
-		startPoint.clearCachedResults();
-		startPoint.addFitness((FitnessFunction<?>) bf);
-		FitnessFunction<Chromosome> fitness = (FitnessFunction<Chromosome>)bf;
-//		startPoint.getFitness(fitness);
-		double fitnessValue = fitness.getFitness(startPoint);
-		
-		if(fitnessValue >= 1) {
-			System.currentTimeMillis();
-			System.currentTimeMillis();
+		if (executeStartPoint) {
+			startPoint.clearCachedResults();
+			startPoint.addFitness((FitnessFunction<?>) bf);
+			FitnessFunction<Chromosome> fitness = (FitnessFunction<Chromosome>)bf;
+//			startPoint.getFitness(fitness);
+			double fitnessValue = fitness.getFitness(startPoint);
+			
+			if(fitnessValue >= 1) {
+				System.currentTimeMillis();
+				System.currentTimeMillis();
+			}
+			
+			assert fitnessValue <= 1.0;
 		}
 		
-		assert fitnessValue <= 1.0;
-		
 		boolean change = false;
 		
 		for(String key: inputVariables.keySet()) {
@@ -50,6 +50,11 @@ public class SeedingApplicationEvaluator {
 
 	public static Map<Branch, BranchSeedInfo> cache = new HashMap<>();
 	
+	private static void putCache(Branch b, BranchSeedInfo info) {
+		cache.put(b, info);
+		BranchwiseConstantPoolManager.updateBranchInfo(b, info);
+	}
+	
 	public static BranchSeedInfo evaluate(Branch b, TestChromosome testSeed, BranchFitness bf) {
 		
 //		for(Branch br: cache.keySet()) {
@@ -76,7 +81,7 @@ public class SeedingApplicationEvaluator {
 		
 		if(b == null || b.toString().contains("NULL")) {
 			BranchSeedInfo branchInfo = new BranchSeedInfo(b, NO_POOL, null, null);
-			cache.put(b, branchInfo);
+			putCache(b, branchInfo);
 			return branchInfo;
 		}
 		
@@ -84,7 +89,7 @@ public class SeedingApplicationEvaluator {
 				.get(Properties.TARGET_METHOD);
 		if (branchesInTargetMethod == null) {
 			BranchSeedInfo branchInfo = new BranchSeedInfo(b, NO_POOL, null, null);
-			cache.put(b, branchInfo);
+			putCache(b, branchInfo);
 			return branchInfo;
 		}
 		Set<DepVariable> nodes = branchesInTargetMethod.get(b);
@@ -128,7 +133,7 @@ public class SeedingApplicationEvaluator {
 						String type = "string";
 						BranchSeedInfo branchInfo = new BranchSeedInfo(b, DYNAMIC_POOL, type, preservance);
 						branchInfo.referredTest = referredTest;
-						cache.put(b, branchInfo);
+						putCache(b, branchInfo);
 						System.out.println("DYNAMIC_POOL type:" + b + ":" + type);
 						AbstractMOSA.smartBranchNum += 1;
 						AbstractMOSA.runtimeBranchType.put(b.getInstruction().toString(), "DYNAMIC_POOL");
@@ -144,7 +149,7 @@ public class SeedingApplicationEvaluator {
 						String type = finalType(result.getMatchedInputVariable().getAssignmentValue().getClass().toString());
 						BranchSeedInfo branchInfo = new BranchSeedInfo(b, STATIC_POOL, type, preservance);
 						branchInfo.referredTest = referredTest;
-						cache.put(b, branchInfo);
+						putCache(b, branchInfo);
 						System.out.println("STATIC_POOL type:" + b + ":" + type);
 						
 						AbstractMOSA.smartBranchNum += 1;
@@ -162,7 +167,7 @@ public class SeedingApplicationEvaluator {
 						String type = finalType(preservance.getMatchingResults().get(0).getMatchedObservation().getClass().toString());
 						BranchSeedInfo branchInfo = new BranchSeedInfo(b, DYNAMIC_POOL, type, preservance);
 						branchInfo.referredTest = referredTest;
-						cache.put(b, branchInfo);
+						putCache(b, branchInfo);
 						System.out.println("DYNAMIC_POOL type:" + b + ":" + type);
 						AbstractMOSA.smartBranchNum += 1;
 						AbstractMOSA.runtimeBranchType.put(b.getInstruction().toString(),"DYNAMIC_POOL");
@@ -178,7 +183,7 @@ public class SeedingApplicationEvaluator {
 		}
 
 		BranchSeedInfo branchInfo = new BranchSeedInfo(b, NO_POOL, null, null);
-		cache.put(b, branchInfo);
+		putCache(b, branchInfo);
 		System.out.println("NO_POOL_1:" + b);
 		return branchInfo;
 	}
@@ -186,7 +191,7 @@ public class SeedingApplicationEvaluator {
 	private static BranchSeedInfo checkReusableSwithBranches(Branch b, String key1, int index1, int index2) {
 		for (Branch b0 : cache.keySet()) {
 			if (b0.isSwitchCaseBranch() && (b0.toString().contains(key1.substring(index1, index2)))) {
-				cache.put(b, cache.get(b0));
+				putCache(b, cache.get(b0));
 				System.out.println(b + ":" + cache.get(b0).getBenefiticalType());
 				
 				if(cache.get(b0).getBenefiticalType() != SeedingApplicationEvaluator.NO_POOL) {
@@ -175,6 +175,10 @@ public class SensitivityMutator {
 	private static ValuePreservance checkPreservance(Branch branch, TestChromosome testChromosome,
 			List<DepVariable> rootVariables, List<BytecodeInstruction> observations,
 			ConstructionPathSynthesizer synthensizer, BranchFitness bf) {
+		if (Properties.BATCH_SENSITIVITY_PROBES) {
+			return checkPreservanceInBatches(branch, testChromosome, rootVariables, observations, synthensizer, bf);
+		}
+		
 		TestChromosome startPoint = (TestChromosome) testChromosome.clone();
 		
 		ValuePreservance preservance = new ValuePreservance(observations, rootVariables);
@@ -209,6 +213,119 @@ public class SensitivityMutator {
 		return preservance;
 	}
 
+	/**
+	 * The outcome of the execution of a probe, which only depends on its code
+	 * for a given branch and root variables
+	 */
+	private static class ProbeResult {
+		
+		private final Map<String, List<Object>> observationMap;
+		
+		private final double fitness;
+		
+		public ProbeResult(Map<String, List<Object>> observationMap, double fitness) {
+			this.observationMap = observationMap;
+			this.fitness = fitness;
+		}
+	}
+	
+	/**
+	 * The number of probes of which the results are kept for each branch and
+	 * its root variables
+	 */
+	private static final int PROBE_CACHE_SIZE = 256;
+	
+	/**
+	 * The number of branch goals and root variables of which the probe
+	 * results are kept
+	 */
+	private static final int PROBE_CACHE_KEYS = 64;
+	
+	/**
+	 * Results of executed probes, by branch goal and root variables, and then
+	 * by the code of the probe
+	 */
+	@SuppressWarnings("serial")
+	private static final Map<String, Map<String, ProbeResult>> probeCache = new LinkedHashMap<String, Map<String, ProbeResult>>(
+			16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Map<String, ProbeResult>> eldest) {
+			return size() > PROBE_CACHE_KEYS;
+		}
+	};
+	
+	public static void clearProbeCache() {
+		probeCache.clear();
+	}
+	
+	@SuppressWarnings("serial")
+	private static Map<String, ProbeResult> getProbeCache(BranchFitness bf, List<DepVariable> rootVariables) {
+		String key = bf.toString() + rootVariables.toString();
+		return probeCache.computeIfAbsent(key, k -> new LinkedHashMap<String, ProbeResult>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ProbeResult> eldest) {
+				return size() > PROBE_CACHE_SIZE;
+			}
+		});
+	}
+	
+	/**
+	 * Like {@link #checkPreservance}, but the inputs of all missing probes are
+	 * mutated first, and then the probes are executed in one pass with the
+	 * same class loader. Probes with the same code as a probe executed before
+	 * for the branch and root variables are not executed again, and probes
+	 * that do not reach the branch are replaced by new ones in up to 3 rounds.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static ValuePreservance checkPreservanceInBatches(Branch branch, TestChromosome testChromosome,
+			List<DepVariable> rootVariables, List<BytecodeInstruction> observations,
+			ConstructionPathSynthesizer synthensizer, BranchFitness bf) {
+		TestChromosome startPoint = (TestChromosome) testChromosome.clone();
+		
+		ValuePreservance preservance = new ValuePreservance(observations, rootVariables);
+		Map<DepVariableWrapper, VarRelevance> map = synthensizer.getGraph2CodeMap();
+		MethodInputs inputs0 = constructInputValues(rootVariables, testChromosome, map);
+		Map<String, ProbeResult> cache = getProbeCache(bf, rootVariables);
+		InstrumentingClassLoader classLoader = null;
+		
+		int missing = Properties.DYNAMIC_SENSITIVITY_THRESHOLD;
+		for (int round = 0; round < 3 && missing > 0; round++) {
+			List<MethodInputs> batchInputs = new ArrayList<>();
+			List<TestChromosome> batch = new ArrayList<>();
+			for (int i = 0; i < missing; i++) {
+				TestChromosome newTestChromosome = (TestChromosome) startPoint.clone();
+				MethodInputs inputs = inputs0.identifyInputs(newTestChromosome);
+				if (inputs.mutate(branch, newTestChromosome, bf, false)) {
+					batchInputs.add(inputs);
+					batch.add(newTestChromosome);
+				}
+			}
+			
+			for (int i = 0; i < batch.size(); i++) {
+				TestChromosome newTestChromosome = batch.get(i);
+				String code = newTestChromosome.getTestCase().toCode();
+				ProbeResult result = cache.get(code);
+				if (result == null) {
+					if (classLoader == null)
+						classLoader = createOrFindClassLoader(observations, newTestChromosome);
+					Map<String, List<Object>> observationMap = executeObservations(bf, observations,
+							newTestChromosome, classLoader);
+					result = new ProbeResult(observationMap, newTestChromosome.getFitness((FitnessFunction) bf));
+					cache.put(code, result);
+				}
+				
+				if (result.fitness < 1) {
+					ObservationRecord record = new ObservationRecord(batchInputs.get(i), result.observationMap,
+							newTestChromosome);
+					preservance.addRecord(record);
+					missing--;
+				}
+			}
+		}
+		
+		return preservance;
+	}
+
 	private static Map<String, Boolean> constructObservationsType(List<BytecodeInstruction> observations) {
 		Map<String, Boolean> m = new HashMap<>();
 		for (BytecodeInstruction ob : observations) {
@@ -942,6 +1059,18 @@ public class SensitivityMutator {
 	
 	private static Map<String, List<Object>> evaluateObservations(BranchFitness bf, List<BytecodeInstruction> observations,
 			TestChromosome newTestChromosome) {
+		InstrumentingClassLoader newClassLoader = createOrFindClassLoader(observations, newTestChromosome);
+		return executeObservations(bf, observations, newTestChromosome, newClassLoader);
+	}
+	
+	/**
+	 * Execute the test with the class loader that records the values of the
+	 * observations
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, List<Object>> executeObservations(BranchFitness bf,
+			List<BytecodeInstruction> observations, TestChromosome newTestChromosome,
+			InstrumentingClassLoader newClassLoader) {
 		Branch branch = bf.getBranchGoal().getBranch();
 		
 		Set<FitnessFunction<?>> set = new HashSet<>();
@@ -951,8 +1080,6 @@ public class SensitivityMutator {
 			newTestChromosome.addFitness(f);
 		}
 
-		InstrumentingClassLoader newClassLoader = createOrFindClassLoader(observations, newTestChromosome);
-		
 		RuntimeSensitiveVariable.observations.clear();
 		for(BytecodeInstruction ins: observations) {
 			RuntimeSensitiveVariable.observations.put(ins.toString(), new ArrayList<>());
@@ -17,9 +17,30 @@ import org.evosuite.utils.Randomness;
 
 public class SmartSeedBranchUpdateManager {
 
-	public static Set<BranchSeedInfo> uncoveredApplicableBranchInfo = new HashSet<>();
+	public static volatile Set<BranchSeedInfo> uncoveredApplicableBranchInfo = new HashSet<>();
 	public static double oldPrimitivePool = Properties.PRIMITIVE_POOL;
-	public static Set<BranchSeedInfo> totalUncoveredGoals = new HashSet<>();
+	public static volatile Set<BranchSeedInfo> totalUncoveredGoals = new HashSet<>();
+
+	/**
+	 * Forget the information of a branch of which both outcomes have been
+	 * covered. The sets are replaced rather than changed, as they may be read
+	 * while the archive is updated.
+	 * 
+	 * @param b
+	 */
+	public static synchronized void branchCovered(Branch b) {
+		uncoveredApplicableBranchInfo = withoutBranch(uncoveredApplicableBranchInfo, b);
+		totalUncoveredGoals = withoutBranch(totalUncoveredGoals, b);
+	}
+
+	private static Set<BranchSeedInfo> withoutBranch(Set<BranchSeedInfo> infos, Branch b) {
+		Set<BranchSeedInfo> result = new HashSet<>();
+		for (BranchSeedInfo info : infos) {
+			if (info.getBranch() != b)
+				result.add(info);
+		}
+		return result;
+	}
 
 	/**
 	 * if it is a static pool branch, we just set the value to further speed up the seed
@@ -39,8 +60,8 @@ public class SmartSeedBranchUpdateManager {
 
 		Properties.APPLY_CHAR_POOL = true;
 
-		uncoveredApplicableBranchInfo.clear();
-		totalUncoveredGoals.clear();
+		uncoveredApplicableBranchInfo = new HashSet<>();
+		totalUncoveredGoals = new HashSet<>();
 
 		Set<BranchSeedInfo> infoSet = new HashSet<>();
 		Set<BranchSeedInfo> uncoveredGoal = new HashSet<>();
@@ -105,8 +126,7 @@ public class SmartSeedBranchUpdateManager {
 		uncoveredApplicableBranchInfo = infoSet;
 		totalUncoveredGoals = uncoveredGoal;
 
-		List<Branch> uncoveredBranches = new ArrayList<>();
-		boolean isAllUncoveredBranchNoPool = isAllUncoveredBranchNoPool(uncoveredBranches, list0, SeedingApplicationEvaluator.cache, bestMapTest);
+		boolean isAllUncoveredBranchNoPool = isAllUncoveredBranchNoPool(list0, SeedingApplicationEvaluator.cache);
 		if(isAllUncoveredBranchNoPool) {
 			Properties.PRIMITIVE_POOL = oldPrimitivePool * 0.5;
 			testSeed = null;
@@ -119,30 +139,26 @@ public class SmartSeedBranchUpdateManager {
 		return testSeed;
 	}
 
-	private static boolean isAllUncoveredBranchNoPool(List<Branch> uncoveredBranches, Object[] list0, Map<Branch, BranchSeedInfo> cache, Map<FitnessFunction, TestChromosome> bestMapTest) {
-		// TODO 
+	/**
+	 * Whether each of the goals is a branch of the target method for which no
+	 * pool is beneficial, which is decided at the first goal that is not
+	 */
+	private static boolean isAllUncoveredBranchNoPool(Object[] list0, Map<Branch, BranchSeedInfo> cache) {
 		for (Object ff : list0) {
-			if (ff instanceof BranchFitness) {
-				BranchFitness bf = (BranchFitness) ff;
-				BranchCoverageGoal goal = bf.getBranchGoal();
-
-				if (goal.getBranch().getClassName().equals(Properties.TARGET_CLASS)
-						&& goal.getBranch().getMethodName().equals(Properties.TARGET_METHOD)) {
-//					testSeed = bestMapTest.get(ff);
-					Branch b = goal.getBranch();
-
-					if (cache.containsKey(b)
-							&& cache.get(b).getBenefiticalType() == SeedingApplicationEvaluator.NO_POOL) {
-						uncoveredBranches.add(b);
-					}
-				}
-			}
+			if (!(ff instanceof BranchFitness))
+				return false;
+
+			BranchCoverageGoal goal = ((BranchFitness) ff).getBranchGoal();
+			if (!goal.getBranch().getClassName().equals(Properties.TARGET_CLASS)
+					|| !goal.getBranch().getMethodName().equals(Properties.TARGET_METHOD))
+				return false;
+
+			BranchSeedInfo info = cache.get(goal.getBranch());
+			if (info == null || info.getBenefiticalType() != SeedingApplicationEvaluator.NO_POOL)
+				return false;
 		}
 		
-		if(uncoveredBranches.size() == list0.length)
-			return true;
-		
-		return false;
+		return true;
 	}
 
 }
@@ -212,6 +212,10 @@ public class ValuePreservance {
 //		this.recordList.clear();
 //	}
 
+	public List<ObservationRecord> getRecordList() {
+		return recordList;
+	}
+
 	public List<MatchingResult> getMatchingResults() {
 		return matchingResults;
 	}
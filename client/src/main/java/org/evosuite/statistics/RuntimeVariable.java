@@ -196,6 +196,26 @@ public enum RuntimeVariable {
 	MutationCoverageBitString,
 	/** The total time EvoSuite spent generating the test cases */
 	Total_Time,
+	/** The time from the start of the client until the target class is initialized */
+	Startup_Time,
+	/** The time spent on instrumenting classes until the target class is initialized */
+	Instrumentation_Time,
+	/** The number of classes whose instrumented bytes were found in the instrumentation cache */
+	Instrumentation_Cache_Hits,
+	/** Approximate number of bytes of the constants in the static constant pools */
+	Constant_Pool_Memory,
+	/** The average time in nanoseconds to select a constant from a static constant pool */
+	Constant_Pool_Sampling_Time,
+	/** Approximate number of bytes of the largest branch-wise constant pool of smart seeding */
+	Branchwise_Pool_Memory,
+	/** Number of branch-wise constant pools of smart seeding evicted from the caches */
+	Branchwise_Pool_Evictions,
+	/** Number of evaluations of branch goals in MOSA that were skipped, as the test did not enter the method of the branch */
+	Skipped_Goal_Evaluations,
+	/** Share of the executions of tests that were answered from the cache of execution results */
+	Execution_Cache_Hit_Rate,
+	/** Seconds the tests whose results were taken from the cache of execution results took to execute originally */
+	Execution_Cache_Saved_Time,
 	/** Number of tests in resulting test suite */
 	Size,                
 	/** Total number of statements in final test suite */
@@ -54,6 +54,7 @@ import org.evosuite.ga.operators.crossover.SinglePointCrossOver;
 import org.evosuite.ga.operators.crossover.SinglePointFixedCrossOver;
 import org.evosuite.ga.operators.crossover.SinglePointRelativeCrossOver;
 import org.evosuite.ga.operators.crossover.UniformCrossOver;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.IndividualGoalBasedSorting;
 import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
@@ -291,6 +292,8 @@ public class PropertiesSuiteGAFactory extends PropertiesSearchAlgorithmFactory<T
 		switch (Properties.RANKING_TYPE) {
 		case FAST_NON_DOMINATED_SORTING:
 			return new FastNonDominatedSorting<>();
+		case EFFICIENT_NON_DOMINATED_SORTING:
+			return new EfficientNonDominatedSorting<>();
 		case PREFERENCE_SORTING:
 		default:
 			if (Properties.INDIVIDUAL_GOAL_BASED_SORTING) {
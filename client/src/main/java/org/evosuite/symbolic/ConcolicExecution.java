@@ -35,6 +35,7 @@ import org.evosuite.symbolic.vm.HeapVM;
 import org.evosuite.symbolic.vm.JumpVM;
 import org.evosuite.symbolic.vm.LocalsVM;
 import org.evosuite.symbolic.vm.OtherVM;
+import org.evosuite.symbolic.vm.ExpressionFactory;
 import org.evosuite.symbolic.vm.PathConditionCollector;
 import org.evosuite.symbolic.vm.SymbolicFunctionVM;
 import org.evosuite.symbolic.vm.SymbolicEnvironment;
@@ -87,6 +88,7 @@ public abstract class ConcolicExecution {
 		 * Prepare DSC configuration
 		 */
 		MainConfig.setInstance();
+		ExpressionFactory.clearInternedExpressions();
 
 		/**
 		 * Path constraint and symbolic environment
@@ -138,6 +140,7 @@ public abstract class ConcolicExecution {
 			TestCaseExecutor.getInstance().setExecutionObservers(originalExecutionObservers);
 		}
 		VM.disableCallBacks(); // ignore all callbacks from now on
+		ExpressionFactory.clearInternedExpressions();
 
 		List<BranchCondition> branches = pc.getPathCondition();
 		logger.info("Concolic execution ended with " + branches.size() + " branches collected");
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.BinaryExpression;
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.Expression;
@@ -93,7 +94,7 @@ public class ConcolicMutation {
 		}
 
 		int size = constraints.size();
-		if (size > 0) {
+		if (size > 0 && !Properties.DSE_CONSTRAINT_SLICING) {
 			constraints = reduce(constraints);
 			// logger.info("Reduced constraints from " + size + " to " +
 			// constraints.size());
@@ -1,5 +1,7 @@
 package org.evosuite.symbolic;
 
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.poi.xssf.usermodel.*;
 import org.evosuite.Properties;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
@@ -31,6 +33,12 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class implements a DSE algorithm *as* a subclass of genetic algorithm.
@@ -48,6 +56,78 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 	 */
 	private final Map<Set<Constraint<?>>, SolverResult> queryCache = new HashMap<Set<Constraint<?>>, SolverResult>();
 
+	/**
+	 * Name used to define the threads solving queries if
+	 * {@link Properties#DSE_WORKERS} is set
+	 */
+	public static final String WORKER_THREAD = "DSE_WORKER";
+
+	/**
+	 * Number of candidates added to the frontier, which orders candidates with
+	 * the same priority
+	 */
+	private long numberOfCandidates = 0;
+
+	/** Number of path conditions explored for all entry methods */
+	private int exploredPathConditions = 0;
+
+	/** Number of queries solved for all entry methods */
+	private int solvedQueries = 0;
+
+	/** Number of queries whose solver failed on a worker */
+	private int failedQueries = 0;
+
+	/**
+	 * A branch condition of an explored path condition to negate. The
+	 * candidates of the tests that improved the fitness most are solved first,
+	 * the others in the order in which they were found.
+	 */
+	private static class Candidate implements Comparable<Candidate> {
+
+		private final TestCase testCase;
+
+		private final PathCondition pathCondition;
+
+		private final int conditionIndexToNegate;
+
+		private final List<Constraint<?>> constraints;
+
+		private final double improvement;
+
+		private final long order;
+
+		public Candidate(TestCase testCase, PathCondition pathCondition, int conditionIndexToNegate,
+				List<Constraint<?>> constraints, double improvement, long order) {
+			this.testCase = testCase;
+			this.pathCondition = pathCondition;
+			this.conditionIndexToNegate = conditionIndexToNegate;
+			this.constraints = constraints;
+			this.improvement = improvement;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(Candidate other) {
+			int result = Double.compare(other.improvement, improvement);
+			return result != 0 ? result : Long.compare(order, other.order);
+		}
+	}
+
+	/**
+	 * The result of the query of a candidate
+	 */
+	private static class Solution {
+
+		private final Candidate candidate;
+
+		private final SolverResult result;
+
+		public Solution(Candidate candidate, SolverResult result) {
+			this.candidate = candidate;
+			this.result = result;
+		}
+	}
+
 	/**
 	 * Applies DSE test generation on a static non-private method until a stopping
 	 * condition is met or all queries have been explored.
@@ -78,6 +158,11 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 			return;
 		}
 
+		if (Properties.DSE_WORKERS > 0) {
+			explorePathConditionsConcurrently(staticEntryMethod, testCaseWithDefaultValues);
+			return;
+		}
+
 		HashSet<Set<Constraint<?>>> pathConditions = new HashSet<Set<Constraint<?>>>();
 
 		for (int currentTestIndex = 0; currentTestIndex < generatedTests.size(); currentTestIndex++) {
@@ -99,6 +184,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 
 			Set<Constraint<?>> constraintsSet = canonicalize(pathCondition.getConstraints());
 			pathConditions.add(constraintsSet);
+			exploredPathConditions++;
 			logger.debug("Number of stored path condition: " + pathConditions.size());
 			
 			//path conditions
@@ -147,6 +233,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 
 				long start = System.currentTimeMillis();
 				SolverResult result = DSETestGenerator.solve(query);
+				solvedQueries++;
 				long end = System.currentTimeMillis();
 				long time = end - start;
 
@@ -195,6 +282,175 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 		return;
 	}
 
+	/**
+	 * Explores the path conditions of the tests generated for the entry method
+	 * with a frontier of branch conditions to negate, whose queries are solved
+	 * on {@link Properties#DSE_WORKERS} threads. As the concolic execution and
+	 * the test execution share the symbolic VM and the executor, new tests are
+	 * executed on the current thread, while the workers continue solving the
+	 * other queries. Path conditions and queries are deduplicated by their
+	 * prefixes before they are added to the frontier.
+	 * 
+	 * @param staticEntryMethod
+	 * @param testCaseWithDefaultValues
+	 */
+	private void explorePathConditionsConcurrently(Method staticEntryMethod, TestCase testCaseWithDefaultValues) {
+		PathConditionTrie pathConditions = new PathConditionTrie();
+		PriorityQueue<Candidate> frontier = new PriorityQueue<Candidate>();
+		ExecutorService workers = Executors.newFixedThreadPool(Properties.DSE_WORKERS, r -> {
+			Thread worker = new Thread(r, WORKER_THREAD);
+			worker.setDaemon(true);
+			return worker;
+		});
+		CompletionService<Solution> solutions = new ExecutorCompletionService<Solution>(workers);
+
+		int generatedTests = 1;
+		int solvedQueries = 0;
+		int failedQueries = 0;
+		int runningQueries = 0;
+		long startTime = System.currentTimeMillis();
+		try {
+			explore(testCaseWithDefaultValues, 0.0, staticEntryMethod, pathConditions, frontier);
+
+			while (!this.isFinished()) {
+				while (runningQueries < Properties.DSE_WORKERS && !frontier.isEmpty()) {
+					Candidate candidate = frontier.poll();
+					if (pathConditions.isExplored(candidate.constraints)) {
+						logger.debug("skipping solving of current query because of path condition explored since");
+						continue;
+					}
+
+					List<Constraint<?>> query = DSETestGenerator.buildQuery(candidate.pathCondition,
+							candidate.conditionIndexToNegate);
+					query.addAll(createVarBounds(query));
+
+					// The queries of a path condition share their variables,
+					// whose concrete values are changed by the solvers
+					List<Constraint<?>> copy;
+					try {
+						copy = SerializationUtils.clone(new ArrayList<Constraint<?>>(query));
+					} catch (SerializationException e) {
+						logger.debug("Query cannot be copied, solving it on the current thread");
+						Solution solution = new Solution(candidate, DSETestGenerator.solve(query));
+						solvedQueries++;
+						if (handleSolution(solution, staticEntryMethod, pathConditions, frontier))
+							generatedTests++;
+						if (getBestIndividual().getFitness() == 0 || this.isFinished())
+							return;
+						continue;
+					}
+
+					logger.debug("Solving query with  " + copy.size() + " constraints");
+					solutions.submit(() -> new Solution(candidate, DSETestGenerator.solve(copy)));
+					runningQueries++;
+				}
+
+				if (runningQueries == 0) {
+					break;
+				}
+
+				Future<Solution> future = solutions.take();
+				runningQueries--;
+				Solution solution;
+				try {
+					solution = future.get();
+				} catch (ExecutionException e) {
+					// The other queries do not depend on this one
+					logger.warn("Solving a query failed: {}", e.getCause().toString());
+					logger.debug("Detailed exception trace: ", e.getCause());
+					failedQueries++;
+					continue;
+				}
+				solvedQueries++;
+				if (handleSolution(solution, staticEntryMethod, pathConditions, frontier))
+					generatedTests++;
+				if (getBestIndividual().getFitness() == 0) {
+					logger.debug("No more DSE test generation since fitness is 0");
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			workers.shutdownNow();
+			this.exploredPathConditions += pathConditions.getNumberOfPathConditions();
+			this.solvedQueries += solvedQueries;
+			this.failedQueries += failedQueries;
+
+			long time = Math.max(1, System.currentTimeMillis() - startTime);
+			logger.debug("DSE test generation finished for method " + staticEntryMethod.getName() + ". Exiting with "
+					+ generatedTests + " generated test cases");
+			logger.info("Explored " + pathConditions.getNumberOfPathConditions() + " path conditions and solved "
+					+ solvedQueries + " queries (" + failedQueries + " failed) of " + staticEntryMethod.getName()
+					+ " with " + Properties.DSE_WORKERS + " workers in " + time + "ms ("
+					+ String.format("%.2f", 1000.0 * pathConditions.getNumberOfPathConditions() / time)
+					+ " path conditions per second)");
+		}
+	}
+
+	/**
+	 * Creates a test from the model of a satisfiable query, and explores its
+	 * path condition
+	 * 
+	 * @return true if a new test was added to the best individual
+	 */
+	private boolean handleSolution(Solution solution, Method staticEntryMethod, PathConditionTrie pathConditions,
+			PriorityQueue<Candidate> frontier) {
+		SolverResult result = solution.result;
+		if (result == null) {
+			logger.debug("Solver outcome is null (probably failure/unknown");
+			return false;
+		}
+		if (!result.isSAT()) {
+			logger.debug("query is UNSAT (no solution found)");
+			return false;
+		}
+
+		Map<String, Object> model = result.getModel();
+		logger.debug("solver found solution " + model.toString());
+		TestCase newTest = DSETestGenerator.updateTest(solution.candidate.testCase, model);
+		logger.debug("Created new test case from SAT solution:" + newTest.toCode());
+
+		double fitnessBeforeAddingNewTest = this.getBestIndividual().getFitness();
+		getBestIndividual().addTest(newTest);
+		calculateFitness(getBestIndividual());
+		double fitnessAfterAddingNewTest = this.getBestIndividual().getFitness();
+		logger.debug("Fitness after adding new test " + fitnessAfterAddingNewTest);
+		this.notifyIteration();
+
+		if (fitnessAfterAddingNewTest > 0) {
+			explore(newTest, fitnessBeforeAddingNewTest - fitnessAfterAddingNewTest, staticEntryMethod,
+					pathConditions, frontier);
+		}
+		return true;
+	}
+
+	/**
+	 * Collects the path condition of the test by concolic execution, and adds
+	 * the negations of its branch conditions to the frontier, last branch
+	 * condition first
+	 */
+	private void explore(TestCase testCase, double improvement, Method staticEntryMethod,
+			PathConditionTrie pathConditions, PriorityQueue<Candidate> frontier) {
+		logger.debug("Starting concolic execution of test case: " + testCase.toCode());
+		final PathCondition pathCondition = ConcolicExecution.executeConcolic((DefaultTestCase) testCase.clone());
+		logger.debug("Path condition collected with : " + pathCondition.size() + " branches");
+
+		if (!pathConditions.addPathCondition(PathConditionTrie.getConstraints(pathCondition))) {
+			logger.debug("skipping path condition that was explored before");
+			return;
+		}
+		recordPathConditionList(pathCondition, staticEntryMethod);
+
+		for (int i = pathCondition.size() - 1; i >= 0; i--) {
+			List<Constraint<?>> constraints = PathConditionTrie.getConstraints(pathCondition, i);
+			if (pathConditions.addQuery(constraints)) {
+				frontier.add(new Candidate(testCase, pathCondition, i, constraints, improvement, numberOfCandidates++));
+			}
+		}
+		logger.debug("Number of queries in the frontier: " + frontier.size());
+	}
+
 	private void recordPathConditionList(PathCondition pathCondition, Method staticEntryMethod) {
 		// TODO Auto-generated method stub
 		String path = "/Users/xucaiyi/Documents/EvoObj-EvoSuite-comparison-testrun/TestGenerationResult/experiment/";
@@ -202,6 +458,9 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 		
 		File files = new File(path);
 		File[] filesList = files.listFiles();
+		if (filesList == null) {
+			return;
+		}
 		
 		boolean isExisted = false;
 		for(File f : filesList) {
@@ -628,6 +887,18 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 		calculateFitness(individual);
 	}
 
+	public int getNumberOfExploredPathConditions() {
+		return exploredPathConditions;
+	}
+
+	public int getNumberOfSolvedQueries() {
+		return solvedQueries;
+	}
+
+	public int getNumberOfFailedQueries() {
+		return failedQueries;
+	}
+
 	public static Method getTragetMethod(String name, Class<?> clazz, int parameterNum) {
 		for (Method method : clazz.getDeclaredMethods()) {
 			if (method.getName().equals(name) && method.getParameterCount() == parameterNum) {
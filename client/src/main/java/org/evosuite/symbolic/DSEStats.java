@@ -31,6 +31,7 @@ import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.IntegerConstraint;
 import org.evosuite.symbolic.expr.RealConstraint;
 import org.evosuite.symbolic.expr.StringConstraint;
+import org.evosuite.symbolic.solver.PortfolioSolver;
 import org.evosuite.symbolic.solver.SolverCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -85,6 +86,11 @@ public class DSEStats {
 	private double avg_constraint_size = 0;
 	private int constraint_count = 0;
 	private int path_condition_count = 0;
+	private int sliced_query_count = 0;
+	private long constraints_before_slicing = 0;
+	private long constraints_after_slicing = 0;
+	private long slice_count = 0;
+	private long solved_slice_count = 0;
 	private final List<Boolean> changes = new LinkedList<Boolean>();
 	private final ConstraintTypeCounter constraintTypeCounter = new ConstraintTypeCounter();
 
@@ -166,10 +172,19 @@ public class DSEStats {
 		logger.info("");
 		logTimeStatistics();
 
+		logger.info("");
+		logSlicingStatistics();
+
 		logger.info("");
 		logCacheStatistics();
 		logger.info("");
 
+		if (Properties.DSE_SOLVER == Properties.SolverType.PORTFOLIO_SOLVER) {
+			logger.info("");
+			logPortfolioStatistics();
+			logger.info("");
+		}
+
 		logger.info("");
 		logAdaptationStatistics();
 		logger.info("");
@@ -198,10 +213,11 @@ public class DSEStats {
 
 	private void logCacheStatistics() {
 		logger.info("* DSE) Constraint Cache Statistics");
-		final int numberOfSATs = SolverCache.getInstance().getNumberOfSATs();
-		final int numberOfUNSATs = SolverCache.getInstance().getNumberOfUNSATs();
+		SolverCache solverCache = SolverCache.getInstance();
+		final int numberOfSATs = solverCache.getNumberOfSATs();
+		final int numberOfUNSATs = solverCache.getNumberOfUNSATs();
 
-		if (numberOfSATs == 0 || numberOfUNSATs == 0) {
+		if (solverCache.getNumberOfAccesses() == 0) {
 			logger.info("* DSE)   Constraint Cache was not used.");
 
 		} else {
@@ -212,8 +228,44 @@ public class DSEStats {
 
 			NumberFormat percentFormat = NumberFormat.getPercentInstance();
 			percentFormat.setMaximumFractionDigits(1);
-			String hit_rate_str = percentFormat.format(SolverCache.getInstance().getHitRate());
-			logger.info(String.format("* DSE)   Cache hit rate: %s", hit_rate_str));
+			String hit_rate_str = percentFormat.format(solverCache.getHitRate());
+			logger.info(String.format("* DSE)   Cache hit rate: %s (%s of %s)", hit_rate_str,
+					solverCache.getNumberOfHits(), solverCache.getNumberOfAccesses()));
+
+			logger.info(String.format("* DSE)   Cache hits from previous runs: %s", solverCache.getNumberOfStoredHits()));
+
+			logger.info(String.format("* DSE)   Cache evictions: %s", solverCache.getNumberOfEvictions()));
+
+			logger.info(String.format("* DSE)   Solving time saved: %sms", solverCache.getSavedSolvingTimeMillis()));
+		}
+	}
+
+	private synchronized void logSlicingStatistics() {
+		logger.info("* DSE) Constraint Slicing Statistics");
+		if (sliced_query_count == 0) {
+			logger.info("* DSE)   No queries were sliced.");
+		} else {
+			logger.info(String.format("* DSE)   Sliced queries: %s", sliced_query_count));
+			logger.info(String.format("* DSE)   avg constraints before slicing: %s",
+					(double) constraints_before_slicing / sliced_query_count));
+			logger.info(String.format("* DSE)   avg constraints after slicing: %s",
+					(double) constraints_after_slicing / sliced_query_count));
+			logger.info(String.format("* DSE)   Solved slices: %s / %s", solved_slice_count, slice_count));
+		}
+	}
+
+	private void logPortfolioStatistics() {
+		logger.info("* DSE) Solver Portfolio Statistics");
+		NumberFormat percentFormat = NumberFormat.getPercentInstance();
+		percentFormat.setMaximumFractionDigits(1);
+		for (Properties.SolverType type : Properties.DSE_PORTFOLIO) {
+			int runs = PortfolioSolver.getNumberOfRuns(type);
+			if (runs == 0)
+				continue;
+			logger.info(String.format("* DSE)   %s won %s (%s of %s), avg winning time %sms%s", type,
+					percentFormat.format(PortfolioSolver.getWinRate(type)), PortfolioSolver.getNumberOfWins(type),
+					runs, PortfolioSolver.getAverageWinningTimeMillis(type),
+					PortfolioSolver.isDropped(type) ? ", dropped" : ""));
 		}
 	}
 
@@ -408,6 +460,40 @@ public class DSEStats {
 		constraintTypeCounter.addNewConstraint(hasIntegerConstraint, hasRealConstraint, hasStringConstraint);
 	}
 
+	/**
+	 * Reports a query that was split into independent slices. Queries are
+	 * sliced by the DSE workers and the solvers of the portfolio concurrently.
+	 * 
+	 * @param sizeBeforeSlicing
+	 *            number of constraints of the query
+	 * @param sizeAfterSlicing
+	 *            number of constraints in the slices that were solved
+	 * @param slices
+	 *            number of slices
+	 * @param solvedSlices
+	 *            number of slices that were solved
+	 */
+	public synchronized void reportNewSlicedQuery(int sizeBeforeSlicing, int sizeAfterSlicing, int slices,
+			int solvedSlices) {
+		sliced_query_count++;
+		constraints_before_slicing += sizeBeforeSlicing;
+		constraints_after_slicing += sizeAfterSlicing;
+		slice_count += slices;
+		solved_slice_count += solvedSlices;
+	}
+
+	public synchronized int getNumberOfSlicedQueries() {
+		return sliced_query_count;
+	}
+
+	public synchronized long getConstraintsBeforeSlicing() {
+		return constraints_before_slicing;
+	}
+
+	public synchronized long getConstraintsAfterSlicing() {
+		return constraints_after_slicing;
+	}
+
 	/**
 	 * Reports a new solving time (use of a constraint solver)
 	 * 
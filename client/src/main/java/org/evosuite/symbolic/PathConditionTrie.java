@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Constraint;
+
+/**
+ * Prefix trie of the path conditions explored by the DSE, and of the queries
+ * that were derived from them. Path conditions share their common prefixes,
+ * hence a query that negates a branch condition is known to be redundant if
+ * its constraints are a prefix of an explored path condition, or if the same
+ * query was already derived from another path condition.
+ */
+final class PathConditionTrie {
+
+	private static final class Node {
+
+		private final Map<Constraint<?>, Node> children = new HashMap<Constraint<?>, Node>();
+
+		/** Whether an explored path condition goes through this node */
+		private boolean explored = false;
+
+		/** Whether a query ends in this node */
+		private boolean queried = false;
+	}
+
+	private final Node root = new Node();
+
+	private int numberOfPathConditions = 0;
+
+	private int numberOfNodes = 1;
+
+	/**
+	 * Returns the constraints of the path condition, in the order of its
+	 * branch conditions
+	 * 
+	 * @param pathCondition
+	 * @return
+	 */
+	public static List<Constraint<?>> getConstraints(PathCondition pathCondition) {
+		return getConstraints(pathCondition, pathCondition.size());
+	}
+
+	/**
+	 * Returns the constraints of the query that negates the branch condition
+	 * at the given index of the path condition, before its cone of influence
+	 * is reduced
+	 * 
+	 * @param pathCondition
+	 * @param conditionIndexToNegate
+	 * @return
+	 */
+	public static List<Constraint<?>> getConstraints(PathCondition pathCondition, int conditionIndexToNegate) {
+		List<Constraint<?>> constraints = new ArrayList<Constraint<?>>();
+		int index = 0;
+		for (BranchCondition b : pathCondition.getBranchConditions()) {
+			if (index == conditionIndexToNegate) {
+				constraints.addAll(b.getSupportingConstraints());
+				constraints.add(b.getConstraint().negate());
+				break;
+			}
+			constraints.addAll(b.getSupportingConstraints());
+			constraints.add(b.getConstraint());
+			index++;
+		}
+		return constraints;
+	}
+
+	/**
+	 * Adds an explored path condition
+	 * 
+	 * @param constraints
+	 *            the constraints of the path condition
+	 * @return true if the path condition was not explored before
+	 */
+	public boolean addPathCondition(List<Constraint<?>> constraints) {
+		Node node = root;
+		boolean isNew = false;
+		for (Constraint<?> constraint : constraints) {
+			node = getOrCreateChild(node, constraint);
+			if (!node.explored) {
+				node.explored = true;
+				isNew = true;
+			}
+		}
+		if (isNew)
+			numberOfPathConditions++;
+		return isNew;
+	}
+
+	/**
+	 * Adds a query unless it was added before, or it is the prefix of an
+	 * explored path condition
+	 * 
+	 * @param constraints
+	 *            the constraints of the query
+	 * @return true if the query was added
+	 */
+	public boolean addQuery(List<Constraint<?>> constraints) {
+		Node node = root;
+		for (Constraint<?> constraint : constraints) {
+			node = getOrCreateChild(node, constraint);
+		}
+		if (node.explored || node.queried)
+			return false;
+
+		node.queried = true;
+		return true;
+	}
+
+	/**
+	 * Returns true if the constraints are a prefix of an explored path
+	 * condition, i.e., a query for them no longer needs to be solved
+	 * 
+	 * @param constraints
+	 * @return
+	 */
+	public boolean isExplored(List<Constraint<?>> constraints) {
+		Node node = root;
+		for (Constraint<?> constraint : constraints) {
+			node = node.children.get(constraint);
+			if (node == null)
+				return false;
+		}
+		return node.explored;
+	}
+
+	private Node getOrCreateChild(Node node, Constraint<?> constraint) {
+		Node child = node.children.get(constraint);
+		if (child == null) {
+			child = new Node();
+			node.children.put(constraint, child);
+			numberOfNodes++;
+		}
+		return child;
+	}
+
+	public int getNumberOfPathConditions() {
+		return numberOfPathConditions;
+	}
+
+	public int getNumberOfNodes() {
+		return numberOfNodes;
+	}
+}
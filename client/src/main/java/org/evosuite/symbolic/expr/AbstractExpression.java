@@ -32,6 +32,13 @@ public abstract class AbstractExpression<T> implements Expression<T> {
 
 	private final int size;
 
+	/**
+	 * The hash code is computed once, as the structure of an expression does
+	 * not change. It is not serialized, as the hash codes of the operators
+	 * differ between JVMs
+	 */
+	private transient int hash = 0;
+
 	public AbstractExpression(T concreteValue, int size, boolean containsSymbolicVariable) {
 		this.concreteValue = concreteValue;
 		this.size = size;
@@ -74,6 +81,24 @@ public abstract class AbstractExpression<T> implements Expression<T> {
 		return concreteValue;
 	}
 
+	@Override
+	public final int hashCode() {
+		if (hash == 0) {
+			hash = computeHashCode();
+		}
+		return hash;
+	}
+
+	/**
+	 * Compute the hash code of the expression, which is consistent with
+	 * {@link #equals(Object)}
+	 * 
+	 * @return an int.
+	 */
+	protected int computeHashCode() {
+		return super.hashCode();
+	}
+
 	@Override
 	public Set<Object> getConstants() {
 		Set<Object> result = new HashSet<Object>();
@@ -60,7 +60,7 @@ public final class IntegerConstant extends AbstractExpression<Long> implements
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return getConcreteValue().hashCode();
 	}
 
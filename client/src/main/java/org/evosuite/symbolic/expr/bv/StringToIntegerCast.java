@@ -94,7 +94,7 @@ public final class StringToIntegerCast extends AbstractExpression<Long> implemen
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return this.expr.hashCode();
 	}
 
@@ -153,7 +153,7 @@ public final class StringMultipleExpression extends AbstractExpression<String> i
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return this.op.hashCode() + this.left.hashCode() + this.right.hashCode()
 		        + this.other_v.hashCode();
 	}
@@ -72,7 +72,7 @@ public final class NewTokenizerExpr extends TokenizerExpr {
 	}
 
 	@Override
-	public int hashCode() {
+	protected int computeHashCode() {
 		return string.hashCode() + delim.hashCode();
 	}
 
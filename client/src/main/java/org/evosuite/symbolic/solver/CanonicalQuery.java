@@ -0,0 +1,466 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.ExpressionVisitor;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerComparison;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerUnaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerValue;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.RealComparison;
+import org.evosuite.symbolic.expr.bv.RealToIntegerCast;
+import org.evosuite.symbolic.expr.bv.RealUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.symbolic.expr.bv.StringBinaryToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringMultipleComparison;
+import org.evosuite.symbolic.expr.bv.StringMultipleToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringToIntegerCast;
+import org.evosuite.symbolic.expr.bv.StringUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.fp.IntegerToRealCast;
+import org.evosuite.symbolic.expr.fp.RealBinaryExpression;
+import org.evosuite.symbolic.expr.fp.RealConstant;
+import org.evosuite.symbolic.expr.fp.RealUnaryExpression;
+import org.evosuite.symbolic.expr.fp.RealValue;
+import org.evosuite.symbolic.expr.fp.RealVariable;
+import org.evosuite.symbolic.expr.reader.StringReaderExpr;
+import org.evosuite.symbolic.expr.ref.GetFieldExpression;
+import org.evosuite.symbolic.expr.ref.ReferenceConstant;
+import org.evosuite.symbolic.expr.ref.ReferenceVariable;
+import org.evosuite.symbolic.expr.str.IntegerToStringCast;
+import org.evosuite.symbolic.expr.str.RealToStringCast;
+import org.evosuite.symbolic.expr.str.StringBinaryExpression;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringMultipleExpression;
+import org.evosuite.symbolic.expr.str.StringUnaryExpression;
+import org.evosuite.symbolic.expr.str.StringValue;
+import org.evosuite.symbolic.expr.str.StringVariable;
+import org.evosuite.symbolic.expr.token.HasMoreTokensExpr;
+import org.evosuite.symbolic.expr.token.NewTokenizerExpr;
+import org.evosuite.symbolic.expr.token.NextTokenizerExpr;
+import org.evosuite.symbolic.expr.token.StringNextTokenExpr;
+
+/**
+ * <p>
+ * Normal form of a query, under which queries that only differ in the names
+ * of their variables and in the order of their constraints are the same.
+ * </p>
+ *
+ * <p>
+ * The constraints are ordered by their shape, i.e. their printed form with
+ * anonymous variables, and the variables are then named <code>v0, v1,
+ * ...</code> in the order of their first occurrence. The type and the bounds
+ * of each variable are part of the key. Subexpressions without symbolic
+ * variables are printed as their concrete value, as this is what the solvers
+ * see of them. Constraints of the same shape keep their order, so some
+ * equivalent queries still have different keys, but equal keys always denote
+ * equivalent queries.
+ * </p>
+ */
+public final class CanonicalQuery {
+
+	private static final String VARIABLE_PREFIX = "v";
+
+	private final String key;
+
+	/** Names of the variables of the query, by canonical index */
+	private final List<String> variableNames;
+
+	private final Map<String, Integer> variableIndices;
+
+	private CanonicalQuery(String key, List<String> variableNames, Map<String, Integer> variableIndices) {
+		this.key = key;
+		this.variableNames = variableNames;
+		this.variableIndices = variableIndices;
+	}
+
+	/**
+	 * Compute the normal form of the given query
+	 *
+	 * @param constraints
+	 *            a {@link java.util.Collection} object.
+	 * @return a {@link org.evosuite.symbolic.solver.CanonicalQuery} object.
+	 */
+	public static CanonicalQuery create(Collection<Constraint<?>> constraints) {
+		Printer shapePrinter = new Printer(null);
+		List<Constraint<?>> list = new ArrayList<>(constraints);
+		List<String> shapes = new ArrayList<>(list.size());
+		List<Integer> order = new ArrayList<>(list.size());
+		for (Constraint<?> constraint : list) {
+			order.add(shapes.size());
+			shapes.add(shapePrinter.print(constraint));
+		}
+		// Stable, so constraints of the same shape keep their order
+		order.sort((i1, i2) -> shapes.get(i1).compareTo(shapes.get(i2)));
+
+		Map<String, Integer> variableIndices = new HashMap<>();
+		Printer printer = new Printer(variableIndices);
+		StringBuilder key = new StringBuilder();
+		for (int index : order) {
+			key.append(printer.print(list.get(index))).append('\n');
+		}
+		key.append(printer.declarations);
+
+		List<String> variableNames = new ArrayList<>(printer.names);
+		return new CanonicalQuery(key.toString(), variableNames, variableIndices);
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public int getNumberOfVariables() {
+		return variableNames.size();
+	}
+
+	/**
+	 * Rename the variables of a model of this query to their canonical names
+	 *
+	 * @param model
+	 *            a {@link java.util.Map} object.
+	 * @return the renamed model, or null if it contains values of variables
+	 *         that are not part of the query
+	 */
+	public Map<String, Object> toCanonicalModel(Map<String, Object> model) {
+		Map<String, Object> canonicalModel = new HashMap<>();
+		for (Map.Entry<String, Object> entry : model.entrySet()) {
+			Integer index = variableIndices.get(entry.getKey());
+			if (index == null)
+				return null;
+			canonicalModel.put(VARIABLE_PREFIX + index, entry.getValue());
+		}
+		return canonicalModel;
+	}
+
+	/**
+	 * Rename the variables of a model of an equivalent query to the names of
+	 * the variables of this query
+	 *
+	 * @param canonicalModel
+	 *            a model created with {@link #toCanonicalModel(Map)}
+	 * @return a {@link java.util.Map} object.
+	 */
+	public Map<String, Object> fromCanonicalModel(Map<String, Object> canonicalModel) {
+		Map<String, Object> model = new HashMap<>();
+		for (int i = 0; i < variableNames.size(); i++) {
+			String canonicalName = VARIABLE_PREFIX + i;
+			if (canonicalModel.containsKey(canonicalName))
+				model.put(variableNames.get(i), canonicalModel.get(canonicalName));
+		}
+		return model;
+	}
+
+	@Override
+	public String toString() {
+		return key;
+	}
+
+	/**
+	 * Prints expressions in a form without concrete values of variables. If no
+	 * map of variable indices is given, all variables of the same type are
+	 * printed the same.
+	 */
+	private static final class Printer implements ExpressionVisitor<Void, StringBuilder> {
+
+		private final Map<String, Integer> indices;
+
+		private final List<String> names = new ArrayList<>();
+
+		private final StringBuilder declarations = new StringBuilder();
+
+		public Printer(Map<String, Integer> indices) {
+			this.indices = indices;
+		}
+
+		public String print(Constraint<?> constraint) {
+			StringBuilder builder = new StringBuilder();
+			builder.append(constraint.getClass().getSimpleName()).append('(');
+			print(constraint.getLeftOperand(), builder);
+			builder.append(' ').append(constraint.getComparator().name()).append(' ');
+			print(constraint.getRightOperand(), builder);
+			builder.append(')');
+			return builder.toString();
+		}
+
+		private void print(Expression<?> expression, StringBuilder builder) {
+			if (!(expression instanceof Variable) && !expression.containsSymbolicVariable()
+			        && (expression instanceof IntegerValue || expression instanceof RealValue
+			                || expression instanceof StringValue)) {
+				printConstant(expression.getConcreteValue(), builder);
+			} else {
+				expression.accept(this, builder);
+			}
+		}
+
+		private static void printConstant(Object value, StringBuilder builder) {
+			if (value instanceof String) {
+				String string = (String) value;
+				builder.append("S#").append(string.length()).append(':').append(string);
+			} else if (value instanceof Double) {
+				builder.append("R#").append(Double.doubleToLongBits((Double) value));
+			} else {
+				builder.append("I#").append(value);
+			}
+		}
+
+		private void printVariable(Variable<?> variable, String type, StringBuilder builder) {
+			builder.append(type);
+			if (indices == null)
+				return;
+
+			Integer index = indices.get(variable.getName());
+			if (index == null) {
+				index = names.size();
+				indices.put(variable.getName(), index);
+				names.add(variable.getName());
+				declarations.append(VARIABLE_PREFIX).append(index).append(':').append(type).append('[');
+				Object min = variable.getMinValue();
+				Object max = variable.getMaxValue();
+				if (min != null)
+					printConstant(min, declarations);
+				declarations.append(',');
+				if (max != null)
+					printConstant(max, declarations);
+				declarations.append("];");
+			}
+			builder.append(VARIABLE_PREFIX).append(index);
+		}
+
+		private Void printOperation(Expression<?> expression, Operator operator, StringBuilder builder,
+		        Expression<?>... operands) {
+			builder.append('(').append(expression.getClass().getSimpleName());
+			if (operator != null)
+				builder.append(' ').append(operator.name());
+			for (Expression<?> operand : operands) {
+				builder.append(' ');
+				print(operand, builder);
+			}
+			builder.append(')');
+			return null;
+		}
+
+		private Void printOperation(Expression<?> expression, Operator operator, StringBuilder builder,
+		        Expression<?> left, Expression<?> right, List<Expression<?>> others) {
+			List<Expression<?>> operands = new ArrayList<>(2 + others.size());
+			operands.add(left);
+			operands.add(right);
+			operands.addAll(others);
+			return printOperation(expression, operator, builder, operands.toArray(new Expression<?>[0]));
+		}
+
+		@Override
+		public Void visit(IntegerBinaryExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(IntegerComparison n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getLeftOperant(), n.getRightOperant());
+		}
+
+		@Override
+		public Void visit(IntegerConstant n, StringBuilder arg) {
+			printConstant(n.getConcreteValue(), arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(IntegerUnaryExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(IntegerVariable n, StringBuilder arg) {
+			printVariable(n, "I", arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(RealComparison n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getLeftOperant(), n.getRightOperant());
+		}
+
+		@Override
+		public Void visit(RealToIntegerCast n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(RealUnaryToIntegerExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(StringBinaryComparison n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(StringBinaryToIntegerExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(StringMultipleComparison n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand(), n.getOther());
+		}
+
+		@Override
+		public Void visit(StringMultipleToIntegerExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand(), n.getOther());
+		}
+
+		@Override
+		public Void visit(StringToIntegerCast n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(StringUnaryToIntegerExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(IntegerToRealCast n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(RealBinaryExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(RealConstant n, StringBuilder arg) {
+			printConstant(n.getConcreteValue(), arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(RealUnaryExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(RealVariable n, StringBuilder arg) {
+			printVariable(n, "R", arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(StringReaderExpr n, StringBuilder arg) {
+			printOperation(n, null, arg, n.getString());
+			arg.append('@').append(n.getReaderPosition());
+			return null;
+		}
+
+		@Override
+		public Void visit(IntegerToStringCast n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(RealToStringCast n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(StringBinaryExpression n, StringBuilder arg) {
+			printOperation(n, n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+			if (n.getOperator() == Operator.APPEND_REAL) {
+				// The solvers append the concrete value of the real
+				printConstant(n.getRightOperand().getConcreteValue(), arg);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visit(StringConstant n, StringBuilder arg) {
+			printConstant(n.getConcreteValue(), arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(StringMultipleExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand(), n.getOther());
+		}
+
+		@Override
+		public Void visit(StringUnaryExpression n, StringBuilder arg) {
+			return printOperation(n, n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(StringVariable n, StringBuilder arg) {
+			printVariable(n, "S", arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(HasMoreTokensExpr n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getTokenizerExpr());
+		}
+
+		@Override
+		public Void visit(NewTokenizerExpr n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getString(), n.getDelimiter());
+		}
+
+		@Override
+		public Void visit(NextTokenizerExpr n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getTokenizerExpr());
+		}
+
+		@Override
+		public Void visit(StringNextTokenExpr n, StringBuilder arg) {
+			return printOperation(n, null, arg, n.getTokenizerExpr());
+		}
+
+		@Override
+		public Void visit(ReferenceConstant r, StringBuilder arg) {
+			arg.append("L#").append(r.toString());
+			return null;
+		}
+
+		@Override
+		public Void visit(ReferenceVariable r, StringBuilder arg) {
+			printVariable(r, "L", arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(GetFieldExpression r, StringBuilder arg) {
+			printOperation(r, null, arg, r.getReceiverExpr());
+			arg.append('.').append(r.getFieldName());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.ConstraintEvaluator;
+import org.evosuite.symbolic.expr.Variable;
+
+/**
+ * <p>
+ * Splits a query into independent parts, i.e. into sets of constraints that
+ * share no variables with the constraints of the other sets. The query is
+ * satisfiable if each of the parts is, and the union of the models of the
+ * parts is a model of the query.
+ * </p>
+ *
+ * <p>
+ * A query built from a path condition only differs from the path condition
+ * in the negated branch, so the parts which do not contain it are satisfied
+ * by the concrete values of their variables already and need not be solved.
+ * </p>
+ */
+public final class ConstraintSlicer {
+
+	private ConstraintSlicer() {
+	}
+
+	/**
+	 * Partition the constraints into sets of constraints that are connected
+	 * by shared variables. Constraints without variables form a set of their
+	 * own each. The constraints keep their order within each set.
+	 * 
+	 * @param constraints
+	 * @return
+	 */
+	public static List<List<Constraint<?>>> partition(Collection<Constraint<?>> constraints) {
+		Map<String, String> parents = new HashMap<String, String>();
+		for (Constraint<?> constraint : constraints) {
+			String first = null;
+			for (Variable<?> variable : constraint.getVariables()) {
+				String root = find(parents, variable.getName());
+				if (first == null) {
+					first = root;
+				} else if (!root.equals(first)) {
+					parents.put(root, first);
+				}
+			}
+		}
+
+		Map<String, List<Constraint<?>>> parts = new LinkedHashMap<String, List<Constraint<?>>>();
+		List<List<Constraint<?>>> partition = new ArrayList<List<Constraint<?>>>();
+		for (Constraint<?> constraint : constraints) {
+			Collection<Variable<?>> variables = constraint.getVariables();
+			if (variables.isEmpty()) {
+				List<Constraint<?>> part = new ArrayList<Constraint<?>>();
+				part.add(constraint);
+				partition.add(part);
+				continue;
+			}
+			String root = find(parents, variables.iterator().next().getName());
+			List<Constraint<?>> part = parts.get(root);
+			if (part == null) {
+				part = new ArrayList<Constraint<?>>();
+				parts.put(root, part);
+				partition.add(part);
+			}
+			part.add(constraint);
+		}
+		return partition;
+	}
+
+	private static String find(Map<String, String> parents, String name) {
+		String root = name;
+		String parent;
+		while ((parent = parents.get(root)) != null) {
+			root = parent;
+		}
+
+		// Path compression
+		String current = name;
+		while (!current.equals(root)) {
+			String next = parents.get(current);
+			parents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Whether the constraints hold for the current concrete values of their
+	 * variables
+	 * 
+	 * @param constraints
+	 * @return false if the constraints do not hold or cannot be evaluated
+	 */
+	public static boolean isSatisfiedByConcreteValues(Collection<Constraint<?>> constraints) {
+		ConstraintEvaluator evaluator = new ConstraintEvaluator();
+		try {
+			for (Constraint<?> constraint : constraints) {
+				if (!Boolean.TRUE.equals(constraint.accept(evaluator, null)))
+					return false;
+			}
+			return true;
+		} catch (RuntimeException e) {
+			return false;
+		}
+	}
+}
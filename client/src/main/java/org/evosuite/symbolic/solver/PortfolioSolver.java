@@ -0,0 +1,314 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.evosuite.Properties;
+import org.evosuite.Properties.SolverType;
+import org.evosuite.symbolic.expr.Constraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Solver that runs the solvers of {@link Properties#DSE_PORTFOLIO}
+ * concurrently on each query, and returns the first SAT or UNSAT answer. The
+ * other solvers are interrupted then: the AVM stops its search, and the
+ * processes of Z3 and CVC4 are destroyed.
+ * </p>
+ *
+ * <p>
+ * Each solver works on its own copy of the constraints, as the solvers change
+ * the concrete values of the variables while they search. For each solver it
+ * is counted how many queries it ran on and how many of them it won, and once
+ * a solver ran on {@link #MIN_RUNS_BEFORE_DROPPING} queries of the current
+ * target class and won less than {@link Properties#DSE_PORTFOLIO_MIN_WIN_RATE}
+ * of them, it is no longer used for this class. The last remaining solver is
+ * never dropped.
+ * </p>
+ */
+public final class PortfolioSolver extends Solver {
+
+	private static final Logger logger = LoggerFactory.getLogger(PortfolioSolver.class);
+
+	/** Name used to define the threads the solvers run on */
+	public static final String SOLVER_THREAD = "PORTFOLIO_SOLVER";
+
+	/** Queries a solver has to run on before it can be dropped */
+	public static final int MIN_RUNS_BEFORE_DROPPING = 20;
+
+	private static ExecutorService executor = null;
+
+	/** The class the statistics belong to */
+	private static String statisticsClass = null;
+
+	private static final Map<SolverType, Statistics> statistics = new EnumMap<>(SolverType.class);
+
+	private final Map<SolverType, Supplier<Solver>> solvers;
+
+	private static class Statistics {
+
+		private int runs = 0;
+
+		private int wins = 0;
+
+		private long winningTimeMillis = 0;
+
+		private boolean dropped = false;
+	}
+
+	public PortfolioSolver() {
+		super(true);
+		solvers = new LinkedHashMap<>();
+		for (SolverType type : Properties.DSE_PORTFOLIO) {
+			if (isAvailable(type))
+				solvers.put(type, () -> SolverFactory.getInstance().buildNewSolver(type));
+		}
+		if (solvers.isEmpty())
+			solvers.put(SolverType.EVOSUITE_SOLVER,
+					() -> SolverFactory.getInstance().buildNewSolver(SolverType.EVOSUITE_SOLVER));
+	}
+
+	/**
+	 * Portfolio of the given solvers, whose statistics are kept under their
+	 * type
+	 *
+	 * @param solvers
+	 */
+	PortfolioSolver(Map<SolverType, Supplier<Solver>> solvers) {
+		super(true);
+		this.solvers = new LinkedHashMap<>(solvers);
+	}
+
+	private static boolean isAvailable(SolverType type) {
+		switch (type) {
+		case EVOSUITE_SOLVER:
+			return true;
+		case Z3_SOLVER:
+			return Properties.Z3_PATH != null;
+		case CVC4_SOLVER:
+			return Properties.CVC4_PATH != null;
+		default:
+			return false;
+		}
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, SOLVER_THREAD);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	private static synchronized Statistics getStatistics(SolverType type) {
+		if (!Properties.TARGET_CLASS.equals(statisticsClass)) {
+			statistics.clear();
+			statisticsClass = Properties.TARGET_CLASS;
+		}
+		return statistics.computeIfAbsent(type, t -> new Statistics());
+	}
+
+	/**
+	 * <p>
+	 * resetStatistics
+	 * </p>
+	 */
+	public static synchronized void resetStatistics() {
+		statistics.clear();
+		statisticsClass = null;
+	}
+
+	public static synchronized int getNumberOfRuns(SolverType type) {
+		return getStatistics(type).runs;
+	}
+
+	public static synchronized int getNumberOfWins(SolverType type) {
+		return getStatistics(type).wins;
+	}
+
+	public static synchronized double getWinRate(SolverType type) {
+		Statistics s = getStatistics(type);
+		return s.runs == 0 ? 0.0 : (double) s.wins / s.runs;
+	}
+
+	public static synchronized long getAverageWinningTimeMillis(SolverType type) {
+		Statistics s = getStatistics(type);
+		return s.wins == 0 ? 0 : s.winningTimeMillis / s.wins;
+	}
+
+	public static synchronized boolean isDropped(SolverType type) {
+		return getStatistics(type).dropped;
+	}
+
+	/**
+	 * The solvers of this portfolio that are still used for the current class
+	 *
+	 * @return
+	 */
+	public List<SolverType> getActiveSolvers() {
+		synchronized (PortfolioSolver.class) {
+			List<SolverType> active = new ArrayList<>();
+			for (SolverType type : solvers.keySet()) {
+				if (!getStatistics(type).dropped)
+					active.add(type);
+			}
+			return active;
+		}
+	}
+
+	/**
+	 * Count a race among the given solvers, and drop the solvers that do not
+	 * win often enough as long as one of them remains
+	 */
+	private void recordRace(List<SolverType> runners, SolverType winner, long timeMillis) {
+		synchronized (PortfolioSolver.class) {
+			for (SolverType type : runners) {
+				getStatistics(type).runs++;
+			}
+			if (winner != null) {
+				Statistics s = getStatistics(winner);
+				s.wins++;
+				s.winningTimeMillis += timeMillis;
+			}
+
+			List<SolverType> active = getActiveSolvers();
+			for (SolverType type : runners) {
+				Statistics s = getStatistics(type);
+				if (active.size() > 1 && s.runs >= MIN_RUNS_BEFORE_DROPPING
+						&& (double) s.wins / s.runs < Properties.DSE_PORTFOLIO_MIN_WIN_RATE) {
+					logger.info("Dropping {} from the solver portfolio, as it won {} of {} queries", type, s.wins,
+							s.runs);
+					s.dropped = true;
+					active.remove(type);
+				}
+			}
+		}
+	}
+
+	@Override
+	public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException, IOException,
+			SolverParseException, SolverEmptyQueryException, SolverErrorException {
+		List<SolverType> runners = getActiveSolvers();
+		long startTimeMillis = System.currentTimeMillis();
+		if (runners.size() == 1) {
+			SolverType type = runners.get(0);
+			SolverResult result = solvers.get(type).get().solve(constraints);
+			recordRace(runners, isAnswer(result) ? type : null, System.currentTimeMillis() - startTimeMillis);
+			return result;
+		}
+
+		List<ArrayList<Constraint<?>>> copies = new ArrayList<>(runners.size());
+		try {
+			for (int i = 0; i < runners.size(); i++) {
+				copies.add(SerializationUtils.clone(new ArrayList<>(constraints)));
+			}
+		} catch (SerializationException e) {
+			logger.debug("Constraints cannot be copied, solving them with {} only", runners.get(0));
+			return solvers.get(runners.get(0)).get().solve(constraints);
+		}
+
+		CompletionService<SolverResult> completionService = new ExecutorCompletionService<>(getExecutor());
+		Map<Future<SolverResult>, SolverType> futures = new LinkedHashMap<>();
+		for (int i = 0; i < runners.size(); i++) {
+			Solver solver = solvers.get(runners.get(i)).get();
+			Collection<Constraint<?>> copy = copies.get(i);
+			futures.put(completionService.submit(() -> solver.solve(copy)), runners.get(i));
+		}
+
+		SolverResult unknown = null;
+		List<Throwable> failures = new ArrayList<>();
+		try {
+			for (int i = 0; i < runners.size(); i++) {
+				Future<SolverResult> future = completionService.take();
+				SolverType type = futures.get(future);
+				try {
+					SolverResult result = future.get();
+					if (isAnswer(result)) {
+						logger.debug("{} answered {} first", type, result.isSAT() ? "SAT" : "UNSAT");
+						recordRace(runners, type, System.currentTimeMillis() - startTimeMillis);
+						return result;
+					}
+					unknown = result;
+				} catch (ExecutionException e) {
+					logger.debug("{} failed: {}", type, e.getCause());
+					failures.add(e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SolverTimeoutException();
+		} finally {
+			for (Future<SolverResult> future : futures.keySet()) {
+				future.cancel(true);
+			}
+		}
+
+		recordRace(runners, null, 0);
+		if (unknown != null)
+			return unknown;
+		rethrow(failures);
+		throw new SolverErrorException(failures.isEmpty() ? "No solver answered" : failures.get(0).toString());
+	}
+
+	private static boolean isAnswer(SolverResult result) {
+		return result.isSAT() || result.isUNSAT();
+	}
+
+	/**
+	 * Rethrow the failure of the solvers, where timeouts take precedence
+	 */
+	private static void rethrow(List<Throwable> failures) throws SolverTimeoutException, IOException,
+			SolverParseException, SolverEmptyQueryException, SolverErrorException {
+		for (Throwable failure : failures) {
+			if (failure instanceof SolverTimeoutException)
+				throw (SolverTimeoutException) failure;
+		}
+		for (Throwable failure : failures) {
+			if (failure instanceof SolverErrorException)
+				throw (SolverErrorException) failure;
+			if (failure instanceof IOException)
+				throw (IOException) failure;
+			if (failure instanceof SolverParseException)
+				throw (SolverParseException) failure;
+			if (failure instanceof SolverEmptyQueryException)
+				throw (SolverEmptyQueryException) failure;
+		}
+	}
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.exec.CommandLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A solver process that is kept alive between queries, and is given the
+ * queries as SMT-LIB commands on its standard input.
+ * </p>
+ *
+ * <p>
+ * Each frame of a query is asserted in its own scope, i.e. after a
+ * <code>(push 1)</code>. For the next query the session only pops the frames
+ * that are not a prefix of the new query, so a path condition that differs
+ * from the previous one only in its last constraints is mostly asserted
+ * already. The end of each response is recognized by an <code>echo</code>
+ * command with a unique marker.
+ * </p>
+ */
+public final class SmtSession {
+
+	private static final Logger logger = LoggerFactory.getLogger(SmtSession.class);
+
+	/** Put into the queue of output lines when the process terminated */
+	private static final String END_OF_OUTPUT = new String("<end of output>");
+
+	private static final AtomicInteger markers = new AtomicInteger();
+
+	private final String command;
+
+	private final String header;
+
+	private final Process process;
+
+	private final Writer input;
+
+	private final BlockingQueue<String> output = new LinkedBlockingQueue<String>();
+
+	/** The frames currently asserted, from the bottom to the top scope */
+	private final List<String> stack = new ArrayList<String>();
+
+	private int pushedFrames = 0;
+
+	private boolean alive = true;
+
+	/**
+	 * Start the solver process and send the header to it
+	 * 
+	 * @param command
+	 *            the command line of the solver
+	 * @param header
+	 *            commands which are sent once, e.g. the logic and the options
+	 * @throws IOException
+	 *             if the process cannot be started
+	 */
+	public SmtSession(String command, String header) throws IOException {
+		this.command = command;
+		this.header = header;
+
+		logger.debug("Starting solver session {}", command);
+		ProcessBuilder builder = new ProcessBuilder(Arrays.asList(CommandLine.parse(command).toStrings()));
+		builder.redirectErrorStream(true);
+		this.process = builder.start();
+		this.input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+
+		Thread reader = new Thread(this::readOutput, "SMT_SESSION_READER");
+		reader.setDaemon(true);
+		reader.start();
+
+		input.write(header);
+		input.flush();
+	}
+
+	private void readOutput() {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				output.add(line);
+			}
+		} catch (IOException e) {
+			logger.debug("Output of solver session could not be read: {}", e.getMessage());
+		}
+		output.add(END_OF_OUTPUT);
+	}
+
+	public String getCommand() {
+		return command;
+	}
+
+	public String getHeader() {
+		return header;
+	}
+
+	public synchronized boolean isAlive() {
+		return alive && process.isAlive();
+	}
+
+	/**
+	 * Number of frames that were sent to the process, i.e. that were not
+	 * asserted already
+	 * 
+	 * @return
+	 */
+	public synchronized int getPushedFrames() {
+		return pushedFrames;
+	}
+
+	/**
+	 * The number of leading frames of the given query that are asserted
+	 * already
+	 * 
+	 * @param frames
+	 * @return
+	 */
+	public synchronized int getCommonPrefix(List<String> frames) {
+		int prefix = 0;
+		int limit = Math.min(stack.size(), frames.size());
+		while (prefix < limit && stack.get(prefix).equals(frames.get(prefix))) {
+			prefix++;
+		}
+		return prefix;
+	}
+
+	/**
+	 * Check the satisfiability of the given frames
+	 * 
+	 * @param frames
+	 *            the declarations and assertions of the query
+	 * @param timeoutMillis
+	 *            time after which the process is killed
+	 * @return the output of the solver, which is "sat" followed by the model,
+	 *         or "unsat", "unknown" or error messages
+	 * @throws IOException
+	 *             if the process terminated
+	 * @throws SolverTimeoutException
+	 *             if the process did not respond in time
+	 */
+	public synchronized String check(List<String> frames, long timeoutMillis)
+			throws IOException, SolverTimeoutException {
+		if (!isAlive())
+			throw new IOException("Solver process is not alive");
+
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		int prefix = getCommonPrefix(frames);
+
+		StringBuilder commands = new StringBuilder();
+		if (stack.size() > prefix) {
+			commands.append("(pop ").append(stack.size() - prefix).append(")\n");
+			stack.subList(prefix, stack.size()).clear();
+		}
+		for (String frame : frames.subList(prefix, frames.size())) {
+			commands.append("(push 1)\n").append(frame).append('\n');
+			stack.add(frame);
+			pushedFrames++;
+		}
+		commands.append("(check-sat)\n");
+
+		List<String> lines = send(commands, deadline);
+		String status = lines.isEmpty() ? "" : lines.get(0).trim();
+		if (status.equals("sat")) {
+			lines.addAll(send(new StringBuilder("(get-model)\n"), deadline));
+		}
+
+		StringBuilder result = new StringBuilder();
+		for (String line : lines) {
+			if (line.startsWith("(error")) {
+				// The scopes may not be what we think they are
+				logger.debug("Solver session reported an error: {}", line);
+				close();
+			}
+			result.append(line).append('\n');
+		}
+		return result.toString();
+	}
+
+	private List<String> send(StringBuilder commands, long deadline) throws IOException, SolverTimeoutException {
+		String marker = "evosuite-" + markers.incrementAndGet();
+		commands.append("(echo \"").append(marker).append("\")\n");
+		try {
+			input.write(commands.toString());
+			input.flush();
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+
+		List<String> lines = new ArrayList<String>();
+		try {
+			while (true) {
+				long remaining = deadline - System.currentTimeMillis();
+				String line = remaining > 0 ? output.poll(remaining, TimeUnit.MILLISECONDS) : null;
+				if (line == null) {
+					logger.debug("Solver session did not respond in time");
+					close();
+					throw new SolverTimeoutException();
+				}
+				if (line == END_OF_OUTPUT) {
+					close();
+					throw new IOException("Solver process terminated with output " + lines);
+				}
+				if (line.contains(marker))
+					return lines;
+				if (!line.trim().isEmpty())
+					lines.add(line);
+			}
+		} catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			throw new SolverTimeoutException();
+		}
+	}
+
+	/**
+	 * Kill the process
+	 */
+	public synchronized void close() {
+		if (!alive)
+			return;
+		alive = false;
+		stack.clear();
+		try {
+			input.close();
+		} catch (IOException e) {
+			// The process may be gone already
+		}
+		process.destroyForcibly();
+	}
+}
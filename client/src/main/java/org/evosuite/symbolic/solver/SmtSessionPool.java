@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Pool of {@link SmtSession}s, with at most
+ * {@link Properties#SMT_SOLVER_SESSIONS} processes for each solver command and
+ * header. A query is given to the idle session that has the longest prefix of
+ * it asserted already.
+ * </p>
+ *
+ * <p>
+ * If a process terminates during a query, the query is repeated once with a
+ * new process. A process that does not respond in time is killed, and
+ * replaced when the next query comes.
+ * </p>
+ */
+public final class SmtSessionPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(SmtSessionPool.class);
+
+	private static SmtSessionPool instance = null;
+
+	private final Map<String, List<SmtSession>> idleSessions = new HashMap<String, List<SmtSession>>();
+
+	/** Number of sessions of each key, whether idle or not */
+	private final Map<String, Integer> openSessions = new HashMap<String, Integer>();
+
+	private int startedSessions = 0;
+
+	private int pushedFrames = 0;
+
+	private SmtSessionPool() {
+		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+	}
+
+	public static synchronized SmtSessionPool getInstance() {
+		if (instance == null)
+			instance = new SmtSessionPool();
+		return instance;
+	}
+
+	private static String getKey(String command, String header) {
+		return command + "\n" + header;
+	}
+
+	/**
+	 * Check the satisfiability of the given frames with a pooled solver
+	 * process
+	 * 
+	 * @param command
+	 *            the command line of the solver
+	 * @param header
+	 *            the logic and options of the query
+	 * @param frames
+	 *            the declarations and assertions of the query
+	 * @param timeoutMillis
+	 *            time after which the process is killed
+	 * @return the output of the solver
+	 * @throws SolverTimeoutException
+	 * @throws SolverErrorException
+	 *             if the process could not be started or terminated twice
+	 */
+	public String check(String command, String header, List<String> frames, long timeoutMillis)
+			throws SolverTimeoutException, SolverErrorException {
+		String key = getKey(command, header);
+		for (int attempt = 0;; attempt++) {
+			SmtSession session = acquire(key, command, header, frames);
+			int pushed = session.getPushedFrames();
+			try {
+				return session.check(frames, timeoutMillis);
+			} catch (IOException e) {
+				logger.debug("Solver session failed: {}", e.getMessage());
+				if (attempt > 0)
+					throw new SolverErrorException("Solver process terminated: " + e.getMessage());
+			} finally {
+				release(key, session, session.getPushedFrames() - pushed);
+			}
+		}
+	}
+
+	private SmtSession acquire(String key, String command, String header, List<String> frames)
+			throws SolverErrorException {
+		synchronized (this) {
+			while (true) {
+				List<SmtSession> idle = idleSessions.get(key);
+				if (idle != null && !idle.isEmpty()) {
+					SmtSession best = idle.get(0);
+					for (SmtSession session : idle) {
+						if (session.getCommonPrefix(frames) > best.getCommonPrefix(frames))
+							best = session;
+					}
+					idle.remove(best);
+					return best;
+				}
+
+				int open = openSessions.getOrDefault(key, 0);
+				if (open < Math.max(1, Properties.SMT_SOLVER_SESSIONS)) {
+					openSessions.put(key, open + 1);
+					startedSessions++;
+					break;
+				}
+
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new SolverErrorException("Interrupted while waiting for a solver session");
+				}
+			}
+		}
+
+		try {
+			return new SmtSession(command, header);
+		} catch (IOException e) {
+			synchronized (this) {
+				openSessions.put(key, openSessions.get(key) - 1);
+				notifyAll();
+			}
+			throw new SolverErrorException("Solver process could not be started: " + e.getMessage());
+		}
+	}
+
+	private synchronized void release(String key, SmtSession session, int pushed) {
+		pushedFrames += pushed;
+		if (session.isAlive()) {
+			idleSessions.computeIfAbsent(key, k -> new ArrayList<SmtSession>()).add(session);
+		} else {
+			openSessions.put(key, openSessions.get(key) - 1);
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Number of solver processes started so far
+	 * 
+	 * @return
+	 */
+	public synchronized int getStartedSessions() {
+		return startedSessions;
+	}
+
+	/**
+	 * Number of frames sent to the solver processes so far, which does not
+	 * include the frames that were asserted already
+	 * 
+	 * @return
+	 */
+	public synchronized int getPushedFrames() {
+		return pushedFrames;
+	}
+
+	/**
+	 * Kill all idle solver processes
+	 */
+	public synchronized void shutdown() {
+		for (Map.Entry<String, List<SmtSession>> entry : idleSessions.entrySet()) {
+			for (SmtSession session : entry.getValue()) {
+				session.close();
+			}
+			openSessions.put(entry.getKey(), openSessions.get(entry.getKey()) - entry.getValue().size());
+		}
+		idleSessions.clear();
+	}
+}
@@ -22,13 +22,23 @@ package org.evosuite.symbolic.solver;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 
 import org.apache.commons.exec.ExecuteException;
+import org.evosuite.Properties;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
 import org.evosuite.utils.ProcessLauncher;
 import org.evosuite.utils.ProcessTimeoutException;
 
 public abstract class SmtSolver extends Solver {
 
+	/**
+	 * Time a solver session gets in addition to the timeout of the solver
+	 * before it is killed, so that the solver can answer "unknown" itself
+	 */
+	private static final int SESSION_TIMEOUT_MARGIN_MILLIS = 1000;
+
 	public SmtSolver(boolean addMissingVariables) {
 		super(addMissingVariables);
 	}
@@ -83,4 +93,45 @@ public abstract class SmtSolver extends Solver {
 
 	}
 
+	/**
+	 * Whether queries are given to pooled solver processes, see
+	 * {@link SmtSessionPool}
+	 * 
+	 * @return
+	 */
+	protected static boolean useSolverSessions() {
+		return Properties.SMT_SOLVER_SESSIONS > 0;
+	}
+
+	/**
+	 * Solve the query with a solver process of the {@link SmtSessionPool}
+	 * 
+	 * @param solverCmd
+	 *            the command line of an incremental solver reading from stdin
+	 * @param query
+	 * @param hardTimeout
+	 * @return the output of the solver, as it would be printed by a new
+	 *         solving process
+	 * @throws SolverTimeoutException
+	 * @throws SolverErrorException
+	 */
+	protected static String solveInSession(String solverCmd, SmtQuery query, int hardTimeout)
+			throws SolverTimeoutException, SolverErrorException {
+		SmtQueryPrinter printer = new SmtQueryPrinter();
+		String header = printer.printHeader(query);
+		List<String> frames = printer.printFrames(query);
+
+		long solver_start_time_millis = System.currentTimeMillis();
+		String output = SmtSessionPool.getInstance().check(solverCmd, header, frames,
+				hardTimeout + SESSION_TIMEOUT_MARGIN_MILLIS);
+		logger.debug("Solver session time was {}ms", System.currentTimeMillis() - solver_start_time_millis);
+
+		if (output.contains("(error") && !output.startsWith("unsat")) {
+			String errMsg = "Solver session reported an error: " + output;
+			logger.debug(errMsg);
+			throw new SolverErrorException(errMsg);
+		}
+		return output;
+	}
+
 }
@@ -19,14 +19,75 @@
  */
 package org.evosuite.symbolic.solver;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.evosuite.Properties;
+import org.evosuite.symbolic.DSEStats;
 import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.utils.FileIOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * <p>
+ * Cache of solver results, shared by all threads.
+ * </p>
+ *
+ * <p>
+ * Queries are looked up by their {@link CanonicalQuery}, so a query hits the
+ * result of an earlier query that only differs in the names of the variables
+ * and the order of the constraints, in which case the model is renamed to the
+ * variables of the query. At most {@link Properties#DSE_SOLVER_CACHE_SIZE}
+ * results are kept, and the least recently used ones are evicted first. If
+ * {@link Properties#DSE_SOLVER_CACHE_DIR} is set, SAT and UNSAT results are
+ * also written to a directory of the target class, from which later runs on
+ * the same class read them.
+ * </p>
+ *
+ * <p>
+ * If {@link Properties#DSE_CONSTRAINT_SLICING} is set, a query is split by
+ * the {@link ConstraintSlicer}, and only the parts that do not hold for the
+ * current concrete values are solved and cached separately.
+ * </p>
+ */
 public final class SolverCache {
 
+	private static final Logger logger = LoggerFactory.getLogger(SolverCache.class);
+
+	private static final int MAGIC = 0x50CAC4E5;
+
+	/**
+	 * A cached result, with a model for the canonical variables, together with
+	 * the time the solver took to compute it
+	 */
+	private static final class Entry {
+
+		private final SolverResult result;
+
+		private final long solvingTimeMillis;
+
+		public Entry(SolverResult result, long solvingTimeMillis) {
+			this.result = result;
+			this.solvingTimeMillis = solvingTimeMillis;
+		}
+	}
+
 	/**
 	 * 
 	 * @param solver
@@ -34,18 +95,61 @@ public final class SolverCache {
 	 * @return 
 	 */
 	public SolverResult solve(Solver solver, Collection<Constraint<?>> constraints) {
-		if (hasCachedResult(constraints)) {
+		if (Properties.DSE_CONSTRAINT_SLICING) {
+			return solveSlices(solver, constraints);
+		}
+		return solveQuery(solver, constraints);
+	}
+
+	/**
+	 * Solve the independent parts of the query that do not hold for the
+	 * current concrete values, and merge their models
+	 * 
+	 * @param solver
+	 * @param constraints
+	 * @return
+	 */
+	private SolverResult solveSlices(Solver solver, Collection<Constraint<?>> constraints) {
+		List<List<Constraint<?>>> slices = ConstraintSlicer.partition(constraints);
+		List<List<Constraint<?>>> unsatisfied = new ArrayList<List<Constraint<?>>>();
+		int size = 0;
+		for (List<Constraint<?>> slice : slices) {
+			if (!ConstraintSlicer.isSatisfiedByConcreteValues(slice)) {
+				unsatisfied.add(slice);
+				size += slice.size();
+			}
+		}
+		DSEStats.getInstance().reportNewSlicedQuery(constraints.size(), size, slices.size(), unsatisfied.size());
+
+		Map<String, Object> model = new HashMap<String, Object>();
+		for (List<Constraint<?>> slice : unsatisfied) {
+			if (slice.get(0).getVariables().isEmpty())
+				return SolverResult.newUNSAT();
+
+			SolverResult result = solveQuery(solver, slice);
+			if (result == null || !result.isSAT())
+				return result;
+			model.putAll(result.getModel());
+		}
+		return SolverResult.newSAT(model);
+	}
+
+	private SolverResult solveQuery(Solver solver, Collection<Constraint<?>> constraints) {
+		CanonicalQuery query = CanonicalQuery.create(constraints);
+		if (hasCachedResult(query)) {
 			SolverResult cached_solution = getCachedResult();
 			return cached_solution;
 		}
 
 		SolverResult solverResult;
 		try {
+			long startSolvingTime = System.currentTimeMillis();
 			solverResult = solver.solve(constraints);
+			long solvingTime = System.currentTimeMillis() - startSolvingTime;
 			if (solverResult.isUNSAT()) {
-				addUNSAT(constraints, solverResult);
+				addUNSAT(query, solverResult, solvingTime);
 			} else {
-				addSAT(constraints, solverResult);
+				addSAT(query, solverResult, solvingTime);
 			}
 		} catch (SolverTimeoutException | IOException | SolverParseException | SolverEmptyQueryException
 				| SolverErrorException e) {
@@ -58,20 +162,37 @@ public final class SolverCache {
 
 	private static final SolverCache instance = new SolverCache();
 
-	private HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<Collection<Constraint<?>>, SolverResult>();
+	private final LinkedHashMap<String, Entry> cached_solver_results = new LinkedHashMap<String, Entry>(16, 0.75f,
+			true) {
+
+		private static final long serialVersionUID = 3296487120925470536L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			if (size() > Math.max(1, Properties.DSE_SOLVER_CACHE_SIZE)) {
+				number_of_evictions++;
+				return true;
+			}
+			return false;
+		}
+	};
+
 	private int cached_sat_result_count = 0;
 	private int cached_unsat_result_count = 0;
 
-	public int getNumberOfUNSATs() {
+	public synchronized int getNumberOfUNSATs() {
 		return cached_unsat_result_count;
 	}
 
-	public int getNumberOfSATs() {
+	public synchronized int getNumberOfSATs() {
 		return cached_sat_result_count;
 	}
 
 	private int number_of_accesses = 0;
 	private int number_of_hits = 0;
+	private int number_of_evictions = 0;
+	private int number_of_stored_hits = 0;
+	private long saved_solving_time = 0;
 
 	private SolverCache() {
 		/* empty constructor */
@@ -81,51 +202,215 @@ public final class SolverCache {
 		return instance;
 	}
 
-	private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-		cached_solver_results.put(unsat_constraints, unsatResult);
-		cached_unsat_result_count++;
+	/**
+	 * Remove all results from memory and reset the statistics. Stored results
+	 * are kept.
+	 */
+	public synchronized void clear() {
+		cached_solver_results.clear();
+		cached_sat_result_count = 0;
+		cached_unsat_result_count = 0;
+		number_of_accesses = 0;
+		number_of_hits = 0;
+		number_of_evictions = 0;
+		number_of_stored_hits = 0;
+		saved_solving_time = 0;
+	}
+
+	private void addUNSAT(CanonicalQuery unsat_constraints, SolverResult unsatResult, long solvingTime) {
+		Entry entry = new Entry(unsatResult, solvingTime);
+		synchronized (this) {
+			cached_solver_results.put(unsat_constraints.getKey(), entry);
+			cached_unsat_result_count++;
+		}
+		store(unsat_constraints, entry);
 	}
 
-	private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-		cached_solver_results.put(sat_constraints, satResult);
-		cached_sat_result_count++;
+	private void addSAT(CanonicalQuery sat_constraints, SolverResult satResult, long solvingTime) {
+		SolverResult canonicalResult = satResult;
+		if (satResult.isSAT()) {
+			Map<String, Object> canonicalModel = sat_constraints.toCanonicalModel(satResult.getModel());
+			if (canonicalModel == null) {
+				logger.debug("Model contains variables that are not part of the query, not caching it");
+				return;
+			}
+			canonicalResult = SolverResult.newSAT(canonicalModel);
+		}
+
+		Entry entry = new Entry(canonicalResult, solvingTime);
+		synchronized (this) {
+			cached_solver_results.put(sat_constraints.getKey(), entry);
+			cached_sat_result_count++;
+		}
+		if (satResult.isSAT())
+			store(sat_constraints, entry);
 	}
 
-	private boolean valid_cached_solution = false;
-	private SolverResult cached_solution = null;
+	private final ThreadLocal<SolverResult> cached_solution = new ThreadLocal<SolverResult>();
 
-	private boolean hasCachedResult(Collection<Constraint<?>> constraints) {
-		number_of_accesses++;
+	private boolean hasCachedResult(CanonicalQuery constraints) {
+		Entry entry;
+		synchronized (this) {
+			number_of_accesses++;
+			entry = cached_solver_results.get(constraints.getKey());
+		}
 
-		if (this.cached_solver_results.containsKey(constraints)) {
-			valid_cached_solution = true;
-			cached_solution = this.cached_solver_results.get(constraints);
-			number_of_hits++;
-			return true;
-		} else {
-			valid_cached_solution = false;
+		if (entry == null && isPersistent()) {
+			entry = load(constraints);
+			if (entry != null) {
+				synchronized (this) {
+					cached_solver_results.put(constraints.getKey(), entry);
+					number_of_stored_hits++;
+				}
+			}
+		}
+
+		if (entry == null) {
+			cached_solution.remove();
 			return false;
 		}
+
+		synchronized (this) {
+			number_of_hits++;
+			saved_solving_time += entry.solvingTimeMillis;
+		}
+		SolverResult result = entry.result;
+		if (result.isSAT())
+			result = SolverResult.newSAT(constraints.fromCanonicalModel(result.getModel()));
+		cached_solution.set(result);
+		return true;
 	}
 
-	public double getHitRate() {
+	public synchronized double getHitRate() {
 		return (double) this.number_of_hits / (double) this.number_of_accesses;
 	}
 
+	public synchronized int getNumberOfAccesses() {
+		return number_of_accesses;
+	}
+
+	public synchronized int getNumberOfHits() {
+		return number_of_hits;
+	}
+
+	/**
+	 * Number of results that were evicted to keep the size of the cache
+	 * within {@link Properties#DSE_SOLVER_CACHE_SIZE}
+	 * 
+	 * @return
+	 */
+	public synchronized int getNumberOfEvictions() {
+		return number_of_evictions;
+	}
+
+	/**
+	 * Number of results that were read from
+	 * {@link Properties#DSE_SOLVER_CACHE_DIR}
+	 * 
+	 * @return
+	 */
+	public synchronized int getNumberOfStoredHits() {
+		return number_of_stored_hits;
+	}
+
 	/**
-	 * If not in cache returns IllegalArgumentException()
+	 * Sum of the solving times of the results of all cache hits
+	 * 
+	 * @return
+	 */
+	public synchronized long getSavedSolvingTimeMillis() {
+		return saved_solving_time;
+	}
+
+	public synchronized int size() {
+		return cached_solver_results.size();
+	}
+
+	/**
+	 * Returns the result of the last cache hit of the current thread. If not
+	 * in cache returns IllegalArgumentException()
 	 * 
 	 * @param constraints
 	 * @return
 	 */
 	public SolverResult getCachedResult() {
-
-		if (valid_cached_solution == false) {
+		SolverResult result = cached_solution.get();
+		if (result == null) {
 			throw new IllegalArgumentException("The constraint is not cached!");
 		}
 
-		valid_cached_solution = false;
-		return this.cached_solution;
+		cached_solution.remove();
+		return result;
+	}
+
+	private static boolean isPersistent() {
+		return Properties.DSE_SOLVER_CACHE_DIR != null && !Properties.DSE_SOLVER_CACHE_DIR.isEmpty();
+	}
+
+	private static File getFile(CanonicalQuery query) {
+		String className = Properties.TARGET_CLASS == null || Properties.TARGET_CLASS.isEmpty() ? "_"
+				: Properties.TARGET_CLASS;
+		File directory = new File(Properties.DSE_SOLVER_CACHE_DIR, className.replaceAll("[^\\w.$-]", "_"));
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(query.getKey().getBytes(StandardCharsets.UTF_8));
+			return new File(directory, String.format("%1$064x", new BigInteger(1, hash)) + ".result");
+		} catch (NoSuchAlgorithmException e) {
+			throw new Error(e);
+		}
+	}
+
+	private static Entry load(CanonicalQuery query) {
+		ByteBuffer buffer = FileIOUtils.readMappedFile(getFile(query));
+		if (buffer == null || buffer.remaining() < 16 || buffer.getInt() != MAGIC)
+			return null;
+
+		// The key is stored as well, in case of hash collisions
+		int keyLength = buffer.getInt();
+		if (keyLength < 0 || keyLength > buffer.remaining() - 8)
+			return null;
+		byte[] key = new byte[keyLength];
+		buffer.get(key);
+		if (!query.getKey().equals(new String(key, StandardCharsets.UTF_8)))
+			return null;
+
+		long solvingTime = buffer.getLong();
+		byte[] data = new byte[buffer.remaining()];
+		buffer.get(data);
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+			return new Entry((SolverResult) in.readObject(), solvingTime);
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			logger.debug("Could not read cached solver result: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private static void store(CanonicalQuery query, Entry entry) {
+		if (!isPersistent())
+			return;
+
+		byte[] data;
+		try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(entry.result);
+			out.flush();
+			data = bytes.toByteArray();
+		} catch (IOException e) {
+			logger.debug("Could not write cached solver result: {}", e.getMessage());
+			return;
+		}
+
+		byte[] key = query.getKey().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocate(16 + key.length + data.length);
+		buffer.putInt(MAGIC);
+		buffer.putInt(key.length);
+		buffer.put(key);
+		buffer.putLong(entry.solvingTimeMillis);
+		buffer.put(data);
+
+		File file = getFile(query);
+		file.getParentFile().mkdirs();
+		FileIOUtils.writeFileAtomically(buffer.array(), file);
 	}
 
 }
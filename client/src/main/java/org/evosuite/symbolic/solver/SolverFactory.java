@@ -33,7 +33,11 @@ public class SolverFactory {
 	}
 
 	public Solver buildNewSolver() {
-		switch (Properties.DSE_SOLVER) {
+		return buildNewSolver(Properties.DSE_SOLVER);
+	}
+
+	public Solver buildNewSolver(Properties.SolverType solverType) {
+		switch (solverType) {
 		case Z3_SOLVER:
 			return new Z3Solver(true);
 		case CVC4_SOLVER: {
@@ -41,6 +45,8 @@ public class SolverFactory {
 			solver.setRewriteNonLinearConstraints(true);
 			return solver;
 		}
+		case PORTFOLIO_SOLVER:
+			return new PortfolioSolver();
 		case EVOSUITE_SOLVER:
 		default:
 			return new EvoSuiteSolver();
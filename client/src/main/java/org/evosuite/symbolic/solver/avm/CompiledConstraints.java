@@ -0,0 +1,703 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver.avm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.DistanceCalculator;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.RealConstraint;
+import org.evosuite.symbolic.expr.StringConstraint;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerUnaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.RealToIntegerCast;
+import org.evosuite.symbolic.expr.bv.RealUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.fp.IntegerToRealCast;
+import org.evosuite.symbolic.expr.fp.RealBinaryExpression;
+import org.evosuite.symbolic.expr.fp.RealConstant;
+import org.evosuite.symbolic.expr.fp.RealUnaryExpression;
+import org.evosuite.symbolic.expr.fp.RealVariable;
+import org.evosuite.symbolic.solver.DistanceEstimator;
+
+/**
+ * <p>
+ * The constraints of a query prepared for the AVM, which computes the same
+ * distance as {@link DistanceEstimator#getDistance(Collection)}.
+ * </p>
+ * 
+ * <p>
+ * Integer and real constraints over arithmetic expressions are compiled into
+ * postfix programs, which are run on primitive stacks without any allocation.
+ * All other constraints are evaluated by the {@link DistanceCalculator}. The
+ * normalized distance of each constraint is kept, so that after the AVM moved
+ * a variable only the constraints containing this variable are evaluated
+ * again.
+ * </p>
+ */
+final class CompiledConstraints {
+
+	private static final Operator[] OPERATORS = Operator.values();
+
+	/** Push a long constant, followed by its index */
+	private static final int LCONST = 0;
+
+	/** Push a double constant, followed by its index */
+	private static final int DCONST = 1;
+
+	/** Push an integer variable, followed by its index */
+	private static final int LVAR = 2;
+
+	/** Push a real variable, followed by its index */
+	private static final int DVAR = 3;
+
+	/** Binary operation on longs, followed by the operator */
+	private static final int LBINARY = 4;
+
+	/** Unary operation on a long, followed by the operator */
+	private static final int LUNARY = 5;
+
+	/** Binary operation on doubles, followed by the operator */
+	private static final int DBINARY = 6;
+
+	/** Unary operation on a double, followed by the operator */
+	private static final int DUNARY = 7;
+
+	/** Unary operation on a double with a long result, followed by the operator */
+	private static final int D2LUNARY = 8;
+
+	private static final int L2D = 9;
+
+	private static final int D2L = 10;
+
+	/**
+	 * The postfix program of the operands of a constraint, or null if the
+	 * constraint is evaluated by the {@link DistanceCalculator}
+	 */
+	private static final class Program {
+
+		private final int[] code;
+
+		private final long[] longConstants;
+
+		private final double[] doubleConstants;
+
+		private final IntegerVariable[] integerVariables;
+
+		private final RealVariable[] realVariables;
+
+		private final Comparator comparator;
+
+		private final boolean isReal;
+
+		private Program(Builder builder, Comparator comparator, boolean isReal) {
+			this.code = builder.code.stream().mapToInt(Integer::intValue).toArray();
+			this.longConstants = builder.longConstants.stream().mapToLong(Long::longValue).toArray();
+			this.doubleConstants = builder.doubleConstants.stream().mapToDouble(Double::doubleValue).toArray();
+			this.integerVariables = builder.integerVariables.toArray(new IntegerVariable[0]);
+			this.realVariables = builder.realVariables.toArray(new RealVariable[0]);
+			this.comparator = comparator;
+			this.isReal = isReal;
+		}
+	}
+
+	private static final class Builder {
+
+		private final List<Integer> code = new ArrayList<>();
+
+		private final List<Long> longConstants = new ArrayList<>();
+
+		private final List<Double> doubleConstants = new ArrayList<>();
+
+		private final List<IntegerVariable> integerVariables = new ArrayList<>();
+
+		private final List<RealVariable> realVariables = new ArrayList<>();
+
+		private void emit(int opcode, int argument) {
+			code.add(opcode);
+			code.add(argument);
+		}
+
+		/**
+		 * Append the postfix code of the given expression
+		 * 
+		 * @return false if the expression cannot be compiled
+		 */
+		private boolean compile(Expression<?> expr) {
+			if (expr instanceof IntegerConstant) {
+				longConstants.add(((IntegerConstant) expr).getConcreteValue());
+				emit(LCONST, longConstants.size() - 1);
+			} else if (expr instanceof RealConstant) {
+				doubleConstants.add(((RealConstant) expr).getConcreteValue());
+				emit(DCONST, doubleConstants.size() - 1);
+			} else if (expr instanceof IntegerVariable) {
+				integerVariables.add((IntegerVariable) expr);
+				emit(LVAR, integerVariables.size() - 1);
+			} else if (expr instanceof RealVariable) {
+				realVariables.add((RealVariable) expr);
+				emit(DVAR, realVariables.size() - 1);
+			} else if (expr instanceof IntegerBinaryExpression) {
+				IntegerBinaryExpression binary = (IntegerBinaryExpression) expr;
+				if (!isLongBinary(binary.getOperator()) || !compile(binary.getLeftOperand())
+						|| !compile(binary.getRightOperand()))
+					return false;
+				emit(LBINARY, binary.getOperator().ordinal());
+			} else if (expr instanceof IntegerUnaryExpression) {
+				IntegerUnaryExpression unary = (IntegerUnaryExpression) expr;
+				if (!isLongUnary(unary.getOperator()) || !compile(unary.getOperand()))
+					return false;
+				emit(LUNARY, unary.getOperator().ordinal());
+			} else if (expr instanceof RealBinaryExpression) {
+				RealBinaryExpression binary = (RealBinaryExpression) expr;
+				if (!isDoubleBinary(binary.getOperator()) || !compile(binary.getLeftOperand())
+						|| !compile(binary.getRightOperand()))
+					return false;
+				emit(DBINARY, binary.getOperator().ordinal());
+			} else if (expr instanceof RealUnaryExpression) {
+				RealUnaryExpression unary = (RealUnaryExpression) expr;
+				if (!isDoubleUnary(unary.getOperator()) || !compile(unary.getOperand()))
+					return false;
+				emit(DUNARY, unary.getOperator().ordinal());
+			} else if (expr instanceof RealUnaryToIntegerExpression) {
+				RealUnaryToIntegerExpression unary = (RealUnaryToIntegerExpression) expr;
+				Operator op = unary.getOperator();
+				if ((op != Operator.ROUND && op != Operator.GETEXPONENT) || !compile(unary.getOperand()))
+					return false;
+				emit(D2LUNARY, op.ordinal());
+			} else if (expr instanceof IntegerToRealCast) {
+				if (!compile(((IntegerToRealCast) expr).getArgument()))
+					return false;
+				code.add(L2D);
+			} else if (expr instanceof RealToIntegerCast) {
+				if (!compile(((RealToIntegerCast) expr).getArgument()))
+					return false;
+				code.add(D2L);
+			} else {
+				return false;
+			}
+			return true;
+		}
+	}
+
+	private final Constraint<?>[] constraints;
+
+	private final Program[] programs;
+
+	/** The normalized distance of each constraint */
+	private final double[] distances;
+
+	/** Whether the evaluation of a constraint threw an exception */
+	private final boolean[] failed;
+
+	/** The constraints each variable occurs in */
+	private final Map<Variable<?>, int[]> dependentConstraints = new HashMap<>();
+
+	private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+	private final long[] longStack;
+
+	private final double[] doubleStack;
+
+	private boolean evaluated = false;
+
+	private int compiled = 0;
+
+	public CompiledConstraints(Collection<Constraint<?>> constraints) {
+		int size = constraints.size();
+		this.constraints = constraints.toArray(new Constraint<?>[size]);
+		this.programs = new Program[size];
+		this.distances = new double[size];
+		this.failed = new boolean[size];
+
+		Map<Variable<?>, List<Integer>> dependents = new HashMap<>();
+		int maxCode = 0;
+		for (int i = 0; i < size; i++) {
+			Constraint<?> constraint = this.constraints[i];
+			for (Variable<?> variable : constraint.getVariables()) {
+				dependents.computeIfAbsent(variable, v -> new ArrayList<>()).add(i);
+			}
+			programs[i] = compile(constraint);
+			if (programs[i] != null) {
+				compiled++;
+				maxCode = Math.max(maxCode, programs[i].code.length);
+			}
+		}
+		for (Map.Entry<Variable<?>, List<Integer>> entry : dependents.entrySet()) {
+			dependentConstraints.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+		}
+
+		// Each instruction pushes at most one value
+		longStack = new long[maxCode];
+		doubleStack = new double[maxCode];
+	}
+
+	private static Program compile(Constraint<?> constraint) {
+		boolean isReal = constraint instanceof RealConstraint;
+		if (!isReal && !(constraint instanceof IntegerConstraint))
+			return null;
+
+		// The distance of the character tests is computed differently
+		Expression<?> left = constraint.getLeftOperand();
+		if (left instanceof IntegerUnaryExpression) {
+			Operator op = ((IntegerUnaryExpression) left).getOperator();
+			if (op == Operator.ISDIGIT || op == Operator.ISLETTER)
+				return null;
+		}
+
+		Builder builder = new Builder();
+		if (!builder.compile(left) || !builder.compile(constraint.getRightOperand()))
+			return null;
+		return new Program(builder, constraint.getComparator(), isReal);
+	}
+
+	private static boolean isLongBinary(Operator op) {
+		switch (op) {
+		case SHL:
+		case SHR:
+		case USHR:
+		case AND:
+		case IAND:
+		case OR:
+		case IOR:
+		case XOR:
+		case IXOR:
+		case DIV:
+		case MUL:
+		case MINUS:
+		case PLUS:
+		case REM:
+		case MAX:
+		case MIN:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private static boolean isLongUnary(Operator op) {
+		switch (op) {
+		case NEG:
+		case ABS:
+		case GETNUMERICVALUE:
+		case ISLETTER:
+		case ISDIGIT:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private static boolean isDoubleBinary(Operator op) {
+		switch (op) {
+		case DIV:
+		case MUL:
+		case MINUS:
+		case PLUS:
+		case REM:
+		case ATAN2:
+		case COPYSIGN:
+		case HYPOT:
+		case IEEEREMAINDER:
+		case MAX:
+		case MIN:
+		case NEXTAFTER:
+		case POW:
+		case SCALB:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private static boolean isDoubleUnary(Operator op) {
+		switch (op) {
+		case ABS:
+		case ACOS:
+		case ASIN:
+		case ATAN:
+		case CBRT:
+		case CEIL:
+		case COS:
+		case COSH:
+		case EXP:
+		case EXPM1:
+		case FLOOR:
+		case LOG:
+		case LOG10:
+		case LOG1P:
+		case NEG:
+		case NEXTUP:
+		case RINT:
+		case SIGNUM:
+		case SIN:
+		case SINH:
+		case SQRT:
+		case TAN:
+		case TANH:
+		case TODEGREES:
+		case TORADIANS:
+		case ULP:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * @return the number of constraints that are run as programs
+	 */
+	public int getNumberOfCompiledConstraints() {
+		return compiled;
+	}
+
+	/**
+	 * Evaluate all constraints
+	 * 
+	 * @return the normalized distance of the constraints
+	 */
+	public double getDistance() {
+		for (int i = 0; i < constraints.length; i++) {
+			evaluate(i);
+		}
+		evaluated = true;
+		return sum();
+	}
+
+	/**
+	 * Evaluate the constraints the given variable occurs in, where the
+	 * distances of the other constraints are still the ones computed by the
+	 * previous evaluation. Hence, only the given variable may have changed
+	 * since then.
+	 * 
+	 * @param changed
+	 *            the variable that changed
+	 * @return the normalized distance of the constraints
+	 */
+	public double getDistance(Variable<?> changed) {
+		if (!evaluated)
+			return getDistance();
+
+		int[] dependents = dependentConstraints.get(changed);
+		if (dependents != null) {
+			for (int i : dependents) {
+				evaluate(i);
+			}
+		}
+		return sum();
+	}
+
+	private double sum() {
+		double result = 0;
+		for (int i = 0; i < distances.length; i++) {
+			if (failed[i])
+				return Double.MAX_VALUE;
+			result += distances[i];
+		}
+		return Math.abs(result);
+	}
+
+	private static double normalize(double x) {
+		return x / (x + 1.0);
+	}
+
+	private void evaluate(int i) {
+		failed[i] = false;
+		Constraint<?> constraint = constraints[i];
+		Program program = programs[i];
+		try {
+			if (program != null) {
+				distances[i] = normalize(program.isReal ? getRealDistance(program) : getIntegerDistance(program));
+			} else if (constraint instanceof StringConstraint) {
+				try {
+					distances[i] = normalize((double) constraint.accept(distanceCalculator, null));
+				} catch (Throwable t) {
+					distances[i] = 1.0;
+				}
+			} else if (constraint instanceof IntegerConstraint) {
+				distances[i] = normalize((long) constraint.accept(distanceCalculator, null));
+			} else if (constraint instanceof RealConstraint) {
+				distances[i] = normalize((double) constraint.accept(distanceCalculator, null));
+			} else {
+				failed[i] = true;
+			}
+		} catch (Exception e) {
+			failed[i] = true;
+		}
+	}
+
+	private long getIntegerDistance(Program program) {
+		int top = run(program);
+		long distance = longStack[top - 1] - longStack[top];
+		switch (program.comparator) {
+		case EQ:
+			return Math.abs(distance);
+		case NE:
+			return distance != 0 ? 0 : 1;
+		case LT:
+			return distance < 0 ? 0 : distance + 1;
+		case LE:
+			return distance <= 0 ? 0 : distance;
+		case GT:
+			return distance > 0 ? 0 : Math.abs(distance) + 1;
+		case GE:
+			return distance >= 0 ? 0 : Math.abs(distance);
+		default:
+			return Long.MAX_VALUE;
+		}
+	}
+
+	private double getRealDistance(Program program) {
+		int top = run(program);
+		double left = doubleStack[top - 1];
+		double right = doubleStack[top];
+		switch (program.comparator) {
+		case EQ:
+			return Math.abs(left - right);
+		case NE:
+			return (left - right) != 0 ? 0 : 1;
+		case LT:
+			return left - right < 0 ? 0 : left - right + 1;
+		case LE:
+			return left - right <= 0 ? 0 : left - right;
+		case GT:
+			return left - right > 0 ? 0 : right - left + 1;
+		case GE:
+			return left - right >= 0 ? 0 : right - left;
+		default:
+			return Double.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Run the program, which leaves the values of the two operands on top of
+	 * the long or double stack
+	 * 
+	 * @return the index of the top of the stack
+	 */
+	private int run(Program program) {
+		int[] code = program.code;
+		long[] longs = longStack;
+		double[] doubles = doubleStack;
+		// The longs and doubles share the stack pointer, so that the slots of
+		// the values that are on the stack in between are not overwritten
+		int sp = -1;
+		int pc = 0;
+		while (pc < code.length) {
+			switch (code[pc++]) {
+			case LCONST:
+				longs[++sp] = program.longConstants[code[pc++]];
+				break;
+			case DCONST:
+				doubles[++sp] = program.doubleConstants[code[pc++]];
+				break;
+			case LVAR:
+				longs[++sp] = program.integerVariables[code[pc++]].getConcreteValue();
+				break;
+			case DVAR:
+				doubles[++sp] = program.realVariables[code[pc++]].getConcreteValue();
+				break;
+			case LBINARY:
+				longs[sp - 1] = applyLong(OPERATORS[code[pc++]], longs[sp - 1], longs[sp]);
+				sp--;
+				break;
+			case LUNARY:
+				longs[sp] = applyLong(OPERATORS[code[pc++]], longs[sp]);
+				break;
+			case DBINARY:
+				doubles[sp - 1] = applyDouble(OPERATORS[code[pc++]], doubles[sp - 1], doubles[sp]);
+				sp--;
+				break;
+			case DUNARY:
+				doubles[sp] = applyDouble(OPERATORS[code[pc++]], doubles[sp]);
+				break;
+			case D2LUNARY:
+				longs[sp] = OPERATORS[code[pc++]] == Operator.ROUND ? Math.round(doubles[sp])
+						: (long) Math.getExponent(doubles[sp]);
+				break;
+			case L2D:
+				doubles[sp] = (double) longs[sp];
+				break;
+			case D2L:
+				longs[sp] = (long) doubles[sp];
+				break;
+			default:
+				throw new IllegalStateException("Unknown instruction " + code[pc - 1]);
+			}
+		}
+		return sp;
+	}
+
+	private static long applyLong(Operator op, long left, long right) {
+		switch (op) {
+		case SHL:
+			return left << right;
+		case SHR:
+			return left >> right;
+		case USHR:
+			return left >>> right;
+		case AND:
+		case IAND:
+			return left & right;
+		case OR:
+		case IOR:
+			return left | right;
+		case XOR:
+		case IXOR:
+			return left ^ right;
+		case DIV:
+			return left / right;
+		case MUL:
+			return left * right;
+		case MINUS:
+			return left - right;
+		case PLUS:
+			return left + right;
+		case REM:
+			return left % right;
+		case MAX:
+			return Math.max(left, right);
+		case MIN:
+			return Math.min(left, right);
+		default:
+			throw new IllegalStateException("Unexpected operator " + op);
+		}
+	}
+
+	private static long applyLong(Operator op, long value) {
+		switch (op) {
+		case NEG:
+			return -value;
+		case ABS:
+			return Math.abs(value);
+		case GETNUMERICVALUE:
+			return Character.getNumericValue((char) value);
+		case ISLETTER:
+			return Character.isLetter((char) value) ? 1 : 0;
+		case ISDIGIT:
+			return Character.isDigit((char) value) ? 1 : 0;
+		default:
+			throw new IllegalStateException("Unexpected operator " + op);
+		}
+	}
+
+	private static double applyDouble(Operator op, double left, double right) {
+		switch (op) {
+		case DIV:
+			return left / right;
+		case MUL:
+			return left * right;
+		case MINUS:
+			return left - right;
+		case PLUS:
+			return left + right;
+		case REM:
+			return left % right;
+		case ATAN2:
+			return Math.atan2(left, right);
+		case COPYSIGN:
+			return Math.copySign(left, right);
+		case HYPOT:
+			return Math.hypot(left, right);
+		case IEEEREMAINDER:
+			return Math.IEEEremainder(left, right);
+		case MAX:
+			return Math.max(left, right);
+		case MIN:
+			return Math.min(left, right);
+		case NEXTAFTER:
+			return Math.nextAfter(left, right);
+		case POW:
+			return Math.pow(left, right);
+		case SCALB:
+			return Math.scalb(left, (int) right);
+		default:
+			throw new IllegalStateException("Unexpected operator " + op);
+		}
+	}
+
+	private static double applyDouble(Operator op, double value) {
+		switch (op) {
+		case ABS:
+			return Math.abs(value);
+		case ACOS:
+			return Math.acos(value);
+		case ASIN:
+			return Math.asin(value);
+		case ATAN:
+			return Math.atan(value);
+		case CBRT:
+			return Math.cbrt(value);
+		case CEIL:
+			return Math.ceil(value);
+		case COS:
+			return Math.cos(value);
+		case COSH:
+			return Math.cosh(value);
+		case EXP:
+			return Math.exp(value);
+		case EXPM1:
+			return Math.expm1(value);
+		case FLOOR:
+			return Math.floor(value);
+		case LOG:
+			return Math.log(value);
+		case LOG10:
+			return Math.log10(value);
+		case LOG1P:
+			return Math.log1p(value);
+		case NEG:
+			return -value;
+		case NEXTUP:
+			return Math.nextUp(value);
+		case RINT:
+			return Math.rint(value);
+		case SIGNUM:
+			return Math.signum(value);
+		case SIN:
+			return Math.sin(value);
+		case SINH:
+			return Math.sinh(value);
+		case SQRT:
+			return Math.sqrt(value);
+		case TAN:
+			return Math.tan(value);
+		case TANH:
+			return Math.tanh(value);
+		case TODEGREES:
+			return Math.toDegrees(value);
+		case TORADIANS:
+			return Math.toRadians(value);
+		case ULP:
+			return Math.ulp(value);
+		default:
+			throw new IllegalStateException("Unexpected operator " + op);
+		}
+	}
+}
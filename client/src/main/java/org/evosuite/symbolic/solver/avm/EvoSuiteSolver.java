@@ -60,7 +60,10 @@ public final class EvoSuiteSolver extends Solver {
 		Set<Variable<?>> variables = getVariables(constraints);
 		Map<String, Object> initialValues = getConcreteValues(variables);
 
-		double distance = DistanceEstimator.getDistance(constraints);
+		CompiledConstraints compiledConstraints = Properties.DSE_COMPILED_CONSTRAINTS ? new CompiledConstraints(
+				constraints) : null;
+
+		double distance = getDistance(constraints, compiledConstraints);
 		if (distance == 0.0) {
 			log.info("Initial distance already is 0.0, skipping search");
 			SolverResult satResult = SolverResult.newSAT(initialValues);
@@ -73,7 +76,7 @@ public final class EvoSuiteSolver extends Solver {
 
 				long elapsed_solving_time = currentTimeMillis - startTimeMillis;
 //				timeout = 1000000;
-				if (elapsed_solving_time > timeout) {
+				if (elapsed_solving_time > timeout || Thread.currentThread().isInterrupted()) {
 					throw new SolverTimeoutException();
 				}
 
@@ -81,20 +84,23 @@ public final class EvoSuiteSolver extends Solver {
 
 				if (v instanceof IntegerVariable) {
 					IntegerVariable integerVariable = (IntegerVariable) v;
-					IntegerAVM avm = new IntegerAVM(integerVariable, constraints, startTimeMillis, timeout);
+					IntegerAVM avm = new IntegerAVM(integerVariable, constraints, compiledConstraints,
+							startTimeMillis, timeout);
 					avm.applyAVM();
 				} else if (v instanceof RealVariable) {
 					RealVariable realVariable = (RealVariable) v;
-					RealAVM avm = new RealAVM(realVariable, constraints, startTimeMillis, timeout);
+					RealAVM avm = new RealAVM(realVariable, constraints, compiledConstraints, startTimeMillis,
+							timeout);
 					avm.applyAVM();
 				} else if (v instanceof StringVariable) {
 					StringVariable strVariable = (StringVariable) v;
-					StringAVM avm = new StringAVM(strVariable, constraints, startTimeMillis, timeout);
+					StringAVM avm = new StringAVM(strVariable, constraints, compiledConstraints, startTimeMillis,
+							timeout);
 					avm.applyAVM();
 				} else {
 					throw new RuntimeException("Unknown variable type " + v.getClass().getName());
 				}
-				distance = DistanceEstimator.getDistance(constraints);
+				distance = getDistance(constraints, compiledConstraints);
 				if (distance <= 0.0) {
 					log.info("Distance is 0, ending search");
 					break;
@@ -125,6 +131,12 @@ public final class EvoSuiteSolver extends Solver {
 
 	}
 
+	private static double getDistance(Collection<Constraint<?>> constraints, CompiledConstraints compiledConstraints) {
+		if (compiledConstraints == null)
+			return DistanceEstimator.getDistance(constraints);
+		return compiledConstraints.getDistance();
+	}
+
 	private static void randomizeValues(Set<Variable<?>> variables, Set<Object> constants) {
 		Set<String> stringConstants = new HashSet<String>();
 		Set<Long> longConstants = new HashSet<Long>();
@@ -23,7 +23,6 @@ import java.util.Collection;
 
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.bv.IntegerVariable;
-import org.evosuite.symbolic.solver.DistanceEstimator;
 import org.evosuite.symbolic.solver.SolverTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,7 +32,12 @@ final class IntegerAVM extends VariableAVM {
 
 
 	public IntegerAVM(IntegerVariable intVar, Collection<Constraint<?>> cnstr, long startTimeMillis, long timeout) {
-		super(cnstr, startTimeMillis, timeout);
+		this(intVar, cnstr, null, startTimeMillis, timeout);
+	}
+
+	public IntegerAVM(IntegerVariable intVar, Collection<Constraint<?>> cnstr, CompiledConstraints compiledConstraints,
+			long startTimeMillis, long timeout) {
+		super(intVar, cnstr, compiledConstraints, startTimeMillis, timeout);
 		this.intVar = intVar;
 	}
 
@@ -109,7 +113,7 @@ final class IntegerAVM extends VariableAVM {
 		boolean improvement = false;
 
 		log.debug("Initial distance calculation " + intVar);
-		final double initial_distance = DistanceEstimator.getDistance(cnstr);
+		final double initial_distance = getDistance();
 		checkpointVar(initial_distance);
 		log.debug("Initial distance calculation done");
 
@@ -126,7 +130,7 @@ final class IntegerAVM extends VariableAVM {
 			// Try increment
 			log.debug("Trying to increment " + intVar);
 			incrementVar(1);
-			newDist = DistanceEstimator.getDistance(cnstr);
+			newDist = getDistance();
 			log.debug("newDist: " + newDist + " oldDist: " + checkpointedDistance);
 			if (distImpr(newDist)) {
 				improvement = true;
@@ -143,7 +147,7 @@ final class IntegerAVM extends VariableAVM {
 				// Try decrement
 				log.debug("Trying to decrement " + intVar);
 				incrementVar(-1);
-				newDist = DistanceEstimator.getDistance(cnstr);
+				newDist = getDistance();
 				log.debug("newDist: " + newDist + " oldDist: " + checkpointedDistance);
 				if (distImpr(newDist)) {
 					improvement = true;
@@ -185,7 +189,7 @@ final class IntegerAVM extends VariableAVM {
 		log.debug("Trying increment " + delta + " of " + intVar.toString());
 
 		incrementVar(delta);
-		double newDist = DistanceEstimator.getDistance(cnstr);
+		double newDist = getDistance();
 		log.debug("newDist: " + newDist + " oldDist: " + checkpointedDistance);
 		while (distImpr(newDist)) {
 			if (isFinished()) {
@@ -201,7 +205,7 @@ final class IntegerAVM extends VariableAVM {
 			delta = 2 * delta;
 			log.debug("Trying increment " + delta + " of " + intVar);
 			incrementVar(delta);
-			newDist = DistanceEstimator.getDistance(cnstr);
+			newDist = getDistance();
 			log.debug("newDist: " + newDist + " oldDist: " + checkpointedDistance);
 		}
 		log.debug("No improvement on " + intVar);
@@ -22,6 +22,8 @@ package org.evosuite.symbolic.solver.avm;
 import java.util.Collection;
 
 import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.solver.DistanceEstimator;
 import org.evosuite.symbolic.solver.SolverTimeoutException;
 
 abstract class VariableAVM {
@@ -30,13 +32,42 @@ abstract class VariableAVM {
 	private final long start_time;
 	private final long timeout;
 
-	public VariableAVM(Collection<Constraint<?>> cnstr, long startTimeMillis, long timeout) {
+	private final Variable<?> variable;
+
+	/** Null if the distance is estimated from the constraints directly */
+	private final CompiledConstraints compiledConstraints;
+
+	private boolean evaluated = false;
+
+	public VariableAVM(Variable<?> variable, Collection<Constraint<?>> cnstr,
+			CompiledConstraints compiledConstraints, long startTimeMillis, long timeout) {
+		this.variable = variable;
 		this.cnstr = cnstr;
+		this.compiledConstraints = compiledConstraints;
 		this.start_time = startTimeMillis;
 		this.timeout = timeout;
 	}
 
+	/**
+	 * The distance of the constraints. Other variables may have changed
+	 * before the first call, afterwards only the variable of this AVM.
+	 * 
+	 * @return the normalized distance
+	 */
+	protected double getDistance() {
+		if (compiledConstraints == null)
+			return DistanceEstimator.getDistance(cnstr);
+		if (!evaluated) {
+			evaluated = true;
+			return compiledConstraints.getDistance();
+		}
+		return compiledConstraints.getDistance(variable);
+	}
+
 	protected boolean isFinished() {
+		// The search is interrupted if another solver answered first
+		if (Thread.currentThread().isInterrupted())
+			return true;
 		long current_time = System.currentTimeMillis();
 		return (current_time - start_time) > timeout;
 	}
@@ -131,12 +131,17 @@ public final class CVC4Solver extends SmtSolver {
 		logger.debug("CVC4 Query:");
 		logger.debug(smtQueryStr);
 
-		String cmd = buildCVC4cmd(cvcTimeout);
+		String cmd = buildCVC4cmd(cvcTimeout, useSolverSessions());
 
 		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 		try {
-			launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
-			String output = stdout.toString("UTF-8");
+			String output;
+			if (useSolverSessions()) {
+				output = solveInSession(cmd, query, (int) cvcTimeout);
+			} else {
+				launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+				output = stdout.toString("UTF-8");
+			}
 
 			if (output.startsWith("unknown")) {
 				logger.debug("timeout reached when using cvc4");
@@ -253,7 +258,7 @@ public final class CVC4Solver extends SmtSolver {
 
 	}
 
-	private static String buildCVC4cmd(long cvcTimeout) {
+	private static String buildCVC4cmd(long cvcTimeout, boolean incremental) {
 		String cmd = Properties.CVC4_PATH;
 //		cmd += "  --rewrite-divk"; // rewrite-divk rewrites division (or // modulus) by a constant value
 		cmd += " --lang smt"; // query language is SMT-LIB
@@ -275,7 +280,13 @@ public final class CVC4Solver extends SmtSolver {
 		 * More details on both of these points can be found in Sections 5.2 - 5.4 of
 		 * http://homepage.cs.uiowa.edu/~ajreynol/thesis.pdf.
 		 */
-		cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+		if (incremental) {
+			cmd += " --incremental"; // allow push and pop
+			cmd += " --interactive --no-interactive-prompt"; // answer each command as it comes
+			cmd += " --tlimit-per=" + cvcTimeout; // set timeout of each check to cvcTimeout
+		} else {
+			cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+		}
 		return cmd;
 	}
 
@@ -19,23 +19,17 @@
  */
 package org.evosuite.symbolic.solver.smt;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
 public class SmtQueryPrinter {
 
 	public String print(SmtQuery query) {
 		StringBuffer buff = new StringBuffer();
-		buff.append("\n");
-
-		if (query.hasLogic()) {
-			buff.append("(set-logic " + query.getLogic() + ")");
-			buff.append("\n");
-		}
-
-		for (String optionName : query.getOptions()) {
-			String optionValue = query.getOptionValue(optionName);
-			buff.append(String.format("(set-option %s %s)\n", optionName, optionValue));
-			buff.append("\n");
-		}
-		buff.append("\n");
+		buff.append(printHeader(query));
 
 		for (SmtConstantDeclaration constantDeclaration : query.getConstantDeclarations()) {
 			String str = print(constantDeclaration);
@@ -74,6 +68,84 @@ public class SmtQueryPrinter {
 
 	}
 
+	/**
+	 * Prints the logic and the options of the query
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public String printHeader(SmtQuery query) {
+		StringBuffer buff = new StringBuffer();
+		buff.append("\n");
+
+		if (query.hasLogic()) {
+			buff.append("(set-logic " + query.getLogic() + ")");
+			buff.append("\n");
+		}
+
+		for (String optionName : query.getOptions()) {
+			String optionValue = query.getOptionValue(optionName);
+			buff.append(String.format("(set-option %s %s)\n", optionName, optionValue));
+			buff.append("\n");
+		}
+		buff.append("\n");
+		return buff.toString();
+	}
+
+	/**
+	 * Prints the function definitions, declarations and assertions of the
+	 * query for an incremental solver, where each assertion is preceded by the
+	 * declarations of the variables it introduces. Queries that start with the
+	 * same assertions therefore start with the same frames.
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public List<String> printFrames(SmtQuery query) {
+		List<String> frames = new ArrayList<String>();
+		for (SmtFunctionDefinition functionDefinition : query.getFunctionDefinitions()) {
+			frames.add(print(functionDefinition));
+		}
+
+		Map<String, String> declarations = new HashMap<String, String>();
+		for (SmtConstantDeclaration constantDeclaration : query.getConstantDeclarations()) {
+			declarations.put(constantDeclaration.getConstantName(), print(constantDeclaration));
+		}
+		for (SmtFunctionDeclaration functionDeclaration : query.getFunctionDeclarations()) {
+			declarations.put(functionDeclaration.getFunctionName(), print(functionDeclaration));
+		}
+
+		for (SmtAssertion smtAssertion : query.getAssertions()) {
+			SmtVariableCollector collector = new SmtVariableCollector();
+			smtAssertion.getFormula().accept(collector, null);
+			TreeSet<String> names = new TreeSet<String>();
+			for (SmtVariable variable : collector.getSmtVariables()) {
+				names.add(variable.getName());
+			}
+
+			StringBuffer buff = new StringBuffer();
+			for (String name : names) {
+				String declaration = declarations.remove(name);
+				if (declaration != null) {
+					buff.append(declaration);
+					buff.append("\n");
+				}
+			}
+			buff.append(print(smtAssertion));
+			frames.add(buff.toString());
+		}
+
+		if (!declarations.isEmpty()) {
+			StringBuffer buff = new StringBuffer();
+			for (String name : new TreeSet<String>(declarations.keySet())) {
+				buff.append(declarations.get(name));
+				buff.append("\n");
+			}
+			frames.add(buff.toString());
+		}
+		return frames;
+	}
+
 	public String print(SmtAssertion smtAssertion) {
 		SmtExprPrinter printer = new SmtExprPrinter();
 		SmtExpr expr = smtAssertion.getFormula();
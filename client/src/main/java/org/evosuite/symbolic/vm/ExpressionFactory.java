@@ -19,10 +19,23 @@
  */
 package org.evosuite.symbolic.vm;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.BinaryExpression;
+import org.evosuite.symbolic.expr.Cast;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.MultipleExpression;
 import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.UnaryExpression;
 import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerComparison;
 import org.evosuite.symbolic.expr.bv.IntegerConstant;
 import org.evosuite.symbolic.expr.bv.IntegerValue;
+import org.evosuite.symbolic.expr.bv.RealComparison;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
 import org.evosuite.symbolic.expr.fp.RealBinaryExpression;
 import org.evosuite.symbolic.expr.fp.RealConstant;
 import org.evosuite.symbolic.expr.fp.RealValue;
@@ -89,6 +102,86 @@ public abstract class ExpressionFactory {
 		return new RealConstant(x);
 	}
 
+	/**
+	 * The expressions of the current concolic execution, by their structure
+	 * and concrete value. Like the {@link VM}, this is shared by all threads,
+	 * as there is only one concolic execution at a time.
+	 */
+	private static final Map<InternKey, Expression<?>> internedExpressions = new HashMap<>();
+
+	/**
+	 * Key under which an expression is interned. Within a concolic execution
+	 * each variable has a single concrete value, so that structurally equal
+	 * expressions also have the same concrete value. The concrete value is
+	 * compared nevertheless, as the expressions are shared by the operand
+	 * stack and the path condition afterwards.
+	 */
+	private static final class InternKey {
+
+		private final Expression<?> expr;
+
+		public InternKey(Expression<?> expr) {
+			this.expr = expr;
+		}
+
+		@Override
+		public int hashCode() {
+			return expr.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof InternKey))
+				return false;
+			Expression<?> other = ((InternKey) obj).expr;
+			return expr.getClass() == other.getClass() && expr.equals(other)
+					&& Objects.equals(expr.getConcreteValue(), other.getConcreteValue());
+		}
+	}
+
+	/**
+	 * Return the expression of the current concolic execution that is equal to
+	 * the given one, or the given one if there is none yet. As the operands of
+	 * the given expression were interned as well, the operands of equal
+	 * expressions are identical, so comparing them takes constant time, and
+	 * equal subterms are only kept once.
+	 * 
+	 * Variables, references and expressions over tokenizers and readers are
+	 * not interned, as their equality does not capture their state.
+	 * 
+	 * @param expr
+	 *            an expression, may be null
+	 * @return an equal expression of the same class
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Expression<?>> T intern(T expr) {
+		if (!Properties.DSE_EXPRESSION_INTERNING || !isInternable(expr))
+			return expr;
+
+		Expression<?> interned = internedExpressions.putIfAbsent(new InternKey(expr), expr);
+		return interned == null ? expr : (T) interned;
+	}
+
+	private static boolean isInternable(Expression<?> expr) {
+		return expr instanceof BinaryExpression || expr instanceof UnaryExpression
+				|| expr instanceof MultipleExpression || expr instanceof Cast || expr instanceof IntegerComparison
+				|| expr instanceof RealComparison || expr instanceof StringBinaryComparison
+				|| expr instanceof IntegerConstant || expr instanceof RealConstant || expr instanceof StringConstant;
+	}
+
+	/**
+	 * Forget the interned expressions, which is done at the start and end of
+	 * each concolic execution, as the variables of different executions
+	 * differ
+	 */
+	public static void clearInternedExpressions() {
+		internedExpressions.clear();
+	}
+
+	public static int getNumberOfInternedExpressions() {
+		return internedExpressions.size();
+	}
+
 	public static StringConstant buildNewStringConstant(String string) {
 		return new StringConstant(string.intern());
 	}
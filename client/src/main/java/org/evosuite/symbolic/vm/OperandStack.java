@@ -44,19 +44,19 @@ public final class OperandStack implements Iterable<Operand> {
 	}
 
 	public void pushBv32(IntegerValue e) {
-		stack.push(new Bv32Operand(e));
+		stack.push(new Bv32Operand(ExpressionFactory.intern(e)));
 	}
 
 	public void pushBv64(IntegerValue e) {
-		stack.push(new Bv64Operand(e));
+		stack.push(new Bv64Operand(ExpressionFactory.intern(e)));
 	}
 
 	public void pushFp32(RealValue e) {
-		stack.push(new Fp32Operand(e));
+		stack.push(new Fp32Operand(ExpressionFactory.intern(e)));
 	}
 
 	public void pushFp64(RealValue e) {
-		stack.push(new Fp64Operand(e));
+		stack.push(new Fp64Operand(ExpressionFactory.intern(e)));
 	}
 
 	public ReferenceExpression popRef() {
@@ -137,7 +137,7 @@ public final class SymbolicHeap {
 		if (symb_value == null || !symb_value.containsSymbolicVariable()) {
 			symb_field.remove(symb_receiver);
 		} else {
-			symb_field.put(symb_receiver, symb_value);
+			symb_field.put(symb_receiver, ExpressionFactory.intern(symb_value));
 		}
 	}
 
@@ -242,7 +242,7 @@ public final class SymbolicHeap {
 		if (symb_value == null || !symb_value.containsSymbolicVariable()) {
 			symb_static_fields.remove(k);
 		} else {
-			symb_static_fields.put(k, symb_value);
+			symb_static_fields.put(k, ExpressionFactory.intern(symb_value));
 		}
 
 	}
@@ -345,7 +345,7 @@ public final class SymbolicHeap {
 		if (symb_value == null || !symb_value.containsSymbolicVariable()) {
 			symb_array_contents.remove(conc_index);
 		} else {
-			symb_array_contents.put(conc_index, symb_value);
+			symb_array_contents.put(conc_index, ExpressionFactory.intern(symb_value));
 		}
 
 	}
@@ -82,7 +82,7 @@ public class ConstantInliner extends ExecutionObserver {
 	 *            a {@link org.evosuite.testcase.TestChromosome} object.
 	 */
 	public void inline(TestChromosome test) {
-		inline(test.test);
+		inline(test.getTestCase());
 	}
 
 	/**
@@ -100,6 +100,7 @@ public class ConstantInliner extends ExecutionObserver {
 			final int new_test_size = test.size();
 			final int removed_statements = old_test_size - new_test_size;
 			if (removed_statements > 0) {
+				// not shared with clones, as inline copied a shared test with its result
 				ExecutionResult lastExecResult = test.getLastExecutionResult();
 				if (lastExecResult != null) {
 					final int old_exec_statements = lastExecResult.getExecutedStatements();
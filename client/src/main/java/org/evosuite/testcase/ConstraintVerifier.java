@@ -339,7 +339,7 @@ public class ConstraintVerifier {
     }
 
     public static boolean verifyTest(TestChromosome tc){
-        return verifyTest(tc.getTestCase());
+        return verifyTest(tc.readTestCase());
     }
 
     /**
@@ -45,6 +45,7 @@ import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.runtime.util.Inputs;
 import org.evosuite.setup.TestClusterUtils;
 import org.evosuite.testcase.execution.CodeUnderTestException;
+import org.evosuite.testcase.execution.ExecutionSnapshot;
 import org.evosuite.testcase.execution.Scope;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.FieldStatement;
@@ -97,6 +98,9 @@ public class DefaultTestCase implements TestCase, Serializable {
 
 	private boolean unstable = false;
 
+	/** State of the last execution that later executions may resume from */
+	private transient ExecutionSnapshot executionSnapshot = null;
+
 	private int id;
 
 	/**
@@ -284,6 +288,14 @@ public class DefaultTestCase implements TestCase, Serializable {
 	public ClassLoader getChangedClassLoader() {
 		return changedClassLoader;
 	}
+
+	public ExecutionSnapshot getExecutionSnapshot() {
+		return executionSnapshot;
+	}
+
+	public void setExecutionSnapshot(ExecutionSnapshot executionSnapshot) {
+		this.executionSnapshot = executionSnapshot;
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.evosuite.testcase.TestCase#chop(int)
@@ -381,6 +393,7 @@ public class DefaultTestCase implements TestCase, Serializable {
 		t.coveredGoals.addAll(coveredGoals);
 		t.accessedEnvironment.copyFrom(accessedEnvironment);
 		t.isFailing = isFailing;
+		t.executionSnapshot = executionSnapshot;
 		t.id = idGenerator.getAndIncrement(); //always create new ID when making a clone
 		//t.exception_statement = exception_statement;
 		//t.exceptionThrown = exceptionThrown;
@@ -137,24 +137,24 @@ public class TestCaseMinimizer {
 		while (changed) {
 			changed = false;
 
-			for (int i = c.test.size() - 1; i >= 0; i--) {
+			for (int i = c.readTestCase().size() - 1; i >= 0; i--) {
 				if (isTimeoutReached()) {
-					logger.debug("Timeout reached before minimizing statement {}", c.test.getStatement(i).getCode());
+					logger.debug("Timeout reached before minimizing statement {}", c.readTestCase().getStatement(i).getCode());
 					return;
 				}
 				
-				logger.debug("Deleting statement {}", c.test.getStatement(i).getCode());
+				logger.debug("Deleting statement {}", c.readTestCase().getStatement(i).getCode());
 				TestChromosome copy = (TestChromosome) c.clone();
 				boolean modified;
 				try {
-					modified = TestFactory.getInstance().deleteStatementGracefully(c.test, i);
+					modified = TestFactory.getInstance().deleteStatementGracefully(c.getTestCase(), i);
 				} catch (ConstructionFailedException e) {
 					modified = false;
 				}
 				
 				if(!modified){
 					c.setChanged(false);
-					c.test = copy.test;
+					c.restoreTestCase(copy);
 					logger.debug("Deleting failed");
 					continue;
 				}
@@ -197,13 +197,13 @@ public class TestCaseMinimizer {
 
 		if (logger.isDebugEnabled()) {
 			logger.debug("Minimized test case: ");
-			logger.debug(c.test.toCode());
+			logger.debug(c.readTestCase().toCode());
 		}
 
 	}
 
 	private static void restoreTestCase(TestChromosome c, TestChromosome copy) {
-		c.test = copy.test;
+		c.restoreTestCase(copy);
 		c.copyCachedResults(copy);
 		//c.setFitness(copy.getFitness());
 		c.setFitnessValues(copy.getFitnessValues());
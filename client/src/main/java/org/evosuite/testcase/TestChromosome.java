@@ -23,6 +23,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.evosuite.Properties;
 import org.evosuite.coverage.mutation.Mutation;
@@ -69,6 +70,13 @@ public class TestChromosome extends ExecutableChromosome {
 	/** The test case encoded in this chromosome */
 	protected TestCase test = new DefaultTestCase();
 
+	/**
+	 * Number of chromosomes sharing the test case since it was cloned with
+	 * {@link Properties#COPY_ON_WRITE_TESTS}, or null if the test belongs to
+	 * this chromosome only
+	 */
+	private transient AtomicInteger testOwners = null;
+
 	/** To keep track of what has changed since last fitness evaluation */
 	protected MutationHistory<TestMutationHistoryEntry> mutationHistory = new MutationHistory<TestMutationHistoryEntry>();
 
@@ -100,6 +108,7 @@ public class TestChromosome extends ExecutableChromosome {
 	 *            a {@link org.evosuite.testcase.TestCase} object.
 	 */
 	public void setTestCase(TestCase testCase) {
+		releaseTestCase();
 		test = testCase;
 		clearCachedResults();
 		clearCachedMutationResults();
@@ -114,9 +123,92 @@ public class TestChromosome extends ExecutableChromosome {
 	 * @return a {@link org.evosuite.testcase.TestCase} object.
 	 */
 	public TestCase getTestCase() {
+		ensureExclusiveTestCase();
+		return test;
+	}
+
+	/**
+	 * Get the test case without copying it if it is shared with a clone, for
+	 * callers that only execute or read it, such as the fitness evaluation.
+	 * Goals covered by the test may still be recorded, as they hold for all
+	 * clones sharing it. Any other change must go through
+	 * {@link #getTestCase()}.
+	 *
+	 * @return a {@link org.evosuite.testcase.TestCase} object.
+	 */
+	public TestCase readTestCase() {
 		return test;
 	}
 
+	/**
+	 * Take back the test case of a copy made before a change, e.g. when the
+	 * change is undone. With {@link Properties#COPY_ON_WRITE_TESTS}, both
+	 * chromosomes then share the test case as after {@link #clone()}.
+	 *
+	 * @param copy
+	 *            the chromosome holding the test case to take back
+	 */
+	void restoreTestCase(TestChromosome copy) {
+		if (Properties.COPY_ON_WRITE_TESTS) {
+			shareTestCase(copy);
+		} else {
+			test = copy.test;
+		}
+	}
+
+	/**
+	 * Share the test case of the other chromosome, which each of them copies
+	 * before changing it
+	 */
+	private void shareTestCase(TestChromosome other) {
+		releaseTestCase();
+		if (other.testOwners == null)
+			other.testOwners = new AtomicInteger(1);
+		other.testOwners.incrementAndGet();
+		testOwners = other.testOwners;
+		test = other.test;
+	}
+
+	/**
+	 * Copy the test case if it is shared with a clone, as the caller may
+	 * change it. The execution result and the mutation history then refer to
+	 * the copy as well.
+	 */
+	private void ensureExclusiveTestCase() {
+		if (testOwners == null)
+			return;
+
+		if (testOwners.getAndDecrement() > 1) {
+			TestCase copy = test.clone();
+			if (lastExecutionResult != null) {
+				lastExecutionResult = lastExecutionResult.clone();
+				lastExecutionResult.setTest(copy);
+			}
+			List<TestMutationHistoryEntry> mutations = new ArrayList<TestMutationHistoryEntry>(
+					mutationHistory.getMutations());
+			mutationHistory.clear();
+			for (TestMutationHistoryEntry mutation : mutations) {
+				if (mutation.getStatement() == null || test.contains(mutation.getStatement()))
+					mutationHistory.addMutationEntry(mutation.clone(copy));
+				else
+					mutationHistory.addMutationEntry(mutation);
+			}
+			test = copy;
+		}
+		testOwners = null;
+	}
+
+	/**
+	 * The test case is about to be replaced, so the clones sharing it no
+	 * longer need to copy it
+	 */
+	private void releaseTestCase() {
+		if (testOwners != null) {
+			testOwners.decrementAndGet();
+			testOwners = null;
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void setLastExecutionResult(ExecutionResult lastExecutionResult) {
@@ -138,22 +230,31 @@ public class TestChromosome extends ExecutableChromosome {
 	/**
 	 * {@inheritDoc}
 	 *
-	 * Create a deep copy of the chromosome
+	 * Create a deep copy of the chromosome. With
+	 * {@link Properties#COPY_ON_WRITE_TESTS}, the test case and the last
+	 * execution result are shared until one of the chromosomes changes its
+	 * test.
 	 */
 	@SuppressWarnings("deprecation")
 	@Override
 	public Chromosome clone() {
 		TestChromosome c = new TestChromosome();
-		c.test = test.clone();
+		if (Properties.COPY_ON_WRITE_TESTS) {
+			c.shareTestCase(this);
+			c.lastExecutionResult = lastExecutionResult;
+			c.lastMutationResult.putAll(lastMutationResult);
+		} else {
+			c.test = test.clone();
+			c.copyCachedResults(this);
+		}
 		c.setFitnessValues(getFitnessValues());
 		c.setPreviousFitnessValues(getPreviousFitnessValues());
-		c.copyCachedResults(this);
 		c.setChanged(isChanged());
 		c.setLocalSearchApplied(hasLocalSearchBeenApplied());
 		if (Properties.LOCAL_SEARCH_SELECTIVE) {
 			for (TestMutationHistoryEntry mutation : mutationHistory) {
 				if(test.contains(mutation.getStatement()))
-					c.mutationHistory.addMutationEntry(mutation.clone(c.getTestCase()));
+					c.mutationHistory.addMutationEntry(mutation.clone(c.test));
 			}
 		}
 		// c.mutationHistory.set(mutationHistory);
@@ -219,6 +320,7 @@ public class TestChromosome extends ExecutableChromosome {
 		}
 		if (!Properties.CHECK_MAX_LENGTH
 				|| offspring.test.size() <= Properties.CHROMOSOME_LENGTH) {
+			releaseTestCase();
 			test = offspring.test;
 			setChanged(true);
 		}
@@ -338,6 +440,7 @@ public class TestChromosome extends ExecutableChromosome {
 		}
 
 		if(Properties.CHOP_MAX_LENGTH && size() >= Properties.CHROMOSOME_LENGTH) {
+			ensureExclusiveTestCase();
 			int lastPosition = getLastMutatableStatement();
 			test.chop(lastPosition + 1);
 		}
@@ -403,6 +506,10 @@ public class TestChromosome extends ExecutableChromosome {
 				continue;
 			}
 
+			ensureExclusiveTestCase();
+			st = test.getStatement(i);
+			fms = (FunctionalMockStatement) st;
+
 			int preLength = test.size();
 
 			try {
@@ -491,6 +598,7 @@ public class TestChromosome extends ExecutableChromosome {
 					TestMutationHistoryEntry.TestMutation.DELETION));
             boolean modified = testFactory.deleteStatementGracefully(copy, num);
 
+            releaseTestCase();
             test = copy;
            	return modified;
 
@@ -511,6 +619,7 @@ public class TestChromosome extends ExecutableChromosome {
 	 */
 	@SuppressWarnings("deprecation")
 	public boolean mutationChangePrimitiveStatement() {
+		ensureExclusiveTestCase();
 		boolean changed = false;
 		int lastMutatableStatement = getLastMutatableStatement();
 		double originalPL = 1d / (lastMutatableStatement + 1);
@@ -658,6 +767,7 @@ public class TestChromosome extends ExecutableChromosome {
 	 */
 	@SuppressWarnings("deprecation")
 	private boolean mutationChange() {
+		ensureExclusiveTestCase();
 		boolean changed = false;
 		int lastMutatableStatement = getLastMutatableStatement();
 		double originalPL = 1d / (lastMutatableStatement + 1);
@@ -833,6 +943,7 @@ public class TestChromosome extends ExecutableChromosome {
 	 * @return
 	 */
 	public boolean mutationInsert() {
+		ensureExclusiveTestCase();
 		boolean changed = false;
 		final double ALPHA = Properties.P_STATEMENT_INSERTION; //0.5;
 		int count = 0;
@@ -907,6 +1018,7 @@ public class TestChromosome extends ExecutableChromosome {
 			// logger.info(newTest.toCode());
 			// logger.info("Old test");
 			// logger.info(test.toCode());
+			releaseTestCase();
 			this.test = newTest;
 			this.setChanged(true);
 			this.lastExecutionResult = null;
@@ -978,7 +1090,7 @@ public class TestChromosome extends ExecutableChromosome {
 	@Override
 	public ExecutionResult executeForFitnessFunction(
 	        TestSuiteFitnessFunction testSuiteFitnessFunction) {
-		return testSuiteFitnessFunction.runTest(this.test);
+		return testSuiteFitnessFunction.runTest(readTestCase());
 	}
 
 	@Override
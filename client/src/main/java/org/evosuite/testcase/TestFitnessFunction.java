@@ -169,7 +169,7 @@ public abstract class TestFitnessFunction extends FitnessFunction<TestChromosome
 	 * @return a boolean.
 	 */
 	public boolean isCovered(TestChromosome tc) {
-		if(tc.getTestCase().isGoalCovered(this)){
+		if(tc.readTestCase().isGoalCovered(this)){
 			return true;
 		}
 
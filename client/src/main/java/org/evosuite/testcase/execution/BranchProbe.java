@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Entry points for the branch instrumentation when
+ * {@link Properties#FAST_BRANCH_PROBES} is set. The methods have the same
+ * signatures as their counterparts in {@link ExecutionTracer}.
+ *
+ * As long as the execution trace only needs the aggregated branch distances,
+ * a probe writes into the preallocated {@link BranchProbeRecorder} of the test
+ * execution thread instead of updating the trace maps and the constant pool
+ * directly, and the recorder is merged into the trace when the trace is
+ * retrieved. Otherwise every call is passed on to the {@link ExecutionTracer}.
+ */
+public final class BranchProbe {
+
+	/** Recorder of the current test execution thread, if it can be used */
+	private static volatile BranchProbeRecorder active = null;
+
+	/** Recorder of the current test execution thread */
+	private static volatile BranchProbeRecorder recorder = null;
+
+	/** Mirrors the disabled flag of the ExecutionTracer */
+	static volatile boolean disabled = true;
+
+	/** Mirrors the kill switch of the ExecutionTracer */
+	static volatile boolean killSwitch = false;
+
+	private BranchProbe() {
+	}
+
+	static void setThread(Thread thread) {
+		BranchProbeRecorder current = recorder;
+		if (current != null && current.owner == thread)
+			return;
+		active = null;
+		recorder = thread == null ? null : new BranchProbeRecorder(thread);
+	}
+
+	/**
+	 * The recorder can only be used if nothing is traced per branch execution
+	 *
+	 * @return a boolean.
+	 */
+	static boolean isUsable() {
+		return Properties.FAST_BRANCH_PROBES && ExecutionTracer.isCheckCallerThread()
+				&& !ExecutionTracer.hasWorkerTracers()
+				&& !ExecutionTraceImpl.isTraceCallsEnabled() && !ExecutionTraceImpl.isBranchContextTracked()
+				&& !Properties.BRANCH_EVAL && !Properties.TRACK_BOOLEAN_BRANCHES
+				&& !Properties.TRACK_COVERED_GRADIENT_BRANCHES && !Properties.BRANCH_COMPARISON_TYPES
+				&& !Properties.APPLY_SMART_SEED;
+	}
+
+	/**
+	 * Drop whatever was recorded and decide whether the next execution can be
+	 * recorded by the recorder
+	 */
+	static void reset() {
+		BranchProbeRecorder current = recorder;
+		if (current != null)
+			current.clear();
+		active = current != null && isUsable() ? current : null;
+	}
+
+	static boolean isActive() {
+		return active != null;
+	}
+
+	/**
+	 * Merge the recorded branches into the trace
+	 *
+	 * @param trace
+	 *            a {@link org.evosuite.testcase.execution.ExecutionTrace}
+	 *            object.
+	 */
+	static void flush(ExecutionTrace trace) {
+		BranchProbeRecorder current = active;
+		if (current != null)
+			current.flush(trace);
+	}
+
+	private static BranchProbeRecorder getRecorder() {
+		BranchProbeRecorder current = active;
+		if (current == null || disabled || Thread.currentThread() != current.owner)
+			return null;
+
+		if (killSwitch)
+			ExecutionTracer.checkTimeout();
+
+		return current;
+	}
+
+	/**
+	 * Called by the instrumented code each time a new branch is taken
+	 *
+	 * @param intVal
+	 *            a int.
+	 * @param opcode
+	 *            a int.
+	 * @param branch
+	 *            a int.
+	 * @param bytecode_id
+	 *            a int.
+	 */
+	public static void passedBranch(int intVal, int opcode, int branch, int bytecode_id) {
+		if (active == null) {
+			ExecutionTracer.passedBranch(intVal, opcode, branch, bytecode_id);
+			return;
+		}
+		BranchProbeRecorder current = getRecorder();
+		if (current == null)
+			return;
+
+		double val = current.getComparisonValue(branch, intVal);
+		current.addConstant(val);
+		current.record(branch, ExecutionTracer.getTrueDistance(opcode, val),
+				ExecutionTracer.getFalseDistance(opcode, val));
+	}
+
+	/**
+	 * Called by the instrumented code each time a new branch is taken
+	 *
+	 * @param val1
+	 *            a int.
+	 * @param val2
+	 *            a int.
+	 * @param opcode
+	 *            a int.
+	 * @param branch
+	 *            a int.
+	 * @param bytecode_id
+	 *            a int.
+	 */
+	public static void passedBranch(int val1, int val2, int opcode, int branch, int bytecode_id) {
+		if (active == null) {
+			ExecutionTracer.passedBranch(val1, val2, opcode, branch, bytecode_id);
+			return;
+		}
+		BranchProbeRecorder current = getRecorder();
+		if (current == null)
+			return;
+
+		current.addConstant(val1);
+		current.addConstant(val2);
+		current.record(branch, ExecutionTracer.getTrueDistance(opcode, val1, val2),
+				ExecutionTracer.getFalseDistance(opcode, val1, val2));
+	}
+
+	/**
+	 * Called by the instrumented code each time a new branch is taken
+	 *
+	 * @param val
+	 *            a {@link java.lang.Object} object.
+	 * @param opcode
+	 *            a int.
+	 * @param branch
+	 *            a int.
+	 * @param bytecode_id
+	 *            a int.
+	 */
+	public static void passedBranch(Object val, int opcode, int branch, int bytecode_id) {
+		if (active == null || (opcode != Opcodes.IFNULL && opcode != Opcodes.IFNONNULL)) {
+			ExecutionTracer.passedBranch(val, opcode, branch, bytecode_id);
+			return;
+		}
+		BranchProbeRecorder current = getRecorder();
+		if (current == null)
+			return;
+
+		double distance_true;
+		if (opcode == Opcodes.IFNULL)
+			distance_true = val == null ? 0.0 : 1.0;
+		else
+			distance_true = val == null ? 1.0 : 0.0;
+		current.record(branch, distance_true, distance_true == 0 ? 1.0 : 0.0);
+	}
+
+	public static void onDcmpG(double value1, double value2, int branchId) {
+		BranchProbeRecorder current = active;
+		if (current == null)
+			ExecutionTracer.onDcmpG(value1, value2, branchId);
+		else if (Thread.currentThread() == current.owner)
+			current.setComparisonValue(branchId, ExecutionTracer.getCmpGValue(value1, value2));
+	}
+
+	public static void onDcmpL(double value1, double value2, int branchId) {
+		BranchProbeRecorder current = active;
+		if (current == null)
+			ExecutionTracer.onDcmpL(value1, value2, branchId);
+		else if (Thread.currentThread() == current.owner)
+			current.setComparisonValue(branchId, ExecutionTracer.getCmpLValue(value1, value2));
+	}
+
+	public static void onLcmp(long value1, long value2, int branchId) {
+		BranchProbeRecorder current = active;
+		if (current == null)
+			ExecutionTracer.onLcmp(value1, value2, branchId);
+		else if (Thread.currentThread() == current.owner)
+			current.setComparisonValue(branchId, ExecutionTracer.getComparisonVariation(value1, value2));
+	}
+
+	public static void onFcmpG(float value1, float value2, int branchId) {
+		BranchProbeRecorder current = active;
+		if (current == null)
+			ExecutionTracer.onFcmpG(value1, value2, branchId);
+		else if (Thread.currentThread() == current.owner)
+			current.setComparisonValue(branchId, ExecutionTracer.getCmpGValue(value1, value2));
+	}
+
+	public static void onFcmpL(float value1, float value2, int branchId) {
+		BranchProbeRecorder current = active;
+		if (current == null)
+			ExecutionTracer.onFcmpL(value1, value2, branchId);
+		else if (Thread.currentThread() == current.owner)
+			current.setComparisonValue(branchId, ExecutionTracer.getCmpLValue(value1, value2));
+	}
+}
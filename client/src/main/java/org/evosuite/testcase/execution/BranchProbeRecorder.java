@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+
+import org.evosuite.seeding.ConstantPoolManager;
+
+/**
+ * Preallocated buffer in which the {@link BranchProbe}s of one test execution
+ * thread record branch distances and the operands seen at branches. Nothing is
+ * allocated per probe as long as the branch ids fit into the arrays; the data
+ * is handed over to the {@link ExecutionTrace} and the dynamic constant pool
+ * in {@link #flush(ExecutionTrace)}.
+ *
+ * A recorder is only ever written by its owner thread.
+ */
+public class BranchProbeRecorder {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private static final int CONSTANT_BUFFER_SIZE = 1024;
+
+	/** The only thread whose probes are recorded */
+	final Thread owner;
+
+	private double[] minTrueDistance = new double[INITIAL_CAPACITY];
+
+	private double[] minFalseDistance = new double[INITIAL_CAPACITY];
+
+	private double[] sumTrueDistance = new double[INITIAL_CAPACITY];
+
+	private double[] sumFalseDistance = new double[INITIAL_CAPACITY];
+
+	private int[] executions = new int[INITIAL_CAPACITY];
+
+	private int[] trueExecutions = new int[INITIAL_CAPACITY];
+
+	private int[] falseExecutions = new int[INITIAL_CAPACITY];
+
+	private int[] touched = new int[INITIAL_CAPACITY];
+
+	private int numTouched = 0;
+
+	/** Operands for the dynamic constant pool, boxed only when flushed */
+	private final int[] intConstants = new int[CONSTANT_BUFFER_SIZE];
+
+	private int numIntConstants = 0;
+
+	private final double[] doubleConstants = new double[CONSTANT_BUFFER_SIZE];
+
+	private int numDoubleConstants = 0;
+
+	/** Result of the last xCMP instruction, see ExecutionTracer.comparisonValue */
+	private int comparisonBranch = -1;
+
+	private double comparisonValue;
+
+	public BranchProbeRecorder(Thread owner) {
+		this.owner = owner;
+	}
+
+	private void ensureCapacity(int branch) {
+		if (branch < executions.length)
+			return;
+
+		int capacity = Math.max(branch + 1, executions.length * 2);
+		minTrueDistance = Arrays.copyOf(minTrueDistance, capacity);
+		minFalseDistance = Arrays.copyOf(minFalseDistance, capacity);
+		sumTrueDistance = Arrays.copyOf(sumTrueDistance, capacity);
+		sumFalseDistance = Arrays.copyOf(sumFalseDistance, capacity);
+		executions = Arrays.copyOf(executions, capacity);
+		trueExecutions = Arrays.copyOf(trueExecutions, capacity);
+		falseExecutions = Arrays.copyOf(falseExecutions, capacity);
+	}
+
+	/**
+	 * Record one execution of a branch
+	 *
+	 * @param branch
+	 *            a int.
+	 * @param trueDistance
+	 *            a double.
+	 * @param falseDistance
+	 *            a double.
+	 */
+	public void record(int branch, double trueDistance, double falseDistance) {
+		ensureCapacity(branch);
+		if (executions[branch]++ == 0) {
+			if (numTouched == touched.length)
+				touched = Arrays.copyOf(touched, touched.length * 2);
+			touched[numTouched++] = branch;
+			minTrueDistance[branch] = trueDistance;
+			minFalseDistance[branch] = falseDistance;
+			sumTrueDistance[branch] = trueDistance;
+			sumFalseDistance[branch] = falseDistance;
+		} else {
+			if (trueDistance < minTrueDistance[branch])
+				minTrueDistance[branch] = trueDistance;
+			if (falseDistance < minFalseDistance[branch])
+				minFalseDistance[branch] = falseDistance;
+			sumTrueDistance[branch] += trueDistance;
+			sumFalseDistance[branch] += falseDistance;
+		}
+		if (trueDistance == 0.0)
+			trueExecutions[branch]++;
+		if (falseDistance == 0.0)
+			falseExecutions[branch]++;
+	}
+
+	public void addConstant(int value) {
+		if (numIntConstants == CONSTANT_BUFFER_SIZE)
+			flushConstants();
+		intConstants[numIntConstants++] = value;
+	}
+
+	public void addConstant(double value) {
+		if (numDoubleConstants == CONSTANT_BUFFER_SIZE)
+			flushConstants();
+		doubleConstants[numDoubleConstants++] = value;
+	}
+
+	public void setComparisonValue(int branch, double value) {
+		comparisonBranch = branch;
+		comparisonValue = value;
+	}
+
+	/**
+	 * The value of a preceding xCMP instruction replaces the int operand of
+	 * the branch it belongs to
+	 *
+	 * @param branch
+	 *            a int.
+	 * @param intVal
+	 *            the operand on the stack
+	 * @return a double.
+	 */
+	public double getComparisonValue(int branch, int intVal) {
+		return comparisonBranch == branch ? comparisonValue : intVal;
+	}
+
+	private void flushConstants() {
+		ConstantPoolManager pool = ConstantPoolManager.getInstance();
+		for (int i = 0; i < numIntConstants; i++) {
+			pool.addDynamicConstant(intConstants[i]);
+		}
+		for (int i = 0; i < numDoubleConstants; i++) {
+			pool.addDynamicConstant(doubleConstants[i]);
+		}
+		numIntConstants = 0;
+		numDoubleConstants = 0;
+	}
+
+	/**
+	 * Move everything recorded so far into the given trace and the dynamic
+	 * constant pool, and reset the buffer
+	 *
+	 * @param trace
+	 *            a {@link org.evosuite.testcase.execution.ExecutionTrace}
+	 *            object.
+	 */
+	public void flush(ExecutionTrace trace) {
+		for (int i = 0; i < numTouched; i++) {
+			int branch = touched[i];
+			trace.branchesPassed(branch, executions[branch], trueExecutions[branch], falseExecutions[branch],
+					minTrueDistance[branch], minFalseDistance[branch], sumTrueDistance[branch],
+					sumFalseDistance[branch]);
+		}
+		flushConstants();
+		clear();
+	}
+
+	/**
+	 * Drop the branch data recorded so far. Only the entries of branches that
+	 * were passed are reset. Buffered constants are kept, as the dynamic
+	 * constant pool does not depend on the test.
+	 */
+	public void clear() {
+		for (int i = 0; i < numTouched; i++) {
+			int branch = touched[i];
+			executions[branch] = 0;
+			trueExecutions[branch] = 0;
+			falseExecutions[branch] = 0;
+		}
+		numTouched = 0;
+		comparisonBranch = -1;
+	}
+}
@@ -0,0 +1,565 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Execution trace that keeps branch distances and branch execution counts in
+ * primitive arrays indexed by the branch id assigned by the BranchPool,
+ * instead of boxed synchronized maps.
+ *
+ * The ids of all branches passed so far are kept in a dirty list, such that
+ * clearing and cloning the trace only costs time proportional to the number
+ * of branches actually executed. The map-based getters of
+ * {@link ExecutionTrace} return read-only views on the arrays.
+ */
+public class DenseExecutionTraceImpl extends ExecutionTraceImpl {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final int MIN_TRUE = 0;
+
+	private static final int MIN_FALSE = 1;
+
+	private static final int SUM_TRUE = 2;
+
+	private static final int SUM_FALSE = 3;
+
+	private static final int PREDICATE = 0;
+
+	private static final int TRUE = 1;
+
+	private static final int FALSE = 2;
+
+	private double[] minTrueDistance;
+
+	private double[] minFalseDistance;
+
+	private double[] sumTrueDistance;
+
+	private double[] sumFalseDistance;
+
+	private int[] predicateCount;
+
+	private int[] trueCount;
+
+	private int[] falseCount;
+
+	/** Whether a distance has been recorded for the branch */
+	private boolean[] passed;
+
+	/** Ids of all branches with a recorded distance, in order of first pass */
+	private int[] touched;
+
+	private int numTouched = 0;
+
+	/** Number of branches with a predicateCount > 0 */
+	private int numPredicates = 0;
+
+	private int numCoveredTrue = 0;
+
+	private int numCoveredFalse = 0;
+
+	public DenseExecutionTraceImpl() {
+		this(INITIAL_CAPACITY);
+	}
+
+	private DenseExecutionTraceImpl(int capacity) {
+		super();
+		allocate(Math.max(capacity, 1));
+	}
+
+	private void allocate(int capacity) {
+		minTrueDistance = new double[capacity];
+		minFalseDistance = new double[capacity];
+		sumTrueDistance = new double[capacity];
+		sumFalseDistance = new double[capacity];
+		predicateCount = new int[capacity];
+		trueCount = new int[capacity];
+		falseCount = new int[capacity];
+		passed = new boolean[capacity];
+		touched = new int[Math.min(capacity, INITIAL_CAPACITY)];
+	}
+
+	private void ensureCapacity(int branch) {
+		if (branch < passed.length)
+			return;
+
+		int capacity = Math.max(branch + 1, passed.length * 2);
+		minTrueDistance = Arrays.copyOf(minTrueDistance, capacity);
+		minFalseDistance = Arrays.copyOf(minFalseDistance, capacity);
+		sumTrueDistance = Arrays.copyOf(sumTrueDistance, capacity);
+		sumFalseDistance = Arrays.copyOf(sumFalseDistance, capacity);
+		predicateCount = Arrays.copyOf(predicateCount, capacity);
+		trueCount = Arrays.copyOf(trueCount, capacity);
+		falseCount = Arrays.copyOf(falseCount, capacity);
+		passed = Arrays.copyOf(passed, capacity);
+	}
+
+	private boolean isPassed(int branch) {
+		return branch >= 0 && branch < passed.length && passed[branch];
+	}
+
+	/**
+	 * The arrays are replaced when they grow, so views look them up on each
+	 * access
+	 */
+	private double[] distances(int kind) {
+		switch (kind) {
+		case MIN_TRUE:
+			return minTrueDistance;
+		case MIN_FALSE:
+			return minFalseDistance;
+		case SUM_TRUE:
+			return sumTrueDistance;
+		default:
+			return sumFalseDistance;
+		}
+	}
+
+	private int[] counts(int kind) {
+		switch (kind) {
+		case PREDICATE:
+			return predicateCount;
+		case TRUE:
+			return trueCount;
+		default:
+			return falseCount;
+		}
+	}
+
+	private int numCounted(int kind) {
+		switch (kind) {
+		case PREDICATE:
+			return numPredicates;
+		case TRUE:
+			return numCoveredTrue;
+		default:
+			return numCoveredFalse;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		if (branch < 0)
+			throw new IllegalArgumentException("Negative branch id: " + branch);
+		ensureCapacity(branch);
+		if (predicateCount[branch]++ == 0)
+			numPredicates++;
+		if (true_distance == 0.0 && trueCount[branch]++ == 0)
+			numCoveredTrue++;
+		if (false_distance == 0.0 && falseCount[branch]++ == 0)
+			numCoveredFalse++;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
+		if (branch < 0)
+			throw new IllegalArgumentException("Negative branch id: " + branch);
+		ensureCapacity(branch);
+		if (!passed[branch]) {
+			passed[branch] = true;
+			if (numTouched == touched.length)
+				touched = Arrays.copyOf(touched, touched.length * 2);
+			touched[numTouched++] = branch;
+			minTrueDistance[branch] = true_distance;
+			minFalseDistance[branch] = false_distance;
+			sumTrueDistance[branch] = true_distance;
+			sumFalseDistance[branch] = false_distance;
+		} else {
+			minTrueDistance[branch] = Math.min(minTrueDistance[branch], true_distance);
+			minFalseDistance[branch] = Math.min(minFalseDistance[branch], false_distance);
+			sumTrueDistance[branch] += true_distance;
+			sumFalseDistance[branch] += false_distance;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void branchesPassed(int branch, int executions, int trueExecutions, int falseExecutions,
+			double minTrueDistance, double minFalseDistance, double trueDistanceSum, double falseDistanceSum) {
+		if (executions == 0)
+			return;
+
+		if (traceCoverage) {
+			ensureCapacity(branch);
+			if (predicateCount[branch] == 0)
+				numPredicates++;
+			predicateCount[branch] += executions;
+			if (trueExecutions > 0 && trueCount[branch] == 0)
+				numCoveredTrue++;
+			trueCount[branch] += trueExecutions;
+			if (falseExecutions > 0 && falseCount[branch] == 0)
+				numCoveredFalse++;
+			falseCount[branch] += falseExecutions;
+		}
+
+		boolean known = isPassed(branch);
+		updateBranchDistances(branch, minTrueDistance, minFalseDistance);
+		sumTrueDistance[branch] = known ? sumTrueDistance[branch] - minTrueDistance + trueDistanceSum
+				: trueDistanceSum;
+		sumFalseDistance[branch] = known ? sumFalseDistance[branch] - minFalseDistance + falseDistanceSum
+				: falseDistanceSum;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isCoveredTrue(int branch) {
+		return branch >= 0 && branch < trueCount.length && trueCount[branch] > 0;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isCoveredFalse(int branch) {
+		return branch >= 0 && branch < falseCount.length && falseCount[branch] > 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Only the entries of branches that were passed are reset
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		for (int i = 0; i < numTouched; i++) {
+			int branch = touched[i];
+			minTrueDistance[branch] = 0.0;
+			minFalseDistance[branch] = 0.0;
+			sumTrueDistance[branch] = 0.0;
+			sumFalseDistance[branch] = 0.0;
+			predicateCount[branch] = 0;
+			trueCount[branch] = 0;
+			falseCount[branch] = 0;
+			passed[branch] = false;
+		}
+		numTouched = 0;
+		numPredicates = 0;
+		numCoveredTrue = 0;
+		numCoveredFalse = 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The arrays of the copy are only as large as the highest branch id passed
+	 */
+	@Override
+	public DenseExecutionTraceImpl clone() {
+		int maxBranch = 0;
+		for (int i = 0; i < numTouched; i++) {
+			maxBranch = Math.max(maxBranch, touched[i]);
+		}
+		DenseExecutionTraceImpl copy = new DenseExecutionTraceImpl(maxBranch + 1);
+		copyTraceData(copy);
+		if (copy.touched.length < numTouched)
+			copy.touched = new int[numTouched];
+		for (int i = 0; i < numTouched; i++) {
+			int branch = touched[i];
+			copy.minTrueDistance[branch] = minTrueDistance[branch];
+			copy.minFalseDistance[branch] = minFalseDistance[branch];
+			copy.sumTrueDistance[branch] = sumTrueDistance[branch];
+			copy.sumFalseDistance[branch] = sumFalseDistance[branch];
+			copy.predicateCount[branch] = predicateCount[branch];
+			copy.trueCount[branch] = trueCount[branch];
+			copy.falseCount[branch] = falseCount[branch];
+			copy.passed[branch] = true;
+			copy.touched[i] = branch;
+		}
+		copy.numTouched = numTouched;
+		copy.numPredicates = numPredicates;
+		copy.numCoveredTrue = numCoveredTrue;
+		copy.numCoveredFalse = numCoveredFalse;
+		return copy;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getTrueDistance(int branchId) {
+		if (!isPassed(branchId))
+			throw new NoSuchElementException("No distance recorded for branch " + branchId);
+		return minTrueDistance[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getFalseDistance(int branchId) {
+		if (!isPassed(branchId))
+			throw new NoSuchElementException("No distance recorded for branch " + branchId);
+		return minFalseDistance[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasTrueDistance(int predicateId) {
+		return isPassed(predicateId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasFalseDistance(int predicateId) {
+		return isPassed(predicateId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistances() {
+		return new DoubleView(MIN_TRUE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistances() {
+		return new DoubleView(MIN_FALSE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistancesSum() {
+		return new DoubleView(SUM_TRUE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistancesSum() {
+		return new DoubleView(SUM_FALSE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getPredicateExecutionCount() {
+		return new CountView(PREDICATE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getCoveredTrue() {
+		return new CountView(TRUE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getCoveredFalse() {
+		return new CountView(FALSE);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredPredicates() {
+		return getPredicateExecutionCount().keySet();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredTrueBranches() {
+		Set<Integer> covered = new HashSet<Integer>();
+		for (int i = 0; i < numTouched; i++) {
+			if (minTrueDistance[touched[i]] == 0.0)
+				covered.add(touched[i]);
+		}
+		return covered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredFalseBranches() {
+		Set<Integer> covered = new HashSet<Integer>();
+		for (int i = 0; i < numTouched; i++) {
+			if (minFalseDistance[touched[i]] == 0.0)
+				covered.add(touched[i]);
+		}
+		return covered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		StringBuffer ret = new StringBuffer();
+		for (MethodCall m : finishedCalls) {
+			ret.append(m);
+		}
+		ret.append("\nCovered methods: ");
+		for (Map.Entry<String, Integer> entry : coveredMethods.entrySet()) {
+			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
+		}
+		ret.append("\nCovered predicates: ");
+		for (Map.Entry<Integer, Integer> entry : getPredicateExecutionCount().entrySet()) {
+			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
+		}
+		ret.append("\nTrue distances: ");
+		for (Map.Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
+			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
+		}
+		ret.append("\nFalse distances: ");
+		for (Map.Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
+			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Iterates over the dirty list, skipping branches rejected by
+	 * {@link #accept(int)}
+	 */
+	private abstract class TouchedIterator<T> implements Iterator<T> {
+
+		private int next = advance(0);
+
+		private int advance(int from) {
+			while (from < numTouched && !accept(touched[from]))
+				from++;
+			return from;
+		}
+
+		protected abstract boolean accept(int branch);
+
+		protected abstract T get(int branch);
+
+		@Override
+		public boolean hasNext() {
+			return next < numTouched;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			int branch = touched[next];
+			next = advance(next + 1);
+			return get(branch);
+		}
+	}
+
+	/**
+	 * Read-only map view on one of the distance arrays, containing all passed
+	 * branches
+	 */
+	private class DoubleView extends AbstractMap<Integer, Double> {
+
+		private final int kind;
+
+		private DoubleView(int kind) {
+			this.kind = kind;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Integer && isPassed((Integer) key);
+		}
+
+		@Override
+		public Double get(Object key) {
+			return containsKey(key) ? distances(kind)[(Integer) key] : null;
+		}
+
+		@Override
+		public int size() {
+			return numTouched;
+		}
+
+		@Override
+		public Set<Map.Entry<Integer, Double>> entrySet() {
+			return new AbstractSet<Map.Entry<Integer, Double>>() {
+				@Override
+				public Iterator<Map.Entry<Integer, Double>> iterator() {
+					return new TouchedIterator<Map.Entry<Integer, Double>>() {
+						@Override
+						protected boolean accept(int branch) {
+							return true;
+						}
+
+						@Override
+						protected Map.Entry<Integer, Double> get(int branch) {
+							return new SimpleImmutableEntry<Integer, Double>(branch, distances(kind)[branch]);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return numTouched;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Read-only map view on one of the count arrays, containing the branches
+	 * with a positive count
+	 */
+	private class CountView extends AbstractMap<Integer, Integer> {
+
+		private final int kind;
+
+		private CountView(int kind) {
+			this.kind = kind;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Integer && isPassed((Integer) key) && counts(kind)[(Integer) key] > 0;
+		}
+
+		@Override
+		public Integer get(Object key) {
+			return containsKey(key) ? counts(kind)[(Integer) key] : null;
+		}
+
+		@Override
+		public int size() {
+			return numCounted(kind);
+		}
+
+		@Override
+		public Set<Map.Entry<Integer, Integer>> entrySet() {
+			return new AbstractSet<Map.Entry<Integer, Integer>>() {
+				@Override
+				public Iterator<Map.Entry<Integer, Integer>> iterator() {
+					return new TouchedIterator<Map.Entry<Integer, Integer>>() {
+						@Override
+						protected boolean accept(int branch) {
+							return counts(kind)[branch] > 0;
+						}
+
+						@Override
+						protected Map.Entry<Integer, Integer> get(int branch) {
+							return new SimpleImmutableEntry<Integer, Integer>(branch, counts(kind)[branch]);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return numCounted(kind);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.environment.AccessedEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Cache of the results of the tests executed by
+ * {@link TestCaseExecutor#runTest(TestCase)}, so that a test which is
+ * structurally identical to one executed before, e.g. after a mutation was
+ * undone or during minimization, is not executed again.
+ * </p>
+ *
+ * <p>
+ * The key of a test is its code, which contains the statements, their values
+ * and how they use each other's variables, together with the tracing options
+ * the result depends on. The least recently used results are dropped once
+ * there are {@link Properties#EXECUTION_RESULT_CACHE_SIZE} of them, and only
+ * results without timeouts and exceptions of EvoSuite itself are kept. A test
+ * is still executed on every {@link #VERIFICATION_INTERVAL}-th hit, and if
+ * its result differs from the cached one, the SUT is taken to be
+ * nondeterministic and the cache is not used anymore.
+ * </p>
+ *
+ * <p>
+ * Along with the result, the environment the test accessed is kept, so that
+ * a test whose result is taken from the cache gets it as if it was executed.
+ * </p>
+ */
+public class ExecutionResultCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionResultCache.class);
+
+	/** Every that many hits, the test is executed to check the cached result */
+	public static final int VERIFICATION_INTERVAL = 16;
+
+	private static ExecutionResultCache instance = null;
+
+	private static int hits = 0;
+
+	private static int misses = 0;
+
+	/** Execution time of the tests that were not executed again, in ms */
+	private static long savedTime = 0L;
+
+	/** Result of a test together with the environment it accessed */
+	private static class Entry {
+
+		private final ExecutionResult result;
+
+		private final AccessedEnvironment accessedEnvironment = new AccessedEnvironment();
+
+		private Entry(ExecutionResult result, AccessedEnvironment accessedEnvironment) {
+			this.result = result;
+			this.accessedEnvironment.copyFrom(accessedEnvironment);
+		}
+	}
+
+	private final Map<String, Entry> results = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 8826142915346427316L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > Properties.EXECUTION_RESULT_CACHE_SIZE;
+		}
+	};
+
+	/** The results are only valid for the classes of this class loader */
+	private ClassLoader classLoader = null;
+
+	private boolean disabled = false;
+
+	private int hitsUntilVerification = VERIFICATION_INTERVAL;
+
+	private ExecutionResultCache() {
+	}
+
+	/**
+	 * The cache is not used if observers record more of an execution than its
+	 * result, or if smart seeding records the values of an execution
+	 *
+	 * @return a boolean.
+	 */
+	public static boolean isEnabled() {
+		return Properties.EXECUTION_RESULT_CACHE_SIZE > 0 && !Properties.APPLY_SMART_SEED
+				&& TestCaseExecutor.getInstance().getExecutionObservers().isEmpty();
+	}
+
+	/**
+	 * <p>
+	 * Getter for the field <code>instance</code>.
+	 * </p>
+	 *
+	 * @return a {@link org.evosuite.testcase.execution.ExecutionResultCache}
+	 *         object.
+	 */
+	public static synchronized ExecutionResultCache getInstance() {
+		if (instance == null)
+			instance = new ExecutionResultCache();
+
+		return instance;
+	}
+
+	/**
+	 * <p>
+	 * resetSingleton
+	 * </p>
+	 */
+	public static synchronized void resetSingleton() {
+		instance = null;
+		hits = 0;
+		misses = 0;
+		savedTime = 0L;
+	}
+
+	public static synchronized double getHitRate() {
+		int lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	/**
+	 * Execution time of the tests whose results were taken from the cache
+	 *
+	 * @return the time in seconds
+	 */
+	public static synchronized double getSavedTime() {
+		return savedTime / 1000.0;
+	}
+
+	/**
+	 * The key of the given test, or null if it cannot be cached
+	 *
+	 * @param test
+	 * @return
+	 */
+	public synchronized String getKey(TestCase test) {
+		if (disabled)
+			return null;
+
+		ClassLoader current = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		if (current != classLoader) {
+			results.clear();
+			classLoader = current;
+		}
+
+		try {
+			StringBuilder key = new StringBuilder();
+			key.append(ExecutionTraceImpl.isTraceCallsEnabled()).append(';');
+			key.append(ExecutionTraceImpl.traceCoverage).append(';');
+			key.append(ExecutionTraceImpl.disableContext).append(';');
+			key.append(test.toCode());
+			return key.toString();
+		} catch (Throwable t) {
+			logger.debug("Cannot create the code of a test: {}", t.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * The cached result of the test with the given key, as a copy that
+	 * belongs to the given test. The environment accessed by the cached test
+	 * is copied onto the given test.
+	 *
+	 * @param key
+	 * @param test
+	 * @return the result, or null if the test has to be executed
+	 */
+	public synchronized ExecutionResult get(String key, TestCase test) {
+		Entry cached = results.get(key);
+		if (cached == null) {
+			misses++;
+			return null;
+		}
+
+		if (--hitsUntilVerification == 0) {
+			hitsUntilVerification = VERIFICATION_INTERVAL;
+			return null;
+		}
+
+		hits++;
+		savedTime += cached.result.getExecutionTime();
+		test.getAccessedEnvironment().copyFrom(cached.accessedEnvironment);
+		return copy(cached.result, test);
+	}
+
+	/**
+	 * Keep the result of the test with the given key and the environment the
+	 * test accessed, and compare it with the cached result if there is one
+	 *
+	 * @param key
+	 * @param result
+	 */
+	public synchronized void put(String key, ExecutionResult result) {
+		if (disabled || result.hasTimeout() || result.hasTestException())
+			return;
+
+		Entry cached = results.get(key);
+		if (cached != null && !isSameOutcome(cached.result, result)) {
+			logger.info("Re-executed test behaves differently, no longer caching execution results");
+			disabled = true;
+			results.clear();
+			return;
+		}
+		results.put(key, new Entry(copy(result, result.test), result.test.getAccessedEnvironment()));
+	}
+
+	public synchronized int size() {
+		return results.size();
+	}
+
+	private static ExecutionResult copy(ExecutionResult result, TestCase test) {
+		ExecutionResult copy = result.clone();
+		copy.setTest(test);
+		copy.setExecutedStatements(result.getExecutedStatements());
+		copy.setSecurityException(result.hasSecurityException());
+		return copy;
+	}
+
+	private static boolean isSameOutcome(ExecutionResult r1, ExecutionResult r2) {
+		if (r1.getExecutedStatements() != r2.getExecutedStatements()
+				|| !r1.getPositionsWhereExceptionsWereThrown().equals(r2.getPositionsWhereExceptionsWereThrown()))
+			return false;
+
+		for (Integer position : r1.getPositionsWhereExceptionsWereThrown()) {
+			if (!Objects.equals(r1.getExceptionThrownAtPosition(position).getClass(),
+					r2.getExceptionThrownAtPosition(position).getClass()))
+				return false;
+		}
+
+		ExecutionTrace t1 = r1.getTrace();
+		ExecutionTrace t2 = r2.getTrace();
+		return t1.getCoveredTrueBranches().equals(t2.getCoveredTrueBranches())
+				&& t1.getCoveredFalseBranches().equals(t2.getCoveredFalseBranches())
+				&& t1.getTrueDistances().equals(t2.getTrueDistances())
+				&& t1.getFalseDistances().equals(t2.getFalseDistances())
+				&& t1.getCoveredLines().equals(t2.getCoveredLines());
+	}
+}
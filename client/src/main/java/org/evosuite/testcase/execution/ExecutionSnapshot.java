@@ -0,0 +1,286 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+import org.evosuite.assertion.CheapPurityAnalyzer;
+import org.evosuite.runtime.Random;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.mock.java.util.prefs.MockPreferences;
+import org.evosuite.runtime.thread.ThreadCounter;
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.evosuite.runtime.vnet.VirtualNetwork;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.PrimitiveExpression;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.environment.AccessedEnvironment;
+import org.evosuite.testcase.variable.VariableReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State of a finished test execution from which a changed version of the test
+ * can be resumed rather than executed from its first statement.
+ *
+ * The objects in the scope are the ones at the end of the execution, so they
+ * only represent the state at an earlier statement boundary if none of the
+ * statements after that boundary changed them. A snapshot therefore covers the
+ * boundaries within the side effect free suffix of the test, and for each of
+ * these it keeps a copy of the execution trace up to that point. Executions
+ * that wrote static fields or system properties, or that accessed the mocked
+ * environment, do not result in a snapshot, as this state is reset before the
+ * next execution. The same holds for the mocked sources of non-determinism,
+ * such as random numbers, time and threads. Only the identity hash codes the
+ * mocked runtime gives to objects are restored after the reset, as they are
+ * used by nearly every execution.
+ *
+ * A snapshot can only be used once, as the resumed execution may change the
+ * objects it holds.
+ */
+public class ExecutionSnapshot {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionSnapshot.class);
+
+	/** Copy of the executed test */
+	private final TestCase test;
+
+	/** First position of the side effect free suffix */
+	private final int suffixStart;
+
+	/** Last position from which an execution can be resumed */
+	private final int end;
+
+	/** Execution trace at the boundaries suffixStart, ..., end */
+	private final List<ExecutionTrace> traces;
+
+	/** Values of the statements before end, by position */
+	private final Object[] values;
+
+	private final boolean[] hasValue;
+
+	private final Set<String> readProperties;
+
+	/** Identity hash codes given by the mocked runtime during the execution */
+	private final Map<Integer, Integer> identityHashCodes;
+
+	/** Number of identity hash codes at the boundaries suffixStart, ..., end */
+	private final List<Integer> identityHashCodeCounts;
+
+	private boolean used = false;
+
+	private ExecutionSnapshot(TestCase test, int suffixStart, int end, List<ExecutionTrace> traces,
+			Object[] values, boolean[] hasValue, Set<String> readProperties,
+			Map<Integer, Integer> identityHashCodes, List<Integer> identityHashCodeCounts) {
+		this.test = test;
+		this.suffixStart = suffixStart;
+		this.end = end;
+		this.traces = traces;
+		this.values = values;
+		this.hasValue = hasValue;
+		this.readProperties = readProperties;
+		this.identityHashCodes = identityHashCodes;
+		this.identityHashCodeCounts = identityHashCodeCounts;
+	}
+
+	/**
+	 * Statements that do not change any existing object or static state
+	 *
+	 * @param statement
+	 *            a {@link org.evosuite.testcase.statements.Statement} object.
+	 * @return a boolean.
+	 */
+	public static boolean isSideEffectFree(Statement statement) {
+		if (statement instanceof PrimitiveStatement<?> || statement instanceof PrimitiveExpression
+				|| statement instanceof ArrayStatement || statement instanceof FieldStatement) {
+			return true;
+		}
+		if (statement instanceof MethodStatement) {
+			return CheapPurityAnalyzer.getInstance().isPure(((MethodStatement) statement).getMethod().getMethod());
+		}
+		return false;
+	}
+
+	/**
+	 * The position from which on all statements of the test are side effect
+	 * free
+	 *
+	 * @param test
+	 *            a {@link org.evosuite.testcase.TestCase} object.
+	 * @return a int.
+	 */
+	public static int getSuffixStart(TestCase test) {
+		int position = test.size();
+		while (position > 0 && isSideEffectFree(test.getStatement(position - 1))) {
+			position--;
+		}
+		return position;
+	}
+
+	private static boolean isEnvironmentAccessed(TestCase test) {
+		AccessedEnvironment environment = test.getAccessedEnvironment();
+		return environment.isFileSystemAccessed() || environment.isNetworkAccessed()
+				|| !VirtualFileSystem.getInstance().getAccessedFiles().isEmpty()
+				|| !VirtualNetwork.getInstance().getViewOfRemoteAccessedFiles().isEmpty()
+				|| !VirtualNetwork.getInstance().getViewOfRemoteContactedPorts().isEmpty()
+				|| !VirtualNetwork.getInstance().getViewOfLocalListeningPorts().isEmpty();
+	}
+
+	/**
+	 * Whether the execution used mocked non-deterministic state that the reset
+	 * of the runtime before the next execution loses. The flags cover the
+	 * whole execution, so an access in the suffix prevents a snapshot too.
+	 */
+	private static boolean isNonDeterminismAccessed() {
+		if (!RuntimeSettings.mockJVMNonDeterminism)
+			return false;
+
+		return Random.wasAccessed() || org.evosuite.runtime.System.wasTimeAccessed()
+				|| ThreadCounter.getInstance().getNumberOfStartedThreads() > 0 || MockPreferences.wasAccessed()
+				|| !Locale.getDefault().equals(Locale.ENGLISH) || !TimeZone.getDefault().getID().equals("GMT");
+	}
+
+	/**
+	 * Create the snapshot of a finished execution
+	 *
+	 * @param test
+	 *            the executed test
+	 * @param scope
+	 *            the scope at the end of the execution
+	 * @param result
+	 *            the result of the execution
+	 * @param suffixStart
+	 *            the first position of the side effect free suffix
+	 * @param traces
+	 *            the traces recorded at the boundaries from suffixStart on
+	 * @param identityHashCodeCounts
+	 *            the number of identity hash codes given by the mocked runtime
+	 *            at the same boundaries
+	 * @return the snapshot, or null if the execution cannot be resumed
+	 */
+	public static ExecutionSnapshot create(TestCase test, Scope scope, ExecutionResult result, int suffixStart,
+			List<ExecutionTrace> traces, List<Integer> identityHashCodeCounts) {
+		if (traces.isEmpty() || result.hasTimeout() || result.wasAnyPropertyWritten())
+			return null;
+
+		if (!result.getTrace().getClassesWithStaticWrites().isEmpty() || isEnvironmentAccessed(test)
+				|| isNonDeterminismAccessed())
+			return null;
+
+		int end = suffixStart + traces.size() - 1;
+		Integer exceptionPosition = result.getFirstPositionOfThrownException();
+		if (exceptionPosition != null)
+			end = Math.min(end, exceptionPosition);
+		if (end <= 0 || end < suffixStart)
+			return null;
+
+		Object[] values = new Object[end];
+		boolean[] hasValue = new boolean[end];
+		for (int i = 0; i < end; i++) {
+			VariableReference var = test.getStatement(i).getReturnValue();
+			if (scope.getVariables().contains(var)) {
+				values[i] = scope.getObject(var);
+				hasValue[i] = true;
+			}
+		}
+
+		Set<String> readProperties = new LinkedHashSet<>();
+		if (result.getReadProperties() != null)
+			readProperties.addAll(result.getReadProperties());
+
+		logger.debug("Execution can be resumed from positions {} to {}", suffixStart, end);
+		return new ExecutionSnapshot(test.clone(), suffixStart, end, traces, values, hasValue, readProperties,
+				org.evosuite.runtime.System.getIdentityHashCodes(), identityHashCodeCounts);
+	}
+
+	/**
+	 * The position from which the given test can be resumed
+	 *
+	 * @param tc
+	 *            a {@link org.evosuite.testcase.TestCase} object.
+	 * @return the position, or 0 if the test has to be executed completely
+	 */
+	public int getResumePosition(TestCase tc) {
+		if (used)
+			return 0;
+
+		int limit = Math.min(end, tc.size());
+		int position = 0;
+		while (position < limit && test.getStatement(position).same(tc.getStatement(position))) {
+			position++;
+		}
+		return position < suffixStart ? 0 : position;
+	}
+
+	/**
+	 * Put the values of the statements before the given position into the
+	 * scope. The snapshot cannot be used again afterwards.
+	 *
+	 * @param tc
+	 *            the test to resume
+	 * @param scope
+	 *            the scope of the resumed execution
+	 * @param position
+	 *            a position returned by {@link #getResumePosition(TestCase)}
+	 * @return a copy of the execution trace up to the position
+	 */
+	public ExecutionTrace restore(TestCase tc, Scope scope, int position) {
+		assert position >= suffixStart && position <= end;
+		used = true;
+		for (int i = 0; i < position; i++) {
+			if (hasValue[i])
+				scope.setObject(tc.getStatement(i).getReturnValue(), values[i]);
+		}
+		return traces.get(position - suffixStart).lazyClone();
+	}
+
+	/**
+	 * The identity hash codes the mocked runtime had given when the execution
+	 * reached the given position. As codes are numbered in the order they are
+	 * given, these are the ones not greater than their number at that point.
+	 *
+	 * @param position
+	 *            a position returned by {@link #getResumePosition(TestCase)}
+	 * @return the codes by the real identity hash code of the object
+	 */
+	public Map<Integer, Integer> getIdentityHashCodes(int position) {
+		int count = identityHashCodeCounts.get(position - suffixStart);
+		Map<Integer, Integer> codes = new HashMap<>();
+		for (Map.Entry<Integer, Integer> entry : identityHashCodes.entrySet()) {
+			if (entry.getValue() <= count)
+				codes.put(entry.getKey(), entry.getValue());
+		}
+		return codes;
+	}
+
+	public Set<String> getReadProperties() {
+		return readProperties;
+	}
+}
@@ -49,6 +49,32 @@ public interface ExecutionTrace {
 	 */
 	public void branchPassed(int branch, int bytecode_id, double true_distance, double false_distance);
 
+	/**
+	 * Add the aggregated data of several executions of a branch, as recorded
+	 * by the {@link BranchProbe}s. Unlike
+	 * {@link #branchPassed(int, int, double, double)} this does not update the
+	 * active method call.
+	 * 
+	 * @param branch
+	 *            a int.
+	 * @param executions
+	 *            number of times the predicate was executed
+	 * @param trueExecutions
+	 *            number of executions with a true distance of 0
+	 * @param falseExecutions
+	 *            number of executions with a false distance of 0
+	 * @param minTrueDistance
+	 *            a double.
+	 * @param minFalseDistance
+	 *            a double.
+	 * @param trueDistanceSum
+	 *            a double.
+	 * @param falseDistanceSum
+	 *            a double.
+	 */
+	public void branchesPassed(int branch, int executions, int trueExecutions, int falseExecutions,
+			double minTrueDistance, double minFalseDistance, double trueDistanceSum, double falseDistanceSum);
+
 	/**
 	 * Retrieve minimum branch distance to false branch
 	 * 
@@ -148,6 +148,18 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		return traceCalls;
 	}
 
+	/**
+	 * Whether branch distances are also tracked per calling context
+	 * 
+	 * @return a boolean.
+	 */
+	public static boolean isBranchContextTracked() {
+		return !disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH)
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.FBRANCH));
+	}
+
 	/**
 	 * <p>
 	 * enableTraceCoverage
@@ -334,32 +346,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		}
 
 		if (traceCoverage) {
-			if (!coveredPredicates.containsKey(branch))
-				coveredPredicates.put(branch, 1);
-			else
-				coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
-
-			if (true_distance == 0.0) {
-				if (!coveredTrue.containsKey(branch))
-					coveredTrue.put(branch, 1);
-				else
-					coveredTrue.put(branch, coveredTrue.get(branch) + 1);
-
-			}
-
-			if (false_distance == 0.0) {
-				if (!coveredFalse.containsKey(branch))
-					coveredFalse.put(branch, 1);
-				else
-					coveredFalse.put(branch, coveredFalse.get(branch) + 1);
-			}
+			updateBranchCoverage(branch, true_distance, false_distance);
 		}
 
 		if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
 			if (gradientBranches.contains(branch)) {
-				if ((coveredTrue.containsKey(branch)))
+				if (isCoveredTrue(branch))
 					gradientBranchesCoveredTrue.add(branch);
-				if ((coveredFalse.containsKey(branch)))
+				if (isCoveredFalse(branch))
 					gradientBranchesCoveredFalse.add(branch);
 			}
 		}
@@ -372,8 +366,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 					.getInstruction().getASMNode().getPrevious() != null)
 				previousOpcode = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
 						.getBranch(branch).getInstruction().getASMNode().getPrevious().getOpcode();
-			boolean cTrue = coveredTrue.containsKey(branch);
-			boolean cFalse = coveredFalse.containsKey(branch);
+			boolean cTrue = isCoveredTrue(branch);
+			boolean cFalse = isCoveredFalse(branch);
 			switch (previousOpcode) {
 			case Opcodes.LCMP:
 				trackBranchOpcode(bytecodeInstructionReached, RuntimeVariable.Reached_lcmp, branch);
@@ -460,6 +454,86 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			}
 		}
 
+		updateBranchDistances(branch, true_distance, false_distance);
+
+		if (isBranchContextTracked()) {
+			updateBranchContextMaps(branch, true_distance, false_distance);
+		}
+
+		// This requires a lot of memory and should not really be used
+		if (Properties.BRANCH_EVAL) {
+			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void branchesPassed(int branch, int executions, int trueExecutions, int falseExecutions,
+			double minTrueDistance, double minFalseDistance, double trueDistanceSum, double falseDistanceSum) {
+		if (executions == 0)
+			return;
+
+		if (traceCoverage) {
+			Integer count = coveredPredicates.get(branch);
+			coveredPredicates.put(branch, count == null ? executions : count + executions);
+			if (trueExecutions > 0) {
+				count = coveredTrue.get(branch);
+				coveredTrue.put(branch, count == null ? trueExecutions : count + trueExecutions);
+			}
+			if (falseExecutions > 0) {
+				count = coveredFalse.get(branch);
+				coveredFalse.put(branch, count == null ? falseExecutions : count + falseExecutions);
+			}
+		}
+
+		Double distance = trueDistances.get(branch);
+		trueDistances.put(branch, distance == null ? minTrueDistance : Math.min(distance, minTrueDistance));
+		distance = falseDistances.get(branch);
+		falseDistances.put(branch, distance == null ? minFalseDistance : Math.min(distance, minFalseDistance));
+		distance = trueDistancesSum.get(branch);
+		trueDistancesSum.put(branch, distance == null ? trueDistanceSum : distance + trueDistanceSum);
+		distance = falseDistancesSum.get(branch);
+		falseDistancesSum.put(branch, distance == null ? falseDistanceSum : distance + falseDistanceSum);
+	}
+
+	/**
+	 * Count the execution of the predicate and of the branch outcomes that
+	 * were taken
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		if (!coveredPredicates.containsKey(branch))
+			coveredPredicates.put(branch, 1);
+		else
+			coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
+
+		if (true_distance == 0.0) {
+			if (!coveredTrue.containsKey(branch))
+				coveredTrue.put(branch, 1);
+			else
+				coveredTrue.put(branch, coveredTrue.get(branch) + 1);
+
+		}
+
+		if (false_distance == 0.0) {
+			if (!coveredFalse.containsKey(branch))
+				coveredFalse.put(branch, 1);
+			else
+				coveredFalse.put(branch, coveredFalse.get(branch) + 1);
+		}
+	}
+
+	/**
+	 * Keep the minimum and the sum of the distances observed for the branch
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
 		if (!trueDistances.containsKey(branch))
 			trueDistances.put(branch, true_distance);
 		else
@@ -479,18 +553,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			falseDistancesSum.put(branch, false_distance);
 		else
 			falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+	}
 
-		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH)
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.FBRANCH))) {
-			updateBranchContextMaps(branch, true_distance, false_distance);
-		}
+	protected boolean isCoveredTrue(int branch) {
+		return coveredTrue.containsKey(branch);
+	}
 
-		// This requires a lot of memory and should not really be used
-		if (Properties.BRANCH_EVAL) {
-			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
-		}
+	protected boolean isCoveredFalse(int branch) {
+		return coveredFalse.containsKey(branch);
 	}
 
 	/**
@@ -688,6 +758,22 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	public ExecutionTraceImpl clone() {
 
 		ExecutionTraceImpl copy = new ExecutionTraceImpl();
+		copyTraceData(copy);
+		copy.trueDistances.putAll(trueDistances);
+		copy.falseDistances.putAll(falseDistances);
+		copy.coveredPredicates.putAll(coveredPredicates);
+		copy.coveredTrue.putAll(coveredTrue);
+		copy.coveredFalse.putAll(coveredFalse);
+		return copy;
+	}
+
+	/**
+	 * Copy everything except for the branch distances and branch execution
+	 * counts into the given trace
+	 * 
+	 * @param copy
+	 */
+	protected void copyTraceData(ExecutionTraceImpl copy) {
 		for (MethodCall call : finishedCalls) {
 			copy.finishedCalls.add(call.clone());
 		}
@@ -703,13 +789,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		 * null && stack.peek().method_name.equals("")) { logger.info(
 		 * "Copying main method"); copy.finished_calls.add(stack.peek()); }
 		 */
-		copy.trueDistances.putAll(trueDistances);
-		copy.falseDistances.putAll(falseDistances);
 		copy.coveredMethods.putAll(coveredMethods);
 		copy.coveredBranchlessMethods.putAll(coveredBranchlessMethods);
-		copy.coveredPredicates.putAll(coveredPredicates);
-		copy.coveredTrue.putAll(coveredTrue);
-		copy.coveredFalse.putAll(coveredFalse);
 		copy.coveredDefs.putAll(coveredDefs);
 		copy.touchedMutants.addAll(touchedMutants);
 		copy.mutantDistances.putAll(mutantDistances);
@@ -728,7 +809,6 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		copy.objectCounter = objectCounter;
 		copy.knownCallerObjects.putAll(knownCallerObjects);
 		copy.proxyCount = 1;
-		return copy;
 	}
 
 	/**
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.dataflow.DefUse;
 import org.evosuite.setup.CallContext;
 import org.evosuite.testcase.execution.ExecutionTraceImpl.BranchEval;
@@ -48,7 +49,10 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 	 * </p>
 	 */
 	public ExecutionTraceProxy() {
-		this.trace = new ExecutionTraceImpl();
+		if (Properties.DENSE_BRANCH_TRACE)
+			this.trace = new DenseExecutionTraceImpl();
+		else
+			this.trace = new ExecutionTraceImpl();
 	}
 
 	/**
@@ -77,6 +81,15 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 		trace.branchPassed(branch, bytecode_id, true_distance, false_distance);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void branchesPassed(int branch, int executions, int trueExecutions, int falseExecutions,
+			double minTrueDistance, double minFalseDistance, double trueDistanceSum, double falseDistanceSum) {
+		copyOnWrite();
+		trace.branchesPassed(branch, executions, trueExecutions, falseExecutions, minTrueDistance,
+				minFalseDistance, trueDistanceSum, falseDistanceSum);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
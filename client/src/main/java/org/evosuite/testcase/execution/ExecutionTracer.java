@@ -46,6 +46,14 @@ public class ExecutionTracer {
 
 	private static ExecutionTracer instance = null;
 
+	/**
+	 * Tracers of the workers of the {@link ParallelTestCaseExecutor}, which
+	 * are inherited by the threads the workers start
+	 */
+	private static final InheritableThreadLocal<ExecutionTracer> workerTracer = new InheritableThreadLocal<>();
+
+	private static volatile boolean hasWorkerTracers = false;
+
 	/**
 	 * We need to disable the execution tracer sometimes, e.g. when calling
 	 * equals in the branch distance function
@@ -68,9 +76,9 @@ public class ExecutionTracer {
 	 * If a thread of a test case survives for some reason (e.g. long call to
 	 * external library), then we don't want its data in the current trace
 	 */
-	private static volatile Thread currentThread = null;
+	private volatile Thread currentThread = null;
 	
-	private static Pair<Integer, Double> comparisonValue;
+	private Pair<Integer, Double> comparisonValue;
 
 	/**
 	 * <p>
@@ -81,7 +89,10 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.Thread} object.
 	 */
 	public static void setThread(Thread thread) {
-		currentThread = thread;
+		ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
+		tracer.currentThread = thread;
+		if (tracer == instance)
+			BranchProbe.setThread(thread);
 	}
 
 	/**
@@ -92,6 +103,8 @@ public class ExecutionTracer {
 	public static void disable() {
 		ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
 		tracer.disabled = true;
+		if (tracer == instance)
+			BranchProbe.disabled = true;
 	}
 
 	/**
@@ -102,6 +115,8 @@ public class ExecutionTracer {
 	public static void enable() {
 		ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
 		tracer.disabled = false;
+		if (tracer == instance)
+			BranchProbe.disabled = false;
 	}
 
 	/**
@@ -127,6 +142,8 @@ public class ExecutionTracer {
 	public static void setKillSwitch(boolean value) {
 		ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
 		tracer.killSwitch = value;
+		if (tracer == instance)
+			BranchProbe.killSwitch = value;
 	}
 
 	/**
@@ -141,6 +158,10 @@ public class ExecutionTracer {
 		ExecutionTracer.checkCallerThread = checkCallerThread;
 	}
 
+	static boolean isCheckCallerThread() {
+		return checkCallerThread;
+	}
+
 	/**
 	 * <p>
 	 * enable context instrumentation
@@ -191,12 +212,36 @@ public class ExecutionTracer {
 	 * @return a {@link org.evosuite.testcase.execution.ExecutionTracer} object.
 	 */
 	public static ExecutionTracer getExecutionTracer() {
+		if (hasWorkerTracers) {
+			ExecutionTracer tracer = workerTracer.get();
+			if (tracer != null)
+				return tracer;
+		}
 		if (instance == null) {
 			instance = new ExecutionTracer();
 		}
 		return instance;
 	}
 
+	/**
+	 * Give the current thread, and all threads it starts from now on, their
+	 * own tracer. The branch probes of {@link BranchProbe} only record into
+	 * the main tracer, so they are switched off once there are worker tracers.
+	 * 
+	 * @return the new tracer
+	 */
+	public static ExecutionTracer bindWorkerTracer() {
+		ExecutionTracer tracer = new ExecutionTracer();
+		hasWorkerTracers = true;
+		workerTracer.set(tracer);
+		BranchProbe.reset();
+		return tracer;
+	}
+
+	static boolean hasWorkerTracers() {
+		return hasWorkerTracers;
+	}
+
 	/**
 	 * Reset for new execution
 	 */
@@ -204,6 +249,8 @@ public class ExecutionTracer {
 		trace = new ExecutionTraceProxy();
 		BooleanHelper.clearStack();
 		num_statements = 0;
+		if (this == instance)
+			BranchProbe.reset();
 	}
 
 	/**
@@ -217,7 +264,8 @@ public class ExecutionTracer {
 		if (!checkCallerThread) {
 			return false;
 		}
-		if (currentThread == null) {
+		ExecutionTracer tracer = getExecutionTracer();
+		if (tracer.currentThread == null) {
 			logger.error("CurrentThread has not been set!");
 			Map<Thread, StackTraceElement[]> map = Thread.getAllStackTraces();
 			for (Thread t : map.keySet()) {
@@ -227,9 +275,9 @@ public class ExecutionTracer {
 				}
 				logger.error(msg);
 			}
-			currentThread = Thread.currentThread();
+			tracer.currentThread = Thread.currentThread();
 		}
-		return Thread.currentThread() != currentThread;
+		return Thread.currentThread() != tracer.currentThread;
 	}
 
 	/**
@@ -238,6 +286,7 @@ public class ExecutionTracer {
 	 * @return a {@link org.evosuite.testcase.execution.ExecutionTrace} object.
 	 */
 	public ExecutionTrace getTrace() {
+		BranchProbe.flush(trace);
 		trace.finishCalls();
 		return trace;
 
@@ -246,6 +295,32 @@ public class ExecutionTracer {
 		// return copy;
 	}
 
+	/**
+	 * Copy of the trace of the current execution so far, which does not change
+	 * with the rest of the execution
+	 * 
+	 * @return a {@link org.evosuite.testcase.execution.ExecutionTrace} object.
+	 */
+	public ExecutionTrace getTraceSnapshot() {
+		BranchProbe.flush(trace);
+		return trace.lazyClone();
+	}
+
+	/**
+	 * Continue the execution trace of an earlier execution of which the
+	 * given number of statements have already been executed
+	 * 
+	 * @param trace
+	 *            a {@link org.evosuite.testcase.execution.ExecutionTrace}
+	 *            object.
+	 * @param statements
+	 *            a int.
+	 */
+	public void resume(ExecutionTrace trace, int statements) {
+		this.trace = trace;
+		num_statements = statements;
+	}
+
 	/**
 	 * Return the last explicitly thrown exception
 	 * 
@@ -479,8 +554,8 @@ public class ExecutionTracer {
 		/* 
 		 * in case of the if instruction which has complex basic type comparison, the real value is stored in comparisonValue
 		 * */
-		if (comparisonValue != null && comparisonValue.fst == branch) {
-			val = comparisonValue.snd;
+		if (tracer.comparisonValue != null && tracer.comparisonValue.fst == branch) {
+			val = tracer.comparisonValue.snd;
 		}
 		ConstantPoolManager.getInstance().addDynamicConstant(val);
 		if(Properties.APPLY_SMART_SEED) {
@@ -488,55 +563,169 @@ public class ExecutionTracer {
 		}
 
 		// logger.trace("Called passedBranch1 with opcode "+AbstractVisitor.OPCODES[opcode]+" and val "+val+" in branch "+branch);
-		double distance_true = 0.0;
-		double distance_false = 0.0;
+		double distance_true = getTrueDistance(opcode, val);
+		double distance_false = getFalseDistance(opcode, val);
+		// logger.trace("1 Branch distance true : " + distance_true);
+		// logger.trace("1 Branch distance false: " + distance_false);
+
+		// Add current branch to control trace
+		tracer.trace.branchPassed(branch, bytecode_id, distance_true, distance_false);
+	}
+
+	/**
+	 * Branch distance to the true outcome of a comparison of a value with zero
+	 * 
+	 * @param opcode
+	 *            one of IFEQ, IFNE, IFLT, IFGT, IFGE, IFLE
+	 * @param val
+	 *            the value compared with zero
+	 * @return a double.
+	 */
+	static double getTrueDistance(int opcode, double val) {
 		switch (opcode) {
 		case Opcodes.IFEQ:
-			distance_true = Math.abs((double) val); // The greater abs is, the
-			// further away from 0
-			distance_false = distance_true == 0 ? 1.0 : 0.0; // Anything but 0
-			// is good
-			break;
+			// The greater abs is, the further away from 0
+			return Math.abs(val);
 		case Opcodes.IFNE:
-			distance_false = Math.abs((double) val); // The greater abs is, the
-			// further away from 0
-			distance_true = distance_false == 0 ? 1.0 : 0.0; // Anything but 0
-			// leads to NE
-			break;
+			// Anything but 0 leads to NE
+			return val == 0 ? 1.0 : 0.0;
 		case Opcodes.IFLT:
-			distance_true = val >= 0 ? val + 1.0 : 0.0; // The greater, the
-			// further away from < 0
-			distance_false = val < 0 ? 0.0 - val + 1.0 : 0.0; // The smaller,
-			// the further
-			// away from < 0
-			break;
+			// The greater, the further away from < 0
+			return val >= 0 ? val + 1.0 : 0.0;
 		case Opcodes.IFGT:
-			distance_true = val <= 0 ? 0.0 - val + 1.0 : 0.0;
-			distance_false = val > 0 ? val + 1.0 : 0.0;
-			break;
+			return val <= 0 ? 0.0 - val + 1.0 : 0.0;
 		case Opcodes.IFGE:
-			distance_true = val < 0 ? 0.0 - val + 1.0 : 0.0;
-			distance_false = val >= 0 ? val + 1.0 : 0.0;
-			break;
+			return val < 0 ? 0.0 - val + 1.0 : 0.0;
 		case Opcodes.IFLE:
-			distance_true = val > 0 ? val + 1.0 : 0.0; // The greater, the
-			// further away from < 0
-			distance_false = val <= 0 ? 0.0 - val + 1.0 : 0.0; // The smaller,
-			// the further
-			// away from < 0
-			break;
+			// The greater, the further away from < 0
+			return val > 0 ? val + 1.0 : 0.0;
 		default:
 			logger.error("Unknown opcode: " + opcode);
+			return 0.0;
+		}
+	}
 
+	/**
+	 * Branch distance to the false outcome of a comparison of a value with
+	 * zero
+	 * 
+	 * @param opcode
+	 *            one of IFEQ, IFNE, IFLT, IFGT, IFGE, IFLE
+	 * @param val
+	 *            the value compared with zero
+	 * @return a double.
+	 */
+	static double getFalseDistance(int opcode, double val) {
+		switch (opcode) {
+		case Opcodes.IFEQ:
+			// Anything but 0 is good
+			return val == 0 ? 1.0 : 0.0;
+		case Opcodes.IFNE:
+			// The greater abs is, the further away from 0
+			return Math.abs(val);
+		case Opcodes.IFLT:
+			// The smaller, the further away from < 0
+			return val < 0 ? 0.0 - val + 1.0 : 0.0;
+		case Opcodes.IFGT:
+			return val > 0 ? val + 1.0 : 0.0;
+		case Opcodes.IFGE:
+			return val >= 0 ? val + 1.0 : 0.0;
+		case Opcodes.IFLE:
+			// The smaller, the further away from < 0
+			return val <= 0 ? 0.0 - val + 1.0 : 0.0;
+		default:
+			return 0.0;
 		}
-		// logger.trace("1 Branch distance true : " + distance_true);
-		// logger.trace("1 Branch distance false: " + distance_false);
+	}
 
-		// Add current branch to control trace
-		tracer.trace.branchPassed(branch, bytecode_id, distance_true, distance_false);
+	/**
+	 * Branch distance to the true outcome of a comparison of two ints
+	 * 
+	 * Problem is that the JVM is a stack machine x < 5 gets compiled to a val2
+	 * > val1, because operators are on the stack in reverse order
+	 * 
+	 * @param opcode
+	 *            one of IF_ICMPEQ, IF_ICMPNE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT,
+	 *            IF_ICMPLE
+	 * @param val1
+	 *            a int.
+	 * @param val2
+	 *            a int.
+	 * @return a double.
+	 */
+	static double getTrueDistance(int opcode, int val1, int val2) {
+		switch (opcode) {
+		case Opcodes.IF_ICMPEQ:
+			// The greater the difference, the further away
+			return Math.abs((double) val1 - (double) val2);
+		case Opcodes.IF_ICMPNE:
+			// Anything but 0 leads to NE
+			return val1 == val2 ? 1.0 : 0.0;
+		case Opcodes.IF_ICMPLT:
+			// val1 >= val2?
+			return val1 >= val2 ? (double) val1 - (double) val2 + 1.0 : 0.0;
+		case Opcodes.IF_ICMPGE:
+			// val1 < val2?
+			return val1 < val2 ? (double) val2 - (double) val1 + 1.0 : 0.0;
+		case Opcodes.IF_ICMPGT:
+			// val1 <= val2?
+			return val1 <= val2 ? (double) val2 - (double) val1 + 1.0 : 0.0;
+		case Opcodes.IF_ICMPLE:
+			// val1 > val2?
+			return val1 > val2 ? (double) val1 - (double) val2 + 1.0 : 0.0;
+		default:
+			logger.error("Unknown opcode: " + opcode);
+			return 0.0;
+		}
+	}
+
+	/**
+	 * Branch distance to the false outcome of a comparison of two ints
+	 * 
+	 * @param opcode
+	 *            one of IF_ICMPEQ, IF_ICMPNE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT,
+	 *            IF_ICMPLE
+	 * @param val1
+	 *            a int.
+	 * @param val2
+	 *            a int.
+	 * @return a double.
+	 */
+	static double getFalseDistance(int opcode, int val1, int val2) {
+		switch (opcode) {
+		case Opcodes.IF_ICMPEQ:
+			// Anything but 0 is good
+			return val1 == val2 ? 1.0 : 0.0;
+		case Opcodes.IF_ICMPNE:
+			// The greater abs is, the further away from 0
+			return Math.abs((double) val1 - (double) val2);
+		case Opcodes.IF_ICMPLT:
+			return val1 < val2 ? (double) val2 - (double) val1 + 1.0 : 0.0;
+		case Opcodes.IF_ICMPGE:
+			return val1 >= val2 ? (double) val1 - (double) val2 + 1.0 : 0.0;
+		case Opcodes.IF_ICMPGT:
+			return val1 > val2 ? (double) val1 - (double) val2 + 1.0 : 0.0;
+		case Opcodes.IF_ICMPLE:
+			return val1 <= val2 ? (double) val2 - (double) val1 + 1.0 : 0.0;
+		default:
+			return 0.0;
+		}
 	}
 
 	public static void passedComplexNumberComparison(double value1, double value2, int branchId) {
+		getExecutionTracer().comparisonValue = Pair.of(branchId, getComparisonVariation(value1, value2));
+	}
+
+	/**
+	 * The difference of two values, bounded to the range of double
+	 * 
+	 * @param value1
+	 *            a double.
+	 * @param value2
+	 *            a double.
+	 * @return a double.
+	 */
+	static double getComparisonVariation(double value1, double value2) {
 		double cmpVariation = 0.0;
 		/* cmpVariation = value1 - value2 */
 		if (value2 < 0) {
@@ -555,15 +744,57 @@ public class ExecutionTracer {
 				cmpVariation = value1 - value2;
 			}
 		}
-		comparisonValue = Pair.of(branchId, cmpVariation);
+		return cmpVariation;
+	}
+
+	/**
+	 * The value a DCMPG or FCMPG instruction would leave for the branch, as
+	 * a variation rather than just the sign
+	 * 
+	 * @param value1
+	 *            a double.
+	 * @param value2
+	 *            a double.
+	 * @return a double.
+	 */
+	static double getCmpGValue(double value1, double value2) {
+		if (value1 == value2) {
+			return 0.0;
+		} else if (Double.isNaN(value1) || Double.isNaN(value2)) {
+			// Bytecode spec: If either number is NaN, the integer 1 is pushed onto the stack
+			return 1.0;
+		} else {
+			return getComparisonVariation(value1, value2);
+		}
+	}
+
+	/**
+	 * The value a DCMPL or FCMPL instruction would leave for the branch, as
+	 * a variation rather than just the sign
+	 * 
+	 * @param value1
+	 *            a double.
+	 * @param value2
+	 *            a double.
+	 * @return a double.
+	 */
+	static double getCmpLValue(double value1, double value2) {
+		if (value1 == value2) {
+			return 0.0;
+		} else if (Double.isNaN(value1) || Double.isNaN(value2)) {
+			// Bytecode spec: If either number is NaN, the integer -1 is pushed onto the stack
+			return -1.0;
+		} else {
+			return getComparisonVariation(value1, value2);
+		}
 	}
 	
 	public static void onDcmpG(double value1, double value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 0.0);
 		} else if(Double.isNaN(value1) || Double.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer 1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, 1.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -571,10 +802,10 @@ public class ExecutionTracer {
 	
 	public static void onDcmpL(double value1, double value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 0.0);
 		} else if(Double.isNaN(value1) || Double.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer -1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, -1.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, -1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -586,10 +817,10 @@ public class ExecutionTracer {
 
 	public static void onFcmpG(float value1, float value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 0.0);
 		} else if(Float.isNaN(value1) || Float.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer 1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, 1.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -597,10 +828,10 @@ public class ExecutionTracer {
 	
 	public static void onFcmpL(float value1, float value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 0.0);
 		} else if(Float.isNaN(value1) || Float.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer -1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, -1.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, -1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -698,47 +929,8 @@ public class ExecutionTracer {
 		/* logger.trace("Called passedBranch2 with opcode "
 		        + AbstractVisitor.OPCODES[opcode] + ", val1=" + val1 + ", val2=" + val2
 		        + " in branch " + branch); */
-		double distance_true = 0;
-		double distance_false = 0;
-		switch (opcode) {
-		// Problem is that the JVM is a stack machine
-		// x < 5 gets compiled to a val2 > val1,
-		// because operators are on the stack in reverse order
-		case Opcodes.IF_ICMPEQ:
-			// The greater the difference, the further away
-			distance_true = Math.abs((double) val1 - (double) val2);
-			// Anything but 0 is good
-			distance_false = distance_true == 0 ? 1.0 : 0.0;
-			break;
-		case Opcodes.IF_ICMPNE:
-			// The greater abs is, the further away from 0
-			distance_false = Math.abs((double) val1 - (double) val2);
-			// Anything but 0 leads to NE
-			distance_true = distance_false == 0 ? 1.0 : 0.0;
-			break;
-		case Opcodes.IF_ICMPLT:
-			// val1 >= val2?
-			distance_true = val1 >= val2 ? (double) val1 - (double) val2 + 1.0 : 0.0;
-			distance_false = val1 < val2 ? (double) val2 - (double) val1 + 1.0 : 0.0;
-			break;
-		case Opcodes.IF_ICMPGE:
-			// val1 < val2?
-			distance_true = val1 < val2 ? (double) val2 - (double) val1 + 1.0 : 0.0;
-			distance_false = val1 >= val2 ? (double) val1 - (double) val2 + 1.0 : 0.0;
-			break;
-		case Opcodes.IF_ICMPGT:
-			// val1 <= val2?
-			distance_true = val1 <= val2 ? (double) val2 - (double) val1 + 1.0 : 0.0;
-			distance_false = val1 > val2 ? (double) val1 - (double) val2 + 1.0 : 0.0;
-			break;
-		case Opcodes.IF_ICMPLE:
-			// val1 > val2?
-			distance_true = val1 > val2 ? (double) val1 - (double) val2 + 1.0 : 0.0;
-			distance_false = val1 <= val2 ? (double) val2 - (double) val1 + 1.0 : 0.0;
-			break;
-		default:
-			logger.error("Unknown opcode: " + opcode);
-		}
+		double distance_true = getTrueDistance(opcode, val1, val2);
+		double distance_false = getFalseDistance(opcode, val1, val2);
 		// logger.trace("2 Branch distance true: " + distance_true);
 		// logger.trace("2 Branch distance false: " + distance_false);
 
@@ -0,0 +1,367 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
+import org.evosuite.runtime.Runtime;
+import org.evosuite.seeding.ConstantPoolManager;
+import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Opt-in mode that executes the changed tests of a population on several
+ * worker threads, and stores the results in the test chromosomes, where the
+ * fitness functions find them afterwards. The default execution path is the
+ * sequential {@link TestCaseExecutor}; the workers are only used if
+ * {@link Properties#UNMOCKED_EXECUTION_WORKERS} is set and the run does not
+ * use the mocked environment.
+ * </p>
+ *
+ * <p>
+ * Each worker has its own {@link ExecutionTracer} and its own replica of the
+ * instrumenting class loader of the SUT, so concurrently executed tests do not
+ * share the static state of the SUT. The tests are assigned to the workers by
+ * their position, and what all executions share (dynamic constant pool,
+ * stopping conditions, test cluster) is updated afterwards in the order of
+ * the tests, so that the search remains deterministic for a fixed seed. The
+ * classes of the runtime are not replicated, so the mocked environment, the
+ * static field resets and the loop counter would be shared by all workers.
+ * Hence the workers are only used if these are switched off, see
+ * {@link #isEnabled()}.
+ * </p>
+ */
+public class ParallelTestCaseExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelTestCaseExecutor.class);
+
+	/**
+	 * Name used to define the worker threads
+	 */
+	public static final String WORKER_THREAD = "TEST_EXECUTION_WORKER";
+
+	private static ParallelTestCaseExecutor instance = null;
+
+	/** Whether it was reported that the workers cannot be used in this run */
+	private static boolean warnedDisabled = false;
+
+	private final List<Worker> workers = new ArrayList<>();
+
+	/** The class loader the workers have replicas of */
+	private InstrumentingClassLoader sourceClassLoader = null;
+
+	/** The results of the last batch of tests executed on the workers */
+	private final Set<ExecutionResult> produced = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/**
+	 * A worker thread, which executes tests with its own executor, tracer and
+	 * class loader
+	 */
+	private static class Worker implements ThreadFactory {
+
+		private final int index;
+
+		private final InstrumentingClassLoader classLoader;
+
+		private final ExecutorService thread;
+
+		/** Dynamic constants of the current execution */
+		private final List<Object> constants = Collections.synchronizedList(new ArrayList<>());
+
+		/** Only accessed by the worker thread */
+		private TestCaseExecutor executor = null;
+
+		public Worker(int index, InstrumentingClassLoader source) {
+			this.index = index;
+			this.classLoader = new InstrumentingClassLoader(source);
+			this.thread = Executors.newSingleThreadExecutor(this);
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			// Own thread group, so that the ThreadStopper only sees the
+			// threads started by the tests of this worker
+			ThreadGroup group = new ThreadGroup(WORKER_THREAD + "_Group_" + index);
+			Thread worker = new Thread(group, r, WORKER_THREAD + "_" + index);
+			worker.setDaemon(true);
+			return worker;
+		}
+
+		private Execution execute(DefaultTestCase test) {
+			if (executor == null) {
+				ExecutionTracer.bindWorkerTracer();
+				ConstantPoolManager.bufferDynamicConstants(constants);
+				executor = new TestCaseExecutor(classLoader);
+			}
+			constants.clear();
+			test.changeClassLoader(classLoader);
+			ExecutionResult result = executor.execute(test);
+			return new Execution(result, new ArrayList<>(constants));
+		}
+
+		public Future<Execution> submit(DefaultTestCase test) {
+			return thread.submit(() -> execute(test));
+		}
+
+		public void shutdown() {
+			thread.submit(() -> {
+				if (executor != null)
+					executor.shutdown();
+			});
+			thread.shutdown();
+		}
+	}
+
+	/**
+	 * The result of an execution on a worker, together with the dynamic
+	 * constants it produced
+	 */
+	private static class Execution {
+
+		private final ExecutionResult result;
+
+		private final List<Object> constants;
+
+		public Execution(ExecutionResult result, List<Object> constants) {
+			this.result = result;
+			this.constants = constants;
+		}
+	}
+
+	private ParallelTestCaseExecutor() {
+	}
+
+	/**
+	 * <p>
+	 * Getter for the field <code>instance</code>.
+	 * </p>
+	 *
+	 * @return a
+	 *         {@link org.evosuite.testcase.execution.ParallelTestCaseExecutor}
+	 *         object.
+	 */
+	public static synchronized ParallelTestCaseExecutor getInstance() {
+		if (instance == null)
+			instance = new ParallelTestCaseExecutor();
+
+		return instance;
+	}
+
+	/**
+	 * The workers are used if more than one was requested, and nothing that
+	 * is shared by all test executions changes during an execution. This is
+	 * never the case with the default configuration.
+	 *
+	 * @return a boolean.
+	 */
+	public static boolean isEnabled() {
+		if (Properties.UNMOCKED_EXECUTION_WORKERS <= 1)
+			return false;
+		boolean enabled = !Properties.REPLACE_CALLS && !Properties.VIRTUAL_FS && !Properties.VIRTUAL_NET
+				&& !Properties.JEE && !Properties.SANDBOX && !Properties.RESET_STATIC_FIELDS
+				&& !Properties.REPLACE_SYSTEM_IN && !Properties.REPLACE_GUI && !Properties.APPLY_SMART_SEED
+				&& Properties.MAX_LOOP_ITERATIONS < 0
+				&& TestCaseExecutor.getInstance().getExecutionObservers().isEmpty();
+		if (!enabled && !warnedDisabled) {
+			warnedDisabled = true;
+			LoggingUtils.getEvoLogger().warn("* Ignoring unmocked_execution_workers, as the mocked environment, static field resets, loop limits or execution observers are used");
+		}
+		return enabled;
+	}
+
+	/**
+	 * Whether the given result was produced by the workers in the last batch,
+	 * so that it can be used instead of executing the test again
+	 *
+	 * @param result
+	 * @return a boolean.
+	 */
+	public static boolean isParallelResult(ExecutionResult result) {
+		if (instance == null || !isEnabled())
+			return false;
+		synchronized (instance) {
+			return instance.produced.contains(result);
+		}
+	}
+
+	/**
+	 * <p>
+	 * pullDown
+	 * </p>
+	 */
+	public static synchronized void pullDown() {
+		if (instance != null) {
+			instance.shutdownWorkers();
+		}
+	}
+
+	private void shutdownWorkers() {
+		for (Worker worker : workers) {
+			worker.shutdown();
+		}
+		workers.clear();
+		sourceClassLoader = null;
+	}
+
+	private void initWorkers() {
+		InstrumentingClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		if (classLoader == sourceClassLoader && workers.size() == Properties.UNMOCKED_EXECUTION_WORKERS)
+			return;
+
+		shutdownWorkers();
+		logger.info("Starting {} test execution workers", Properties.UNMOCKED_EXECUTION_WORKERS);
+		sourceClassLoader = classLoader;
+		for (int i = 0; i < Properties.UNMOCKED_EXECUTION_WORKERS; i++) {
+			workers.add(new Worker(i, classLoader));
+		}
+	}
+
+	/**
+	 * Execute the tests of the given individuals, or of the test suites among
+	 * them, that were changed since their last execution
+	 *
+	 * @param individuals
+	 *            a {@link java.util.Collection} object.
+	 * @param traceCalls
+	 *            whether method calls are traced during the execution, as
+	 *            they would be by the fitness functions
+	 * @return the individuals whose tests were executed
+	 */
+	public <T extends Chromosome> Set<T> executeChanged(Collection<T> individuals, boolean traceCalls) {
+		Set<T> executed = Collections.newSetFromMap(new IdentityHashMap<>());
+		Set<TestChromosome> tests = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<TestChromosome> changed = new ArrayList<>();
+		for (T individual : individuals) {
+			List<TestChromosome> candidates = new ArrayList<>();
+			if (individual instanceof TestChromosome) {
+				candidates.add((TestChromosome) individual);
+			} else if (individual instanceof AbstractTestSuiteChromosome) {
+				for (Object test : ((AbstractTestSuiteChromosome<?>) individual).getTestChromosomes()) {
+					if (test instanceof TestChromosome)
+						candidates.add((TestChromosome) test);
+				}
+			}
+			for (TestChromosome test : candidates) {
+				if ((test.isChanged() || test.getLastExecutionResult() == null)
+						&& test.readTestCase() instanceof DefaultTestCase && tests.add(test)) {
+					changed.add(test);
+					executed.add(individual);
+				}
+			}
+		}
+
+		if (changed.size() > 1)
+			execute(changed, traceCalls);
+		else
+			executed.clear();
+		return executed;
+	}
+
+	/**
+	 * Execute the given tests on the workers, and store the results in the
+	 * test chromosomes
+	 *
+	 * @param tests
+	 *            a {@link java.util.List} object.
+	 * @param traceCalls
+	 *            whether method calls are traced during the execution
+	 */
+	public synchronized void execute(List<TestChromosome> tests, boolean traceCalls) {
+		initWorkers();
+
+		boolean wasTracingCalls = ExecutionTraceImpl.isTraceCallsEnabled();
+		if (traceCalls && !wasTracingCalls)
+			ExecutionTraceImpl.enableTraceCalls();
+
+		// The workers leave the output to us, as muting is not thread safe
+		if (!Properties.PRINT_TO_SYSTEM)
+			LoggingUtils.muteCurrentOutAndErrStream();
+
+		Runtime.getInstance().resetRuntime();
+		produced.clear();
+		List<Future<Execution>> futures = new ArrayList<>(tests.size());
+		try {
+			for (int i = 0; i < tests.size(); i++) {
+				DefaultTestCase copy = (DefaultTestCase) tests.get(i).readTestCase().clone();
+				copy.setExecutionSnapshot(null);
+				futures.add(workers.get(i % workers.size()).submit(copy));
+			}
+
+			for (int i = 0; i < tests.size(); i++) {
+				Execution execution = futures.get(i).get();
+				update(tests.get(i), execution);
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			logger.error("TG: Exception caught: ", e);
+			throw new Error(e);
+		} finally {
+			if (!Properties.PRINT_TO_SYSTEM)
+				LoggingUtils.restorePreviousOutAndErrStream();
+			if (traceCalls && !wasTracingCalls)
+				ExecutionTraceImpl.disableTraceCalls();
+		}
+	}
+
+	/**
+	 * Do what the TestCaseExecutor of the client does after an execution
+	 *
+	 * @param test
+	 * @param execution
+	 */
+	private void update(TestChromosome test, Execution execution) {
+		ExecutionResult result = execution.result;
+		result.setTest(test.readTestCase());
+
+		for (Object constant : execution.constants) {
+			ConstantPoolManager.getInstance().addDynamicConstant(constant);
+		}
+		MaxTestsStoppingCondition.testExecuted();
+		MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
+		TestCaseExecutor.timeExecuted += result.getExecutionTime();
+		TestCaseExecutor.testsExecuted++;
+		TestCluster.getInstance().handleRuntimeAccesses(test.readTestCase());
+
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
+		produced.add(result);
+	}
+}
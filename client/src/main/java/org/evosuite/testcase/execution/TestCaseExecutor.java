@@ -43,6 +43,7 @@ import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.runtime.util.JOptionPaneInputs;
 import org.evosuite.runtime.util.SystemInUtil;
 import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.slf4j.Logger;
@@ -86,6 +87,12 @@ public class TestCaseExecutor implements ThreadFactory {
 
 	private ThreadGroup threadGroup = null;
 
+	/**
+	 * Class loader of a worker of the {@link ParallelTestCaseExecutor}, or
+	 * null for the executor of the client
+	 */
+	private final ClassLoader workerClassLoader;
+
 	// private static ExecutorService executor =
 	// Executors.newCachedThreadPool();
 
@@ -124,7 +131,8 @@ public class TestCaseExecutor implements ThreadFactory {
 	}
 
 	/**
-	 * Execute a test case
+	 * Execute a test case, unless the result of an identical test is in the
+	 * {@link ExecutionResultCache}
 	 * 
 	 * @param test
 	 *            The test case to execute
@@ -135,12 +143,32 @@ public class TestCaseExecutor implements ThreadFactory {
 		ExecutionResult result = new ExecutionResult(test, null);
 
 		try {
+			ExecutionResultCache cache = null;
+			String key = null;
+			if (ExecutionResultCache.isEnabled()) {
+				cache = ExecutionResultCache.getInstance();
+				key = cache.getKey(test);
+				if (key != null) {
+					ExecutionResult cached = cache.get(key, test);
+					if (cached != null) {
+						logger.debug("Execution result is cached");
+						// the budget counts tests, not executions
+						MaxTestsStoppingCondition.testExecuted();
+						MaxStatementsStoppingCondition.statementsExecuted(cached.getExecutedStatements());
+						return cached;
+					}
+				}
+			}
+
 			TestCaseExecutor executor = getInstance();
 			logger.debug("Executing test");
 			result = executor.execute(test);
 
 			MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
 
+			if (key != null)
+				cache.put(key, result);
+
 		} catch (Exception e) {
 			logger.error("TG: Exception caught: ", e);
 			throw new Error(e);
@@ -150,6 +178,19 @@ public class TestCaseExecutor implements ThreadFactory {
 	}
 
 	private TestCaseExecutor() {
+		this(null);
+	}
+
+	/**
+	 * Executor of a worker of the {@link ParallelTestCaseExecutor}. It does
+	 * not touch the state shared by all executions (stopping conditions, test
+	 * cluster, runtime reset), which the caller has to take care of.
+	 * 
+	 * @param workerClassLoader
+	 *            the class loader of the classes the executed tests use
+	 */
+	TestCaseExecutor(ClassLoader workerClassLoader) {
+		this.workerClassLoader = workerClassLoader;
 		executor = Executors.newSingleThreadExecutor(this);
 		newObservers();
 	}
@@ -174,10 +215,15 @@ public class TestCaseExecutor implements ThreadFactory {
 	 */
 	public static void pullDown() {
 		if (instance != null) {
-			if (instance.executor != null) {
-				instance.executor.shutdownNow();
-				instance.executor = null;
-			}
+			instance.shutdown();
+		}
+		ParallelTestCaseExecutor.pullDown();
+	}
+
+	void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
 		}
 	}
 
@@ -274,7 +320,12 @@ public class TestCaseExecutor implements ThreadFactory {
 	 */
 	public ExecutionResult execute(TestCase tc, int timeout) {
 		Scope scope = new Scope();
-		ExecutionResult result = execute(tc, scope, timeout);
+		ExecutionResult result;
+		if (Properties.TEST_PREFIX_SNAPSHOTS && observers.isEmpty() && tc instanceof DefaultTestCase) {
+			result = executeFromSnapshot((DefaultTestCase) tc, scope, timeout);
+		} else {
+			result = execute(tc, scope, timeout, null);
+		}
 
 		if (Properties.RESET_STATIC_FIELDS) {
 			logger.debug("Resetting classes after execution");
@@ -283,6 +334,39 @@ public class TestCaseExecutor implements ThreadFactory {
 		return result;
 	}
 
+	/**
+	 * Execute a test case, resuming from the snapshot of its last execution
+	 * if the statements before the first changed one are the same, and keep
+	 * a new snapshot
+	 * 
+	 * @param tc
+	 *            a {@link org.evosuite.testcase.DefaultTestCase} object.
+	 * @param scope
+	 *            a {@link org.evosuite.testcase.execution.Scope} object.
+	 * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
+	 */
+	private ExecutionResult executeFromSnapshot(DefaultTestCase tc, Scope scope, int timeout) {
+		ExecutionSnapshot snapshot = tc.getExecutionSnapshot();
+		tc.setExecutionSnapshot(null);
+
+		int position = snapshot == null ? 0 : snapshot.getResumePosition(tc);
+		TestRunnable callable = new TestRunnable(tc, scope, observers);
+		callable.setSnapshotPosition(Math.max(position, ExecutionSnapshot.getSuffixStart(tc)));
+		if (position > 0) {
+			logger.debug("Resuming execution at statement {}", position);
+			callable.setStartPosition(position, snapshot.restore(tc, scope, position),
+					snapshot.getIdentityHashCodes(position));
+		}
+
+		ExecutionResult result = execute(tc, scope, timeout, callable);
+		if (position > 0 && result.getReadProperties() != null) {
+			result.getReadProperties().addAll(snapshot.getReadProperties());
+		}
+		tc.setExecutionSnapshot(ExecutionSnapshot.create(tc, scope, result, callable.getSnapshotPosition(),
+				callable.getSnapshotTraces(), callable.getSnapshotIdentityHashCodes()));
+		return result;
+	}
+
 	/**
 	 * Execute a test case on an existing scope
 	 * 
@@ -290,24 +374,31 @@ public class TestCaseExecutor implements ThreadFactory {
 	 *            a {@link org.evosuite.testcase.TestCase} object.
 	 * @param scope
 	 *            a {@link org.evosuite.testcase.execution.Scope} object.
+	 * @param callable
+	 *            the runnable to execute the test with, or null
 	 * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
 	 */
 	@SuppressWarnings("deprecation")
-	private ExecutionResult execute(TestCase tc, Scope scope, int timeout) {
+	private ExecutionResult execute(TestCase tc, Scope scope, int timeout, TestRunnable callable) {
 		ExecutionTracer.getExecutionTracer().clear();
 
 		// TODO: Re-insert!
 		resetObservers();
-		ExecutionObserver.setCurrentTest(tc);
-		MaxTestsStoppingCondition.testExecuted();
-		Runtime.getInstance().resetRuntime();
+		if (workerClassLoader == null) {
+			ExecutionObserver.setCurrentTest(tc);
+			MaxTestsStoppingCondition.testExecuted();
+			Runtime.getInstance().resetRuntime();
+		}
 
 		long startTime = System.currentTimeMillis();
 
 		TimeoutHandler<ExecutionResult> handler = new TimeoutHandler<ExecutionResult>();
 
 		// #TODO steenbuck could be nicer (TestRunnable should be an interface
-		TestRunnable callable = new TestRunnable(tc, scope, observers);
+		if (callable == null)
+			callable = new TestRunnable(tc, scope, observers);
+		if (workerClassLoader != null)
+			callable.setMuteOutput(false);
 		callable.storeCurrentThreads();
 
 		/*
@@ -325,8 +416,10 @@ public class TestCaseExecutor implements ThreadFactory {
 			ExecutionResult result = null;
 
 			// important to call it before setting up the sandbox
-			SystemInUtil.getInstance().initForTestCase();
-			JOptionPaneInputs.getInstance().initForTestCase();
+			if (workerClassLoader == null) {
+				SystemInUtil.getInstance().initForTestCase();
+				JOptionPaneInputs.getInstance().initForTestCase();
+			}
 
 			Sandbox.goingToExecuteSUTCode();
 			TestGenerationContext.getInstance().goingToExecuteSUTCode();
@@ -350,9 +443,11 @@ public class TestCaseExecutor implements ThreadFactory {
 			 * we waited for all SUT threads to finish
 			 */
 
-			long endTime = System.currentTimeMillis();
-			timeExecuted += endTime - startTime;
-			testsExecuted++;
+			if (workerClassLoader == null) {
+				long endTime = System.currentTimeMillis();
+				timeExecuted += endTime - startTime;
+				testsExecuted++;
+			}
 			return result;
 		} catch (ThreadDeath t) {
 			logger.warn("Caught ThreadDeath during test execution");
@@ -502,7 +597,8 @@ public class TestCaseExecutor implements ThreadFactory {
 		} finally {
 			if (threadGroup != null)
 				PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
-			TestCluster.getInstance().handleRuntimeAccesses(tc);
+			if (workerClassLoader == null)
+				TestCluster.getInstance().handleRuntimeAccesses(tc);
 		}
 	}
 
@@ -560,7 +656,10 @@ public class TestCaseExecutor implements ThreadFactory {
 		currentThread = new Thread(threadGroup, r);
 		currentThread.setName(TEST_EXECUTION_THREAD + "_" + threadCounter);
 		threadCounter++;
-		currentThread.setContextClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
+		if (workerClassLoader != null)
+			currentThread.setContextClassLoader(workerClassLoader);
+		else
+			currentThread.setContextClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
 		ExecutionTracer.setThread(currentThread);
 		return currentThread;
 	}
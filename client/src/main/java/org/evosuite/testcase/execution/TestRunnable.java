@@ -22,9 +22,11 @@ package org.evosuite.testcase.execution;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeoutException;
@@ -73,6 +75,26 @@ public class TestRunnable implements InterfaceTestRunnable {
 	protected Set<ExecutionObserver> observers;
 
 	protected final ThreadStopper threadStopper;
+
+	/** Position of the first statement to execute */
+	private int startPosition = 0;
+
+	/** Execution trace of the statements before the start position */
+	private ExecutionTrace startTrace = null;
+
+	/** Identity hash codes of the mocked runtime at the start position */
+	private Map<Integer, Integer> startIdentityHashCodes = null;
+
+	/** Position from which on the traces at statement boundaries are kept */
+	private int snapshotPosition = -1;
+
+	private final List<ExecutionTrace> snapshotTraces = new ArrayList<>();
+
+	/** Number of identity hash codes at the statement boundaries of the traces */
+	private final List<Integer> snapshotIdentityHashCodes = new ArrayList<>();
+
+	/** Whether System.out and System.err are muted during the execution */
+	private boolean muteOutput = !Properties.PRINT_TO_SYSTEM;
 	
 	/**
 	 * <p>
@@ -121,6 +143,71 @@ public class TestRunnable implements InterfaceTestRunnable {
 		threadStopper.storeCurrentThreads();
 	}
 
+	/**
+	 * Skip the statements before the given position, whose values have
+	 * already been put into the scope
+	 * 
+	 * @param position
+	 *            a int.
+	 * @param trace
+	 *            the execution trace of the skipped statements
+	 * @param identityHashCodes
+	 *            the identity hash codes the mocked runtime had given after
+	 *            the skipped statements, as the runtime is reset before the
+	 *            execution
+	 */
+	public void setStartPosition(int position, ExecutionTrace trace, Map<Integer, Integer> identityHashCodes) {
+		startPosition = position;
+		startTrace = trace;
+		startIdentityHashCodes = identityHashCodes;
+	}
+
+	/**
+	 * Whether System.out and System.err are muted during the execution, by
+	 * default unless {@link Properties#PRINT_TO_SYSTEM} is set
+	 * 
+	 * @param muteOutput
+	 *            a boolean.
+	 */
+	public void setMuteOutput(boolean muteOutput) {
+		this.muteOutput = muteOutput;
+	}
+
+	/**
+	 * Keep a copy of the execution trace at each statement boundary from the
+	 * given position on
+	 * 
+	 * @param position
+	 *            a int.
+	 */
+	public void setSnapshotPosition(int position) {
+		snapshotPosition = position;
+	}
+
+	public int getSnapshotPosition() {
+		return snapshotPosition;
+	}
+
+	/**
+	 * The execution traces at the statement boundaries from the snapshot
+	 * position on
+	 * 
+	 * @return a {@link java.util.List} object.
+	 */
+	public List<ExecutionTrace> getSnapshotTraces() {
+		return snapshotTraces;
+	}
+
+	/**
+	 * The number of identity hash codes the mocked runtime had given at the
+	 * boundaries of the snapshot traces
+	 * 
+	 * @return a {@link java.util.List} object.
+	 */
+	public List<Integer> getSnapshotIdentityHashCodes() {
+		return snapshotIdentityHashCodes;
+	}
+
 	/**
 	 * Try to kill (and then join) the SUT threads. Killing the SUT threads is
 	 * important, because some spawn threads could just wait on objects/locks,
@@ -188,12 +275,18 @@ public class TestRunnable implements InterfaceTestRunnable {
 		ExecutionResult result = new ExecutionResult(test, null);
 		// TODO: Moved this to TestCaseExecutor so it is not part of the test execution timeout
 		//		Runtime.getInstance().resetRuntime();
+		if (startTrace != null) {
+			ExecutionTracer.getExecutionTracer().resume(startTrace, startPosition);
+		}
+		if (startIdentityHashCodes != null) {
+			org.evosuite.runtime.System.restoreIdentityHashCodes(startIdentityHashCodes);
+		}
 		ExecutionTracer.enable();
 
 		PrintStream out = (Properties.PRINT_TO_SYSTEM ? System.out : new PrintStream(byteStream));
 		byteStream.reset();
 
-		if (!Properties.PRINT_TO_SYSTEM) {
+		if (muteOutput) {
 			LoggingUtils.muteCurrentOutAndErrStream();
 		}
 
@@ -203,7 +296,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 		 *  need AtomicInteger as we want to get latest updated value even if exception is thrown in the 'try' block.
 		 *  we practically use it as wrapper for int, which we can then pass by reference
 		 */
-		AtomicInteger num = new AtomicInteger(0);
+		AtomicInteger num = new AtomicInteger(startPosition);
 
 		try {
 			if(Properties.REPLACE_CALLS){
@@ -244,7 +337,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 			logger.error("Suppressed/ignored exception during test case execution on class "
 			                     + Properties.TARGET_CLASS + ": " + e.getMessage(), e);
 		} finally {
-			if (!Properties.PRINT_TO_SYSTEM) {
+			if (muteOutput) {
 				LoggingUtils.restorePreviousOutAndErrStream();
 			}
 			if(Properties.REPLACE_CALLS){
@@ -287,7 +380,9 @@ public class TestRunnable implements InterfaceTestRunnable {
 			InvocationTargetException, IllegalAccessException,
 			InstantiationException, VMError, EvosuiteError {
 		
-		for (Statement s : test) {
+		for (int position = startPosition; position < test.size(); position++) {
+			Statement s = test.getStatement(position);
+			recordSnapshotTrace(position);
 
 			if (Thread.currentThread().isInterrupted() || Thread.interrupted()) {
 				logger.info("Thread interrupted at statement " + num + ": " + s.getCode());
@@ -363,10 +458,19 @@ public class TestRunnable implements InterfaceTestRunnable {
 
 			num.incrementAndGet();
 		} // end of loop
+		if (num.get() == test.size())
+			recordSnapshotTrace(test.size());
 		informObservers_finished(result);
 		//TODO
 	}
 
+	private void recordSnapshotTrace(int position) {
+		if (snapshotPosition >= 0 && position >= snapshotPosition) {
+			snapshotTraces.add(ExecutionTracer.getExecutionTracer().getTraceSnapshot());
+			snapshotIdentityHashCodes.add(org.evosuite.runtime.System.getNumberOfIdentityHashCodes());
+		}
+	}
+
 	private void printDebugInfo(Statement s, Throwable exceptionThrown) {
 		// some debugging info
 		// --------------------------------------------------------
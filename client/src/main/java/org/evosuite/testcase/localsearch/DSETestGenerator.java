@@ -315,6 +315,11 @@ public class DSETestGenerator {
 		query.addAll(targetBranch.getSupportingConstraints());
 		query.add(negation);
 
+		// The solver cache slices the query if enabled
+		if (Properties.DSE_CONSTRAINT_SLICING) {
+			return query;
+		}
+
 		// Compute cone of influence reduction
 		List<Constraint<?>> simplified_query = reduce(query);
 
@@ -253,7 +253,7 @@ public class TestSuiteChromosome extends AbstractTestSuiteChromosome<TestChromos
 	public Set<TestFitnessFunction> getCoveredGoals() {
 		Set<TestFitnessFunction> goals = new LinkedHashSet<TestFitnessFunction>();
 		for (TestChromosome test : tests) {
-			final Set<TestFitnessFunction> goalsForTest = test.getTestCase().getCoveredGoals();
+			final Set<TestFitnessFunction> goalsForTest = test.readTestCase().getCoveredGoals();
 			goals.addAll(goalsForTest);
 		}
 		return goals;
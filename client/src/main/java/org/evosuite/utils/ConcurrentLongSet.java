@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>
+ * Set of long values which can be added to concurrently without locks, and
+ * which keeps its values in the order in which they were added, so that a
+ * value can be selected by its index in constant time.
+ * </p>
+ *
+ * <p>
+ * The values are kept in an array, and an open addressing hash table with
+ * linear probing maps the values to their index. A thread adding a value
+ * claims an entry of the hash table with a CAS, and only then takes the
+ * next index of the array, so concurrent additions of the same value find
+ * the claimed entry and wait for the value to be written. If a table is
+ * half full, one thread copies the values into a table of twice the size,
+ * and threads that added a value to the old table meanwhile add it again to
+ * the new one.
+ * </p>
+ */
+public class ConcurrentLongSet {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** Marks an entry of the hash table that is claimed but not written yet */
+	private static final int CLAIMED = -1;
+
+	private static final class Table {
+
+		/** Index + 1 of the value of an entry, 0 if empty, or CLAIMED */
+		private final AtomicIntegerArray entries;
+
+		private final long[] values;
+
+		/** Whether the value at an index has been written */
+		private final AtomicIntegerArray written;
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		private Table(int capacity) {
+			entries = new AtomicIntegerArray(capacity);
+			values = new long[capacity];
+			written = new AtomicIntegerArray(capacity);
+		}
+
+		private int capacity() {
+			return values.length;
+		}
+
+		/**
+		 * @return 1 if the value was added, 0 if it was contained, and -1 if
+		 *         the table is too full to add it
+		 */
+		private int add(long value) {
+			int mask = capacity() - 1;
+			int i = hash(value) & mask;
+			while (true) {
+				int entry = entries.get(i);
+				if (entry == 0) {
+					if (size.get() >= capacity() / 2)
+						return -1;
+					if (!entries.compareAndSet(i, 0, CLAIMED))
+						continue;
+
+					int index = size.getAndIncrement();
+					values[index] = value;
+					written.set(index, 1);
+					entries.set(i, index + 1);
+					return 1;
+				}
+				if (entry == CLAIMED) {
+					Thread.yield();
+					continue;
+				}
+				if (values[entry - 1] == value)
+					return 0;
+				i = (i + 1) & mask;
+			}
+		}
+
+		private long get(int index) {
+			while (written.get(index) == 0)
+				Thread.yield();
+			return values[index];
+		}
+	}
+
+	private volatile Table table = new Table(INITIAL_CAPACITY);
+
+	private static int hash(long value) {
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Adds the value unless it is contained already
+	 *
+	 * @param value
+	 * @return true if the value was added
+	 */
+	public boolean add(long value) {
+		boolean added = false;
+		while (true) {
+			Table current = table;
+			int result = current.add(value);
+			if (result < 0) {
+				resize(current);
+				continue;
+			}
+			added |= result > 0;
+			// The table may have been copied before the value was written
+			if (current == table)
+				return added;
+		}
+	}
+
+	public boolean contains(long value) {
+		Table current = table;
+		int mask = current.capacity() - 1;
+		for (int i = hash(value) & mask;; i = (i + 1) & mask) {
+			int entry = current.entries.get(i);
+			if (entry == 0)
+				return false;
+			if (entry != CLAIMED && current.values[entry - 1] == value)
+				return true;
+		}
+	}
+
+	private synchronized void resize(Table full) {
+		if (table != full)
+			return;
+
+		Table larger = new Table(2 * full.capacity());
+		int copied = full.size.get();
+		for (int i = 0; i < copied; i++) {
+			larger.add(full.get(i));
+		}
+		table = larger;
+
+		// Values that were added after the size was read, but whose threads
+		// might not have seen the new table
+		int size = full.size.get();
+		for (int i = copied; i < size; i++) {
+			add(full.get(i));
+		}
+	}
+
+	public int size() {
+		return table.size.get();
+	}
+
+	/**
+	 * Returns the value at the given index, in the order of addition
+	 *
+	 * @param index
+	 *            an index smaller than {@link #size()}
+	 * @return
+	 */
+	public long get(int index) {
+		return table.get(index);
+	}
+
+	/**
+	 * Returns a value chosen uniformly at random
+	 *
+	 * @return
+	 */
+	public long getRandom() {
+		Table current = table;
+		return current.get(Randomness.nextInt(current.size.get()));
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all values. Values that are added concurrently may be kept.
+	 */
+	public void clear() {
+		table = new Table(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Approximate number of bytes of the arrays of the set
+	 *
+	 * @return
+	 */
+	public long getMemoryUsage() {
+		// Each entry has an index, a value and a flag
+		return 16L * table.capacity();
+	}
+}
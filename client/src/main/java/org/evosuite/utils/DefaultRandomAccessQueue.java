@@ -40,6 +40,17 @@ public class DefaultRandomAccessQueue<T> implements RandomAccessQueue<T> {
 
 	private final Queue<T> queue = new ArrayDeque<T>();
 
+	/** The maximum size, or -1 if {@link Properties#DYNAMIC_POOL_SIZE} */
+	private final int capacity;
+
+	public DefaultRandomAccessQueue() {
+		this(-1);
+	}
+
+	public DefaultRandomAccessQueue(int capacity) {
+		this.capacity = capacity;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.primitives.RandomAccessQueue#restrictedAdd(java.lang.Object)
 	 */
@@ -53,7 +64,7 @@ public class DefaultRandomAccessQueue<T> implements RandomAccessQueue<T> {
 	}
 
 	private void reduceSize() {
-		if (queue.size() > Properties.DYNAMIC_POOL_SIZE) {
+		if (queue.size() > (capacity < 0 ? Properties.DYNAMIC_POOL_SIZE : capacity)) {
 			T value = queue.poll();
 			valueSet.remove(value);
 		}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick tree (binary indexed tree) over non-negative integer weights, which
+ * supports updates of single weights, prefix sums and the search for the
+ * index at which the prefix sum exceeds a given value in logarithmic time.
+ */
+public class FenwickTree {
+
+	/** The weights, by index */
+	private int[] weights;
+
+	/** The partial sums, where the entry at i covers the i & -i weights up to i - 1 */
+	private int[] tree;
+
+	private int total = 0;
+
+	public FenwickTree(int capacity) {
+		weights = new int[Math.max(1, capacity)];
+		tree = new int[weights.length + 1];
+	}
+
+	public int capacity() {
+		return weights.length;
+	}
+
+	/**
+	 * Increases the capacity to at least the given number of weights, where
+	 * the new weights are 0
+	 * 
+	 * @param capacity
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity <= weights.length)
+			return;
+
+		weights = Arrays.copyOf(weights, Math.max(capacity, 2 * weights.length));
+		tree = new int[weights.length + 1];
+		for (int i = 1; i <= weights.length; i++) {
+			tree[i] += weights[i - 1];
+			int parent = i + (i & -i);
+			if (parent <= weights.length)
+				tree[parent] += tree[i];
+		}
+	}
+
+	public int get(int index) {
+		return weights[index];
+	}
+
+	public void add(int index, int delta) {
+		weights[index] += delta;
+		total += delta;
+		for (int i = index + 1; i < tree.length; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+
+	public void set(int index, int weight) {
+		add(index, weight - weights[index]);
+	}
+
+	/**
+	 * Returns the sum of the weights before the given index
+	 * 
+	 * @param end
+	 * @return
+	 */
+	public int prefixSum(int end) {
+		int sum = 0;
+		for (int i = end; i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+
+	public int total() {
+		return total;
+	}
+
+	/**
+	 * Returns the smallest index for which the sum of the weights up to and
+	 * including the index is greater than the given value. Choosing the value
+	 * uniformly from [0, {@link #total()}) thus chooses the indices with a
+	 * probability proportional to their weights.
+	 * 
+	 * @param value
+	 *            a value in [0, {@link #total()})
+	 * @return
+	 */
+	public int find(int value) {
+		if (value < 0 || value >= total)
+			throw new IllegalArgumentException("Value " + value + " is not within the total weight " + total);
+
+		int index = 0;
+		for (int step = Integer.highestOneBit(weights.length); step > 0; step >>= 1) {
+			int next = index + step;
+			if (next < tree.length && tree[next] <= value) {
+				index = next;
+				value -= tree[next];
+			}
+		}
+		return index;
+	}
+}
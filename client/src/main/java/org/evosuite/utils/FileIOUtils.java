@@ -20,6 +20,12 @@
 package org.evosuite.utils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -255,6 +261,54 @@ public class FileIOUtils {
 		}
 	}
 	
+	/**
+	 * Map the given file into memory for reading
+	 *
+	 * @param file
+	 *            - file to read from
+	 * @return content of the file, or null if it cannot be read
+	 */
+	public static ByteBuffer readMappedFile(File file) {
+		if (!file.exists())
+			return null;
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (IOException e) {
+			logger.info("Could not read file " + file + ": " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Write the content to a temporary file in the same folder first and then
+	 * move it, so that other processes never see an incomplete file
+	 *
+	 * @param content
+	 *            - bytes to write
+	 * @param file
+	 *            - file to write to
+	 * @return whether the file was written
+	 */
+	public static boolean writeFileAtomically(byte[] content, File file) {
+		File temp = null;
+		try {
+			temp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+			Files.write(temp.toPath(), content);
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+		} catch (IOException e) {
+			logger.info("Could not write file " + file + ": " + e);
+			if (temp != null)
+				temp.delete();
+			return false;
+		}
+	}
+
 	public static File getFileCreateIfNotExist(String path) {
 		File file = new File(path);
 		if (!file.exists()) {
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.coverage.branch;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.ControlFlowDistance;
+import org.evosuite.graphs.cfg.ControlDependency;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TP1;
+
+public class ApproachLevelTableTest {
+
+	@Before
+	public void setUp() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+		Properties.TARGET_CLASS = TP1.class.getCanonicalName();
+		Properties.CRITERION = new Properties.Criterion[] { Properties.Criterion.BRANCH };
+		TestCaseExecutor.initExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static List<ExecutionResult> executeAllMethods(long seed) throws Exception {
+		Random random = new Random(seed);
+		Class<?> sut = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+		GenericClass clazz = new GenericClass(sut);
+		List<ExecutionResult> results = new ArrayList<>();
+		for (Method method : sut.getDeclaredMethods()) {
+			DefaultTestCase test = new DefaultTestCase();
+			VariableReference object = test.addStatement(new ConstructorStatement(test, new GenericConstructor(
+					sut.getConstructor(), clazz), Collections.emptyList()));
+			List<VariableReference> parameters = new ArrayList<>();
+			for (int i = 0; i < method.getParameterTypes().length; i++)
+				parameters.add(test.addStatement(new IntPrimitiveStatement(test, random.nextInt(7) - 3)));
+			test.addStatement(new MethodStatement(test, new GenericMethod(method, clazz), object, parameters));
+			results.add(TestCaseExecutor.getInstance().execute(test));
+		}
+		return results;
+	}
+
+	@Test
+	public void testNotWorseThanControlDependenceTraversal() throws Exception {
+		List<ExecutionResult> results = executeAllMethods(0);
+		List<BranchCoverageTestFitness> goals = new BranchCoverageFactory().getCoverageGoals();
+		Assert.assertFalse(goals.isEmpty());
+
+		int compared = 0;
+		int same = 0;
+		for (BranchCoverageTestFitness goal : goals) {
+			if (goal.getBranch() == null)
+				continue;
+			for (ExecutionResult result : results) {
+				Properties.PRECOMPUTED_APPROACH_LEVELS = false;
+				ControlFlowDistance expected = goal.getBranchGoal().getDistance(result);
+				Properties.PRECOMPUTED_APPROACH_LEVELS = true;
+				ControlFlowDistance actual = goal.getBranchGoal().getDistance(result);
+				// Following the control dependences, a branch reached before on a
+				// longer chain counts as unreachable, so the table may only be better
+				Assert.assertTrue(goal.toString(), actual.compareTo(expected) <= 0);
+				if (actual.compareTo(expected) == 0)
+					same++;
+				compared++;
+			}
+		}
+		Assert.assertTrue(compared > 0);
+		Assert.assertTrue(same > compared / 2);
+	}
+
+	@Test
+	public void testApproachLevelsOfControlDependences() throws Exception {
+		TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+		BranchPool pool = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT());
+		boolean nested = false;
+		for (Branch branch : pool.getAllBranches()) {
+			ApproachLevelTable table = pool.getApproachLevelTable(branch);
+			Assert.assertSame(table, pool.getApproachLevelTable(branch));
+			Assert.assertEquals(0, table.getApproachLevel(branch.getActualBranchId(), true));
+			for (ControlDependency cd : branch.getInstruction().getControlDependencies()) {
+				if (cd.getBranch().equals(branch))
+					continue;
+				Assert.assertEquals(1, table.getApproachLevel(cd.getBranch().getActualBranchId(),
+						cd.getBranchExpressionValue()));
+				nested = true;
+			}
+		}
+		Assert.assertTrue(nested);
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.graphs.cfg.BasicBlock;
+import org.evosuite.graphs.cfg.ControlFlowEdge;
+
+/**
+ * Compares the distance queries on the largest CFGs of the given classes with
+ * what an all-pairs matrix would need. Not run as part of the tests, call as
+ *
+ * <pre>
+ * java org.evosuite.graphs.DistanceOracleBenchmark [class...]
+ * </pre>
+ *
+ * with the test classpath, which contains the default classes.
+ */
+public class DistanceOracleBenchmark {
+
+	private static final int LARGEST_CFGS = 10;
+
+	private static final String[] DEFAULT_CLASSES = {
+			"com.examples.with.different.packagename.concolic.TP1",
+			"com.examples.with.different.packagename.FlagExample1",
+			"com.examples.with.different.packagename.ArrayStack" };
+
+	public static void main(String[] args) throws ClassNotFoundException {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		List<String> classes = Arrays.asList(args.length > 0 ? args : DEFAULT_CLASSES);
+
+		List<ActualControlFlowGraph> cfgs = new ArrayList<>();
+		for (String className : classes) {
+			Properties.TARGET_CLASS = className;
+			ClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+			classLoader.loadClass(className);
+			GraphPool pool = GraphPool.getInstance(classLoader);
+			for (String method : pool.getRawCFGs(className).keySet())
+				cfgs.add(pool.getActualCFG(className, method));
+		}
+		cfgs.sort(Comparator.comparingInt(ActualControlFlowGraph::vertexCount).reversed());
+
+		System.out.println("method;blocks;edges;matrix_bytes;oracle_bytes;all_pairs_ms;oracle_ms;oracle_diameter_ms");
+		for (ActualControlFlowGraph cfg : cfgs.subList(0, Math.min(LARGEST_CFGS, cfgs.size()))) {
+			int vertices = cfg.vertexCount();
+			List<BasicBlock> blocks = new ArrayList<>(cfg.vertexSet());
+
+			// The all-pairs matrix is filled in cubic time
+			long start = System.nanoTime();
+			double[][] matrix = allPairs(cfg, blocks);
+			long allPairs = System.nanoTime() - start;
+
+			DistanceOracle<BasicBlock, ControlFlowEdge> oracle = new DistanceOracle<>(cfg.getGraph());
+			start = System.nanoTime();
+			for (int i = 0; i < vertices; i++) {
+				for (int j = 0; j < vertices; j++) {
+					if (oracle.shortestDistance(blocks.get(i), blocks.get(j)) != matrix[i][j])
+						throw new IllegalStateException("different distance in " + cfg.getMethodName());
+				}
+			}
+			long queries = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			new DistanceOracle<>(cfg.getGraph()).getDiameter();
+			long diameter = System.nanoTime() - start;
+
+			long matrixBytes = 8L * vertices * vertices;
+			long oracleBytes = 4L * Math.min(vertices, DistanceOracle.DEFAULT_CACHED_SOURCES) * vertices + 4L
+					* (vertices + cfg.edgeCount());
+			System.out.println(cfg.getClassName() + "." + cfg.getMethodName() + ";" + vertices + ";"
+					+ cfg.edgeCount() + ";" + matrixBytes + ";" + oracleBytes + ";" + allPairs / 1000000.0 + ";"
+					+ queries / 1000000.0 + ";" + diameter / 1000000.0);
+		}
+	}
+
+	private static double[][] allPairs(ActualControlFlowGraph cfg, List<BasicBlock> blocks) {
+		int size = blocks.size();
+		double[][] d = new double[size][size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				d[i][j] = i == j ? 0 : cfg.containsEdge(blocks.get(i), blocks.get(j)) ? 1
+						: Double.POSITIVE_INFINITY;
+			}
+		}
+		for (int k = 0; k < size; k++) {
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+				}
+			}
+		}
+		return d;
+	}
+}
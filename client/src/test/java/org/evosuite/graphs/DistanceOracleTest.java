@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs;
+
+import java.util.Random;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.graphs.cfg.BasicBlock;
+import org.jgrapht.alg.DijkstraShortestPath;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TP1;
+
+public class DistanceOracleTest {
+
+	private static DefaultDirectedGraph<Integer, DefaultEdge> createRandomGraph(int vertices, int edges, long seed) {
+		Random random = new Random(seed);
+		DefaultDirectedGraph<Integer, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+		for (int i = 0; i < vertices; i++)
+			graph.addVertex(i);
+		for (int i = 0; i < edges; i++)
+			graph.addEdge(random.nextInt(vertices), random.nextInt(vertices));
+		return graph;
+	}
+
+	@Test
+	public void testSameDistancesAsDijkstra() {
+		DefaultDirectedGraph<Integer, DefaultEdge> graph = createRandomGraph(60, 90, 42);
+		DistanceOracle<Integer, DefaultEdge> oracle = new DistanceOracle<>(graph, 4);
+		double diameter = 0;
+		for (int v1 = 0; v1 < 60; v1++) {
+			for (int v2 = 0; v2 < 60; v2++) {
+				double expected = new DijkstraShortestPath<>(graph, v1, v2).getPathLength();
+				Assert.assertEquals(expected, oracle.shortestDistance(v1, v2), 0.0);
+				if (expected != Double.POSITIVE_INFINITY)
+					diameter = Math.max(diameter, expected);
+			}
+		}
+		Assert.assertEquals(diameter, oracle.getDiameter(), 0.0);
+		Assert.assertEquals(4, oracle.getCachedSources());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownVertex() {
+		DistanceOracle<Integer, DefaultEdge> oracle = new DistanceOracle<>(createRandomGraph(5, 5, 0));
+		oracle.shortestDistance(0, 5);
+	}
+
+	@Test
+	public void testOutdatedAfterChange() {
+		EvoSuiteGraph<Integer, DefaultEdge> graph = new EvoSuiteGraph<Integer, DefaultEdge>(DefaultEdge.class) {
+		};
+		for (int i = 0; i < 3; i++)
+			graph.addVertex(i);
+		DefaultEdge edge = graph.addEdge(0, 1);
+		Assert.assertEquals(-1, graph.getDistance(0, 2));
+		DistanceOracle<Integer, DefaultEdge> oracle = graph.getDistanceOracle();
+		Assert.assertSame(oracle, graph.getDistanceOracle());
+
+		// keeps the number of vertices and edges
+		graph.redirectEdgeTarget(edge, 2);
+		Assert.assertNotSame(oracle, graph.getDistanceOracle());
+		Assert.assertEquals(1, graph.getDistance(0, 2));
+		Assert.assertEquals(-1, graph.getDistance(0, 1));
+	}
+
+	@Test
+	public void testControlFlowGraphDistances() throws ClassNotFoundException {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+		Properties.TARGET_CLASS = TP1.class.getCanonicalName();
+		ClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		classLoader.loadClass(Properties.TARGET_CLASS);
+
+		GraphPool pool = GraphPool.getInstance(classLoader);
+		for (String method : pool.getRawCFGs(Properties.TARGET_CLASS).keySet()) {
+			ActualControlFlowGraph cfg = pool.getActualCFG(Properties.TARGET_CLASS, method);
+			for (BasicBlock b1 : cfg.vertexSet()) {
+				for (BasicBlock b2 : cfg.vertexSet()) {
+					double expected = new DijkstraShortestPath<>(cfg.getGraph(), b1, b2).getPathLength();
+					Assert.assertEquals((int) Math.round(expected), cfg.getDistance(b1, b2));
+				}
+			}
+			Assert.assertEquals((int) cfg.getDistanceOracle().getDiameter(), cfg.getDiameter());
+		}
+		TestGenerationContext.getInstance().resetContext();
+	}
+}
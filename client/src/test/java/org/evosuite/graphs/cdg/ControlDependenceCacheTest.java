@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs.cdg;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.graphs.cfg.BasicBlock;
+import org.evosuite.graphs.cfg.ControlFlowEdge;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TP1;
+
+public class ControlDependenceCacheTest {
+
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+		directory = Files.createTempDirectory("cdg-cache").toFile();
+		Properties.INSTRUMENTATION_CACHE_DIR = directory.getAbsolutePath();
+		Properties.TARGET_CLASS = TP1.class.getCanonicalName();
+		Properties.CRITERION = new Properties.Criterion[] { Properties.Criterion.BRANCH };
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+		FileUtils.deleteDirectory(directory);
+	}
+
+	private static GraphPool loadTargetClass() throws ClassNotFoundException {
+		TestGenerationContext.getInstance().resetContext();
+		ClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		classLoader.loadClass(Properties.TARGET_CLASS);
+		return GraphPool.getInstance(classLoader);
+	}
+
+	private static void assertSameDependences(ControlDependenceGraph expected, ControlDependenceGraph actual) {
+		Assert.assertEquals(expected.vertexSet(), actual.vertexSet());
+		Assert.assertEquals(expected.edgeCount(), actual.edgeCount());
+		for (ControlFlowEdge edge : expected.edgeSet()) {
+			BasicBlock source = expected.getEdgeSource(edge);
+			BasicBlock target = expected.getEdgeTarget(edge);
+			ControlFlowEdge other = actual.getEdge(source, target);
+			Assert.assertNotNull(other);
+			Assert.assertSame(edge.getControlDependency(), other.getControlDependency());
+			Assert.assertEquals(edge.isExceptionEdge(), other.isExceptionEdge());
+		}
+	}
+
+	@Test
+	public void testCachedDependencesAreTheComputedOnes() throws ClassNotFoundException {
+		GraphPool pool = loadTargetClass();
+		int large = 0;
+		for (String method : pool.getRawCFGs(Properties.TARGET_CLASS).keySet()) {
+			Assert.assertNotNull(pool.getCDG(Properties.TARGET_CLASS, method));
+			if (pool.getActualCFG(Properties.TARGET_CLASS, method).vertexCount() >= ControlDependenceCache.MIN_BLOCKS)
+				large++;
+		}
+		Assert.assertTrue(large > 0);
+		Assert.assertEquals(large, new File(directory, "cdg").list().length);
+
+		int hits = ControlDependenceCache.getHits();
+		pool = loadTargetClass();
+		for (String method : pool.getRawCFGs(Properties.TARGET_CLASS).keySet()) {
+			ActualControlFlowGraph cfg = pool.getActualCFG(Properties.TARGET_CLASS, method);
+			assertSameDependences(new ControlDependenceGraph(cfg), pool.getCDG(Properties.TARGET_CLASS, method));
+		}
+		Assert.assertEquals(hits + large, ControlDependenceCache.getHits());
+	}
+
+	@Test
+	public void testDependencesAreComputedOnAccess() throws ClassNotFoundException {
+		Properties.INSTRUMENTATION_CACHE_DIR = "";
+		GraphPool pool = loadTargetClass();
+		for (String method : pool.getRawCFGs(Properties.TARGET_CLASS).keySet()) {
+			ControlDependenceGraph cdg = pool.getCDG(Properties.TARGET_CLASS, method);
+			Assert.assertSame(cdg, pool.getCDG(Properties.TARGET_CLASS, method));
+			assertSameDependences(new ControlDependenceGraph(pool.getActualCFG(Properties.TARGET_CLASS, method)), cdg);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs.interprocedural;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.Branch;
+import org.evosuite.coverage.fbranch.FBranchDefUseAnalyzer;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.graphs.interprocedural.interestednode.SmartSeedInterestedNodeFilter;
+import org.evosuite.graphs.interprocedural.var.DepVariable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TP1;
+
+public class InterproceduralGraphAnalysisTest {
+
+	private static final String METHOD = "TPInterface4Method0(IIIIIII)I";
+
+	@Before
+	public void setUp() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+		Properties.TARGET_CLASS = TP1.class.getCanonicalName();
+		Properties.TARGET_METHOD = METHOD;
+	}
+
+	@After
+	public void tearDown() {
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static Map<Branch, Set<DepVariable>> analyze() throws ClassNotFoundException {
+		ClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		classLoader.loadClass(Properties.TARGET_CLASS);
+		ActualControlFlowGraph cfg = GraphPool.getInstance(classLoader).getActualCFG(Properties.TARGET_CLASS, METHOD);
+		FBranchDefUseAnalyzer.analyze(cfg.getRawGraph());
+		return InterproceduralGraphAnalysis.analyzeIndividualMethod(cfg, new SmartSeedInterestedNodeFilter());
+	}
+
+	private static Set<String> toStrings(Map<Branch, Set<DepVariable>> map) {
+		Set<String> result = new TreeSet<>();
+		for (Map.Entry<Branch, Set<DepVariable>> entry : map.entrySet()) {
+			for (DepVariable var : entry.getValue())
+				result.add(entry.getKey().getActualBranchId() + ":" + var.getUniqueLabel());
+		}
+		return result;
+	}
+
+	@Test
+	public void testConcurrentAnalysisFindsSameVariables() throws ClassNotFoundException {
+		Map<Branch, Set<DepVariable>> sequential = analyze();
+		Assert.assertTrue(sequential.size() > 1);
+		Set<String> expected = toStrings(sequential);
+		Assert.assertFalse(expected.isEmpty());
+
+		TestGenerationContext.getInstance().resetContext();
+		Properties.TARGET_CLASS = TP1.class.getCanonicalName();
+		Properties.DATAFLOW_ANALYSIS_THREADS = 4;
+		Map<Branch, Set<DepVariable>> concurrent = analyze();
+
+		Assert.assertEquals(sequential.size(), concurrent.size());
+		Assert.assertEquals(expected, toStrings(concurrent));
+	}
+
+	@Test
+	public void testCalledMethodsAreSummarizedOnce() throws ClassNotFoundException {
+		analyze();
+		ClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		ActualControlFlowGraph cfg = GraphPool.getInstance(classLoader).getActualCFG(Properties.TARGET_CLASS, METHOD);
+		for (BytecodeInstruction instruction : cfg.getRawGraph().vertexSet()) {
+			if (instruction.isMethodCall() && instruction.getCalledMethodsClass().equals(Properties.TARGET_CLASS)) {
+				CalleeSummary summary = CalleeSummary.get(instruction);
+				Assert.assertSame(summary, CalleeSummary.get(instruction));
+				Assert.assertNotNull(summary.getCFG());
+			}
+		}
+	}
+}
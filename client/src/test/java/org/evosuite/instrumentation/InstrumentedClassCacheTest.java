@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.LoopCounter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.ArrayStack;
+import com.examples.with.different.packagename.FlagExample1;
+
+public class InstrumentedClassCacheTest {
+
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+		directory = Files.createTempDirectory("instrumentation-cache").toFile();
+		Properties.INSTRUMENTATION_CACHE_DIR = directory.getAbsolutePath();
+		Properties.TARGET_CLASS = FlagExample1.class.getCanonicalName();
+		Properties.PROJECT_PREFIX = Properties.TARGET_CLASS;
+		InstrumentedClassCache.resetSingleton();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		InstrumentedClassCache.resetSingleton();
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+		FileUtils.deleteDirectory(directory);
+	}
+
+	private int getNumberOfEntries() {
+		return directory.list((dir, name) -> name.endsWith(".class")).length;
+	}
+
+	/**
+	 * The loop counter as it is at the start of a new run
+	 */
+	private static void resetLoopCounter(int loops) {
+		LoopCounter.getInstance().reset();
+		for (int i = 0; i < loops; i++)
+			LoopCounter.getInstance().getNewIndex();
+	}
+
+	@Test
+	public void testCachedBytesAreReused() throws Exception {
+		int loops = LoopCounter.getInstance().getNextIndex();
+
+		// Loads the interface Buffer as well
+		Class<?> first = new InstrumentingClassLoader().loadClass(ArrayStack.class.getName());
+		int entries = getNumberOfEntries();
+		Assert.assertTrue(entries > 0);
+
+		resetLoopCounter(loops);
+		int hits = InstrumentedClassCache.getHits();
+		Class<?> second = new InstrumentingClassLoader().loadClass(ArrayStack.class.getName());
+		Assert.assertTrue(InstrumentedClassCache.getHits() > hits);
+		Assert.assertEquals(entries, getNumberOfEntries());
+		Assert.assertNotSame(first, second);
+		Assert.assertNotNull(second.newInstance());
+	}
+
+	@Test
+	public void testChangedPropertiesResultInNewEntry() throws Exception {
+		new InstrumentingClassLoader().loadClass(ArrayStack.class.getName());
+		int entries = getNumberOfEntries();
+
+		Properties.RESET_STATIC_FIELDS = !Properties.RESET_STATIC_FIELDS;
+		InstrumentedClassCache.resetSingleton();
+		int hits = InstrumentedClassCache.getHits();
+		new InstrumentingClassLoader().loadClass(ArrayStack.class.getName());
+		Assert.assertEquals(hits, InstrumentedClassCache.getHits());
+		Assert.assertEquals(2 * entries, getNumberOfEntries());
+	}
+
+	@Test
+	public void testTargetClassIsNotCached() throws Exception {
+		new InstrumentingClassLoader().loadClass(Properties.TARGET_CLASS);
+		Assert.assertEquals(0, getNumberOfEntries());
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding;
+
+import org.evosuite.Properties;
+import org.evosuite.utils.FenwickTree;
+import org.evosuite.utils.Randomness;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrequencyBasedPoolTest {
+
+    @Test
+    public void testFenwickTreeFindsIndexOfEachValue() {
+        FenwickTree tree = new FenwickTree(1);
+        int[] weights = { 3, 0, 1, 5, 0, 0, 2, 7, 1, 4, 0, 6 };
+        for (int i = 0; i < weights.length; i++) {
+            tree.ensureCapacity(i + 1);
+            tree.set(i, weights[i]);
+        }
+        tree.add(0, -1);
+        weights[0]--;
+
+        int value = 0;
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(value, tree.prefixSum(i));
+            for (int j = 0; j < weights[i]; j++) {
+                assertEquals(i, tree.find(value++));
+            }
+        }
+        assertEquals(value, tree.total());
+    }
+
+    private static <T> void checkRandomUpdates(FrequencyBasedPool<T> pool, List<T> values) {
+        Map<T, Integer> expected = new HashMap<T, Integer>();
+        int total = 0;
+        for (int i = 0; i < 5000; i++) {
+            T value = values.get(Randomness.nextInt(values.size()));
+            if (Randomness.nextBoolean()) {
+                pool.addConstant(value);
+                expected.merge(value, 1, Integer::sum);
+                total++;
+            } else {
+                pool.removeConstant(value);
+                if (expected.containsKey(value)) {
+                    total--;
+                    if (expected.merge(value, -1, Integer::sum) == 0)
+                        expected.remove(value);
+                }
+            }
+            if (i % 100 == 0) {
+                for (T v : values) {
+                    int frequency = expected.getOrDefault(v, 0);
+                    assertEquals(frequency, pool.getFrequency(v));
+                    assertEquals(frequency > 0, pool.hasConstant(v));
+                }
+                assertEquals(total, pool.numConstants);
+                if (total > 0)
+                    assertTrue(expected.containsKey(pool.getRandomConstant()));
+            }
+        }
+    }
+
+    @Test
+    public void testUpdatesOfPrimitiveAndObjectPools() {
+        List<Integer> ints = new ArrayList<>();
+        List<Long> longs = new ArrayList<>();
+        List<String> strings = new ArrayList<>();
+        for (int i = -100; i < 100; i++) {
+            ints.add(i * 65536);
+            longs.add((long) i << 40);
+            strings.add("s" + i);
+        }
+        List<Double> doubles = new ArrayList<>();
+        for (double d : new double[] { 0.0, -0.0, Double.NaN, 1.5, -1.5, Double.MAX_VALUE, Double.MIN_VALUE })
+            doubles.add(d);
+
+        checkRandomUpdates(FrequencyBasedPool.forIntegers(), ints);
+        checkRandomUpdates(FrequencyBasedPool.forLongs(), longs);
+        checkRandomUpdates(FrequencyBasedPool.forDoubles(), doubles);
+        checkRandomUpdates(new FrequencyBasedPool<String>(), strings);
+    }
+
+    @Test
+    public void testSelectionIsProportionalToFrequency() {
+        FrequencyBasedPool<Float> pool = FrequencyBasedPool.forFloats();
+        for (int i = 0; i < 90; i++)
+            pool.addConstant(1.0f);
+        for (int i = 0; i < 10; i++)
+            pool.addConstant(2.0f);
+        pool.addConstant(3.0f);
+        pool.removeConstant(3.0f);
+        assertFalse(pool.hasConstant(3.0f));
+
+        int ones = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (pool.getRandomConstant() == 1.0f)
+                ones++;
+        }
+        assertTrue(ones > 8500 && ones < 9500);
+    }
+
+    @Test
+    public void testQueueRemovesOldestValues() {
+        FrequencyBasedRandomAccessQueue<Integer> queue = new FrequencyBasedRandomAccessQueue<>(
+                FrequencyBasedPool.forIntegers());
+        for (int i = 0; i < 10 * Properties.DYNAMIC_POOL_SIZE; i++)
+            queue.restrictedAdd(i);
+
+        assertEquals(Properties.DYNAMIC_POOL_SIZE, queue.size());
+        for (int i = 0; i < 1000; i++)
+            assertTrue(queue.getRandomValue() >= 9 * Properties.DYNAMIC_POOL_SIZE);
+    }
+}
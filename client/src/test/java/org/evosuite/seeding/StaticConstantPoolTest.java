@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding;
+
+import org.evosuite.Properties;
+import org.evosuite.utils.ConcurrentLongSet;
+import org.evosuite.utils.Randomness;
+import org.junit.After;
+import org.junit.Test;
+import org.objectweb.asm.Type;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StaticConstantPoolTest {
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void testConcurrentAdditionsAreNeitherLostNorDuplicated() throws InterruptedException {
+        ConcurrentLongSet set = new ConcurrentLongSet();
+        int numThreads = 4;
+        int numValues = 20000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            final int offset = t;
+            // Each value is added by two of the threads
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < numValues; i++) {
+                    set.add(((i + offset) % numValues) * 31L - 1000);
+                    set.add(-1 - (long) ((i * (offset + 1)) % numValues));
+                }
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+
+        Set<Long> values = new HashSet<>();
+        for (int i = 0; i < set.size(); i++) {
+            assertTrue(values.add(set.get(i)));
+        }
+        for (int i = 0; i < numValues; i++) {
+            assertTrue(values.contains(i * 31L - 1000));
+            assertTrue(set.contains(i * 31L - 1000));
+        }
+        assertEquals(values.size(), set.size());
+    }
+
+    @Test
+    public void testValuesKeepTheOrderOfAddition() {
+        ConcurrentLongSet set = new ConcurrentLongSet();
+        Set<Long> expected = new LinkedHashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long value = Randomness.nextInt(300) - 150;
+            assertEquals(expected.add(value), set.add(value));
+        }
+        List<Long> values = new ArrayList<>(expected);
+        assertEquals(values.size(), set.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals((long) values.get(i), set.get(i));
+        }
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(values.get(0)));
+    }
+
+    @Test
+    public void testPoolReturnsAddedConstants() {
+        Properties.RESTRICT_POOL = false;
+        StaticConstantPool pool = new StaticConstantPool(false);
+        pool.add("foo");
+        pool.add(Type.getType(String[][].class));
+        pool.add(42);
+        pool.add(-7L);
+        pool.add(-0.0f);
+        pool.add(Double.NaN);
+        pool.add('x');
+
+        Set<Object> strings = new HashSet<>();
+        Set<Object> types = new HashSet<>();
+        Set<Object> ints = new HashSet<>();
+        Set<Object> longs = new HashSet<>();
+        Set<Object> floats = new HashSet<>();
+        Set<Object> doubles = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            strings.add(pool.getRandomString());
+            types.add(pool.getRandomType());
+            ints.add(pool.getRandomInt());
+            longs.add(pool.getRandomLong());
+            floats.add(pool.getRandomFloat());
+            doubles.add(pool.getRandomDouble());
+            assertEquals('x', pool.getRandomChar());
+        }
+        assertTrue(strings.contains("foo") && strings.contains(""));
+        assertTrue(types.contains(Type.getType(String.class)));
+        assertTrue(ints.contains(42) && ints.contains(-1));
+        assertTrue(longs.contains(-7L) && longs.contains(0L));
+        // -0.0 and 0.0 are different constants
+        assertEquals(4, floats.size());
+        assertEquals(4, doubles.size());
+        assertTrue(doubles.contains(Double.NaN));
+        assertEquals(2 + 4 + 4 + 4 + 4, pool.poolSize());
+        assertTrue(pool.getMemoryUsage() > 0);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding.smart;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.branch.Branch;
+import org.evosuite.seeding.ConstantPool;
+import org.evosuite.seeding.DynamicConstantPool;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BranchwisePoolCacheTest {
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+        BranchwiseConstantPoolManager.reset();
+    }
+
+    @Test
+    public void testResetForgetsPoolsAndCoveredOutcomes() {
+        Branch branch = mock(Branch.class);
+        when(branch.getActualBranchId()).thenReturn(7);
+        BranchwiseConstantPoolManager.updateBranchInfo(branch,
+                new BranchSeedInfo(branch, SeedingApplicationEvaluator.DYNAMIC_POOL, "int", null));
+        BranchwiseConstantPoolManager.addBranchwiseDynamicConstant(7, 42);
+        assertEquals(1, BranchwiseConstantPoolManager.DYNAMIC_POOL_CACHE.size());
+        BranchwiseConstantPoolManager.branchCovered(branch, true);
+
+        BranchwiseConstantPoolManager.reset();
+        assertEquals(0, BranchwiseConstantPoolManager.DYNAMIC_POOL_CACHE.size());
+        // the branch of the previous search does not benefit from a dynamic pool anymore
+        BranchwiseConstantPoolManager.addBranchwiseDynamicConstant(7, 42);
+        assertEquals(0, BranchwiseConstantPoolManager.DYNAMIC_POOL_CACHE.size());
+
+        // the outcome covered in the previous search does not evict the pools of the new one
+        BranchwiseConstantPoolManager.getBranchwiseDynamicConstantPool(7);
+        BranchwiseConstantPoolManager.branchCovered(branch, false);
+        assertEquals(1, BranchwiseConstantPoolManager.DYNAMIC_POOL_CACHE.size());
+        BranchwiseConstantPoolManager.branchCovered(branch, true);
+        assertEquals(0, BranchwiseConstantPoolManager.DYNAMIC_POOL_CACHE.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPoolsAreEvicted() {
+        BranchwisePoolCache cache = new BranchwisePoolCache(() -> 20);
+        for (int i = 0; i < 20; i++) {
+            cache.computeIfAbsent(i, id -> new DynamicConstantPool());
+        }
+        ConstantPool pool = cache.get(0);
+        assertNotNull(pool);
+        assertSame(pool, cache.computeIfAbsent(0, id -> new DynamicConstantPool()));
+
+        cache.computeIfAbsent(20, id -> new DynamicConstantPool());
+        assertTrue(cache.size() <= 20);
+        assertEquals(21 - cache.size(), cache.getEvictions());
+        assertSame(pool, cache.get(0));
+        assertNotNull(cache.get(20));
+        assertNull(cache.get(1));
+
+        cache.remove(0);
+        assertNull(cache.get(0));
+    }
+
+    @Test
+    public void testDynamicPoolIsBoundedPerType() {
+        DynamicConstantPool pool = new DynamicConstantPool(10);
+        for (int i = 0; i < 100; i++) {
+            pool.add(i);
+            pool.add("s" + i);
+        }
+        Set<Integer> ints = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ints.add(pool.getRandomInt());
+        }
+        // only the latest constants are kept
+        assertEquals(10, ints.size());
+        for (int value : ints) {
+            assertTrue(value >= 90);
+        }
+        assertEquals(64L * (10 + 10 + 1 + 1 + 1 + 1), pool.getMemoryUsage());
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.seeding.smart;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.Branch;
+import org.evosuite.coverage.branch.BranchCoverageFactory;
+import org.evosuite.coverage.branch.BranchCoverageTestFitness;
+import org.evosuite.coverage.branch.BranchPool;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.utils.Randomness;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.smartseed.ValuePreservingExample;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SensitivityMutatorTest {
+
+    private static final long SEED = 42;
+
+    private Branch branch;
+
+    @Before
+    public void setUp() throws ClassNotFoundException {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        Properties.getInstance().resetToDefaults();
+        Properties.TARGET_CLASS = ValuePreservingExample.class.getCanonicalName();
+        Properties.TARGET_METHOD = "compare(II)I";
+        Properties.CRITERION = new Criterion[] { Criterion.BRANCH };
+        Properties.APPLY_SMART_SEED = true;
+        Properties.APPLY_INTERPROCEDURAL_GRAPH_ANALYSIS = true;
+        Properties.INSTRUMENT_CONTEXT = true;
+        // executed probes add their constants to the pool that mutations sample from
+        Properties.PRIMITIVE_POOL = 0.0;
+        TestGenerationContext.getInstance().resetContext();
+        TestCaseExecutor.initExecutor();
+
+        String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+        DependencyAnalysis.analyzeClass(Properties.TARGET_CLASS, Arrays.asList(cp.split(File.pathSeparator)));
+        List<Branch> branches = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
+                .getBranchesForMethod(Properties.TARGET_CLASS, Properties.TARGET_METHOD);
+        branch = branches.get(0);
+    }
+
+    @After
+    public void tearDown() {
+        TestGenerationContext.getInstance().resetContext();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private List<String> evaluate(boolean batched) {
+        Properties.BATCH_SENSITIVITY_PROBES = batched;
+        SeedingApplicationEvaluator.cache.clear();
+        Randomness.setSeed(SEED);
+        BranchCoverageTestFitness bf = BranchCoverageFactory.createBranchCoverageTestFitness(branch, true);
+        BranchSeedInfo info = SeedingApplicationEvaluator.evaluate(branch, null, bf);
+
+        List<String> records = new ArrayList<>();
+        for (ObservationRecord record : info.getValuePreservance().getRecordList()) {
+            // the inputs of the records are changed when the seeds are applied
+            records.add(record.observationMap.toString());
+        }
+        return records;
+    }
+
+    @Test
+    public void testBatchedProbesRecordTheSameObservations() {
+        List<String> records = evaluate(false);
+        assertFalse(records.isEmpty());
+
+        SensitivityMutator.clearProbeCache();
+        assertEquals(records, evaluate(true));
+    }
+
+    @Test
+    public void testCachedProbesAreNotExecutedAgain() {
+        SensitivityMutator.clearProbeCache();
+        long start = MaxTestsStoppingCondition.getNumExecutedTests();
+        List<String> records = evaluate(true);
+        long executed = MaxTestsStoppingCondition.getNumExecutedTests() - start;
+
+        start = MaxTestsStoppingCondition.getNumExecutedTests();
+        assertEquals(records, evaluate(true));
+        // the probes are still executed when they are mutated, but none of the
+        // distinct probes is executed again with the observations
+        int distinctProbes = new HashSet<>(records).size();
+        assertTrue(distinctProbes < records.size());
+        assertEquals(executed - distinctProbes, MaxTestsStoppingCondition.getNumExecutedTests() - start);
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.BinaryExpression;
+import org.evosuite.symbolic.expr.Cast;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.MultipleExpression;
+import org.evosuite.symbolic.expr.UnaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerComparison;
+import org.evosuite.symbolic.expr.bv.RealComparison;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+
+/**
+ * Compares the memory the path conditions of a string-heavy concolic workload
+ * take with and without {@link Properties#DSE_EXPRESSION_INTERNING}. Not run
+ * as part of the tests, call as
+ *
+ * <pre>
+ * java org.evosuite.symbolic.ExpressionInterningBenchmark [executions] [rounds]
+ * </pre>
+ *
+ * with the test classpath.
+ */
+public class ExpressionInterningBenchmark {
+
+	private static final String INPUT = "  Select name, address FROM customers WHERE id = 42  ";
+
+	public static void main(String[] args) throws NoSuchMethodException {
+		int executions = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+		TestCaseExecutor.getInstance().newObservers();
+		TestCaseExecutor.initExecutor();
+
+		System.out.println("interning;branch_conditions;tree_nodes;distinct_nodes;heap_bytes;ms");
+		for (boolean interning : new boolean[] { false, true, false, true }) {
+			Properties.DSE_EXPRESSION_INTERNING = interning;
+			long heapBefore = usedHeap();
+			long start = System.currentTimeMillis();
+			List<List<Constraint<?>>> pathConditions = new ArrayList<>();
+			for (int i = 0; i < executions; i++) {
+				pathConditions.add(ExpressionInterningTest.executeTest(ExpressionInterningTest.buildTestCase(INPUT,
+						rounds)));
+			}
+			long time = System.currentTimeMillis() - start;
+			long heap = usedHeap() - heapBefore;
+
+			long conditions = 0;
+			long treeNodes = 0;
+			Set<Expression<?>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (List<Constraint<?>> constraints : pathConditions) {
+				for (Constraint<?> constraint : constraints) {
+					conditions++;
+					treeNodes += constraint.getLeftOperand().getSize() + constraint.getRightOperand().getSize();
+					collect(constraint.getLeftOperand(), distinct);
+					collect(constraint.getRightOperand(), distinct);
+				}
+			}
+			System.out.println(interning + ";" + conditions + ";" + treeNodes + ";" + distinct.size() + ";" + heap
+					+ ";" + time);
+		}
+		TestCaseExecutor.pullDown();
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static void collect(Expression<?> root, Set<Expression<?>> nodes) {
+		Deque<Expression<?>> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			Expression<?> expr = stack.pop();
+			if (!nodes.add(expr))
+				continue;
+			if (expr instanceof BinaryExpression) {
+				stack.push(((BinaryExpression<?>) expr).getLeftOperand());
+				stack.push(((BinaryExpression<?>) expr).getRightOperand());
+			} else if (expr instanceof UnaryExpression) {
+				stack.push(((UnaryExpression<?>) expr).getOperand());
+			} else if (expr instanceof Cast) {
+				stack.push(((Cast<?>) expr).getArgument());
+			} else if (expr instanceof MultipleExpression) {
+				stack.push(((MultipleExpression<?>) expr).getLeftOperand());
+				stack.push(((MultipleExpression<?>) expr).getRightOperand());
+				((MultipleExpression<?>) expr).getOther().forEach(stack::push);
+			} else if (expr instanceof StringBinaryComparison) {
+				stack.push(((StringBinaryComparison) expr).getLeftOperand());
+				stack.push(((StringBinaryComparison) expr).getRightOperand());
+			} else if (expr instanceof IntegerComparison) {
+				stack.push(((IntegerComparison) expr).getLeftOperant());
+				stack.push(((IntegerComparison) expr).getRightOperant());
+			} else if (expr instanceof RealComparison) {
+				stack.push(((RealComparison) expr).getLeftOperant());
+				stack.push(((RealComparison) expr).getRightOperant());
+			}
+		}
+	}
+}
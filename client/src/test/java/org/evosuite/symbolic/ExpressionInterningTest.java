@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.vm.ExpressionFactory;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.StringNormalizer;
+
+public class ExpressionInterningTest {
+
+	private final boolean interning = Properties.DSE_EXPRESSION_INTERNING;
+
+	@Before
+	public void initializeExecutor() {
+		TestCaseExecutor.getInstance().newObservers();
+		TestCaseExecutor.initExecutor();
+	}
+
+	@After
+	public void resetStaticVariables() {
+		Properties.DSE_EXPRESSION_INTERNING = interning;
+		TestGenerationContext.getInstance().resetContext();
+	}
+
+	static DefaultTestCase buildTestCase(String input, int rounds) throws NoSuchMethodException {
+		TestCaseBuilder tc = new TestCaseBuilder();
+		VariableReference string0 = tc.appendStringPrimitive(input);
+		VariableReference int0 = tc.appendIntPrimitive(rounds);
+		Method method = StringNormalizer.class.getMethod("countKeywords", String.class, int.class);
+		tc.appendMethod(null, method, string0, int0);
+		return tc.getDefaultTestCase();
+	}
+
+	static List<Constraint<?>> executeTest(DefaultTestCase tc) {
+		Properties.CLIENT_ON_THREAD = true;
+		Properties.PRINT_TO_SYSTEM = false;
+		Properties.TIMEOUT = 5000;
+		Properties.CONCOLIC_TIMEOUT = 5000000;
+
+		List<Constraint<?>> constraints = new ArrayList<>();
+		for (BranchCondition condition : ConcolicExecution.executeConcolic(tc).getBranchConditions()) {
+			constraints.add(condition.getConstraint());
+		}
+		return constraints;
+	}
+
+	/**
+	 * The branch conditions on whether the normalized input starts with a keyword
+	 */
+	private static List<Constraint<?>> getStartsWithConditions(List<Constraint<?>> constraints) {
+		List<Constraint<?>> result = new ArrayList<>();
+		for (Constraint<?> constraint : constraints) {
+			if (constraint.toString().contains("startsWith"))
+				result.add(constraint);
+		}
+		return result;
+	}
+
+	@Test
+	public void testSamePathConditionWithInterning() throws NoSuchMethodException {
+		Properties.DSE_EXPRESSION_INTERNING = false;
+		List<Constraint<?>> plain = executeTest(buildTestCase(" Select a FROM b ", 5));
+
+		Properties.DSE_EXPRESSION_INTERNING = true;
+		List<Constraint<?>> interned = executeTest(buildTestCase(" Select a FROM b ", 5));
+
+		assertTrue(plain.size() >= 15);
+		assertEquals(plain, interned);
+		assertEquals(0, ExpressionFactory.getNumberOfInternedExpressions());
+	}
+
+	@Test
+	public void testEqualSubtermsAreShared() throws NoSuchMethodException {
+		Properties.DSE_EXPRESSION_INTERNING = false;
+		List<Constraint<?>> plain = getStartsWithConditions(executeTest(buildTestCase(" Select a FROM b ", 2)));
+		assertEquals(2, plain.size());
+		assertEquals(plain.get(0).getLeftOperand(), plain.get(1).getLeftOperand());
+		assertNotSame(plain.get(0).getLeftOperand(), plain.get(1).getLeftOperand());
+
+		Properties.DSE_EXPRESSION_INTERNING = true;
+		List<Constraint<?>> interned = getStartsWithConditions(executeTest(buildTestCase(" Select a FROM b ", 2)));
+		assertEquals(2, interned.size());
+		assertSame(interned.get(0).getLeftOperand(), interned.get(1).getLeftOperand());
+	}
+}
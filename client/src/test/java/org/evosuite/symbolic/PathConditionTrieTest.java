@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.junit.Test;
+
+public class PathConditionTrieTest {
+
+	private final IntegerVariable x = new IntegerVariable("x", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private final IntegerVariable y = new IntegerVariable("y", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private static IntegerConstraint constraint(IntegerVariable variable, Comparator comparator, long value) {
+		return new IntegerConstraint(variable, comparator, new IntegerConstant(value));
+	}
+
+	private static PathCondition pathCondition(Constraint<?>... constraints) {
+		List<BranchCondition> branchConditions = new ArrayList<BranchCondition>();
+		for (int i = 0; i < constraints.length; i++) {
+			branchConditions.add(new IfBranchCondition("Foo", "bar()V", i, constraints[i],
+					Collections.<Constraint<?>> emptyList(), true));
+		}
+		return new PathCondition(branchConditions);
+	}
+
+	@Test
+	public void testPathConditionsAreDeduplicated() {
+		PathConditionTrie trie = new PathConditionTrie();
+		PathCondition pc = pathCondition(constraint(x, Comparator.GT, 0), constraint(y, Comparator.LT, 5),
+				constraint(x, Comparator.GT, 10));
+
+		assertTrue(trie.addPathCondition(PathConditionTrie.getConstraints(pc)));
+		assertFalse(trie.addPathCondition(PathConditionTrie.getConstraints(pc)));
+
+		// A prefix of an explored path condition is no new path condition
+		PathCondition prefix = pathCondition(constraint(x, Comparator.GT, 0), constraint(y, Comparator.LT, 5));
+		assertFalse(trie.addPathCondition(PathConditionTrie.getConstraints(prefix)));
+
+		PathCondition other = pathCondition(constraint(x, Comparator.GT, 0), constraint(y, Comparator.GE, 5));
+		assertTrue(trie.addPathCondition(PathConditionTrie.getConstraints(other)));
+
+		assertEquals(2, trie.getNumberOfPathConditions());
+		// The root, the common prefix and the two branches
+		assertEquals(5, trie.getNumberOfNodes());
+	}
+
+	@Test
+	public void testQueriesAreDeduplicated() {
+		PathConditionTrie trie = new PathConditionTrie();
+		PathCondition pc = pathCondition(constraint(x, Comparator.GT, 0), constraint(y, Comparator.LT, 5));
+		trie.addPathCondition(PathConditionTrie.getConstraints(pc));
+
+		List<Constraint<?>> query = PathConditionTrie.getConstraints(pc, 1);
+		assertEquals(2, query.size());
+		assertEquals(constraint(y, Comparator.GE, 5), query.get(1));
+
+		assertTrue(trie.addQuery(query));
+		assertFalse(trie.addQuery(PathConditionTrie.getConstraints(pc, 1)));
+		assertFalse(trie.isExplored(query));
+
+		// The query is satisfied by a path condition explored since
+		PathCondition other = pathCondition(constraint(x, Comparator.GT, 0), constraint(y, Comparator.GE, 5),
+				constraint(x, Comparator.EQ, 3));
+		trie.addPathCondition(PathConditionTrie.getConstraints(other));
+		assertTrue(trie.isExplored(query));
+
+		// Queries for prefixes of explored path conditions are not added
+		PathCondition negated = pathCondition(constraint(x, Comparator.GT, 0), constraint(y, Comparator.GE, 5),
+				constraint(x, Comparator.NE, 3));
+		assertFalse(trie.addQuery(PathConditionTrie.getConstraints(negated, 1)));
+		assertFalse(trie.addQuery(PathConditionTrie.getConstraints(negated, 2)));
+		assertTrue(trie.addQuery(PathConditionTrie.getConstraints(negated, 0)));
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.DSEStats;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConstraintSlicerTest {
+
+	private final boolean slicing = Properties.DSE_CONSTRAINT_SLICING;
+
+	private final IntegerVariable x = new IntegerVariable("x", 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private final IntegerVariable y = new IntegerVariable("y", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private final IntegerVariable z = new IntegerVariable("z", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	/**
+	 * Solves y > 3 by setting all variables to 4, and records its queries
+	 */
+	private static class RecordingSolver extends Solver {
+
+		private final List<Collection<Constraint<?>>> queries = new ArrayList<>();
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			queries.add(constraints);
+			Map<String, Object> model = new HashMap<>();
+			for (Variable<?> variable : getVariables(constraints)) {
+				model.put(variable.getName(), 4L);
+			}
+			return SolverResult.newSAT(model);
+		}
+	}
+
+	@Before
+	public void setUp() {
+		SolverCache.getInstance().clear();
+		DSEStats.clear();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.DSE_CONSTRAINT_SLICING = slicing;
+		SolverCache.getInstance().clear();
+		DSEStats.clear();
+	}
+
+	@Test
+	public void testPartition() {
+		Constraint<?> c1 = new IntegerConstraint(x, Comparator.LT, new IntegerConstant(5));
+		Constraint<?> c2 = new IntegerConstraint(y, Comparator.GT, new IntegerConstant(3));
+		Constraint<?> c3 = new IntegerConstraint(x, Comparator.EQ,
+				new IntegerBinaryExpression(z, Operator.PLUS, new IntegerConstant(1), 1L));
+		Constraint<?> c4 = new IntegerConstraint(new IntegerConstant(1), Comparator.EQ, new IntegerConstant(1));
+
+		List<List<Constraint<?>>> slices = ConstraintSlicer.partition(Arrays.asList(c1, c2, c3, c4));
+
+		assertEquals(3, slices.size());
+		assertEquals(Arrays.asList(c1, c3), slices.get(0));
+		assertEquals(Arrays.asList(c2), slices.get(1));
+		assertEquals(Arrays.asList(c4), slices.get(2));
+		assertTrue(ConstraintSlicer.isSatisfiedByConcreteValues(slices.get(0)));
+		assertTrue(!ConstraintSlicer.isSatisfiedByConcreteValues(slices.get(1)));
+	}
+
+	@Test
+	public void testOnlyUnsatisfiedSliceIsSolved() {
+		Properties.DSE_CONSTRAINT_SLICING = true;
+		Constraint<?> c1 = new IntegerConstraint(x, Comparator.LT, new IntegerConstant(5));
+		Constraint<?> c2 = new IntegerConstraint(x, Comparator.EQ,
+				new IntegerBinaryExpression(z, Operator.PLUS, new IntegerConstant(1), 1L));
+		Constraint<?> c3 = new IntegerConstraint(y, Comparator.GT, new IntegerConstant(3));
+		RecordingSolver solver = new RecordingSolver();
+
+		SolverResult result = SolverCache.getInstance().solve(solver, Arrays.asList(c1, c2, c3));
+
+		assertTrue(result.isSAT());
+		assertEquals(1, solver.queries.size());
+		assertEquals(Arrays.asList(c3), solver.queries.get(0));
+		assertEquals(1, result.getModel().size());
+		assertEquals(4L, result.getValue("y"));
+		assertEquals(3, DSEStats.getInstance().getConstraintsBeforeSlicing());
+		assertEquals(1, DSEStats.getInstance().getConstraintsAfterSlicing());
+	}
+
+	@Test
+	public void testFalseConstantIsUnsat() {
+		Properties.DSE_CONSTRAINT_SLICING = true;
+		Constraint<?> c1 = new IntegerConstraint(y, Comparator.GT, new IntegerConstant(3));
+		Constraint<?> c2 = new IntegerConstraint(new IntegerConstant(1), Comparator.EQ, new IntegerConstant(2));
+
+		SolverResult result = SolverCache.getInstance().solve(new RecordingSolver(), Arrays.asList(c1, c2));
+
+		assertTrue(result.isUNSAT());
+	}
+}
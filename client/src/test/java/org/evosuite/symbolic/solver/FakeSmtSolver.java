@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for an incremental SMT solver in tests. It answers unsat if an
+ * assertion in scope contains "false", crashes on "crash", hangs on "hang",
+ * and otherwise answers sat with a model in which x is the number of
+ * assertions in scope.
+ */
+public class FakeSmtSolver {
+
+	public static void main(String[] args) throws Exception {
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in, "UTF-8"));
+		List<List<String>> stack = new ArrayList<>();
+		stack.add(new ArrayList<>());
+		String line;
+		while ((line = in.readLine()) != null) {
+			line = line.trim();
+			if (line.equals("(push 1)")) {
+				stack.add(new ArrayList<>());
+			} else if (line.startsWith("(pop ")) {
+				int n = Integer.parseInt(line.substring(5, line.length() - 1));
+				for (int i = 0; i < n; i++)
+					stack.remove(stack.size() - 1);
+			} else if (line.startsWith("(echo ")) {
+				System.out.println(line.substring(6, line.length() - 1));
+			} else if (line.equals("(check-sat)")) {
+				String answer = "sat";
+				for (List<String> scope : stack) {
+					for (String command : scope) {
+						if (command.contains("crash"))
+							System.exit(1);
+						if (command.contains("hang"))
+							Thread.sleep(Long.MAX_VALUE);
+						if (command.contains("false"))
+							answer = "unsat";
+					}
+				}
+				System.out.println(answer);
+			} else if (line.equals("(get-model)")) {
+				int assertions = 0;
+				for (List<String> scope : stack) {
+					for (String command : scope) {
+						if (command.startsWith("(assert"))
+							assertions++;
+					}
+				}
+				System.out.println("(model");
+				System.out.println("  (define-fun x () Int " + assertions + ")");
+				System.out.println(")");
+			} else if (!line.isEmpty()) {
+				stack.get(stack.size() - 1).add(line);
+			}
+			System.out.flush();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.SolverType;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.solver.avm.EvoSuiteSolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PortfolioSolverTest {
+
+	private final double minWinRate = Properties.DSE_PORTFOLIO_MIN_WIN_RATE;
+
+	private final IntegerVariable x = new IntegerVariable("x", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private final List<Constraint<?>> query = Collections.singletonList(
+			new IntegerConstraint(x, Comparator.GT, new IntegerConstant(10)));
+
+	/**
+	 * Answers SAT with x = 42 at once
+	 */
+	private static class FastSolver extends Solver {
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			return SolverResult.newSAT(Collections.singletonMap("x", 42L));
+		}
+	}
+
+	/**
+	 * Waits until it is interrupted, and then gives up
+	 */
+	private static class HangingSolver extends Solver {
+
+		private final CountDownLatch interrupted = new CountDownLatch(1);
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException {
+			try {
+				Thread.sleep(60000);
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			throw new SolverTimeoutException();
+		}
+	}
+
+	/**
+	 * Never finds an answer
+	 */
+	private static class UnknownSolver extends Solver {
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				throw new SolverTimeoutException();
+			}
+			return SolverResult.newUnknown();
+		}
+	}
+
+	@Before
+	public void setUp() {
+		PortfolioSolver.resetStatistics();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.DSE_PORTFOLIO_MIN_WIN_RATE = minWinRate;
+		PortfolioSolver.resetStatistics();
+	}
+
+	private static PortfolioSolver portfolio(SolverType type1, Supplier<Solver> solver1, SolverType type2,
+			Supplier<Solver> solver2) {
+		Map<SolverType, Supplier<Solver>> solvers = new LinkedHashMap<>();
+		solvers.put(type1, solver1);
+		solvers.put(type2, solver2);
+		return new PortfolioSolver(solvers);
+	}
+
+	@Test(timeout = 20000)
+	public void testFirstAnswerWinsAndOthersAreInterrupted() throws Exception {
+		HangingSolver hanging = new HangingSolver();
+		PortfolioSolver solver = portfolio(SolverType.EVOSUITE_SOLVER, () -> hanging, SolverType.Z3_SOLVER,
+				FastSolver::new);
+
+		SolverResult result = solver.solve(query);
+
+		assertTrue(result.isSAT());
+		assertEquals(42L, result.getModel().get("x"));
+		assertTrue(hanging.interrupted.await(10, TimeUnit.SECONDS));
+		assertEquals(1, PortfolioSolver.getNumberOfWins(SolverType.Z3_SOLVER));
+		assertEquals(0, PortfolioSolver.getNumberOfWins(SolverType.EVOSUITE_SOLVER));
+		assertEquals(1, PortfolioSolver.getNumberOfRuns(SolverType.EVOSUITE_SOLVER));
+	}
+
+	@Test(timeout = 20000)
+	public void testAvmWorksOnCopyOfConstraints() throws Exception {
+		PortfolioSolver solver = portfolio(SolverType.EVOSUITE_SOLVER, EvoSuiteSolver::new,
+				SolverType.CVC4_SOLVER, UnknownSolver::new);
+
+		SolverResult result = solver.solve(query);
+
+		assertTrue(result.isSAT());
+		assertTrue((Long) result.getModel().get("x") > 10);
+		assertEquals(0L, (long) x.getConcreteValue());
+	}
+
+	@Test(timeout = 20000)
+	public void testLosingSolverIsDropped() throws Exception {
+		Properties.DSE_PORTFOLIO_MIN_WIN_RATE = 0.1;
+		PortfolioSolver solver = portfolio(SolverType.EVOSUITE_SOLVER, FastSolver::new, SolverType.Z3_SOLVER,
+				UnknownSolver::new);
+
+		for (int i = 0; i < PortfolioSolver.MIN_RUNS_BEFORE_DROPPING - 1; i++) {
+			solver.solve(query);
+		}
+		assertEquals(Arrays.asList(SolverType.EVOSUITE_SOLVER, SolverType.Z3_SOLVER), solver.getActiveSolvers());
+
+		solver.solve(query);
+		assertTrue(PortfolioSolver.isDropped(SolverType.Z3_SOLVER));
+		assertFalse(PortfolioSolver.isDropped(SolverType.EVOSUITE_SOLVER));
+		assertEquals(Arrays.asList(SolverType.EVOSUITE_SOLVER), solver.getActiveSolvers());
+
+		// The remaining solver is not raced any more
+		solver.solve(query);
+		assertEquals(PortfolioSolver.MIN_RUNS_BEFORE_DROPPING, PortfolioSolver.getNumberOfRuns(SolverType.Z3_SOLVER));
+		assertEquals(1.0, PortfolioSolver.getWinRate(SolverType.EVOSUITE_SOLVER), 0.0);
+	}
+}
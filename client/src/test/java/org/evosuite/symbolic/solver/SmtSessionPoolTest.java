@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.solver.smt.SmtModelParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SmtSessionPoolTest {
+
+	private static final String HEADER = "(set-option :produce-models true)\n";
+
+	private static final String DECLARATION = "(declare-const x Int)";
+
+	private static final long TIMEOUT = 10000;
+
+	private final int sessions = Properties.SMT_SOLVER_SESSIONS;
+
+	private static String getFakeSolverCommand() {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		return "\"" + java + "\" -cp \"" + System.getProperty("java.class.path") + "\" "
+				+ FakeSmtSolver.class.getName();
+	}
+
+	private static long solve(List<String> frames, long timeout) throws Exception {
+		String output = SmtSessionPool.getInstance().check(getFakeSolverCommand(), HEADER, frames, timeout);
+		SolverResult result = new SmtModelParser().parse(output);
+		if (result.isUNSAT())
+			return -1;
+		return (Long) result.getValue("x");
+	}
+
+	@Before
+	public void setUp() {
+		Properties.SMT_SOLVER_SESSIONS = 1;
+		SmtSessionPool.getInstance().shutdown();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.SMT_SOLVER_SESSIONS = sessions;
+		SmtSessionPool.getInstance().shutdown();
+	}
+
+	@Test
+	public void testSharedPrefixIsAssertedOnce() throws Exception {
+		SmtSessionPool pool = SmtSessionPool.getInstance();
+		int started = pool.getStartedSessions();
+		int pushed = pool.getPushedFrames();
+
+		assertEquals(1, solve(Arrays.asList(DECLARATION, "(assert (> x 0))"), TIMEOUT));
+		assertEquals(2, solve(Arrays.asList(DECLARATION, "(assert (> x 0))", "(assert (< x 5))"), TIMEOUT));
+		assertEquals(2, solve(Arrays.asList(DECLARATION, "(assert (> x 0))", "(assert (< x 7))"), TIMEOUT));
+		assertEquals(-1, solve(Arrays.asList(DECLARATION, "(assert false)"), TIMEOUT));
+
+		assertEquals(1, pool.getStartedSessions() - started);
+		assertEquals(5, pool.getPushedFrames() - pushed);
+	}
+
+	@Test
+	public void testCrashedProcessIsReplaced() throws Exception {
+		SmtSessionPool pool = SmtSessionPool.getInstance();
+		int started = pool.getStartedSessions();
+
+		assertEquals(1, solve(Arrays.asList(DECLARATION, "(assert (> x 0))"), TIMEOUT));
+		try {
+			solve(Arrays.asList(DECLARATION, "(assert crash)"), TIMEOUT);
+			fail();
+		} catch (SolverErrorException e) {
+			// expected, as the retry crashes as well
+		}
+		assertEquals(1, solve(Arrays.asList(DECLARATION, "(assert (> x 0))"), TIMEOUT));
+		assertEquals(3, pool.getStartedSessions() - started);
+	}
+
+	@Test
+	public void testProcessIsKilledAfterTimeout() throws Exception {
+		SmtSessionPool pool = SmtSessionPool.getInstance();
+		assertEquals(1, solve(Arrays.asList(DECLARATION, "(assert (> x 0))"), TIMEOUT));
+
+		int started = pool.getStartedSessions();
+		long start = System.currentTimeMillis();
+		try {
+			solve(Arrays.asList(DECLARATION, "(assert hang)"), 1000);
+			fail();
+		} catch (SolverTimeoutException e) {
+			assertTrue(System.currentTimeMillis() - start < TIMEOUT);
+		}
+		assertEquals(1, solve(Arrays.asList(DECLARATION, "(assert (> x 0))"), TIMEOUT));
+		assertEquals(1, pool.getStartedSessions() - started);
+	}
+}
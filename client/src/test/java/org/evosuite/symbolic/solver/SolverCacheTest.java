@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolverCacheTest {
+
+	private final int cacheSize = Properties.DSE_SOLVER_CACHE_SIZE;
+
+	private final String cacheDir = Properties.DSE_SOLVER_CACHE_DIR;
+
+	/**
+	 * Returns the concrete values of the variables, and counts its calls
+	 */
+	private static class ConcreteSolver extends Solver {
+
+		private int calls = 0;
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			calls++;
+			Map<String, Object> model = new HashMap<>();
+			for (Variable<?> variable : getVariables(constraints)) {
+				model.put(variable.getName(), ((IntegerVariable) variable).getConcreteValue());
+			}
+			return SolverResult.newSAT(model);
+		}
+	}
+
+	// x < 5 && y == x + 1
+	private static List<Constraint<?>> buildQuery(String x, String y, long max, boolean reversed) {
+		IntegerVariable varX = new IntegerVariable(x, 1, Integer.MIN_VALUE, max);
+		IntegerVariable varY = new IntegerVariable(y, 2, Integer.MIN_VALUE, max);
+		Constraint<?> less = new IntegerConstraint(varX, Comparator.LT, new IntegerConstant(5));
+		Constraint<?> equal = new IntegerConstraint(varY, Comparator.EQ,
+				new IntegerBinaryExpression(varX, Operator.PLUS, new IntegerConstant(1), 2L));
+		return reversed ? Arrays.asList(equal, less) : Arrays.asList(less, equal);
+	}
+
+	@Before
+	public void setUp() {
+		SolverCache.getInstance().clear();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.DSE_SOLVER_CACHE_SIZE = cacheSize;
+		Properties.DSE_SOLVER_CACHE_DIR = cacheDir;
+		SolverCache.getInstance().clear();
+	}
+
+	@Test
+	public void testRenamedQueryHitsCache() {
+		ConcreteSolver solver = new ConcreteSolver();
+		SolverCache cache = SolverCache.getInstance();
+
+		SolverResult first = cache.solve(solver, buildQuery("a", "b", Integer.MAX_VALUE, false));
+		SolverResult second = cache.solve(solver, buildQuery("c", "d", Integer.MAX_VALUE, true));
+
+		assertEquals(1, solver.calls);
+		assertEquals(1, cache.getNumberOfHits());
+		assertEquals(first.getValue("a"), second.getValue("c"));
+		assertEquals(first.getValue("b"), second.getValue("d"));
+		assertEquals(2, second.getModel().size());
+
+		assertEquals(CanonicalQuery.create(buildQuery("a", "b", 10, false)).getKey(),
+				CanonicalQuery.create(buildQuery("x", "y", 10, true)).getKey());
+		assertNotEquals(CanonicalQuery.create(buildQuery("a", "b", 10, false)).getKey(),
+				CanonicalQuery.create(buildQuery("a", "b", 20, false)).getKey());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedResultIsEvicted() {
+		Properties.DSE_SOLVER_CACHE_SIZE = 1;
+		ConcreteSolver solver = new ConcreteSolver();
+		SolverCache cache = SolverCache.getInstance();
+
+		cache.solve(solver, buildQuery("a", "b", 10, false));
+		cache.solve(solver, buildQuery("a", "b", 20, false));
+		cache.solve(solver, buildQuery("a", "b", 10, false));
+
+		assertEquals(3, solver.calls);
+		assertEquals(2, cache.getNumberOfEvictions());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testResultsAreKeptAcrossRuns() throws Exception {
+		File directory = Files.createTempDirectory("solver-cache").toFile();
+		try {
+			Properties.DSE_SOLVER_CACHE_DIR = directory.getAbsolutePath();
+			ConcreteSolver solver = new ConcreteSolver();
+			SolverCache cache = SolverCache.getInstance();
+
+			cache.solve(solver, buildQuery("a", "b", 10, false));
+			cache.clear();
+			SolverResult result = cache.solve(solver, buildQuery("c", "d", 10, true));
+
+			assertEquals(1, solver.calls);
+			assertEquals(1, cache.getNumberOfStoredHits());
+			assertTrue(result.isSAT());
+			assertEquals(1L, result.getValue("c"));
+		} finally {
+			FileUtils.deleteDirectory(directory);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver.avm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.RealConstraint;
+import org.evosuite.symbolic.expr.StringConstraint;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerUnaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.RealToIntegerCast;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.symbolic.expr.fp.IntegerToRealCast;
+import org.evosuite.symbolic.expr.fp.RealBinaryExpression;
+import org.evosuite.symbolic.expr.fp.RealConstant;
+import org.evosuite.symbolic.expr.fp.RealUnaryExpression;
+import org.evosuite.symbolic.expr.fp.RealVariable;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringVariable;
+import org.evosuite.symbolic.solver.DistanceEstimator;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.junit.After;
+import org.junit.Test;
+
+public class CompiledConstraintsTest {
+
+	private final boolean compiledConstraints = Properties.DSE_COMPILED_CONSTRAINTS;
+
+	private final IntegerVariable x = new IntegerVariable("x", 0, -1000, 1000);
+
+	private final IntegerVariable y = new IntegerVariable("y", 0, -1000, 1000);
+
+	private final RealVariable r = new RealVariable("r", 0.0, -1000.0, 1000.0);
+
+	private final StringVariable s = new StringVariable("s", "foo");
+
+	@After
+	public void tearDown() {
+		Properties.DSE_COMPILED_CONSTRAINTS = compiledConstraints;
+	}
+
+	/**
+	 * x * y == 42, x > 3, |x - y| != 0, (long) sqrt(r + x) <= 7, r / 2 < 1.5,
+	 * s startsWith "ba", x / y >= 1
+	 */
+	private List<Constraint<?>> buildConstraints() {
+		List<Constraint<?>> constraints = new ArrayList<>();
+		constraints.add(new IntegerConstraint(new IntegerBinaryExpression(x, Operator.MUL, y, 0L), Comparator.EQ,
+				new IntegerConstant(42)));
+		constraints.add(new IntegerConstraint(x, Comparator.GT, new IntegerConstant(3)));
+		constraints.add(new IntegerConstraint(new IntegerUnaryExpression(new IntegerBinaryExpression(x,
+				Operator.MINUS, y, 0L), Operator.ABS, 0L), Comparator.NE, new IntegerConstant(0)));
+		constraints.add(new IntegerConstraint(new RealToIntegerCast(new RealUnaryExpression(new RealBinaryExpression(
+				r, Operator.PLUS, new IntegerToRealCast(x, 0.0), 0.0), Operator.SQRT, 0.0), 0L), Comparator.LE,
+				new IntegerConstant(7)));
+		constraints.add(new RealConstraint(new RealBinaryExpression(r, Operator.DIV, new RealConstant(2.0), 0.0),
+				Comparator.LT, new RealConstant(1.5)));
+		constraints.add(new StringConstraint(new StringBinaryComparison(s, Operator.STARTSWITH, new StringConstant(
+				"ba"), 0L), Comparator.NE, new IntegerConstant(0)));
+		constraints.add(new IntegerConstraint(new IntegerBinaryExpression(x, Operator.DIV, y, 0L), Comparator.GE,
+				new IntegerConstant(1)));
+		return constraints;
+	}
+
+	@Test
+	public void testSameDistanceAsDistanceEstimator() {
+		List<Constraint<?>> constraints = buildConstraints();
+		CompiledConstraints compiled = new CompiledConstraints(constraints);
+		assertEquals(6, compiled.getNumberOfCompiledConstraints());
+
+		Random random = new Random(42);
+		for (int i = 0; i < 500; i++) {
+			x.setConcreteValue((long) random.nextInt(21) - 10);
+			y.setConcreteValue((long) random.nextInt(21) - 10);
+			r.setConcreteValue(random.nextDouble() * 10 - 2);
+			s.setConcreteValue(random.nextBoolean() ? "bar" : "foo");
+
+			// Includes division by zero, where the distance is the maximum
+			assertEquals(DistanceEstimator.getDistance(constraints), compiled.getDistance(), 0.0);
+		}
+	}
+
+	@Test
+	public void testOnlyConstraintsOfChangedVariableAreEvaluated() {
+		List<Constraint<?>> constraints = buildConstraints();
+		x.setConcreteValue(6L);
+		y.setConcreteValue(7L);
+		r.setConcreteValue(1.0);
+		CompiledConstraints compiled = new CompiledConstraints(constraints);
+		assertEquals(DistanceEstimator.getDistance(constraints), compiled.getDistance(x), 0.0);
+
+		for (long value = -5; value <= 5; value++) {
+			x.setConcreteValue(value);
+			assertEquals(DistanceEstimator.getDistance(constraints), compiled.getDistance(x), 0.0);
+		}
+
+		r.setConcreteValue(500.0);
+		assertEquals(DistanceEstimator.getDistance(constraints), compiled.getDistance(r), 0.0);
+		y.setConcreteValue(0L);
+		assertEquals(DistanceEstimator.getDistance(constraints), compiled.getDistance(y), 0.0);
+	}
+
+	@Test
+	public void testSolverWithCompiledConstraints() throws Exception {
+		Properties.DSE_COMPILED_CONSTRAINTS = true;
+		Collection<Constraint<?>> constraints = Arrays.asList(
+				new IntegerConstraint(new IntegerBinaryExpression(x, Operator.MUL, new IntegerConstant(3), 0L),
+						Comparator.EQ, new IntegerConstant(42)),
+				new RealConstraint(new RealBinaryExpression(r, Operator.MINUS, new IntegerToRealCast(x, 0.0), 0.0),
+						Comparator.GT, new RealConstant(0.5)));
+
+		SolverResult result = new EvoSuiteSolver().solve(constraints);
+
+		assertTrue(result.isSAT());
+		assertEquals(14L, result.getModel().get("x"));
+		assertTrue((Double) result.getModel().get("r") - 14 > 0.5);
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.Properties;
+import org.evosuite.TimeController;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceProxy;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class CopyOnWriteTestChromosomeTest {
+
+	@Before
+	public void setUp() {
+		Properties.getInstance().resetToDefaults();
+		Properties.COPY_ON_WRITE_TESTS = true;
+		TimeController.resetSingleton();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static TestChromosome createChromosome(int... values) {
+		DefaultTestCase test = new DefaultTestCase();
+		for (int value : values) {
+			test.addStatement(new IntPrimitiveStatement(test, value));
+		}
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		chromosome.setChanged(false);
+		ExecutionResult result = new ExecutionResult(test);
+		result.setTrace(new ExecutionTraceProxy());
+		result.setExecutedStatements(values.length);
+		chromosome.setLastExecutionResult(result);
+		return chromosome;
+	}
+
+	private static int valueAt(TestChromosome chromosome, int position) {
+		return ((IntPrimitiveStatement) chromosome.readTestCase().getStatement(position)).getValue().intValue();
+	}
+
+	/**
+	 * Fitness that is worse for shorter tests, or always optimal
+	 */
+	private static class LengthFitness extends TestFitnessFunction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final boolean keepStatements;
+
+		LengthFitness(boolean keepStatements) {
+			this.keepStatements = keepStatements;
+		}
+
+		@Override
+		public double getFitness(TestChromosome individual, ExecutionResult result) {
+			double fitness = keepStatements ? 10 - individual.size() : 0;
+			updateIndividual(this, individual, fitness);
+			return fitness;
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+
+		@Override
+		public int compareTo(TestFitnessFunction other) {
+			return compareClassName(other);
+		}
+
+		@Override
+		public int hashCode() {
+			return keepStatements ? 1 : 0;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof LengthFitness && ((LengthFitness) other).keepStatements == keepStatements;
+		}
+
+		@Override
+		public String getTargetClass() {
+			return "";
+		}
+
+		@Override
+		public String getTargetMethod() {
+			return "";
+		}
+	}
+
+	@Test
+	public void testCloneSharesTestUntilChanged() {
+		TestChromosome original = createChromosome(1, 2);
+		TestChromosome clone = (TestChromosome) original.clone();
+		Assert.assertSame(original.test, clone.test);
+		Assert.assertSame(original.getLastExecutionResult(), clone.getLastExecutionResult());
+		Assert.assertEquals(original, clone);
+
+		TestCase test = clone.getTestCase();
+		Assert.assertNotSame(original.test, test);
+		Assert.assertSame(test, clone.getLastExecutionResult().test);
+		((IntPrimitiveStatement) test.getStatement(0)).setValue(7);
+		Assert.assertEquals(1, ((IntPrimitiveStatement) original.getTestCase().getStatement(0)).getValue().intValue());
+	}
+
+	@Test
+	public void testLastOwnerDoesNotCopy() {
+		TestChromosome original = createChromosome(1, 2);
+		TestChromosome clone = (TestChromosome) original.clone();
+		TestCase shared = original.test;
+
+		clone.getTestCase();
+		Assert.assertSame(shared, original.getTestCase());
+	}
+
+	@Test
+	public void testReplacedTestIsNotCopied() {
+		TestChromosome original = createChromosome(1, 2);
+		TestChromosome clone = (TestChromosome) original.clone();
+		TestCase shared = original.test;
+
+		clone.setTestCase(new DefaultTestCase());
+		Assert.assertSame(shared, original.getTestCase());
+	}
+
+	@Test
+	public void testReadDoesNotCopy() {
+		TestChromosome original = createChromosome(1, 2);
+		TestChromosome clone = (TestChromosome) original.clone();
+		TestCase shared = original.test;
+
+		Assert.assertSame(shared, clone.readTestCase());
+		Assert.assertSame(shared, original.readTestCase());
+		Assert.assertNotSame(shared, clone.getTestCase());
+	}
+
+	@Test
+	public void testInlineDoesNotChangeClone() {
+		TestChromosome original = createChromosome(1, 2);
+		TestChromosome clone = (TestChromosome) original.clone();
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		suite.addTest(original);
+
+		new ConstantInliner().inline(suite);
+		Assert.assertEquals(0, suite.getTestChromosome(0).size());
+		Assert.assertEquals(0, suite.getTestChromosome(0).getLastExecutionResult().getExecutedStatements());
+
+		Assert.assertEquals(2, clone.size());
+		Assert.assertEquals(2, clone.getLastExecutionResult().getExecutedStatements());
+		Assert.assertSame(clone.readTestCase(), clone.getLastExecutionResult().test);
+	}
+
+	@Test
+	public void testMinimizeDoesNotChangeClone() {
+		TestChromosome original = createChromosome(1, 2);
+		TestChromosome clone = (TestChromosome) original.clone();
+
+		new TestCaseMinimizer(new LengthFitness(false)).minimize(original);
+		Assert.assertEquals(0, original.size());
+		Assert.assertEquals(2, clone.size());
+		Assert.assertEquals(1, valueAt(clone, 0));
+	}
+
+	@Test
+	public void testUndoneMinimizationSharesTest() {
+		TestChromosome original = createChromosome(1, 2);
+		TestChromosome clone = (TestChromosome) original.clone();
+
+		new TestCaseMinimizer(new LengthFitness(true)).minimize(original);
+		Assert.assertEquals(2, original.size());
+		Assert.assertSame(clone.readTestCase(), original.readTestCase());
+
+		((IntPrimitiveStatement) original.getTestCase().getStatement(0)).setValue(7);
+		Assert.assertEquals(7, valueAt(original, 0));
+		Assert.assertEquals(1, valueAt(clone, 0));
+	}
+
+	@Test
+	public void testValueMinimizerDoesNotChangeClone() throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference value = new ConstantValue(test, new GenericClass(int.class), 100);
+		test.addStatement(new MethodStatement(test, new GenericMethod(Math.class.getMethod("abs", int.class),
+				Math.class), null, Collections.singletonList(value)));
+		TestChromosome original = new TestChromosome();
+		original.setTestCase(test);
+		TestChromosome clone = (TestChromosome) original.clone();
+		LengthFitness fitness = new LengthFitness(false);
+		fitness.getFitness(original);
+
+		new ValueMinimizer().minimize(original, fitness);
+		Assert.assertEquals("Math.abs(0);", original.readTestCase().toCode().trim());
+		Assert.assertEquals("Math.abs(100);", clone.readTestCase().toCode().trim());
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.evosuite.Properties;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Compares the throughput and the allocations of the branch probes with and
+ * without {@link Properties#FAST_BRANCH_PROBES}. Each execution passes the
+ * given number of probes on a few hundred branches, and then retrieves the
+ * trace as the fitness evaluation does. Not run as part of the tests, call as
+ *
+ * <pre>
+ * java org.evosuite.testcase.execution.BranchProbeBenchmark [executions] [probes]
+ * </pre>
+ *
+ * with the test classpath.
+ */
+public class BranchProbeBenchmark {
+
+	private static final int BRANCHES = 400;
+
+	private static final int[] UNARY_OPCODES = { Opcodes.IFEQ, Opcodes.IFNE, Opcodes.IFLT, Opcodes.IFGE,
+			Opcodes.IFGT, Opcodes.IFLE };
+
+	private static final int[] BINARY_OPCODES = { Opcodes.IF_ICMPEQ, Opcodes.IF_ICMPNE, Opcodes.IF_ICMPLT,
+			Opcodes.IF_ICMPGE, Opcodes.IF_ICMPGT, Opcodes.IF_ICMPLE };
+
+	public static void main(String[] args) {
+		int executions = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int probes = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+
+		Properties.CRITERION = new Properties.Criterion[] { Properties.Criterion.BRANCH };
+		ExecutionTracer.setThread(Thread.currentThread());
+		ExecutionTracer.enable();
+
+		System.out.println("fast_probes;probes;probes_per_s;bytes_per_probe");
+		// The first two rounds warm up the JIT
+		for (boolean fastProbes : new boolean[] { false, true, false, true }) {
+			Properties.FAST_BRANCH_PROBES = fastProbes;
+			Random random = new Random(42);
+			long allocatedBefore = allocatedBytes();
+			long start = System.nanoTime();
+			for (int i = 0; i < executions; i++) {
+				ExecutionTracer.getExecutionTracer().clear();
+				for (int j = 0; j < probes; j++) {
+					int branch = 1 + random.nextInt(BRANCHES);
+					if (random.nextBoolean())
+						BranchProbe.passedBranch(random.nextInt(7) - 3, UNARY_OPCODES[j % 6], branch, 0);
+					else
+						BranchProbe.passedBranch(random.nextInt(5), random.nextInt(5), BINARY_OPCODES[j % 6],
+								branch, 0);
+				}
+				ExecutionTracer.getExecutionTracer().getTrace();
+			}
+			long time = System.nanoTime() - start;
+			long allocated = allocatedBytes() - allocatedBefore;
+
+			long total = (long) executions * probes;
+			System.out.println(fastProbes + ";" + total + ";" + (long) (total / (time / 1e9)) + ";"
+					+ (double) allocated / total);
+		}
+		ExecutionTracer.disable();
+	}
+
+	@SuppressWarnings("restriction")
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
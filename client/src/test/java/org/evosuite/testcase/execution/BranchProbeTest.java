@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Random;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+
+public class BranchProbeTest {
+
+	private static final int[] UNARY_OPCODES = { Opcodes.IFEQ, Opcodes.IFNE, Opcodes.IFLT, Opcodes.IFGE,
+			Opcodes.IFGT, Opcodes.IFLE };
+
+	private static final int[] BINARY_OPCODES = { Opcodes.IF_ICMPEQ, Opcodes.IF_ICMPNE, Opcodes.IF_ICMPLT,
+			Opcodes.IF_ICMPGE, Opcodes.IF_ICMPGT, Opcodes.IF_ICMPLE };
+
+	@Before
+	public void setUp() {
+		Properties.getInstance().resetToDefaults();
+		Properties.CRITERION = new Properties.Criterion[] { Properties.Criterion.BRANCH };
+		ExecutionTracer.setThread(Thread.currentThread());
+		ExecutionTracer.enable();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTracer.disable();
+	}
+
+	private static ExecutionTrace execute(boolean fastProbes, long seed) {
+		Properties.FAST_BRANCH_PROBES = fastProbes;
+		ExecutionTracer.getExecutionTracer().clear();
+		Assert.assertEquals(fastProbes, BranchProbe.isActive());
+		Random random = new Random(seed);
+		for (int i = 0; i < 2000; i++) {
+			int branch = 1 + random.nextInt(400);
+			switch (random.nextInt(4)) {
+			case 0:
+				BranchProbe.passedBranch(random.nextInt(7) - 3, UNARY_OPCODES[random.nextInt(6)], branch, 0);
+				break;
+			case 1:
+				BranchProbe.passedBranch(random.nextInt(5), random.nextInt(5), BINARY_OPCODES[random.nextInt(6)],
+						branch, 0);
+				break;
+			case 2:
+				BranchProbe.passedBranch(random.nextBoolean() ? null : "", random.nextBoolean() ? Opcodes.IFNULL
+						: Opcodes.IFNONNULL, branch, 0);
+				break;
+			default:
+				BranchProbe.onDcmpL(random.nextDouble(), random.nextDouble(), branch);
+				BranchProbe.passedBranch(0, UNARY_OPCODES[random.nextInt(6)], branch, 0);
+			}
+		}
+		return ExecutionTracer.getExecutionTracer().getTrace();
+	}
+
+	@Test
+	public void testSameTraceAsExecutionTracer() {
+		ExecutionTrace expected = execute(false, 42);
+		ExecutionTrace actual = execute(true, 42);
+
+		Assert.assertEquals(expected.getTrueDistances(), actual.getTrueDistances());
+		Assert.assertEquals(expected.getFalseDistances(), actual.getFalseDistances());
+		Assert.assertEquals(expected.getPredicateExecutionCount(), actual.getPredicateExecutionCount());
+		Assert.assertEquals(expected.getCoveredTrue(), actual.getCoveredTrue());
+		Assert.assertEquals(expected.getCoveredFalse(), actual.getCoveredFalse());
+		Assert.assertEquals(expected.getTrueDistancesSum().keySet(), actual.getTrueDistancesSum().keySet());
+		for (Integer branch : expected.getTrueDistancesSum().keySet()) {
+			Assert.assertEquals(expected.getTrueDistancesSum().get(branch), actual.getTrueDistancesSum().get(branch),
+					1e-6);
+			Assert.assertEquals(expected.getFalseDistancesSum().get(branch),
+					actual.getFalseDistancesSum().get(branch), 1e-6);
+		}
+	}
+
+	@Test
+	public void testProbesOfOtherThreadsAreIgnored() throws InterruptedException {
+		Properties.FAST_BRANCH_PROBES = true;
+		ExecutionTracer.getExecutionTracer().clear();
+		Thread other = new Thread(() -> BranchProbe.passedBranch(0, Opcodes.IFEQ, 1, 0));
+		other.start();
+		other.join();
+		BranchProbe.passedBranch(1, Opcodes.IFEQ, 2, 0);
+
+		ExecutionTrace trace = ExecutionTracer.getExecutionTracer().getTrace();
+		Assert.assertFalse(trace.getPredicateExecutionCount().containsKey(1));
+		Assert.assertEquals(1, trace.getPredicateExecutionCount().get(2).intValue());
+	}
+
+	@Test
+	public void testDisabledTracerIsRespected() {
+		Properties.FAST_BRANCH_PROBES = true;
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTracer.disable();
+		BranchProbe.passedBranch(0, Opcodes.IFEQ, 1, 0);
+		ExecutionTracer.enable();
+
+		Assert.assertTrue(ExecutionTracer.getExecutionTracer().getTrace().getPredicateExecutionCount().isEmpty());
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DenseExecutionTraceImplTest {
+
+	private static void assertSameBranchData(ExecutionTrace expected, ExecutionTrace actual) {
+		Assert.assertEquals(expected.getTrueDistances(), new HashMap<>(actual.getTrueDistances()));
+		Assert.assertEquals(expected.getFalseDistances(), new HashMap<>(actual.getFalseDistances()));
+		Assert.assertEquals(expected.getTrueDistancesSum(), new HashMap<>(actual.getTrueDistancesSum()));
+		Assert.assertEquals(expected.getFalseDistancesSum(), new HashMap<>(actual.getFalseDistancesSum()));
+		Assert.assertEquals(expected.getPredicateExecutionCount(),
+				new HashMap<>(actual.getPredicateExecutionCount()));
+		Assert.assertEquals(expected.getCoveredTrue(), new HashMap<>(actual.getCoveredTrue()));
+		Assert.assertEquals(expected.getCoveredFalse(), new HashMap<>(actual.getCoveredFalse()));
+		Assert.assertEquals(expected.getCoveredPredicates(), actual.getCoveredPredicates());
+		Assert.assertEquals(expected.getCoveredTrueBranches(), actual.getCoveredTrueBranches());
+		Assert.assertEquals(expected.getCoveredFalseBranches(), actual.getCoveredFalseBranches());
+	}
+
+	private static void passRandomBranches(Random random, ExecutionTrace... traces) {
+		for (int i = 0; i < 1000; i++) {
+			int branch = 1 + random.nextInt(300);
+			double distance = random.nextInt(4);
+			double trueDistance = random.nextBoolean() ? 0.0 : distance + 1.0;
+			double falseDistance = trueDistance == 0.0 ? distance + 1.0 : 0.0;
+			for (ExecutionTrace trace : traces) {
+				trace.branchPassed(branch, 0, trueDistance, falseDistance);
+			}
+		}
+	}
+
+	@Test
+	public void testSameDataAsMapBasedTrace() {
+		ExecutionTraceImpl expected = new ExecutionTraceImpl();
+		DenseExecutionTraceImpl actual = new DenseExecutionTraceImpl();
+		passRandomBranches(new Random(42), expected, actual);
+
+		assertSameBranchData(expected, actual);
+		for (int branch = 0; branch < 310; branch++) {
+			Assert.assertEquals(expected.hasTrueDistance(branch), actual.hasTrueDistance(branch));
+			Assert.assertEquals(expected.hasFalseDistance(branch), actual.hasFalseDistance(branch));
+			if (expected.hasTrueDistance(branch)) {
+				Assert.assertEquals(expected.getTrueDistance(branch), actual.getTrueDistance(branch), 0.0);
+				Assert.assertEquals(expected.getFalseDistance(branch), actual.getFalseDistance(branch), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testClearResetsTouchedBranches() {
+		DenseExecutionTraceImpl trace = new DenseExecutionTraceImpl();
+		trace.branchPassed(5, 0, 0.0, 2.0);
+		trace.branchPassed(500, 0, 3.0, 0.0);
+		trace.clear();
+
+		Assert.assertTrue(trace.getTrueDistances().isEmpty());
+		Assert.assertTrue(trace.getPredicateExecutionCount().isEmpty());
+		Assert.assertFalse(trace.hasTrueDistance(5));
+		Assert.assertFalse(trace.hasFalseDistance(500));
+
+		trace.branchPassed(5, 0, 1.0, 0.0);
+		Assert.assertEquals(1.0, trace.getTrueDistance(5), 0.0);
+		Assert.assertEquals(1, trace.getPredicateExecutionCount().get(5).intValue());
+		Assert.assertFalse(trace.getCoveredTrue().containsKey(5));
+	}
+
+	@Test
+	public void testCloneIsIndependent() {
+		ExecutionTraceImpl expected = new ExecutionTraceImpl();
+		DenseExecutionTraceImpl original = new DenseExecutionTraceImpl();
+		Random random = new Random(7);
+		passRandomBranches(random, expected, original);
+
+		DenseExecutionTraceImpl copy = original.clone();
+		assertSameBranchData(expected, copy);
+
+		// Diverging updates must not leak between the copies
+		passRandomBranches(random, expected, copy);
+		assertSameBranchData(expected, copy);
+		Assert.assertNotEquals(expected.getPredicateExecutionCount(),
+				new HashMap<>(original.getPredicateExecutionCount()));
+	}
+
+	@Test
+	public void testViewsReflectLaterUpdates() {
+		DenseExecutionTraceImpl trace = new DenseExecutionTraceImpl();
+		trace.branchPassed(1, 0, 2.0, 0.0);
+		Map<Integer, Double> trueDistances = trace.getTrueDistances();
+
+		// Forces the arrays to grow
+		trace.branchPassed(1000, 0, 0.0, 1.0);
+		trace.branchPassed(1, 0, 1.0, 0.0);
+
+		Assert.assertEquals(2, trueDistances.size());
+		Assert.assertEquals(1.0, trueDistances.get(1), 0.0);
+		Assert.assertEquals(0.0, trueDistances.get(1000), 0.0);
+		Assert.assertNull(trueDistances.get(2));
+	}
+}
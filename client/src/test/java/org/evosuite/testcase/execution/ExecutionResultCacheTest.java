@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class ExecutionResultCacheTest {
+
+	@Before
+	public void setUp() {
+		Properties.getInstance().resetToDefaults();
+		Properties.EXECUTION_RESULT_CACHE_SIZE = 2;
+		TestCaseExecutor.initExecutor();
+		ExecutionResultCache.resetSingleton();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+		ExecutionResultCache.resetSingleton();
+	}
+
+	private static DefaultTestCase createTest(int... values) {
+		DefaultTestCase test = new DefaultTestCase();
+		for (int value : values) {
+			test.addStatement(new IntPrimitiveStatement(test, value));
+		}
+		return test;
+	}
+
+	@Test
+	public void testIdenticalTestIsNotExecuted() {
+		TestCaseExecutor.runTest(createTest(1, 2));
+		Assert.assertEquals(0.0, ExecutionResultCache.getHitRate(), 0.0);
+
+		DefaultTestCase copy = createTest(1, 2);
+		ExecutionResult result = TestCaseExecutor.runTest(copy);
+		Assert.assertSame(copy, result.test);
+		Assert.assertEquals(2, result.getExecutedStatements());
+		Assert.assertEquals(0.5, ExecutionResultCache.getHitRate(), 0.0);
+
+		TestCaseExecutor.runTest(createTest(1, 3));
+		Assert.assertEquals(1.0 / 3.0, ExecutionResultCache.getHitRate(), 0.0);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedResultIsDropped() {
+		TestCaseExecutor.runTest(createTest(1));
+		TestCaseExecutor.runTest(createTest(2));
+		TestCaseExecutor.runTest(createTest(1));
+		TestCaseExecutor.runTest(createTest(3));
+		Assert.assertEquals(2, ExecutionResultCache.getInstance().size());
+
+		TestCaseExecutor.runTest(createTest(1));
+		TestCaseExecutor.runTest(createTest(2));
+		Assert.assertEquals(2.0 / 6.0, ExecutionResultCache.getHitRate(), 0.0);
+	}
+
+	@Test
+	public void testCachedResultIsVerified() {
+		for (int i = 0; i < ExecutionResultCache.VERIFICATION_INTERVAL + 1; i++) {
+			TestCaseExecutor.runTest(createTest(1));
+		}
+		// The first execution misses, and the last hit is executed again
+		double lookups = ExecutionResultCache.VERIFICATION_INTERVAL;
+		Assert.assertEquals((lookups - 1) / lookups, ExecutionResultCache.getHitRate(), 0.0);
+		Assert.assertEquals(1, ExecutionResultCache.getInstance().size());
+	}
+
+	@Test
+	public void testHitCountsTowardsBudget() {
+		new MaxTestsStoppingCondition().reset();
+		new MaxStatementsStoppingCondition().reset();
+
+		TestCaseExecutor.runTest(createTest(1, 2));
+		TestCaseExecutor.runTest(createTest(1, 2));
+		Assert.assertEquals(0.5, ExecutionResultCache.getHitRate(), 0.0);
+		Assert.assertEquals(2, MaxTestsStoppingCondition.getNumExecutedTests());
+		Assert.assertEquals(4, MaxStatementsStoppingCondition.getNumExecutedStatements());
+	}
+
+	@Test
+	public void testHitCopiesAccessedEnvironment() {
+		DefaultTestCase test = createTest(1, 2);
+		ExecutionResult result = TestCaseExecutor.runTest(test);
+		test.getAccessedEnvironment().addLocalFiles(Collections.singleton("/tmp/foo"));
+		ExecutionResultCache cache = ExecutionResultCache.getInstance();
+		cache.put(cache.getKey(test), result);
+		test.getAccessedEnvironment().clear();
+
+		DefaultTestCase copy = createTest(1, 2);
+		TestCaseExecutor.runTest(copy);
+		Assert.assertEquals(0.5, ExecutionResultCache.getHitRate(), 0.0);
+		Assert.assertEquals(Collections.singleton("/tmp/foo"), copy.getAccessedEnvironment().getViewOfAccessedFiles());
+	}
+
+	@Test
+	public void testDifferentOutcomeDisablesCache() {
+		DefaultTestCase test = createTest(1, 2);
+		ExecutionResult result = TestCaseExecutor.runTest(test);
+		ExecutionResultCache cache = ExecutionResultCache.getInstance();
+		String key = cache.getKey(test);
+		cache.put(key, result);
+		Assert.assertEquals(1, cache.size());
+
+		// e.g. the SUT throws at the first statement on the next execution
+		ExecutionResult different = result.clone();
+		different.setExecutedStatements(1);
+		cache.put(key, different);
+		Assert.assertEquals(0, cache.size());
+		Assert.assertNull(cache.getKey(test));
+
+		TestCaseExecutor.runTest(test);
+		TestCaseExecutor.runTest(createTest(1, 2));
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0.0, ExecutionResultCache.getHitRate(), 0.0);
+
+		// A new class starts with an enabled cache
+		TestGenerationContext.getInstance().resetContext();
+		Assert.assertNotNull(ExecutionResultCache.getInstance().getKey(test));
+	}
+}
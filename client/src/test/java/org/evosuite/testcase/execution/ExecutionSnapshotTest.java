@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.Random;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutionSnapshotTest {
+
+	@Before
+	public void setUp() {
+		Properties.getInstance().resetToDefaults();
+		Properties.TEST_PREFIX_SNAPSHOTS = true;
+		TestCaseExecutor.initExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+		RuntimeSettings.mockJVMNonDeterminism = false;
+	}
+
+	private static DefaultTestCase createTest(int... values) {
+		DefaultTestCase test = new DefaultTestCase();
+		for (int value : values) {
+			test.addStatement(new IntPrimitiveStatement(test, value));
+		}
+		return test;
+	}
+
+	@Test
+	public void testSuffixStart() throws NoSuchMethodException {
+		DefaultTestCase test = createTest(1, 2);
+		Assert.assertEquals(0, ExecutionSnapshot.getSuffixStart(test));
+
+		test.addStatement(new ConstructorStatement(test, new GenericConstructor(
+				StringBuilder.class.getConstructor(), StringBuilder.class), Collections.emptyList()));
+		Assert.assertEquals(3, ExecutionSnapshot.getSuffixStart(test));
+
+		test.addStatement(new IntPrimitiveStatement(test, 3));
+		Assert.assertEquals(3, ExecutionSnapshot.getSuffixStart(test));
+	}
+
+	@Test
+	public void testResumeFromFirstChangedStatement() {
+		DefaultTestCase test = createTest(1, 2, 3);
+		TestCaseExecutor.getInstance().execute(test);
+		Assert.assertNotNull(test.getExecutionSnapshot());
+
+		DefaultTestCase mutant = (DefaultTestCase) test.clone();
+		((IntPrimitiveStatement) mutant.getStatement(2)).setValue(7);
+		Assert.assertEquals(2, mutant.getExecutionSnapshot().getResumePosition(mutant));
+
+		ExecutionResult result = TestCaseExecutor.getInstance().execute(mutant);
+		Assert.assertEquals(3, result.getExecutedStatements());
+		Assert.assertTrue(result.noThrownExceptions());
+		Assert.assertNotNull(mutant.getExecutionSnapshot());
+	}
+
+	@Test
+	public void testSnapshotIsOnlyUsedOnce() {
+		DefaultTestCase test = createTest(1, 2, 3);
+		TestCaseExecutor.getInstance().execute(test);
+		ExecutionSnapshot snapshot = test.getExecutionSnapshot();
+		Assert.assertNotNull(snapshot);
+
+		DefaultTestCase mutant = (DefaultTestCase) test.clone();
+		TestCaseExecutor.getInstance().execute(test);
+		Assert.assertEquals(0, snapshot.getResumePosition(mutant));
+	}
+
+	@Test
+	public void testMockedRandomPreventsSnapshot() throws NoSuchMethodException {
+		RuntimeSettings.mockJVMNonDeterminism = true;
+		DefaultTestCase test = new DefaultTestCase();
+		test.addStatement(new MethodStatement(test, new GenericMethod(Random.class.getMethod("nextInt"),
+				Random.class), null, Collections.emptyList()));
+		test.addStatement(new IntPrimitiveStatement(test, 1));
+		test.addStatement(new IntPrimitiveStatement(test, 2));
+
+		TestCaseExecutor.getInstance().execute(test);
+		Assert.assertNull(test.getExecutionSnapshot());
+	}
+
+	@Test
+	public void testIdentityHashCodesAreRestored() throws NoSuchMethodException {
+		RuntimeSettings.mockJVMNonDeterminism = true;
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference object = test.addStatement(new ConstructorStatement(test, new GenericConstructor(
+				Object.class.getConstructor(), Object.class), Collections.emptyList()));
+		test.addStatement(new MethodStatement(test, new GenericMethod(org.evosuite.runtime.System.class.getMethod(
+				"identityHashCode", Object.class), org.evosuite.runtime.System.class), null,
+				Collections.singletonList(object)));
+		test.addStatement(new IntPrimitiveStatement(test, 1));
+		test.addStatement(new IntPrimitiveStatement(test, 2));
+
+		TestCaseExecutor.getInstance().execute(test);
+		Map<Integer, Integer> codes = org.evosuite.runtime.System.getIdentityHashCodes();
+		Assert.assertEquals(1, codes.size());
+
+		DefaultTestCase mutant = (DefaultTestCase) test.clone();
+		((IntPrimitiveStatement) mutant.getStatement(3)).setValue(7);
+		Assert.assertEquals(3, mutant.getExecutionSnapshot().getResumePosition(mutant));
+
+		// The runtime is reset before the execution, but the object keeps its code
+		TestCaseExecutor.getInstance().execute(mutant);
+		Assert.assertEquals(codes, org.evosuite.runtime.System.getIdentityHashCodes());
+	}
+
+	@Test
+	public void testChangedPrefixIsExecutedCompletely() {
+		DefaultTestCase test = createTest(1, 2, 3);
+		TestCaseExecutor.getInstance().execute(test);
+
+		DefaultTestCase mutant = (DefaultTestCase) test.clone();
+		((IntPrimitiveStatement) mutant.getStatement(0)).setValue(7);
+		Assert.assertEquals(0, mutant.getExecutionSnapshot().getResumePosition(mutant));
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.FlagExample1;
+
+public class ParallelTestCaseExecutorTest {
+
+	@Before
+	public void setUp() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+		Properties.TARGET_CLASS = FlagExample1.class.getCanonicalName();
+		Properties.UNMOCKED_EXECUTION_WORKERS = 2;
+		Properties.REPLACE_CALLS = false;
+		Properties.VIRTUAL_FS = false;
+		Properties.VIRTUAL_NET = false;
+		Properties.JEE = false;
+		Properties.SANDBOX = false;
+		Properties.RESET_STATIC_FIELDS = false;
+		Properties.REPLACE_SYSTEM_IN = false;
+		Properties.MAX_LOOP_ITERATIONS = -1;
+		TestCaseExecutor.initExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		ParallelTestCaseExecutor.pullDown();
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static TestChromosome createTest(int value) throws Exception {
+		Class<?> sut = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+		GenericClass clazz = new GenericClass(sut);
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference object = test.addStatement(new ConstructorStatement(test, new GenericConstructor(
+				sut.getConstructor(), clazz), Collections.emptyList()));
+		VariableReference x = test.addStatement(new IntPrimitiveStatement(test, value));
+		test.addStatement(new MethodStatement(test, new GenericMethod(sut.getMethod("testMe", int.class), clazz),
+				object, Collections.singletonList(x)));
+
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		return chromosome;
+	}
+
+	@Test
+	public void testIsEnabled() {
+		Assert.assertTrue(ParallelTestCaseExecutor.isEnabled());
+		Properties.UNMOCKED_EXECUTION_WORKERS = 1;
+		Assert.assertFalse(ParallelTestCaseExecutor.isEnabled());
+		Properties.getInstance().resetToDefaults();
+		Assert.assertFalse(ParallelTestCaseExecutor.isEnabled());
+		// the default configuration uses the mocked environment
+		Properties.UNMOCKED_EXECUTION_WORKERS = 2;
+		Assert.assertFalse(ParallelTestCaseExecutor.isEnabled());
+	}
+
+	@Test
+	public void testSameResultsAsSerialExecution() throws Exception {
+		List<TestChromosome> tests = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			tests.add(createTest(28239 + i));
+		}
+
+		Set<TestChromosome> executed = ParallelTestCaseExecutor.getInstance().executeChanged(tests, false);
+		Assert.assertEquals(tests.size(), executed.size());
+
+		for (TestChromosome test : tests) {
+			Assert.assertFalse(test.isChanged());
+			ExecutionResult parallel = test.getLastExecutionResult();
+			Assert.assertNotNull(parallel);
+			Assert.assertSame(test.getTestCase(), parallel.test);
+
+			ExecutionResult serial = TestCaseExecutor.getInstance().execute(test.getTestCase().clone());
+			Assert.assertEquals(serial.getExecutedStatements(), parallel.getExecutedStatements());
+			Assert.assertEquals(serial.getTrace().getCoveredTrue(), parallel.getTrace().getCoveredTrue());
+			Assert.assertEquals(serial.getTrace().getCoveredFalse(), parallel.getTrace().getCoveredFalse());
+			Assert.assertEquals(serial.getTrace().getTrueDistances(), parallel.getTrace().getTrueDistances());
+			Assert.assertEquals(serial.getTrace().getFalseDistances(), parallel.getTrace().getFalseDistances());
+		}
+		Assert.assertFalse(tests.get(2).getLastExecutionResult().getTrace().getPredicateExecutionCount().isEmpty());
+	}
+
+	@Test
+	public void testUnchangedTestsAreNotExecuted() throws Exception {
+		List<TestChromosome> tests = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			tests.add(createTest(i));
+		}
+		ParallelTestCaseExecutor.getInstance().executeChanged(tests, false);
+		ExecutionResult first = tests.get(0).getLastExecutionResult();
+
+		tests.get(1).setChanged(true);
+		tests.get(2).setChanged(true);
+		Set<TestChromosome> executed = ParallelTestCaseExecutor.getInstance().executeChanged(tests, false);
+		Assert.assertFalse(executed.contains(tests.get(0)));
+		Assert.assertTrue(executed.contains(tests.get(1)));
+		Assert.assertSame(first, tests.get(0).getLastExecutionResult());
+	}
+
+	@Test
+	public void testOnlyResultsOfLastBatchAreReused() throws Exception {
+		List<TestChromosome> tests = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			tests.add(createTest(i));
+		}
+		ParallelTestCaseExecutor.getInstance().executeChanged(tests, false);
+		ExecutionResult first = tests.get(0).getLastExecutionResult();
+		Assert.assertTrue(ParallelTestCaseExecutor.isParallelResult(first));
+		Assert.assertFalse(ParallelTestCaseExecutor.isParallelResult(TestCaseExecutor.runTest(tests.get(0)
+				.getTestCase())));
+
+		tests.get(1).setChanged(true);
+		tests.get(2).setChanged(true);
+		ParallelTestCaseExecutor.getInstance().executeChanged(tests, false);
+		Assert.assertFalse(ParallelTestCaseExecutor.isParallelResult(first));
+		Assert.assertTrue(ParallelTestCaseExecutor.isParallelResult(tests.get(1).getLastExecutionResult()));
+
+		Properties.UNMOCKED_EXECUTION_WORKERS = 1;
+		Assert.assertFalse(ParallelTestCaseExecutor.isParallelResult(tests.get(1).getLastExecutionResult()));
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.dse;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.Properties.SolverType;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.symbolic.DSEAlgorithm;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+
+import com.examples.with.different.packagename.dse.Add;
+import com.examples.with.different.packagename.dse.DoubleExample;
+import com.examples.with.different.packagename.dse.LongExample;
+import com.examples.with.different.packagename.dse.Max;
+import com.examples.with.different.packagename.dse.Min;
+import com.examples.with.different.packagename.dse.StringExample;
+
+/**
+ * Measures the throughput of the DSE algorithm on the DSE example classes
+ * for increasing values of {@link Properties#DSE_WORKERS}, with queries
+ * solved by the AVM solver. Not run as part of the tests, call as
+ *
+ * <pre>
+ * java org.evosuite.dse.DSEWorkersBenchmark [repetitions] [max workers]
+ * </pre>
+ *
+ * with the test classpath.
+ */
+public class DSEWorkersBenchmark {
+
+	private static final Class<?>[] SUBJECTS = { Add.class, Max.class, Min.class, LongExample.class,
+			DoubleExample.class, StringExample.class };
+
+	public static void main(String[] args) throws ClassNotFoundException {
+		int repetitions = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		int maxWorkers = args.length > 1 ? Integer.parseInt(args[1])
+				: Runtime.getRuntime().availableProcessors();
+
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.DSE_SOLVER = SolverType.EVOSUITE_SOLVER;
+		Properties.CRITERION = new Criterion[] { Criterion.BRANCH };
+		TestCaseExecutor.initExecutor();
+
+		// The first round warms up the JIT
+		runAll(1, 0);
+		System.out.println("workers;path_conditions;queries;failed_queries;coverage;ms;path_conditions_per_s");
+		for (int workers = 0; workers <= maxWorkers; workers = workers == 0 ? 1 : workers * 2) {
+			long start = System.nanoTime();
+			DSEAlgorithm[] algorithms = runAll(repetitions, workers);
+			long time = System.nanoTime() - start;
+
+			int pathConditions = 0;
+			int queries = 0;
+			int failedQueries = 0;
+			double coverage = 0.0;
+			for (DSEAlgorithm algorithm : algorithms) {
+				pathConditions += algorithm.getNumberOfExploredPathConditions();
+				queries += algorithm.getNumberOfSolvedQueries();
+				failedQueries += algorithm.getNumberOfFailedQueries();
+				coverage += algorithm.getBestIndividual().getCoverage();
+			}
+			System.out.println(workers + ";" + pathConditions + ";" + queries + ";" + failedQueries + ";"
+					+ coverage / algorithms.length + ";" + time / 1000000 + ";"
+					+ (long) (pathConditions / (time / 1e9)));
+		}
+		System.exit(0);
+	}
+
+	private static DSEAlgorithm[] runAll(int repetitions, int workers) throws ClassNotFoundException {
+		DSEAlgorithm[] algorithms = new DSEAlgorithm[repetitions * SUBJECTS.length];
+		int i = 0;
+		for (int repetition = 0; repetition < repetitions; repetition++)
+			for (Class<?> subject : SUBJECTS)
+				algorithms[i++] = DSEWorkersTest.generateTests(subject.getCanonicalName(), workers, 60);
+		return algorithms;
+	}
+}
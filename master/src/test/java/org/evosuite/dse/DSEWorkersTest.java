@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.dse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.Properties.SolverType;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.stoppingconditions.MaxTimeStoppingCondition;
+import org.evosuite.symbolic.DSEAlgorithm;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.dse.Max;
+import com.examples.with.different.packagename.dse.Min;
+
+/**
+ * Runs the DSE algorithm in this JVM with queries solved on
+ * {@link Properties#DSE_WORKERS} threads by the AVM solver, which needs no
+ * external solver
+ */
+public class DSEWorkersTest {
+
+	@Before
+	public void setUp() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+		Properties.DSE_SOLVER = SolverType.EVOSUITE_SOLVER;
+		Properties.CRITERION = new Criterion[] { Criterion.BRANCH };
+		TestCaseExecutor.initExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		TestGenerationContext.getInstance().resetContext();
+		Properties.getInstance().resetToDefaults();
+	}
+
+	/**
+	 * Generate tests for the static methods of the given class
+	 *
+	 * @param className
+	 * @param workers
+	 *            number of threads solving queries
+	 * @param budget
+	 *            search budget in seconds
+	 * @return the algorithm after the search
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static DSEAlgorithm generateTests(String className, int workers, long budget) throws ClassNotFoundException {
+		TestGenerationContext.getInstance().resetContext();
+		Properties.TARGET_CLASS = className;
+		Properties.DSE_WORKERS = workers;
+		TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(className);
+
+		DSEAlgorithm algorithm = new DSEAlgorithm();
+		algorithm.addFitnessFunction((FitnessFunction) new BranchCoverageSuiteFitness());
+		MaxTimeStoppingCondition stoppingCondition = new MaxTimeStoppingCondition();
+		stoppingCondition.setLimit(budget);
+		algorithm.setStoppingCondition(stoppingCondition);
+		algorithm.generateSolution();
+		return algorithm;
+	}
+
+	@Test
+	public void testMaxWithWorkers() throws ClassNotFoundException {
+		DSEAlgorithm algorithm = generateTests(Max.class.getCanonicalName(), 2, 60);
+
+		assertEquals(0.0, algorithm.getBestIndividual().getFitness(), 0.0);
+		assertTrue(algorithm.getNumberOfSolvedQueries() > 0);
+		assertTrue(algorithm.getNumberOfExploredPathConditions() > 1);
+		assertEquals(0, algorithm.getNumberOfFailedQueries());
+	}
+
+	@Test
+	public void testSameCoverageAsSerialExploration() throws ClassNotFoundException {
+		double serial = generateTests(Min.class.getCanonicalName(), 0, 60).getBestIndividual().getCoverage();
+		DSEAlgorithm algorithm = generateTests(Min.class.getCanonicalName(), 4, 60);
+
+		assertEquals(serial, algorithm.getBestIndividual().getCoverage(), 0.0);
+		assertEquals(0, algorithm.getNumberOfFailedQueries());
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import java.util.List;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.SystemTestBase;
+import org.evosuite.ga.metaheuristics.mosa.structural.GoalIndex;
+import org.evosuite.result.TestGenerationResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.IF_CMP_Test;
+
+/**
+ * System tests for MOSA and DynaMOSA with the fitness of the branches of
+ * methods a test did not enter taken from the {@link GoalIndex}
+ */
+public class GoalIndexSystemTest extends SystemTestBase {
+
+	private void test(Properties.Algorithm algorithm) {
+		Properties.STRATEGY = Properties.Strategy.MOSUITE;
+		Properties.ALGORITHM = algorithm;
+		Properties.CRITERION = new Properties.Criterion[] { Properties.Criterion.BRANCH };
+		Properties.GOAL_INDEXED_FITNESS = true;
+		// Two methods with branches, and no branchless ones
+		Properties.TARGET_METHOD_PREFIX = "greater";
+
+		String targetClass = IF_CMP_Test.class.getCanonicalName();
+		Properties.TARGET_CLASS = targetClass;
+
+		long skipped = GoalIndex.getSkippedEvaluations();
+
+		String[] command = new String[] { "-generateSuite", "-class", targetClass };
+
+		EvoSuite evoSuite = new EvoSuite();
+		@SuppressWarnings("unchecked")
+		List<List<TestGenerationResult>> results = (List<List<TestGenerationResult>>) evoSuite
+				.parseCommandLine(command);
+
+		TestGenerationResult result = results.get(0).get(0);
+		Assert.assertEquals(1d, result.getCoverage(), 0.001);
+		// Tests that only call one of the methods do not enter the other
+		Assert.assertTrue(GoalIndex.getSkippedEvaluations() > skipped);
+	}
+
+	@Test
+	public void testMOSA() {
+		test(Properties.Algorithm.MOSA);
+	}
+
+	@Test
+	public void testDynaMOSA() {
+		test(Properties.Algorithm.DYNAMOSA);
+	}
+}
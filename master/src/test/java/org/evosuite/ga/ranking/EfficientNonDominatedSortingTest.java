@@ -0,0 +1,93 @@
+package org.evosuite.ga.ranking;
+
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.utils.Randomness;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class EfficientNonDominatedSortingTest {
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void checkSameFronts(int populationSize, int numGoals, int numValues) {
+        Set<FitnessFunction> goals = new LinkedHashSet<>();
+        for (int i = 0; i < numGoals; i++) {
+            goals.add(Mockito.mock(FitnessFunction.class));
+        }
+
+        List<TestChromosome> population = new ArrayList<>();
+        for (int i = 0; i < populationSize; i++) {
+            TestChromosome test = new TestChromosome();
+            for (FitnessFunction goal : goals) {
+                // few distinct values, so that there are duplicates and ties
+                test.setFitness(goal, Randomness.nextInt(numValues) / 2.0);
+            }
+            population.add(test);
+        }
+
+        FastNonDominatedSorting expected = new FastNonDominatedSorting();
+        expected.computeRankingAssignment(population, goals);
+        List<Integer> expectedRanks = new ArrayList<>();
+        for (TestChromosome test : population) {
+            expectedRanks.add(test.getRank());
+        }
+
+        EfficientNonDominatedSorting sorting = new EfficientNonDominatedSorting();
+        sorting.computeRankingAssignment(population, goals);
+        assertEquals(expected.getNumberOfSubfronts(), sorting.getNumberOfSubfronts());
+        for (int i = 0; i < population.size(); i++) {
+            assertEquals(expectedRanks.get(i).intValue(), population.get(i).getRank());
+        }
+        for (int f = 0; f < sorting.getNumberOfSubfronts(); f++) {
+            assertEquals(indicesOf(population, expected.getSubfront(f)),
+                    indicesOf(population, sorting.getSubfront(f)));
+        }
+    }
+
+    /**
+     * The positions of the front in the population, as chromosomes with the
+     * same test are equal
+     */
+    private static Set<Integer> indicesOf(List<TestChromosome> population, List<TestChromosome> front) {
+        Map<TestChromosome, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < population.size(); i++) {
+            index.put(population.get(i), i);
+        }
+        Set<Integer> indices = new HashSet<>();
+        for (TestChromosome test : front) {
+            indices.add(index.get(test));
+        }
+        assertEquals(front.size(), indices.size());
+        return indices;
+    }
+
+    @Test
+    public void testSameFrontsAsFastNonDominatedSorting() {
+        Randomness.setSeed(42);
+        checkSameFronts(3, 2, 4);
+        checkSameFronts(50, 2, 10);
+        checkSameFronts(100, 3, 6);
+        checkSameFronts(100, 20, 3);
+        checkSameFronts(200, 1, 5);
+    }
+
+    @Test
+    public void testEmptyPopulation() {
+        EfficientNonDominatedSorting<TestChromosome> sorting = new EfficientNonDominatedSorting<>();
+        sorting.computeRankingAssignment(new ArrayList<>(), new HashSet<>());
+        assertEquals(0, sorting.getNumberOfSubfronts());
+        assertEquals(0, sorting.getSubfront(0).size());
+    }
+}
@@ -0,0 +1,83 @@
+package org.evosuite.ga.ranking;
+
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.RankingFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.utils.Randomness;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares the time of {@link FastNonDominatedSorting} and
+ * {@link EfficientNonDominatedSorting} across population sizes and numbers of
+ * goals. Not run as part of the tests, call as
+ *
+ * <pre>
+ * java org.evosuite.ga.ranking.NonDominatedSortingBenchmark [repetitions]
+ * </pre>
+ *
+ * with the test classpath.
+ */
+public class NonDominatedSortingBenchmark {
+
+    private static final int[] POPULATION_SIZES = { 50, 100, 200, 500, 1000 };
+
+    private static final int[] NUMBERS_OF_GOALS = { 2, 5, 20, 100 };
+
+    public static void main(String[] args) {
+        int repetitions = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        Randomness.setSeed(42);
+
+        // The first round warms up the JIT
+        run(repetitions, false);
+        System.out.println("population;goals;fronts;fast_ms;efficient_ms;speedup");
+        run(repetitions, true);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void run(int repetitions, boolean print) {
+        for (int populationSize : POPULATION_SIZES) {
+            for (int numGoals : NUMBERS_OF_GOALS) {
+                Set<FitnessFunction> goals = new LinkedHashSet<>();
+                for (int i = 0; i < numGoals; i++) {
+                    goals.add(Mockito.mock(FitnessFunction.class));
+                }
+                List<TestChromosome> population = new ArrayList<>();
+                for (int i = 0; i < populationSize; i++) {
+                    TestChromosome test = new TestChromosome();
+                    for (FitnessFunction goal : goals) {
+                        test.setFitness(goal, Randomness.nextInt(20) / 2.0);
+                    }
+                    population.add(test);
+                }
+
+                long fast = time(new FastNonDominatedSorting(), population, goals, repetitions);
+                EfficientNonDominatedSorting efficient = new EfficientNonDominatedSorting();
+                long time = time(efficient, population, goals, repetitions);
+                if (print) {
+                    System.out.println(populationSize + ";" + numGoals + ";" + efficient.getNumberOfSubfronts() + ";"
+                            + fast / 1000000.0 + ";" + time / 1000000.0 + ";" + String.format("%.2f", (double) fast / time));
+                }
+            }
+        }
+    }
+
+    /**
+     * Average time of ranking the population, in nanoseconds
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static long time(RankingFunction ranking, List<TestChromosome> population, Set<FitnessFunction> goals,
+            int repetitions) {
+        long start = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            ranking.computeRankingAssignment(population, goals);
+        }
+        return (System.nanoTime() - start) / repetitions;
+    }
+}
@@ -77,6 +77,15 @@ public class LoopCounter {
         return index;
     }
 
+    /**
+     * The index that the next call to {@link #getNewIndex()} will return
+     *
+     * @return the next index for a new loop
+     */
+    public int getNextIndex(){
+        return counters.size();
+    }
+
 
     /**
      * This is added directly in the instrumented CUT after each loop statement
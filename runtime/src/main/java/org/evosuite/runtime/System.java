@@ -236,6 +236,44 @@ public class System {
 		identityHashCode(o);
 	}
 
+	/**
+	 * Number of objects that were given an identity hash code, which are
+	 * numbered in the order they got it
+	 * 
+	 * @return a int.
+	 */
+	public static int getNumberOfIdentityHashCodes() {
+		synchronized (hashKeys) {
+			return hashKeys.size();
+		}
+	}
+
+	/**
+	 * The identity hash codes given so far, by the real identity hash code of
+	 * the object
+	 * 
+	 * @return a copy of the codes
+	 */
+	public static Map<Integer, Integer> getIdentityHashCodes() {
+		synchronized (hashKeys) {
+			return new HashMap<Integer, Integer>(hashKeys);
+		}
+	}
+
+	/**
+	 * Give objects the identity hash codes they had before the runtime was
+	 * reset, e.g. when an execution is resumed with objects of an earlier one
+	 * 
+	 * @param codes
+	 *            the codes by the real identity hash code of the object
+	 */
+	public static void restoreIdentityHashCodes(Map<Integer, Integer> codes) {
+		synchronized (hashKeys) {
+			hashKeys.clear();
+			hashKeys.putAll(codes);
+		}
+	}
+
 	public static int identityHashCode(Object o) {
 		if(o == null)
 			return 0;
@@ -37,7 +37,10 @@ public class MockPreferences implements StaticReplacementMock {
 
     private static PreferencesImpl systemRoot = new PreferencesImpl(null, "");
 
+    private static boolean wasAccessed = false;
+
     public static void resetPreferences() {
+        wasAccessed = false;
         try {
             userRoot.removeNodeSpi();
             systemRoot.removeNodeSpi();
@@ -47,13 +50,22 @@ public class MockPreferences implements StaticReplacementMock {
     }
 
     public static Preferences userRoot() {
+        wasAccessed = true;
         return userRoot;
     }
 
     public static Preferences systemRoot() {
+        wasAccessed = true;
         return systemRoot;
     }
 
+    /**
+     * @return whether the preferences were accessed since the last reset
+     */
+    public static boolean wasAccessed() {
+        return wasAccessed;
+    }
+
     public static Preferences systemNodeForPackage(Class<?> c) {
         return systemRoot().node(nodeName(c));
     }